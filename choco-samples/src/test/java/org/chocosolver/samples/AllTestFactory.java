@@ -65,6 +65,10 @@ public class AllTestFactory {
 
     Environments[] envFact = new Environments[]{
             Environments.TRAIL,
+            Environments.UNIFIED_TRAIL,
+            Environments.OFFHEAP_TRAIL,
+            Environments.CHECKPOINT_TRAIL,
+            Environments.SYNCHRONIZED_TRAIL,
             Environments.COPY
     };
 
@@ -39,17 +39,24 @@ import org.chocosolver.memory.structure.S64BitSet;
 public abstract class AbstractEnvironment implements IEnvironment {
 
     protected enum Type {
-        FLAT, CHUNK, UNSAFE
+        FLAT, CHUNK, UNSAFE, UNIFIED, OFFHEAP
     }
 
     protected final Type type;
 
     protected int currentWorld = 0;
 
+    protected int peakWorld = 0;
+
     private static final int SIZE = 128;
 
     private ICondition condition = ICondition.FALSE;
 
+    /**
+     * Bytes reserved to restore former states by the data structures logging their own history
+     */
+    private long reservedBytes;
+
     /**
      * Shared BitSet
      */
@@ -63,6 +70,11 @@ public abstract class AbstractEnvironment implements IEnvironment {
         return currentWorld;
     }
 
+    @Override
+    public final int getPeakWorldIndex() {
+        return peakWorld;
+    }
+
     /**
      * Factory pattern: new IStateBitSet objects are created by the environment
      *
@@ -101,13 +113,30 @@ public abstract class AbstractEnvironment implements IEnvironment {
      * @return a shared bipartite set
      */
     @Override
-    public final BasicIndexedBipartiteSet getSharedBipartiteSetForBooleanVars() {
+    public BasicIndexedBipartiteSet getSharedBipartiteSetForBooleanVars() {
         if (booleanSet == null) {
             createSharedBipartiteSet(SIZE);
         }
         return booleanSet;
     }
 
+    @Override
+    public void addMemoryFootprint(long bytes) {
+        reservedBytes += bytes;
+    }
+
+    /**
+     * @return the number of bytes declared with {@link #addMemoryFootprint(long)}
+     */
+    protected long getReservedMemory() {
+        return reservedBytes;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     @Override
     public boolean fakeHistoryNeeded() {
         return condition.satisfied();
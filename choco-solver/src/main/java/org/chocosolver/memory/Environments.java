@@ -29,7 +29,11 @@
 package org.chocosolver.memory;
 
 import org.chocosolver.memory.copy.EnvironmentCopying;
+import org.chocosolver.memory.trailing.EnvironmentCheckpointTrailing;
+import org.chocosolver.memory.trailing.EnvironmentOffHeapTrailing;
+import org.chocosolver.memory.trailing.EnvironmentSynchronizedTrailing;
 import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.memory.trailing.EnvironmentUnifiedTrailing;
 
 /**
  * <br/>
@@ -46,6 +50,34 @@ public enum Environments {
                     new EnvironmentTrailing();
         }
     },
+    UNIFIED_TRAIL() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentUnifiedTrailing();
+        }
+    },
+    OFFHEAP_TRAIL() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentOffHeapTrailing();
+        }
+    },
+    CHECKPOINT_TRAIL() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentCheckpointTrailing();
+        }
+    },
+    SYNCHRONIZED_TRAIL() {
+        @Override
+        public IEnvironment make() {
+            return
+                    new EnvironmentSynchronizedTrailing();
+        }
+    },
     COPY() {
         @Override
         public IEnvironment make() {
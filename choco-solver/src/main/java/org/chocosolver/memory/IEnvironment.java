@@ -32,6 +32,7 @@ import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
 import org.chocosolver.memory.structure.Operation;
 
 import java.io.Serializable;
+import java.util.Map;
 
 
 public interface IEnvironment extends Serializable {
@@ -69,6 +70,62 @@ public interface IEnvironment extends Serializable {
      */
     void worldCommit();
 
+    /**
+     * Returns the greatest world index reached so far.
+     *
+     * @return peak world index
+     */
+    int getPeakWorldIndex();
+
+    /**
+     * Returns the number of entries currently stored to restore former states (0 for environments without trail).
+     *
+     * @return the trail size
+     */
+    long getTrailSize();
+
+    /**
+     * Returns an estimation of the number of bytes reserved to restore former states:
+     * the trails, if any, and the logs declared with {@link #addMemoryFootprint(long)}.
+     *
+     * @return the memory footprint of the history, in bytes
+     */
+    long getMemoryFootprint();
+
+    /**
+     * Returns, for each trail created so far, an estimation of the number of bytes it reserves
+     * (empty for environments without trail).
+     * The memory declared with {@link #addMemoryFootprint(long)} is not included.
+     *
+     * @return a map from trail class names to memory footprints, in bytes
+     */
+    Map<String, Long> getMemoryFootprintPerTrail();
+
+    /**
+     * Declares <code>bytes</code> more bytes reserved to restore former states, outside of the trails.
+     * To be called by the data structures which log their own history and only save an {@link Operation}
+     * per world (see {@link #save(Operation)}), so that they are accounted for in {@link #getMemoryFootprint()}.
+     *
+     * @param bytes number of bytes newly reserved
+     */
+    void addMemoryFootprint(long bytes);
+
+    /**
+     * Indicates whether or not backtrackable objects of this environment can be modified concurrently,
+     * as long as each of them is modified by a single thread.
+     * Worlds must still be pushed and popped by a single thread.
+     *
+     * @return true if this supports concurrent modifications
+     */
+    boolean isThreadSafe();
+
+    /**
+     * Creates a new environment of the same kind as this one, with the same settings, in world 0 and without data.
+     *
+     * @return a new environment
+     */
+    IEnvironment duplicate();
+
     /**
      * Force to build fake history when a stored object on a particular condition.
      * The default condition is {@link ICondition#FALSE}.
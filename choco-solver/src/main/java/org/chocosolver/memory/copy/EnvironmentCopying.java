@@ -32,6 +32,9 @@ import org.chocosolver.memory.*;
 import org.chocosolver.memory.copy.store.*;
 import org.chocosolver.memory.structure.Operation;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class EnvironmentCopying extends AbstractEnvironment {
 
     private IStoredBoolCopy boolCopy;
@@ -53,6 +56,11 @@ public class EnvironmentCopying extends AbstractEnvironment {
         copySize = 0;
     }
 
+    @Override
+    public IEnvironment duplicate() {
+        return new EnvironmentCopying();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -63,6 +71,9 @@ public class EnvironmentCopying extends AbstractEnvironment {
             copies[i].worldPush(wi);
         }
         currentWorld++;
+        if (currentWorld > peakWorld) {
+            peakWorld = currentWorld;
+        }
     }
 
     /**
@@ -100,6 +111,30 @@ public class EnvironmentCopying extends AbstractEnvironment {
         throw (new UnsupportedOperationException());
     }
 
+    /**
+     * Copies are not accounted for.
+     */
+    @Override
+    public long getTrailSize() {
+        return 0;
+    }
+
+    /**
+     * Copies are not accounted for, only the memory reserved by data structures logging their own history.
+     */
+    @Override
+    public long getMemoryFootprint() {
+        return getReservedMemory();
+    }
+
+    /**
+     * There is no trail.
+     */
+    @Override
+    public Map<String, Long> getMemoryFootprintPerTrail() {
+        return Collections.emptyMap();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -48,4 +48,14 @@ public abstract class Operation implements Serializable {
     }
 
     public abstract void undo();
+
+    /**
+     * Called when the world in which this operation was saved is committed, that is merged with the world
+     * <code>worldIndex</code>: from now on, the operation will be undone on backtrack from <code>worldIndex</code>.
+     * Does nothing by default.
+     *
+     * @param worldIndex the world the operation now belongs to
+     */
+    public void commit(int worldIndex) {
+    }
 }
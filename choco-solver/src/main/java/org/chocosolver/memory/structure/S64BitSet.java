@@ -31,12 +31,24 @@ package org.chocosolver.memory.structure;
 import org.chocosolver.memory.IEnvironment;
 import org.chocosolver.memory.IStateBitSet;
 import org.chocosolver.memory.IStateInt;
-import org.chocosolver.memory.IStateLong;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.BitSet;
 
-
+/**
+ * A backtrackable bit set.
+ * <p>
+ * Words are primitive longs, each of them associated with the index of the world where it was last saved.
+ * On modification, a word is saved at most once per world, in a local log of (index, value, stamp) records.
+ * The first time the words are modified in a world, a single operation is saved in the environment,
+ * which, on backtrack, restores all the words saved in that world.
+ * Thus, a bulk operation, like {@link #clear(int, int)} or {@link #and(long[])}, only saves the words it actually
+ * changes and the environment only records one entry per world, whatever the number of words modified.
+ * <p>
+ * On {@link IEnvironment#worldCommit()}, the words saved in the committed world are restamped with the previous world,
+ * their log entries being restored on backtrack from it.
+ */
 public class S64BitSet implements IStateBitSet {
 
     private final static boolean CHECK = false;
@@ -47,6 +59,11 @@ public class S64BitSet implements IStateBitSet {
     * The choice of word size is determined purely by performance concerns.
     */
     private final static int ADDRESS_BITS_PER_WORD = 6;
+
+    /*
+    * Size of an entry of the log: index, value and stamp of a word.
+    */
+    private final static int LOG_ENTRY_BYTES = 4 + 8 + 4;
     protected final static int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
     private final static int BIT_INDEX_MASK = BITS_PER_WORD - 1;
 
@@ -61,7 +78,46 @@ public class S64BitSet implements IStateBitSet {
     /**
      * The internal field corresponding to the serialField "bits".
      */
-    protected IStateLong[] words;
+    protected long[] words;
+
+    /**
+     * For each word, the world where it was last saved.
+     */
+    private int[] stamps;
+
+    /**
+     * Log of the former states of the words: index, value and stamp.
+     */
+    private int[] logIndices;
+    private long[] logValues;
+    private int[] logStamps;
+    private int logSize;
+
+    /**
+     * For each world in which words were saved: size of the log and last world before entering it.
+     */
+    private int[] marks;
+    private int nbMarks;
+
+    /**
+     * Last world in which words were saved.
+     */
+    private int lastWorld;
+
+    /**
+     * Restores the words saved in the last world, saved in the environment once per world.
+     */
+    private final Operation undo = new Operation() {
+        @Override
+        public void undo() {
+            restore();
+        }
+
+        @Override
+        public void commit(int worldIndex) {
+            S64BitSet.this.commit(worldIndex);
+        }
+    };
 
     /**
      * The number of words in the logical size of this BitSet.
@@ -82,9 +138,9 @@ public class S64BitSet implements IStateBitSet {
      * Every public method must preserve these invariants.
      */
     private void checkInvariants() {
-        assert (wordsInUse.get() == 0 || words[wordsInUse.get() - 1].get() != 0);
+        assert (wordsInUse.get() == 0 || words[wordsInUse.get() - 1] != 0);
         assert (wordsInUse.get() >= 0 && wordsInUse.get() <= words.length);
-        assert (wordsInUse.get() == words.length || words[wordsInUse.get()].get() == 0);
+        assert (wordsInUse.get() == words.length || words[wordsInUse.get()] == 0);
     }
 
     /**
@@ -97,7 +153,7 @@ public class S64BitSet implements IStateBitSet {
         int i;
         int n = wordsInUse.get();
         for (i = n - 1; i >= 0; i--)
-            if (words[i].get() != 0)
+            if (words[i] != 0)
                 break;
         if (i + 1 < n) {
             wordsInUse.set(i + 1); // The new logical size
@@ -136,11 +192,94 @@ public class S64BitSet implements IStateBitSet {
     }
 
     private void initWords(int nbits) {
-        words = new IStateLong[wordIndex(nbits - 1) + 1];
-        for (int i = 0; i < words.length; i++) words[i] = this.environment.makeLong(0);
+        words = new long[wordIndex(nbits - 1) + 1];
+        stamps = new int[words.length];
+        Arrays.fill(stamps, initialStamp());
+        logIndices = new int[8];
+        logValues = new long[8];
+        logStamps = new int[8];
+        marks = new int[8];
+        lastWorld = -1;
+        environment.addMemoryFootprint(8L * LOG_ENTRY_BYTES + 8L * 4);
         if (CHECK) checkInvariants();
     }
 
+    /**
+     * As for any backtrackable data, words are stamped with their creation world,
+     * unless a fake history is needed: then they are saved on their first modification,
+     * so that they are back to 0 when backtracking before their creation.
+     */
+    private int initialStamp() {
+        return environment.fakeHistoryNeeded() ? -1 : environment.getWorldIndex();
+    }
+
+    /**
+     * Sets the word at <code>wordIndex</code> to <code>value</code>, saving its former state if needed.
+     *
+     * @param wordIndex index of the word
+     * @param value     new value of the word
+     */
+    protected final void setWord(int wordIndex, long value) {
+        if (words[wordIndex] != value) {
+            int wi = environment.getWorldIndex();
+            if (stamps[wordIndex] < wi) {
+                save(wordIndex, wi);
+            }
+            words[wordIndex] = value;
+        }
+    }
+
+    private void save(int wordIndex, int wi) {
+        if (lastWorld != wi) {
+            if (nbMarks == marks.length) {
+                environment.addMemoryFootprint(nbMarks * 4L);
+                marks = Arrays.copyOf(marks, nbMarks * 2);
+            }
+            marks[nbMarks++] = logSize;
+            marks[nbMarks++] = lastWorld;
+            lastWorld = wi;
+            environment.save(undo);
+        }
+        if (logSize == logIndices.length) {
+            int n = logSize * 3 / 2 + 1;
+            environment.addMemoryFootprint((long) (n - logSize) * LOG_ENTRY_BYTES);
+            logIndices = Arrays.copyOf(logIndices, n);
+            logValues = Arrays.copyOf(logValues, n);
+            logStamps = Arrays.copyOf(logStamps, n);
+        }
+        logIndices[logSize] = wordIndex;
+        logValues[logSize] = words[wordIndex];
+        logStamps[logSize] = stamps[wordIndex];
+        logSize++;
+        stamps[wordIndex] = wi;
+    }
+
+    /**
+     * The worlds above <code>worldIndex</code> have been merged with it: the words they saved must not be saved again
+     * in <code>worldIndex</code>, but must be on the next push. The log itself is kept as is.
+     */
+    private void commit(int worldIndex) {
+        if (lastWorld > worldIndex) {
+            lastWorld = worldIndex;
+            for (int i = 0; i < stamps.length; i++) {
+                if (stamps[i] > worldIndex) {
+                    stamps[i] = worldIndex;
+                }
+            }
+        }
+    }
+
+    private void restore() {
+        lastWorld = marks[--nbMarks];
+        int from = marks[--nbMarks];
+        while (logSize > from) {
+            logSize--;
+            int i = logIndices[logSize];
+            words[i] = logValues[logSize];
+            stamps[i] = logStamps[logSize];
+        }
+    }
+
 
     /**
      * Ensures that the BitSet can hold enough words.
@@ -152,10 +291,9 @@ public class S64BitSet implements IStateBitSet {
             // Allocate larger of doubled size or required size
             int request = Math.max(2 * words.length, wordsRequired);
             int oldSize = words.length;
-            words = copyOf(words, request);
-            for (int i = oldSize; i < request; i++) {
-                words[i] = environment.makeLong(0);
-            }
+            words = Arrays.copyOf(words, request);
+            stamps = Arrays.copyOf(stamps, request);
+            Arrays.fill(stamps, oldSize, request, initialStamp());
         }
     }
 
@@ -226,9 +364,9 @@ public class S64BitSet implements IStateBitSet {
         int wordIndex = wordIndex(bitIndex);
         expandTo(wordIndex);
 
-        long tmp = words[wordIndex].get();
+        long tmp = words[wordIndex];
         tmp ^= (1L << bitIndex);
-        words[wordIndex].set(tmp);
+        setWord(wordIndex, tmp);
 
         recalculateWordsInUse();
         if (CHECK) checkInvariants();
@@ -260,20 +398,20 @@ public class S64BitSet implements IStateBitSet {
         long lastWordMask = WORD_MASK >>> -toIndex;
         if (startWordIndex == endWordIndex) {
             // Case 1: One word
-            long tmp = words[startWordIndex].get();
+            long tmp = words[startWordIndex];
             tmp ^= (firstWordMask & lastWordMask);
-            words[startWordIndex].set(tmp);
+            setWord(startWordIndex, tmp);
         } else {
             // Case 2: Multiple words
             // Handle first word
-            words[startWordIndex].set(words[startWordIndex].get() ^ firstWordMask);
+            setWord(startWordIndex, words[startWordIndex] ^ firstWordMask);
 
             // Handle intermediate words, if any
             for (int i = startWordIndex + 1; i < endWordIndex; i++)
-                words[i].set(~words[i].get());
+                setWord(i, ~words[i]);
 
             // Handle last word
-            words[endWordIndex].set(words[endWordIndex].get() ^ lastWordMask);
+            setWord(endWordIndex, words[endWordIndex] ^ lastWordMask);
         }
 
         recalculateWordsInUse();
@@ -294,7 +432,7 @@ public class S64BitSet implements IStateBitSet {
         int wordIndex = wordIndex(bitIndex);
         expandTo(wordIndex);
 
-        words[wordIndex].set(words[wordIndex].get() | (1L << bitIndex)); // Restores invariants
+        setWord(wordIndex, words[wordIndex] | (1L << bitIndex)); // Restores invariants
 
         if (CHECK) checkInvariants();
     }
@@ -340,18 +478,18 @@ public class S64BitSet implements IStateBitSet {
         long lastWordMask = WORD_MASK >>> -toIndex;
         if (startWordIndex == endWordIndex) {
             // Case 1: One word
-            words[startWordIndex].set(words[startWordIndex].get() | (firstWordMask & lastWordMask));
+            setWord(startWordIndex, words[startWordIndex] | (firstWordMask & lastWordMask));
         } else {
             // Case 2: Multiple words
             // Handle first word
-            words[startWordIndex].set(words[startWordIndex].get() | firstWordMask);
+            setWord(startWordIndex, words[startWordIndex] | firstWordMask);
 
             // Handle intermediate words, if any
             for (int i = startWordIndex + 1; i < endWordIndex; i++)
-                words[i].set(WORD_MASK);
+                setWord(i, WORD_MASK);
 
             // Handle last word (restores invariants)
-            words[endWordIndex].set(words[endWordIndex].get() | lastWordMask);
+            setWord(endWordIndex, words[endWordIndex] | lastWordMask);
         }
 
         if (CHECK) checkInvariants();
@@ -392,7 +530,7 @@ public class S64BitSet implements IStateBitSet {
         if (wordIndex >= n)
             return;
 
-        words[wordIndex].set(words[wordIndex].get() & ~(1L << bitIndex));
+        setWord(wordIndex, words[wordIndex] & ~(1L << bitIndex));
 
         //if(wordIndex == n-1)
         recalculateWordsInUse();
@@ -431,18 +569,18 @@ public class S64BitSet implements IStateBitSet {
         long lastWordMask = WORD_MASK >>> -toIndex;
         if (startWordIndex == endWordIndex) {
             // Case 1: One word
-            words[startWordIndex].set(words[startWordIndex].get() & ~(firstWordMask & lastWordMask));
+            setWord(startWordIndex, words[startWordIndex] & ~(firstWordMask & lastWordMask));
         } else {
             // Case 2: Multiple words
             // Handle first word
-            words[startWordIndex].set(words[startWordIndex].get() & ~firstWordMask);
+            setWord(startWordIndex, words[startWordIndex] & ~firstWordMask);
 
             // Handle intermediate words, if any
             for (int i = startWordIndex + 1; i < endWordIndex; i++)
-                words[i].set(0);
+                setWord(i, 0);
 
             // Handle last word
-            words[endWordIndex].set(words[endWordIndex].get() & ~lastWordMask);
+            setWord(endWordIndex, words[endWordIndex] & ~lastWordMask);
         }
 
         //if(endWordIndex < wiu)
@@ -459,8 +597,8 @@ public class S64BitSet implements IStateBitSet {
         /*while (wordsInUse.get() > 0)
             wordsInUse.set(wordsInUse.get() - 1);
         words[wordsInUse.get()].set(0);      */
-        for (IStateLong word : words) {
-            word.set(0);
+        for (int i = wordsInUse.get() - 1; i >= 0; i--) {
+            setWord(i, 0);
         }
         wordsInUse.set(0);
         if (CHECK) checkInvariants();
@@ -484,7 +622,7 @@ public class S64BitSet implements IStateBitSet {
 
         int wordIndex = bitIndex >> ADDRESS_BITS_PER_WORD; //wordIndex(bitIndex);
         return (wordIndex < wordsInUse.get())
-                && ((words[wordIndex].get() & (1L << bitIndex)) != 0);
+                && ((words[wordIndex] & (1L << bitIndex)) != 0);
     }
 
     /**
@@ -521,20 +659,20 @@ public class S64BitSet implements IStateBitSet {
 
         // Process all words but the last word
         for (int i = 0; i < targetWords - 1; i++, sourceIndex++)
-            result.words[i].set(
-                    wordAligned ? words[sourceIndex].get() :
-                            (words[sourceIndex].get() >>> fromIndex) |
-                                    (words[sourceIndex + 1].get() << -fromIndex));
+            result.setWord(i,
+                    wordAligned ? words[sourceIndex] :
+                            (words[sourceIndex] >>> fromIndex) |
+                                    (words[sourceIndex + 1] << -fromIndex));
 
         // Process the last word
         long lastWordMask = WORD_MASK >>> -toIndex;
-        result.words[targetWords - 1].set(
+        result.setWord(targetWords - 1,
                 ((toIndex - 1) & BIT_INDEX_MASK) < (fromIndex & BIT_INDEX_MASK)
                         ? /* straddles source words */
-                        ((words[sourceIndex].get() >>> fromIndex) |
-                                (words[sourceIndex + 1].get() & lastWordMask) << -fromIndex)
+                        ((words[sourceIndex] >>> fromIndex) |
+                                (words[sourceIndex + 1] & lastWordMask) << -fromIndex)
                         :
-                        ((words[sourceIndex].get() & lastWordMask) >>> fromIndex));
+                        ((words[sourceIndex] & lastWordMask) >>> fromIndex));
 
         // Set wordsInUse correctly
         result.wordsInUse.set(targetWords);
@@ -573,14 +711,14 @@ public class S64BitSet implements IStateBitSet {
         if (u >= wiu)
             return -1;
 
-        long word = words[u].get() & (WORD_MASK << fromIndex);
+        long word = words[u] & (WORD_MASK << fromIndex);
 
         while (true) {
             if (word != 0)
                 return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
             if (++u == wiu)
                 return -1;
-            word = words[u].get();
+            word = words[u];
         }
     }
 
@@ -605,14 +743,14 @@ public class S64BitSet implements IStateBitSet {
         if (u >= wiu)
             return fromIndex;
 
-        long word = ~words[u].get() & (WORD_MASK << fromIndex);
+        long word = ~words[u] & (WORD_MASK << fromIndex);
 
         while (true) {
             if (word != 0)
                 return (u * BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
             if (++u == wiu)
                 return wiu * BITS_PER_WORD;
-            word = ~words[u].get();
+            word = ~words[u];
         }
     }
 
@@ -646,14 +784,14 @@ public class S64BitSet implements IStateBitSet {
         if (u >= wordsInUse.get())
             return length() - 1;
 
-        long word = words[u].get() & (WORD_MASK >>> -(fromIndex + 1));
+        long word = words[u] & (WORD_MASK >>> -(fromIndex + 1));
 
         while (true) {
             if (word != 0)
                 return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
             if (u-- == 0)
                 return -1;
-            word = words[u].get();
+            word = words[u];
         }
     }
 
@@ -679,14 +817,14 @@ public class S64BitSet implements IStateBitSet {
         if (u >= wordsInUse.get())
             return fromIndex;
 
-        long word = ~words[u].get() & (WORD_MASK >>> -(fromIndex + 1));
+        long word = ~words[u] & (WORD_MASK >>> -(fromIndex + 1));
 
         while (true) {
             if (word != 0)
                 return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
             if (u-- == 0)
                 return -1;
-            word = ~words[u].get();
+            word = ~words[u];
         }
     }
 
@@ -708,7 +846,7 @@ public class S64BitSet implements IStateBitSet {
             return 0;
 
         return BITS_PER_WORD * (wiu - 1) +
-                (BITS_PER_WORD - Long.numberOfLeadingZeros(words[wiu - 1].get()));
+                (BITS_PER_WORD - Long.numberOfLeadingZeros(words[wiu - 1]));
     }
 
     /**
@@ -734,7 +872,7 @@ public class S64BitSet implements IStateBitSet {
      */
     public boolean intersects(S64BitSet set) {
         for (int i = Math.min(wordsInUse.get(), set.wordsInUse.get()) - 1; i >= 0; i--)
-            if ((words[i].get() & set.words[i].get()) != 0)
+            if ((words[i] & set.words[i]) != 0)
                 return true;
         return false;
     }
@@ -750,7 +888,7 @@ public class S64BitSet implements IStateBitSet {
     public int cardinality() {
         int sum = 0;
         for (int i = wordsInUse.get() - 1; i >= 0; i--)
-            sum += Long.bitCount(words[i].get());
+            sum += Long.bitCount(words[i]);
         return sum;
     }
 
@@ -770,12 +908,12 @@ public class S64BitSet implements IStateBitSet {
 
         while (wordsInUse.get() > set.wordsInUse.get()) {
             wordsInUse.add(-1);
-            words[wordsInUse.get()].set(0);
+            setWord(wordsInUse.get(), 0);
         }
 
         // Perform logical AND on words in common
         for (int i = 0; i < wordsInUse.get(); i++)
-            words[i].set(words[i].get() & set.words[i].get());
+            setWord(i, words[i] & set.words[i]);
 
         recalculateWordsInUse();
         if (CHECK) checkInvariants();
@@ -804,13 +942,11 @@ public class S64BitSet implements IStateBitSet {
 
         // Perform logical OR on words in common
         for (int i = 0; i < wordsInCommon; i++)
-            words[i].set(words[i].get() | set.words[i].get());
+            setWord(i, words[i] | set.words[i]);
 
         // Copy any remaining words
-        if (wordsInCommon < set.wordsInUse.get())
-            System.arraycopy(set.words, wordsInCommon,
-                    words, wordsInCommon,
-                    wordsInUse.get() - wordsInCommon);
+        for (int i = wordsInCommon; i < wordsInUse.get(); i++)
+            setWord(i, set.words[i]);
 
         // recalculateWordsInUse() is unnecessary
         if (CHECK) checkInvariants();
@@ -841,13 +977,11 @@ public class S64BitSet implements IStateBitSet {
 
         // Perform logical XOR on words in common
         for (int i = 0; i < wordsInCommon; i++)
-            words[i].set(words[i].get() ^ set.words[i].get());
+            setWord(i, words[i] ^ set.words[i]);
 
         // Copy any remaining words
-        if (wordsInCommon < set.wordsInUse.get())
-            System.arraycopy(set.words, wordsInCommon,
-                    words, wordsInCommon,
-                    set.wordsInUse.get() - wordsInCommon);
+        for (int i = wordsInCommon; i < set.wordsInUse.get(); i++)
+            setWord(i, set.words[i]);
 
         recalculateWordsInUse();
         if (CHECK) checkInvariants();
@@ -865,7 +999,58 @@ public class S64BitSet implements IStateBitSet {
         S64BitSet set = (S64BitSet) setI;
         // Perform logical (a & !b) on words in common
         for (int i = Math.min(wordsInUse.get(), set.wordsInUse.get()) - 1; i >= 0; i--)
-            words[i].set(words[i].get() & ~set.words[i].get());
+            setWord(i, words[i] & ~set.words[i]);
+
+        recalculateWordsInUse();
+        if (CHECK) checkInvariants();
+    }
+
+    /**
+     * Performs a logical <b>AND</b> of this bit set with the words of <code>mask</code>:
+     * bits beyond the mask are cleared.
+     * Only the modified words are saved.
+     *
+     * @param mask words of a bit set
+     */
+    public void and(long[] mask) {
+        int wiu = wordsInUse.get();
+        for (int i = Math.min(wiu, mask.length) - 1; i >= 0; i--)
+            setWord(i, words[i] & mask[i]);
+        for (int i = mask.length; i < wiu; i++)
+            setWord(i, 0);
+
+        recalculateWordsInUse();
+        if (CHECK) checkInvariants();
+    }
+
+    /**
+     * Performs a logical <b>OR</b> of this bit set with the words of <code>mask</code>.
+     * Only the modified words are saved.
+     *
+     * @param mask words of a bit set
+     */
+    public void or(long[] mask) {
+        int n = mask.length;
+        while (n > 0 && mask[n - 1] == 0) n--;
+        if (wordsInUse.get() < n) {
+            ensureCapacity(n);
+            wordsInUse.set(n);
+        }
+        for (int i = 0; i < n; i++)
+            setWord(i, words[i] | mask[i]);
+
+        if (CHECK) checkInvariants();
+    }
+
+    /**
+     * Clears all of the bits in this bit set whose corresponding bit is set in the words of <code>mask</code>.
+     * Only the modified words are saved.
+     *
+     * @param mask words of a bit set
+     */
+    public void andNot(long[] mask) {
+        for (int i = Math.min(wordsInUse.get(), mask.length) - 1; i >= 0; i--)
+            setWord(i, words[i] & ~mask[i]);
 
         recalculateWordsInUse();
         if (CHECK) checkInvariants();
@@ -884,7 +1069,7 @@ public class S64BitSet implements IStateBitSet {
     public boolean intersects(IStateBitSet setI) {
         S64BitSet set = (S64BitSet) setI;
         for (int i = Math.min(wordsInUse.get(), set.wordsInUse.get()) - 1; i >= 0; i--)
-            if ((words[i].get() & set.words[i].get()) != 0)
+            if ((words[i] & set.words[i]) != 0)
                 return true;
         return false;
     }
@@ -892,7 +1077,7 @@ public class S64BitSet implements IStateBitSet {
     public int hashCode() {
         long h = 1234;
         for (int i = wordsInUse.get(); --i >= 0; )
-            h ^= words[i].get() * (i + 1);
+            h ^= words[i] * (i + 1);
 
         return (int) ((h >> 32) ^ h);
     }
@@ -919,7 +1104,7 @@ public class S64BitSet implements IStateBitSet {
         if (CHECK) checkInvariants();
         if (CHECK) set.checkInvariants();
 
-        if (wordsInUse != set.wordsInUse)
+        if (wordsInUse.get() != set.wordsInUse.get())
             return false;
 
         // Check words in use by both BitSets
@@ -936,7 +1121,7 @@ public class S64BitSet implements IStateBitSet {
         result.wordsInUse.set(wordsInUse.get());
         //result.sizeIsSticky.set(sizeIsSticky.get());
         for (int i = 0; i < wordsInUse.get(); i++) {
-            result.words[i].set(words[i].get());
+            result.setWord(i, words[i]);
         }
         if (CHECK) result.checkInvariants();
         return result;
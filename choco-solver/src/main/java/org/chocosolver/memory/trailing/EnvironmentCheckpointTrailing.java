@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.IStateBool;
+import org.chocosolver.memory.IStateDouble;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.memory.IStateLong;
+
+import java.util.Arrays;
+
+/**
+ * A hybrid of trailing and copying.
+ * <p>
+ * Updates are trailed, as in {@link EnvironmentTrailing}, and, every <code>period</code> worlds,
+ * a compact snapshot of all primitive backtrackable data (int, boolean, long and double)
+ * is taken on push.
+ * Then, on {@link #worldPopUntil(int)}, that is on restarts or when restoring the root node,
+ * the primitive data are restored from the nearest snapshot instead of unwinding the trails world per world;
+ * the trails from the snapshot on are simply forgotten.
+ * The remaining worlds, and the other kinds of data (operations, vectors), are undone from the trails.
+ * <p>
+ * A snapshot is only used if no primitive data has been created since it was taken.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class EnvironmentCheckpointTrailing extends EnvironmentTrailing {
+
+    /**
+     * Default number of worlds between two snapshots.
+     */
+    public static final int DEFAULT_PERIOD = 32;
+
+    /**
+     * Number of worlds between two snapshots.
+     */
+    private final int period;
+
+    // all primitive data created by this
+    private StoredInt[] ints = new StoredInt[16];
+    private StoredBool[] bools = new StoredBool[16];
+    private StoredLong[] longs = new StoredLong[16];
+    private StoredDouble[] doubles = new StoredDouble[16];
+    private int nInts, nBools, nLongs, nDoubles;
+
+    /**
+     * Snapshots, the i^th one is taken on push of world <code>(i + 1) * period</code>.
+     * It is valid as long as the current world is greater than or equal to that world.
+     */
+    private Snapshot[] snapshots = new Snapshot[8];
+
+    /**
+     * Number of snapshots used to restore data.
+     */
+    private long nbRestores;
+
+    public EnvironmentCheckpointTrailing() {
+        this(DEFAULT_PERIOD);
+    }
+
+    /**
+     * Creates a hybrid environment which takes a snapshot of primitive data every <code>period</code> worlds.
+     *
+     * @param period number of worlds between two snapshots, must be positive
+     */
+    public EnvironmentCheckpointTrailing(int period) {
+        super(Type.FLAT);
+        if (period < 1) {
+            throw new IllegalArgumentException("The period must be positive");
+        }
+        this.period = period;
+    }
+
+    /**
+     * @return the number of worlds between two snapshots
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    @Override
+    public IEnvironment duplicate() {
+        return new EnvironmentCheckpointTrailing(period);
+    }
+
+    /**
+     * @return the number of times data has been restored from a snapshot
+     */
+    public long getRestoreCount() {
+        return nbRestores;
+    }
+
+    @Override
+    public void worldPush() {
+        super.worldPush();
+        if (currentWorld % period == 0) {
+            int s = currentWorld / period - 1;
+            if (s == snapshots.length) {
+                snapshots = Arrays.copyOf(snapshots, s * 3 / 2 + 1);
+            }
+            if (snapshots[s] == null) {
+                snapshots[s] = new Snapshot();
+            }
+            snapshots[s].take();
+        }
+    }
+
+    @Override
+    public void worldPopUntil(int w) {
+        // the nearest snapshot to restore the state on push of world w + 1
+        int c = ((w + period) / period) * period;
+        if (c <= currentWorld && snapshots[c / period - 1].covers()) {
+            while (currentWorld >= c) {
+                worldPopButPrimitives();
+            }
+            snapshots[c / period - 1].restore();
+            nbRestores++;
+        }
+        super.worldPopUntil(w);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The snapshots are accounted for too.
+     */
+    @Override
+    public long getMemoryFootprint() {
+        long bytes = super.getMemoryFootprint();
+        for (int s = 0; s < snapshots.length && snapshots[s] != null; s++) {
+            bytes += snapshots[s].values.length * 8L + snapshots[s].stamps.length * 4L;
+        }
+        return bytes;
+    }
+
+    @Override
+    public IStateInt makeInt(int initialValue) {
+        StoredInt v = (StoredInt) super.makeInt(initialValue);
+        if (nInts == ints.length) {
+            ints = Arrays.copyOf(ints, nInts * 3 / 2 + 1);
+        }
+        ints[nInts++] = v;
+        return v;
+    }
+
+    @Override
+    public IStateBool makeBool(boolean initialValue) {
+        StoredBool v = (StoredBool) super.makeBool(initialValue);
+        if (nBools == bools.length) {
+            bools = Arrays.copyOf(bools, nBools * 3 / 2 + 1);
+        }
+        bools[nBools++] = v;
+        return v;
+    }
+
+    @Override
+    public IStateLong makeLong(long init) {
+        StoredLong v = (StoredLong) super.makeLong(init);
+        if (nLongs == longs.length) {
+            longs = Arrays.copyOf(longs, nLongs * 3 / 2 + 1);
+        }
+        longs[nLongs++] = v;
+        return v;
+    }
+
+    @Override
+    public IStateDouble makeFloat(double initialValue) {
+        StoredDouble v = (StoredDouble) super.makeFloat(initialValue);
+        if (nDoubles == doubles.length) {
+            doubles = Arrays.copyOf(doubles, nDoubles * 3 / 2 + 1);
+        }
+        doubles[nDoubles++] = v;
+        return v;
+    }
+
+    /**
+     * Values and time stamps of all primitive data, in that order: ints, bools, longs then doubles.
+     */
+    private final class Snapshot {
+        int ni, nb, nl, nd;
+        long[] values = new long[0];
+        int[] stamps = new int[0];
+
+        void take() {
+            ni = nInts;
+            nb = nBools;
+            nl = nLongs;
+            nd = nDoubles;
+            int size = ni + nb + nl + nd;
+            if (values.length < size) {
+                values = new long[size * 3 / 2];
+                stamps = new int[size * 3 / 2];
+            }
+            int k = 0;
+            for (int i = 0; i < ni; i++, k++) {
+                values[k] = ints[i].get();
+                stamps[k] = ints[i].getTimeStamp();
+            }
+            for (int i = 0; i < nb; i++, k++) {
+                values[k] = bools[i].get() ? 1 : 0;
+                stamps[k] = bools[i].getTimeStamp();
+            }
+            for (int i = 0; i < nl; i++, k++) {
+                values[k] = longs[i].get();
+                stamps[k] = longs[i].getTimeStamp();
+            }
+            for (int i = 0; i < nd; i++, k++) {
+                values[k] = Double.doubleToRawLongBits(doubles[i].get());
+                stamps[k] = doubles[i].getTimeStamp();
+            }
+        }
+
+        boolean covers() {
+            return ni == nInts && nb == nBools && nl == nLongs && nd == nDoubles;
+        }
+
+        void restore() {
+            int k = 0;
+            for (int i = 0; i < ni; i++, k++) {
+                ints[i]._set((int) values[k], stamps[k]);
+            }
+            for (int i = 0; i < nb; i++, k++) {
+                bools[i]._set(values[k] != 0, stamps[k]);
+            }
+            for (int i = 0; i < nl; i++, k++) {
+                longs[i]._set(values[k], stamps[k]);
+            }
+            for (int i = 0; i < nd; i++, k++) {
+                doubles[i]._set(Double.longBitsToDouble(values[k]), stamps[k]);
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.structure.BasicIndexedBipartiteSet;
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.trail.*;
+
+/**
+ * A trailing environment which supports concurrent modifications of backtrackable objects,
+ * as long as each of them is modified by a single thread (see {@link #isThreadSafe()}).
+ * <br/>
+ * The trails are the ones of {@link EnvironmentTrailing}, except that saving a previous state
+ * is synchronized on the trail.
+ * Boolean variables do not share a bipartite set, each of them gets its own.
+ * Worlds must be pushed and popped by a single thread.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class EnvironmentSynchronizedTrailing extends EnvironmentTrailing {
+
+    private IStoredIntTrail sIntTrail;
+    private IStoredBoolTrail sBoolTrail;
+    private IStoredLongTrail sLongTrail;
+    private IStoredDoubleTrail sDoubleTrail;
+    private IOperationTrail sOperationTrail;
+    private IStoredIntVectorTrail sIntVectorTrail;
+    private IStoredDoubleVectorTrail sDoubleVectorTrail;
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+    @Override
+    public IEnvironment duplicate() {
+        return new EnvironmentSynchronizedTrailing();
+    }
+
+    @Override
+    public synchronized void addMemoryFootprint(long bytes) {
+        super.addMemoryFootprint(bytes);
+    }
+
+    /**
+     * The set is not shared, since swapping an object modifies the position of another one.
+     *
+     * @return a new bipartite set
+     */
+    @Override
+    public BasicIndexedBipartiteSet getSharedBipartiteSetForBooleanVars() {
+        return new BasicIndexedBipartiteSet(this, 1);
+    }
+
+    @Override
+    public synchronized IStoredIntTrail getIntTrail() {
+        if (sIntTrail == null) {
+            sIntTrail = new SyncIntTrail(super.getIntTrail());
+        }
+        return sIntTrail;
+    }
+
+    @Override
+    public synchronized IStoredBoolTrail getBoolTrail() {
+        if (sBoolTrail == null) {
+            sBoolTrail = new SyncBoolTrail(super.getBoolTrail());
+        }
+        return sBoolTrail;
+    }
+
+    @Override
+    public synchronized IStoredLongTrail getLongTrail() {
+        if (sLongTrail == null) {
+            sLongTrail = new SyncLongTrail(super.getLongTrail());
+        }
+        return sLongTrail;
+    }
+
+    @Override
+    public synchronized IStoredDoubleTrail getDoubleTrail() {
+        if (sDoubleTrail == null) {
+            sDoubleTrail = new SyncDoubleTrail(super.getDoubleTrail());
+        }
+        return sDoubleTrail;
+    }
+
+    @Override
+    public synchronized IOperationTrail getOperationTrail() {
+        if (sOperationTrail == null) {
+            sOperationTrail = new SyncOperationTrail(super.getOperationTrail());
+        }
+        return sOperationTrail;
+    }
+
+    @Override
+    public synchronized IStoredIntVectorTrail getIntVectorTrail() {
+        if (sIntVectorTrail == null) {
+            sIntVectorTrail = new SyncIntVectorTrail(super.getIntVectorTrail());
+        }
+        return sIntVectorTrail;
+    }
+
+    @Override
+    public synchronized IStoredDoubleVectorTrail getDoubleVectorTrail() {
+        if (sDoubleVectorTrail == null) {
+            sDoubleVectorTrail = new SyncDoubleVectorTrail(super.getDoubleVectorTrail());
+        }
+        return sDoubleVectorTrail;
+    }
+
+    /**
+     * Delegates to a trail, world management is not synchronized since it is done by a single thread.
+     */
+    private static abstract class SyncTrail<T extends ITrailStorage> implements ITrailStorage {
+
+        final T trail;
+
+        SyncTrail(T trail) {
+            this.trail = trail;
+        }
+
+        @Override
+        public void worldPush(int worldIndex) {
+            trail.worldPush(worldIndex);
+        }
+
+        @Override
+        public void worldPop(int worldIndex) {
+            trail.worldPop(worldIndex);
+        }
+
+        @Override
+        public void worldCommit(int worldIndex) {
+            trail.worldCommit(worldIndex);
+        }
+
+        @Override
+        public void resizeWorldCapacity(int newWorldCapacity) {
+            trail.resizeWorldCapacity(newWorldCapacity);
+        }
+
+        @Override
+        public int getSize() {
+            return trail.getSize();
+        }
+
+        @Override
+        public long getMemoryFootprint() {
+            return trail.getMemoryFootprint();
+        }
+    }
+
+    private static final class SyncIntTrail extends SyncTrail<IStoredIntTrail> implements IStoredIntTrail {
+
+        SyncIntTrail(IStoredIntTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredInt v, int oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(v, oldValue, oldStamp);
+            }
+        }
+
+        @Override
+        public void buildFakeHistory(StoredInt v, int initValue, int fromStamp) {
+            synchronized (trail) {
+                trail.buildFakeHistory(v, initValue, fromStamp);
+            }
+        }
+    }
+
+    private static final class SyncBoolTrail extends SyncTrail<IStoredBoolTrail> implements IStoredBoolTrail {
+
+        SyncBoolTrail(IStoredBoolTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredBool v, boolean oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(v, oldValue, oldStamp);
+            }
+        }
+
+        @Override
+        public void buildFakeHistory(StoredBool v, boolean initValue, int fromStamp) {
+            synchronized (trail) {
+                trail.buildFakeHistory(v, initValue, fromStamp);
+            }
+        }
+    }
+
+    private static final class SyncLongTrail extends SyncTrail<IStoredLongTrail> implements IStoredLongTrail {
+
+        SyncLongTrail(IStoredLongTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredLong v, long oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(v, oldValue, oldStamp);
+            }
+        }
+
+        @Override
+        public void buildFakeHistory(StoredLong v, long initValue, int fromStamp) {
+            synchronized (trail) {
+                trail.buildFakeHistory(v, initValue, fromStamp);
+            }
+        }
+    }
+
+    private static final class SyncDoubleTrail extends SyncTrail<IStoredDoubleTrail> implements IStoredDoubleTrail {
+
+        SyncDoubleTrail(IStoredDoubleTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredDouble v, double oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(v, oldValue, oldStamp);
+            }
+        }
+
+        @Override
+        public void buildFakeHistory(StoredDouble v, double initValue, int fromStamp) {
+            synchronized (trail) {
+                trail.buildFakeHistory(v, initValue, fromStamp);
+            }
+        }
+    }
+
+    private static final class SyncOperationTrail extends SyncTrail<IOperationTrail> implements IOperationTrail {
+
+        SyncOperationTrail(IOperationTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(Operation oldValue) {
+            synchronized (trail) {
+                trail.savePreviousState(oldValue);
+            }
+        }
+    }
+
+    private static final class SyncIntVectorTrail extends SyncTrail<IStoredIntVectorTrail> implements IStoredIntVectorTrail {
+
+        SyncIntVectorTrail(IStoredIntVectorTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredIntVector vect, int index, int oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(vect, index, oldValue, oldStamp);
+            }
+        }
+    }
+
+    private static final class SyncDoubleVectorTrail extends SyncTrail<IStoredDoubleVectorTrail> implements IStoredDoubleVectorTrail {
+
+        SyncDoubleVectorTrail(IStoredDoubleVectorTrail trail) {
+            super(trail);
+        }
+
+        @Override
+        public void savePreviousState(StoredDoubleVector vect, int index, double oldValue, int oldStamp) {
+            synchronized (trail) {
+                trail.savePreviousState(vect, index, oldValue, oldStamp);
+            }
+        }
+    }
+}
@@ -34,18 +34,28 @@ import org.chocosolver.memory.structure.Operation;
 import org.chocosolver.memory.trailing.trail.*;
 import org.chocosolver.memory.trailing.trail.chunck.*;
 import org.chocosolver.memory.trailing.trail.flatten.*;
+import org.chocosolver.memory.trailing.trail.offheap.*;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeBoolTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeDoubleTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeIntTrail;
 import org.chocosolver.memory.trailing.trail.unsafe.UnsafeLongTrail;
+import org.chocosolver.memory.trailing.trail.unified.UnifiedTrail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * The root class for managing memory and sessions.
  * <p/>
  * A environment is associated to each problem.
  * It is responsible for managing backtrackable data.
+ * <p/>
+ * By default, each kind of data is stored in its own trail.
+ * See {@link EnvironmentUnifiedTrailing} for an environment where all of them are stored in a single trail,
+ * {@link EnvironmentOffHeapTrailing} for an environment where primitive ones are stored out of the Java heap
+ * and {@link EnvironmentCheckpointTrailing} for an environment which also takes snapshots of them.
  */
-public final class EnvironmentTrailing extends AbstractEnvironment {
+public class EnvironmentTrailing extends AbstractEnvironment {
 
 
     /**
@@ -69,8 +79,13 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     private IStoredDoubleTrail doubleTrail;
     private IOperationTrail operationTrail;
 
-    private StoredIntVectorTrail intVectorTrail;
-    private StoredDoubleVectorTrail doubleVectorTrail;
+    private IStoredIntVectorTrail intVectorTrail;
+    private IStoredDoubleVectorTrail doubleVectorTrail;
+
+    /**
+     * The single trail storing all kinds of data, when the type is {@link Type#UNIFIED}.
+     */
+    private UnifiedTrail unifiedTrail;
 
     /**
      * Contains all the {@link org.chocosolver.memory.IStorage} trails for
@@ -85,11 +100,20 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
      */
 
     public EnvironmentTrailing() {
-        super(Type.FLAT);
+        this(Type.FLAT);
+    }
+
+    protected EnvironmentTrailing(Type type) {
+        super(type);
         trails = new ITrailStorage[0];
         trailSize = 0;
     }
 
+    @Override
+    public IEnvironment duplicate() {
+        return new EnvironmentTrailing(type);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -101,6 +125,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
             trails[i].worldPush(wi);
         }
         currentWorld++;
+        if (currentWorld > peakWorld) {
+            peakWorld = currentWorld;
+        }
         if (wi == maxWorld - 1) {
             resizeWorldCapacity(maxWorld * 3 / 2);
         }
@@ -120,6 +147,30 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         currentWorld--;
     }
 
+    /**
+     * Moving down to the previous world, where the history of primitive data (int, bool, long and double)
+     * is forgotten instead of being restored: the caller is in charge of restoring them.
+     * Only relevant for flat trails.
+     */
+    final void worldPopButPrimitives() {
+        final int wi = currentWorld;
+        for (int i = trailSize - 1; i >= 0; i--) {
+            final ITrailStorage trail = trails[i];
+            if (trail == intTrail) {
+                ((StoredIntTrail) trail).worldDrop(wi);
+            } else if (trail == boolTrail) {
+                ((StoredBoolTrail) trail).worldDrop(wi);
+            } else if (trail == longTrail) {
+                ((StoredLongTrail) trail).worldDrop(wi);
+            } else if (trail == doubleTrail) {
+                ((StoredDoubleTrail) trail).worldDrop(wi);
+            } else {
+                trail.worldPop(wi);
+            }
+        }
+        currentWorld--;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -130,12 +181,48 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
             throw new IllegalStateException("Commit in world 0?");
         }
         final int wi = currentWorld;
-        for (int i = trailSize; i >= 0; i--) {
+        for (int i = trailSize - 1; i >= 0; i--) {
             trails[i].worldCommit(wi);
         }
         currentWorld--;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTrailSize() {
+        long size = 0;
+        for (int i = 0; i < trailSize; i++) {
+            size += trails[i].getSize();
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMemoryFootprint() {
+        long bytes = getReservedMemory();
+        for (int i = 0; i < trailSize; i++) {
+            bytes += trails[i].getMemoryFootprint();
+        }
+        return bytes;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> getMemoryFootprintPerTrail() {
+        Map<String, Long> footprints = new LinkedHashMap<>();
+        for (int i = 0; i < trailSize; i++) {
+            footprints.put(trails[i].getClass().getSimpleName(), trails[i].getMemoryFootprint());
+        }
+        return footprints;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -215,9 +302,23 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         System.arraycopy(tmp, 0, trails, 0, tmp.length);
     }
 
+    /**
+     * @return the single trail storing all kinds of data, created on first call
+     */
+    private UnifiedTrail getUnifiedTrail() {
+        if (unifiedTrail == null) {
+            unifiedTrail = new UnifiedTrail(MaxHist, maxWorld);
+            increaseTrail();
+            trails[trailSize++] = unifiedTrail;
+        }
+        return unifiedTrail;
+    }
+
     public IStoredIntTrail getIntTrail() {
         if (intTrail == null) {
             switch (type) {
+                case UNIFIED:
+                    return intTrail = getUnifiedTrail();
                 case FLAT:
                     intTrail = new StoredIntTrail(MaxHist, maxWorld);
                     break;
@@ -227,6 +328,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case UNSAFE:
                     intTrail = new UnsafeIntTrail(maxWorld);
                     break;
+                case OFFHEAP:
+                    intTrail = new OffHeapIntTrail(maxWorld);
+                    break;
             }
             increaseTrail();
             trails[trailSize++] = intTrail;
@@ -237,6 +341,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     public IStoredLongTrail getLongTrail() {
         if (longTrail == null) {
             switch (type) {
+                case UNIFIED:
+                    return longTrail = getUnifiedTrail();
                 case FLAT:
                     longTrail = new StoredLongTrail(MaxHist, maxWorld);
                     break;
@@ -246,6 +352,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case UNSAFE:
                     longTrail = new UnsafeLongTrail(maxWorld);
                     break;
+                case OFFHEAP:
+                    longTrail = new OffHeapLongTrail(maxWorld);
+                    break;
             }
 
             increaseTrail();
@@ -257,6 +366,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     public IStoredBoolTrail getBoolTrail() {
         if (boolTrail == null) {
             switch (type) {
+                case UNIFIED:
+                    return boolTrail = getUnifiedTrail();
                 case FLAT:
                     boolTrail = new StoredBoolTrail(MaxHist, maxWorld);
                     break;
@@ -266,6 +377,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case UNSAFE:
                     boolTrail = new UnsafeBoolTrail(maxWorld);
                     break;
+                case OFFHEAP:
+                    boolTrail = new OffHeapBoolTrail(maxWorld);
+                    break;
             }
 
             increaseTrail();
@@ -277,6 +391,8 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     public IStoredDoubleTrail getDoubleTrail() {
         if (doubleTrail == null) {
             switch (type) {
+                case UNIFIED:
+                    return doubleTrail = getUnifiedTrail();
                 case FLAT:
                     doubleTrail = new StoredDoubleTrail(MaxHist, maxWorld);
                     break;
@@ -286,6 +402,9 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
                 case UNSAFE:
                     doubleTrail = new UnsafeDoubleTrail(maxWorld);
                     break;
+                case OFFHEAP:
+                    doubleTrail = new OffHeapDoubleTrail(maxWorld);
+                    break;
             }
             increaseTrail();
             trails[trailSize++] = doubleTrail;
@@ -296,11 +415,14 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     public IOperationTrail getOperationTrail() {
         if (operationTrail == null) {
             switch (type) {
+                case UNIFIED:
+                    return operationTrail = getUnifiedTrail();
                 case FLAT:
                     operationTrail = new OperationTrail(MaxHist, maxWorld);
                     break;
                 case CHUNK:
                 case UNSAFE:
+                case OFFHEAP:
                     operationTrail = new OperationChunckTrail(maxWorld);
                     break;
             }
@@ -315,8 +437,11 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
     // NOTE: this data structures should not be used...
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
-    public StoredIntVectorTrail getIntVectorTrail() {
+    public IStoredIntVectorTrail getIntVectorTrail() {
         if (intVectorTrail == null) {
+            if (type == Type.UNIFIED) {
+                return intVectorTrail = getUnifiedTrail();
+            }
             intVectorTrail = new StoredIntVectorTrail(this, MaxHist, maxWorld);
             increaseTrail();
             trails[trailSize++] = intVectorTrail;
@@ -324,8 +449,11 @@ public final class EnvironmentTrailing extends AbstractEnvironment {
         return intVectorTrail;
     }
 
-    public StoredDoubleVectorTrail getDoubleVectorTrail() {
+    public IStoredDoubleVectorTrail getDoubleVectorTrail() {
         if (doubleVectorTrail == null) {
+            if (type == Type.UNIFIED) {
+                return doubleVectorTrail = getUnifiedTrail();
+            }
             doubleVectorTrail = new StoredDoubleVectorTrail(this, MaxHist, maxWorld);
             increaseTrail();
             trails[trailSize++] = doubleVectorTrail;
@@ -29,7 +29,7 @@
 package org.chocosolver.memory.trailing;
 
 import org.chocosolver.memory.IStateDoubleVector;
-import org.chocosolver.memory.trailing.trail.StoredDoubleVectorTrail;
+import org.chocosolver.memory.trailing.trail.IStoredDoubleVectorTrail;
 
 /**
  * Implements a backtrackable search vector.
@@ -45,7 +45,7 @@ public final class StoredDoubleVector extends IStateDoubleVector {
 
     public int[] worldStamps;
 
-    protected final StoredDoubleVectorTrail myTrail;
+    protected final IStoredDoubleVectorTrail myTrail;
 
     /**
      * Constructs a stored search vector with an initial size, and initial values.
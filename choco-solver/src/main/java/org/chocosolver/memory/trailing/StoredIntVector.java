@@ -29,7 +29,7 @@
 package org.chocosolver.memory.trailing;
 
 import org.chocosolver.memory.IStateIntVector;
-import org.chocosolver.memory.trailing.trail.StoredIntVectorTrail;
+import org.chocosolver.memory.trailing.trail.IStoredIntVectorTrail;
 
 /**
  * Implements a backtrackable search vector.
@@ -45,7 +45,7 @@ public final class StoredIntVector extends IStateIntVector {
 
     public int[] worldStamps;
 
-    protected final StoredIntVectorTrail myTrail;
+    protected final IStoredIntVectorTrail myTrail;
 
 
     /**
@@ -38,6 +38,11 @@ import org.chocosolver.memory.IStorage;
  */
 public interface ITrailStorage extends IStorage {
 
+    /**
+     * Size of a reference, in bytes, as counted by {@link #getMemoryFootprint()}.
+     */
+    int SIZEOF_REF = 8;
+
     /**
      * increase the capacity of the environment to a given number of worlds
      *
@@ -45,4 +50,15 @@ public interface ITrailStorage extends IStorage {
      */
     void resizeWorldCapacity(int newWorldCapacity);
 
+    /**
+     * Returns the current number of entries stored in the trail.
+     */
+    int getSize();
+
+    /**
+     * Returns an estimation of the number of bytes reserved by the trail, whether they are used or not,
+     * including off-heap memory.
+     */
+    long getMemoryFootprint();
+
 }
@@ -35,7 +35,7 @@ import org.chocosolver.memory.trailing.StoredDoubleVector;
 /**
  * Implements a trail with the history of all the stored search vectors.
  */
-public class StoredDoubleVectorTrail implements ITrailStorage {
+public class StoredDoubleVectorTrail implements IStoredDoubleVectorTrail {
 
     /**
      * The current environment.
@@ -219,4 +219,9 @@ public class StoredDoubleVectorTrail implements ITrailStorage {
     public int getSize() {
         return currentLevel;
     }
+
+    @Override
+    public long getMemoryFootprint() {
+        return (long) vectorStack.length * (SIZEOF_REF + 4 + 8 + 4) + worldStartLevels.length * 4L;
+    }
 }
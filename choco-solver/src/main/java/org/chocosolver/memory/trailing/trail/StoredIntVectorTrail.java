@@ -35,7 +35,7 @@ import org.chocosolver.memory.trailing.StoredIntVector;
 /**
  * Implements a trail with the history of all the stored search vectors.
  */
-public class StoredIntVectorTrail implements ITrailStorage {
+public class StoredIntVectorTrail implements IStoredIntVectorTrail {
 
     /**
      * The current environment.
@@ -219,4 +219,9 @@ public class StoredIntVectorTrail implements ITrailStorage {
     public int getSize() {
         return currentLevel;
     }
+
+    @Override
+    public long getMemoryFootprint() {
+        return (long) vectorStack.length * (SIZEOF_REF + 4 + 4 + 4) + worldStartLevels.length * 4L;
+    }
 }
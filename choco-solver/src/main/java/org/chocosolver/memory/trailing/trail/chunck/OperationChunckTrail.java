@@ -125,6 +125,11 @@ public final class OperationChunckTrail implements IOperationTrail {
         return curChunk * CHUNK_SIZE + nextTop;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) operationStack.length * CHUNK_SIZE * SIZEOF_REF + (chunks.length + tops.length) * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
@@ -150,6 +150,11 @@ public class StoredBoolChunckTrail implements IStoredBoolTrail {
         return curChunk * CHUNK_SIZE + nextTop;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * CHUNK_SIZE * (SIZEOF_REF + 1 + 4) + (chunks.length + tops.length) * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
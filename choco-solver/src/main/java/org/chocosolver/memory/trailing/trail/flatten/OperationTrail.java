@@ -100,11 +100,20 @@ public class OperationTrail implements IOperationTrail {
         return currentLevel;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) valueStack.length * SIZEOF_REF + worldStartLevels.length * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
      */
     public void worldCommit(int worldIndex) {
+        // operations are simply kept, they are only told that they now belong to the previous world
+        for (int level = worldStartLevels[worldIndex]; level < currentLevel; level++) {
+            valueStack[level].commit(worldIndex - 1);
+        }
     }
 
     /**
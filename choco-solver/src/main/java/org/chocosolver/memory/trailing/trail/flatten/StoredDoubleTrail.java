@@ -107,6 +107,16 @@ public class StoredDoubleTrail implements IStoredDoubleTrail {
         }
     }
 
+    /**
+     * Moving down to the previous world, without restoring the former values:
+     * the entries of the world are simply forgotten.
+     *
+     * @param worldIndex current world index
+     */
+    public void worldDrop(int worldIndex) {
+        currentLevel = worldStartLevels[worldIndex];
+    }
+
 
     /**
      * Returns the current size of the stack.
@@ -116,6 +126,11 @@ public class StoredDoubleTrail implements IStoredDoubleTrail {
         return currentLevel;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * (SIZEOF_REF + 8 + 4) + worldStartLevels.length * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
@@ -108,6 +108,16 @@ public class StoredIntTrail implements IStoredIntTrail {
         }
     }
 
+    /**
+     * Moving down to the previous world, without restoring the former values:
+     * the entries of the world are simply forgotten.
+     *
+     * @param worldIndex current world index
+     */
+    public void worldDrop(int worldIndex) {
+        currentLevel = worldStartLevels[worldIndex];
+    }
+
 
     /**
      * Returns the current size of the stack.
@@ -117,6 +127,11 @@ public class StoredIntTrail implements IStoredIntTrail {
         return currentLevel;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * (SIZEOF_REF + 4 + 4) + worldStartLevels.length * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
@@ -104,6 +104,16 @@ public class StoredLongTrail implements IStoredLongTrail {
         }
     }
 
+    /**
+     * Moving down to the previous world, without restoring the former values:
+     * the entries of the world are simply forgotten.
+     *
+     * @param worldIndex current world index
+     */
+    public void worldDrop(int worldIndex) {
+        currentLevel = worldStartLevels[worldIndex];
+    }
+
 
     /**
      * Returns the current size of the stack.
@@ -112,6 +122,11 @@ public class StoredLongTrail implements IStoredLongTrail {
         return currentLevel;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * (SIZEOF_REF + 8 + 4) + worldStartLevels.length * 4L;
+    }
+
 
     /**
      * Commits a world: merging it with the previous one.
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing.trail.offheap;
+
+import org.chocosolver.memory.trailing.trail.ITrailStorage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Common part of the off-heap trails.
+ * <p>
+ * Like the trails of the <code>unsafe</code> package, former values and time stamps are stored out of the Java heap,
+ * in chunks of fixed size, so that the garbage collector does not have to scan nor copy them, whatever the size
+ * of the trail.
+ * Here, a chunk is a direct {@link ByteBuffer} accessed with absolute operations:
+ * the time stamps come first, then the values, so that each entry is aligned.
+ * The memory of a chunk is released by the JVM when the chunk is no longer referenced.
+ * <br/>
+ *
+ * @param <E> type of the stored objects
+ * @since 17/10/26
+ */
+public abstract class AbstractOffHeapTrail<E> implements ITrailStorage {
+
+    public static final int SIZEOF_INT = 4;
+
+    protected static final int DEFAULT_CHUNK_SIZE = 20000;
+
+    /**
+     * Offset of the values in a chunk.
+     */
+    private static final int VALUE_OFFSET = DEFAULT_CHUNK_SIZE * SIZEOF_INT;
+
+    /**
+     * Size of a value, in bytes.
+     */
+    private final int sizeofData;
+
+    /**
+     * Stack of backtrackable search variables.
+     */
+    private Object[][] variableStack;
+
+    /**
+     * Stack of chunks, storing time stamps then former values.
+     */
+    private ByteBuffer[] dataStack;
+
+    /**
+     * Points the level of the last entry.
+     */
+    private int curChunk;
+
+    private int nextTop;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] chunks;
+    private int[] tops;
+
+    protected AbstractOffHeapTrail(int sizeofData, int nWorlds) {
+        this.sizeofData = sizeofData;
+        curChunk = nextTop = 0;
+        variableStack = new Object[][]{new Object[DEFAULT_CHUNK_SIZE]};
+        dataStack = new ByteBuffer[]{allocate()};
+        chunks = new int[nWorlds];
+        tops = new int[nWorlds];
+    }
+
+    private ByteBuffer allocate() {
+        return ByteBuffer.allocateDirect(DEFAULT_CHUNK_SIZE * (SIZEOF_INT + sizeofData)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Restores the former state of <code>v</code>.
+     *
+     * @param v     a stored object
+     * @param value former value, as raw bits
+     * @param stamp former time stamp
+     */
+    protected abstract void restore(E v, long value, int stamp);
+
+    /**
+     * Sets the time stamp of <code>v</code>, on a commit.
+     *
+     * @param v     a stored object
+     * @param stamp new time stamp
+     */
+    protected abstract void overrideTimeStamp(E v, int stamp);
+
+    /**
+     * Pushes the former state of <code>v</code> on the stacks.
+     *
+     * @param v        a stored object
+     * @param oldValue former value, as raw bits
+     * @param oldStamp former time stamp
+     */
+    protected final void push(E v, long oldValue, int oldStamp) {
+        ByteBuffer data = dataStack[curChunk];
+        data.putInt(nextTop * SIZEOF_INT, oldStamp);
+        put(data, VALUE_OFFSET + nextTop * sizeofData, oldValue);
+        variableStack[curChunk][nextTop] = v;
+        nextTop++;
+        if (nextTop == DEFAULT_CHUNK_SIZE) {
+            curChunk++;
+            int l = variableStack.length;
+            if (curChunk == l) {
+                increase(l);
+            }
+            nextTop = 0;
+        }
+    }
+
+    private void put(ByteBuffer data, int idx, long value) {
+        switch (sizeofData) {
+            case 1:
+                data.put(idx, (byte) value);
+                break;
+            case 4:
+                data.putInt(idx, (int) value);
+                break;
+            default:
+                data.putLong(idx, value);
+                break;
+        }
+    }
+
+    private long get(ByteBuffer data, int idx) {
+        switch (sizeofData) {
+            case 1:
+                return data.get(idx);
+            case 4:
+                return data.getInt(idx);
+            default:
+                return data.getLong(idx);
+        }
+    }
+
+    @Override
+    public void worldPush(int worldIndex) {
+        chunks[worldIndex] = curChunk;
+        tops[worldIndex] = nextTop;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void worldPop(int worldIndex) {
+        final int c = chunks[worldIndex];
+        final int t = tops[worldIndex];
+        for (int cc = curChunk; cc >= c; cc--) {
+            Object[] cvar = variableStack[cc];
+            ByteBuffer data = dataStack[cc];
+            int tt = (cc == curChunk ? nextTop : DEFAULT_CHUNK_SIZE) - 1;
+            int to = (cc == c ? t : 0);
+            for (; tt >= to; tt--) {
+                restore((E) cvar[tt], get(data, VALUE_OFFSET + tt * sizeofData), data.getInt(tt * SIZEOF_INT));
+            }
+        }
+        curChunk = c;
+        nextTop = t;
+    }
+
+    /**
+     * Returns the current size of the stack.
+     */
+    public int getSize() {
+        return curChunk * DEFAULT_CHUNK_SIZE + nextTop;
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * DEFAULT_CHUNK_SIZE * (SIZEOF_REF + SIZEOF_INT + sizeofData) + (chunks.length + tops.length) * 4L;
+    }
+
+    /**
+     * Comits a world: merging it with the previous one.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public void worldCommit(int worldIndex) {
+        // principle: see StoredIntTrail#worldCommit, the updates are compacted across chunks
+        final int prevWorld = worldIndex - 1;
+        int wc = chunks[worldIndex];
+        int wt = tops[worldIndex];
+        for (int cc = chunks[worldIndex]; cc <= curChunk; cc++) {
+            Object[] cvar = variableStack[cc];
+            ByteBuffer data = dataStack[cc];
+            int from = (cc == chunks[worldIndex] ? tops[worldIndex] : 0);
+            int to = (cc == curChunk ? nextTop : DEFAULT_CHUNK_SIZE);
+            for (; from < to; from++) {
+                E var = (E) cvar[from];
+                int stamp = data.getInt(from * SIZEOF_INT);
+                overrideTimeStamp(var, prevWorld);// current stamp refers to a world that no longer exists
+                if (stamp != prevWorld) {
+                    if (wc != cc || wt != from) {
+                        ByteBuffer wdata = dataStack[wc];
+                        wdata.putInt(wt * SIZEOF_INT, stamp);
+                        put(wdata, VALUE_OFFSET + wt * sizeofData, get(data, VALUE_OFFSET + from * sizeofData));
+                        variableStack[wc][wt] = var;
+                    }
+                    if (++wt == DEFAULT_CHUNK_SIZE) {
+                        wc++;
+                        wt = 0;
+                    }
+                }// else: the update is discarded, since a good one is in prevWorld
+            }
+        }
+        // release the references of the discarded updates
+        for (int cc = wc; cc <= curChunk; cc++) {
+            Arrays.fill(variableStack[cc], (cc == wc ? wt : 0), (cc == curChunk ? nextTop : DEFAULT_CHUNK_SIZE), null);
+        }
+        curChunk = wc;
+        nextTop = wt;
+    }
+
+    /**
+     * From world 0 to <code>olderStamp</code> (excluded), create a fake history based on <code>initValue</code>.
+     *
+     * @param v          a stored object
+     * @param initValue  initial value, as raw bits
+     * @param olderStamp current world
+     */
+    protected final void fakeHistory(E v, long initValue, int olderStamp) {
+        Object[][] _variableStack = variableStack;
+        ByteBuffer[] _dataStack = dataStack;
+        int[] _chunks = chunks;
+        int[] _tops = tops;
+        int _curChunk = curChunk;
+        int _nextTop = nextTop;
+
+        // the former updates plus one per world, and a spare chunk for the next update
+        int nChunks = (_curChunk * DEFAULT_CHUNK_SIZE + _nextTop + olderStamp) / DEFAULT_CHUNK_SIZE + 1;
+        variableStack = new Object[nChunks][];
+        dataStack = new ByteBuffer[nChunks];
+        for (int c = 0; c < nChunks; c++) {
+            variableStack[c] = new Object[DEFAULT_CHUNK_SIZE];
+            dataStack[c] = allocate();
+        }
+        // world pointers are indexed by world, up to olderStamp
+        chunks = new int[_chunks.length];
+        tops = new int[_tops.length];
+        curChunk = nextTop = 0;
+
+        // then replay the history
+        for (int w = 1; w < olderStamp; w++) {
+            rebuild(_chunks[w], _chunks[w + 1], _tops[w], _tops[w + 1], _variableStack, _dataStack);
+            push(v, initValue, w - 1);
+            worldPush(w + 1);
+        }
+        rebuild(_chunks[olderStamp], _curChunk, _tops[olderStamp], _nextTop, _variableStack, _dataStack);
+        push(v, initValue, olderStamp - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rebuild(int fc, int tc, int ft, int tt, Object[][] _variableStack, ByteBuffer[] _dataStack) {
+        for (int cc = fc; cc <= tc; cc++) {
+            Object[] cvar = _variableStack[cc];
+            ByteBuffer data = _dataStack[cc];
+            int from = (cc == fc ? ft : 0);
+            int to = (cc == tc ? tt : DEFAULT_CHUNK_SIZE);
+            for (; from < to; from++) {
+                push((E) cvar[from], get(data, VALUE_OFFSET + from * sizeofData), data.getInt(from * SIZEOF_INT));
+            }
+        }
+    }
+
+    private void increase(int l) {
+        Object[][] varBigger = new Object[l + 1][];
+        System.arraycopy(variableStack, 0, varBigger, 0, l);
+        varBigger[l] = new Object[DEFAULT_CHUNK_SIZE];
+        variableStack = varBigger;
+
+        ByteBuffer[] dataBigger = new ByteBuffer[l + 1];
+        System.arraycopy(dataStack, 0, dataBigger, 0, l);
+        dataBigger[l] = allocate();
+        dataStack = dataBigger;
+    }
+
+    @Override
+    public void resizeWorldCapacity(int newWorldCapacity) {
+        int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(chunks, 0, tmp, 0, chunks.length);
+        chunks = tmp;
+
+        tmp = new int[newWorldCapacity];
+        System.arraycopy(tops, 0, tmp, 0, tops.length);
+        tops = tmp;
+    }
+}
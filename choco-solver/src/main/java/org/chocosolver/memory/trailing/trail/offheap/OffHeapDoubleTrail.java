@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing.trail.offheap;
+
+import org.chocosolver.memory.trailing.StoredDouble;
+import org.chocosolver.memory.trailing.trail.IStoredDoubleTrail;
+
+/**
+ * A trail for {@link StoredDouble}, storing former values and time stamps off-heap.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class OffHeapDoubleTrail extends AbstractOffHeapTrail<StoredDouble> implements IStoredDoubleTrail {
+
+    public OffHeapDoubleTrail(int nWorlds) {
+        super(8, nWorlds);
+    }
+
+    @Override
+    protected void restore(StoredDouble v, long value, int stamp) {
+        v._set(Double.longBitsToDouble(value), stamp);
+    }
+
+    @Override
+    protected void overrideTimeStamp(StoredDouble v, int stamp) {
+        v.overrideTimeStamp(stamp);
+    }
+
+    /**
+     * Reacts when a StoredDouble is modified: push the former value & timestamp
+     * on the stacks.
+     */
+    @Override
+    public void savePreviousState(StoredDouble v, double oldValue, int oldStamp) {
+        push(v, Double.doubleToRawLongBits(oldValue), oldStamp);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredDouble v, double initValue, int olderStamp) {
+        fakeHistory(v, Double.doubleToRawLongBits(initValue), olderStamp);
+    }
+}
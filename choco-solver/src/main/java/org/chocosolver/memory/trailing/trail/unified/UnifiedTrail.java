@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory.trailing.trail.unified;
+
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.*;
+import org.chocosolver.memory.trailing.trail.*;
+
+/**
+ * A single trail storing the history of all kinds of backtrackable data.
+ * <p>
+ * Instead of one trail per kind of data, each with its own world start pointers, every update is recorded
+ * in one log, in chronological order.
+ * A record is made of the restored object, stored in {@link #targets}, and of two longs stored in {@link #log}:
+ * the former value (its raw bits) and a word packing the former time stamp, the index in a vector (if any)
+ * and a tag giving the kind of data.
+ * Then, pushing a world only stores the current level and popping a world is a single backward sweep over the log.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class UnifiedTrail implements IStoredIntTrail, IStoredBoolTrail, IStoredLongTrail, IStoredDoubleTrail,
+        IOperationTrail, IStoredIntVectorTrail, IStoredDoubleVectorTrail {
+
+    // tags of the records
+    private static final int INT = 0, BOOL = 1, LONG = 2, DOUBLE = 3, INT_VECTOR = 4, DOUBLE_VECTOR = 5, OPERATION = 6;
+
+    private static final int TAG_BITS = 3;
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+    private static final int MAX_INDEX = (1 << (32 - TAG_BITS)) - 1;
+
+    /**
+     * Objects to restore, one per record.
+     */
+    private Object[] targets;
+
+    /**
+     * Two longs per record: the former value, then the former stamp (32 high bits), the index (if any) and the tag.
+     */
+    private long[] log;
+
+    /**
+     * Number of records.
+     */
+    private int currentLevel;
+
+    /**
+     * A stack of pointers (for each start of a world).
+     */
+    private int[] worldStartLevels;
+
+    /**
+     * Constructs a trail with predefined size.
+     *
+     * @param nUpdates maximal number of updates that will be stored
+     * @param nWorlds  maximal number of worlds that will be stored
+     */
+    public UnifiedTrail(int nUpdates, int nWorlds) {
+        currentLevel = 0;
+        targets = new Object[nUpdates];
+        log = new long[2 * nUpdates];
+        worldStartLevels = new int[nWorlds];
+    }
+
+    private static long meta(int stamp, int index, int tag) {
+        assert index >= 0 && index <= MAX_INDEX;
+        return ((long) stamp << 32) | ((long) index << TAG_BITS) | tag;
+    }
+
+    private void save(Object target, long value, long meta) {
+        targets[currentLevel] = target;
+        log[2 * currentLevel] = value;
+        log[2 * currentLevel + 1] = meta;
+        currentLevel++;
+        if (currentLevel == targets.length) {
+            resizeUpdateCapacity();
+        }
+    }
+
+    private void resizeUpdateCapacity() {
+        final int newCapacity = ((targets.length * 3) / 2);
+        final Object[] tmp1 = new Object[newCapacity];
+        System.arraycopy(targets, 0, tmp1, 0, targets.length);
+        targets = tmp1;
+        final long[] tmp2 = new long[2 * newCapacity];
+        System.arraycopy(log, 0, tmp2, 0, log.length);
+        log = tmp2;
+    }
+
+    @Override
+    public void resizeWorldCapacity(int newWorldCapacity) {
+        final int[] tmp = new int[newWorldCapacity];
+        System.arraycopy(worldStartLevels, 0, tmp, 0, worldStartLevels.length);
+        worldStartLevels = tmp;
+    }
+
+    /**
+     * Returns the current number of records.
+     */
+    public int getSize() {
+        return currentLevel;
+    }
+
+    @Override
+    public long getMemoryFootprint() {
+        return (long) targets.length * (SIZEOF_REF + 16) + worldStartLevels.length * 4L;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void worldPush(int worldIndex) {
+        worldStartLevels[worldIndex] = currentLevel;
+    }
+
+    @Override
+    public void worldPop(int worldIndex) {
+        final int wsl = worldStartLevels[worldIndex];
+        while (currentLevel > wsl) {
+            currentLevel--;
+            final Object target = targets[currentLevel];
+            final long value = log[2 * currentLevel];
+            final long meta = log[2 * currentLevel + 1];
+            final int stamp = (int) (meta >>> 32);
+            switch ((int) meta & TAG_MASK) {
+                case INT:
+                    ((StoredInt) target)._set((int) value, stamp);
+                    break;
+                case BOOL:
+                    ((StoredBool) target)._set(value != 0, stamp);
+                    break;
+                case LONG:
+                    ((StoredLong) target)._set(value, stamp);
+                    break;
+                case DOUBLE:
+                    ((StoredDouble) target)._set(Double.longBitsToDouble(value), stamp);
+                    break;
+                case INT_VECTOR:
+                    ((StoredIntVector) target)._set(index(meta), (int) value, stamp);
+                    break;
+                case DOUBLE_VECTOR:
+                    ((StoredDoubleVector) target)._set(index(meta), Double.longBitsToDouble(value), stamp);
+                    break;
+                case OPERATION:
+                    ((Operation) target).undo();
+                    break;
+            }
+        }
+    }
+
+    private static int index(long meta) {
+        return ((int) meta) >>> TAG_BITS;
+    }
+
+    @Override
+    public void worldCommit(int worldIndex) {
+        // principle: see StoredIntTrail#worldCommit, operations are simply kept
+        final int startLevel = worldStartLevels[worldIndex];
+        final int prevWorld = worldIndex - 1;
+        int writeIdx = startLevel;
+        for (int level = startLevel; level < currentLevel; level++) {
+            final Object target = targets[level];
+            final long meta = log[2 * level + 1];
+            final int stamp = (int) (meta >>> 32);
+            boolean keep = stamp != prevWorld;
+            switch ((int) meta & TAG_MASK) {
+                case INT:
+                    ((StoredInt) target).overrideTimeStamp(prevWorld);
+                    break;
+                case BOOL:
+                    ((StoredBool) target).overrideTimeStamp(prevWorld);
+                    break;
+                case LONG:
+                    ((StoredLong) target).overrideTimeStamp(prevWorld);
+                    break;
+                case DOUBLE:
+                    ((StoredDouble) target).overrideTimeStamp(prevWorld);
+                    break;
+                case INT_VECTOR:
+                    ((StoredIntVector) target).worldStamps[index(meta)] = prevWorld;
+                    break;
+                case DOUBLE_VECTOR:
+                    ((StoredDoubleVector) target).worldStamps[index(meta)] = prevWorld;
+                    break;
+                case OPERATION:
+                    ((Operation) target).commit(prevWorld);
+                    keep = true;
+                    break;
+            }
+            if (keep) {
+                if (writeIdx != level) {
+                    targets[writeIdx] = target;
+                    log[2 * writeIdx] = log[2 * level];
+                    log[2 * writeIdx + 1] = meta;
+                }
+                writeIdx++;
+            }
+        }
+        currentLevel = writeIdx;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void savePreviousState(StoredInt v, int oldValue, int oldStamp) {
+        save(v, oldValue, meta(oldStamp, 0, INT));
+    }
+
+    @Override
+    public void savePreviousState(StoredBool v, boolean oldValue, int oldStamp) {
+        save(v, oldValue ? 1 : 0, meta(oldStamp, 0, BOOL));
+    }
+
+    @Override
+    public void savePreviousState(StoredLong v, long oldValue, int oldStamp) {
+        save(v, oldValue, meta(oldStamp, 0, LONG));
+    }
+
+    @Override
+    public void savePreviousState(StoredDouble v, double oldValue, int oldStamp) {
+        save(v, Double.doubleToRawLongBits(oldValue), meta(oldStamp, 0, DOUBLE));
+    }
+
+    @Override
+    public void savePreviousState(StoredIntVector vect, int index, int oldValue, int oldStamp) {
+        save(vect, oldValue, meta(oldStamp, index, INT_VECTOR));
+    }
+
+    @Override
+    public void savePreviousState(StoredDoubleVector vect, int index, double oldValue, int oldStamp) {
+        save(vect, Double.doubleToRawLongBits(oldValue), meta(oldStamp, index, DOUBLE_VECTOR));
+    }
+
+    @Override
+    public void savePreviousState(Operation oldValue) {
+        save(oldValue, 0, meta(0, 0, OPERATION));
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void buildFakeHistory(StoredInt v, int initValue, int fromStamp) {
+        buildFakeHistory(v, initValue, INT, fromStamp);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredBool v, boolean initValue, int fromStamp) {
+        buildFakeHistory(v, initValue ? 1 : 0, BOOL, fromStamp);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredLong v, long initValue, int fromStamp) {
+        buildFakeHistory(v, initValue, LONG, fromStamp);
+    }
+
+    @Override
+    public void buildFakeHistory(StoredDouble v, double initValue, int fromStamp) {
+        buildFakeHistory(v, Double.doubleToRawLongBits(initValue), DOUBLE, fromStamp);
+    }
+
+    /**
+     * From world 0 to <code>olderStamp</code> (excluded), create a fake history based on <code>initValue</code>,
+     * see {@link org.chocosolver.memory.trailing.trail.flatten.StoredIntTrail#buildFakeHistory(StoredInt, int, int)}.
+     */
+    private void buildFakeHistory(Object v, long initValue, int tag, int olderStamp) {
+        Object[] _targets = targets;
+        long[] _log = log;
+        int[] _worldStartLevels = worldStartLevels;
+        int _maxUpdates = targets.length + olderStamp;
+        int _currentLevel = currentLevel;
+
+        targets = new Object[_maxUpdates];
+        log = new long[2 * _maxUpdates];
+        worldStartLevels = new int[worldStartLevels.length];
+        currentLevel = 0;
+
+        // then replay the history
+        for (int w = 1; w < olderStamp; w++) {
+            // copy the true history
+            rebuild(_worldStartLevels[w], _worldStartLevels[w + 1], _targets, _log);
+            // add the fake one
+            save(v, initValue, meta(w - 1, 0, tag));
+            worldPush(w + 1);
+        }
+        // copy the true history
+        rebuild(_worldStartLevels[olderStamp], _currentLevel, _targets, _log);
+        save(v, initValue, meta(olderStamp - 1, 0, tag));
+    }
+
+    private void rebuild(int f, int t, Object[] _targets, long[] _log) {
+        System.arraycopy(_targets, f, targets, currentLevel, t - f);
+        System.arraycopy(_log, 2 * f, log, 2 * currentLevel, 2 * (t - f));
+        currentLevel += (t - f);
+    }
+}
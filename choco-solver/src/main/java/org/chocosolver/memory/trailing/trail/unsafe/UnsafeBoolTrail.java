@@ -166,6 +166,11 @@ public class UnsafeBoolTrail implements IStoredBoolTrail {
         return curChunk * DEFAULT_CHUNK_SIZE + nextTop;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * DEFAULT_CHUNK_SIZE * (SIZEOF_REF + SIZEOF_DATA + SIZEOF_INT) + (chunks.length + tops.length) * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
@@ -166,6 +166,11 @@ public class UnsafeIntTrail implements IStoredIntTrail {
         return curChunk * DEFAULT_CHUNK_SIZE + nextTop;
     }
 
+    @Override
+    public long getMemoryFootprint() {
+        return (long) variableStack.length * DEFAULT_CHUNK_SIZE * (SIZEOF_REF + SIZEOF_DATA + SIZEOF_INT) + (chunks.length + tops.length) * 4L;
+    }
+
 
     /**
      * Comits a world: merging it with the previous one.
@@ -40,8 +40,6 @@ import org.chocosolver.solver.thread.AbstractParallelMaster;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.lang.System.exit;
-import static java.lang.Thread.sleep;
 import static org.chocosolver.solver.ResolutionPolicy.SATISFACTION;
 
 public class MasterProblem extends AbstractParallelMaster<SlaveProblem> {
@@ -53,10 +51,10 @@ public class MasterProblem extends AbstractParallelMaster<SlaveProblem> {
     //***********************************************************************************
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(MasterProblem.class);
-    int bestVal;
-    int nbSol;
-    boolean closeWithSuccess;
-    ResolutionPolicy policy;
+    volatile int bestVal;
+    volatile int nbSol;
+    volatile boolean closeWithSuccess;
+    volatile ResolutionPolicy policy;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -70,26 +68,8 @@ public class MasterProblem extends AbstractParallelMaster<SlaveProblem> {
         slaves = new SlaveProblem[nbThreads];
         for (int i = 0; i < nbThreads; i++) {
             slaves[i] = new SlaveProblem(probClassName, this, i);
-            slaves[i].workInParallel();
         }
-        wait = true;
-        try {
-            while (wait)
-                sleep(20);
-        } catch (Exception e) {
-            e.printStackTrace();
-            exit(0);
-        }
-    }
-
-    //***********************************************************************************
-    // METHODS
-    //***********************************************************************************
-
-    /**
-     * A slave has CLOSED ITS SEARCH TREE, every one should stop!
-     */
-    public synchronized void wishGranted() {
+        distributedSlavery();
         if (LOGGER.isInfoEnabled()) {
             if (nbSol == 0) {
                 if (!closeWithSuccess) {
@@ -105,52 +85,68 @@ public class MasterProblem extends AbstractParallelMaster<SlaveProblem> {
                 }
             }
         }
-        Number[] nbs = slaves[0].solver.getMeasures().toArray();
-        nbs[0] = nbSol;
-        nbs[5] = policy != SATISFACTION ? bestVal : 0;
-        exit(0);
+    }
+
+    //***********************************************************************************
+    // METHODS
+    //***********************************************************************************
+
+    /**
+     * A slave has CLOSED ITS SEARCH TREE, every one should stop!
+     */
+    @Override
+    public void wishGranted() {
+        cancel();
+        super.wishGranted();
     }
 
     /**
-     * A solution of cost val has been found
-     * informs slaves that they must find better
+     * A solution of cost val has been found.
+     * Slaves read the best value on their own, before each decision (see {@link #getBestVal()}).
      */
     public synchronized boolean newSol(int val, ResolutionPolicy policy) {
         this.policy = policy;
         if (nbSol == 0) {
             bestVal = val;
         }
-        nbSol++;
         boolean isBetter = false;
         switch (policy) {
             case MINIMIZE:
-                if (bestVal > val || nbSol == 1) {
+                if (bestVal > val || nbSol == 0) {
                     bestVal = val;
                     isBetter = true;
                 }
                 break;
             case MAXIMIZE:
-                if (bestVal < val || nbSol == 1) {
+                if (bestVal < val || nbSol == 0) {
                     bestVal = val;
                     isBetter = true;
                 }
                 break;
             case SATISFACTION:
                 bestVal = 1;
-                isBetter = nbSol == 1;
+                isBetter = nbSol == 0;
                 break;
         }
-        if (isBetter) {
-            for (int i = 0; i < slaves.length; i++) {
-                if (slaves[i] != null) {
-                    slaves[i].findBetterThan(val, policy);
-                }
-            }
-        }
+        nbSol++;
         return isBetter;
     }
 
-    public synchronized void closeWithSuccess() {
+    /**
+     * @return the number of solutions found so far by the slaves
+     */
+    public int getNbSol() {
+        return nbSol;
+    }
+
+    /**
+     * @return the best value found so far by the slaves, only relevant if {@link #getNbSol()} is positive
+     */
+    public int getBestVal() {
+        return bestVal;
+    }
+
+    public void closeWithSuccess() {
         this.closeWithSuccess = true;
     }
 }
@@ -38,12 +38,13 @@ package org.chocosolver.samples;
 import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.thread.AbstractParallelSlave;
 
 import java.lang.reflect.InvocationTargetException;
 
-public class SlaveProblem extends AbstractParallelSlave<MasterProblem> {
+public class SlaveProblem extends AbstractParallelSlave<MasterProblem> implements IMonitorDownBranch {
 
     //***********************************************************************************
     // VARIABLES
@@ -51,6 +52,8 @@ public class SlaveProblem extends AbstractParallelSlave<MasterProblem> {
 
     Solver solver;
     ParallelizedProblem model;
+    volatile boolean stop;
+    boolean stopped;
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -81,9 +84,10 @@ public class SlaveProblem extends AbstractParallelSlave<MasterProblem> {
                 int val = om.getPolicy() == ResolutionPolicy.SATISFACTION ? 1 : om.getBestSolutionValue().intValue();
                 master.newSol(val, om.getPolicy());
             });
+            solver.plugMonitor(this);
 
             model.solve();
-            if (!solver.hasReachedLimit()) {
+            if (!solver.hasReachedLimit() && !stopped) {
                 master.closeWithSuccess();
             }
         } catch (Exception e) {
@@ -108,4 +112,40 @@ public class SlaveProblem extends AbstractParallelSlave<MasterProblem> {
                 break;
         }
     }
+
+    @Override
+    public void stop() {
+        stop = true;
+    }
+
+    /**
+     * Called on the slave's thread, before each decision: stops the search if required,
+     * otherwise reads the best value found so far by the other slaves.
+     */
+    private void synchronize() {
+        if (stop) {
+            stopped = true;
+            solver.getSearchLoop().interrupt("stopped by the master");
+        } else if (master.getNbSol() > 0 && master.policy != null) {
+            findBetterThan(master.getBestVal(), master.policy);
+        }
+    }
+
+    @Override
+    public void beforeDownLeftBranch() {
+        synchronize();
+    }
+
+    @Override
+    public void afterDownLeftBranch() {
+    }
+
+    @Override
+    public void beforeDownRightBranch() {
+        synchronize();
+    }
+
+    @Override
+    public void afterDownRightBranch() {
+    }
 }
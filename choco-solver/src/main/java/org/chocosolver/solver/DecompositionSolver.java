@@ -0,0 +1,734 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.util.ESat;
+import org.chocosolver.util.graphOperations.connectivity.ConnectivityFinder;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * A solver which decomposes the constraint network into independent subproblems and solves each of them separately.
+ * <p>
+ * The root node of the model is first propagated (on a copy of it), then the uninstantiated variables are partitioned
+ * into connected components: two variables are connected when they share a constraint or when one is a view of the other.
+ * Each component is then solved by its own copy of the model, restricted to the constraints of the component and
+ * to the variables they rely on (see {@link Constraint#duplicate(Solver, THashMap)}), which branches on the
+ * variables of the component only.
+ * This avoids exploring the cartesian product of the components:
+ * when all solutions are enumerated, the number of solutions is the product of the counts of the components,
+ * and a separable objective, that is a sum of terms, is optimised by summing the optima of the components.
+ * Components made of a single unconstrained variable are directly dealt with, without any copy of the model.
+ * <p>
+ * The expected ways to solve a problem using DecompositionSolver is:
+ * <pre>
+ *     Solver solver = new Solver();
+ *     // declare the variables and constraints
+ *     //...
+ *     // Then create the decomposition solver, which solves up to 4 components concurrently
+ *     DecompositionSolver ds = new DecompositionSolver(solver, 4);
+ *     // configure the search strategy of each component (optional)
+ *     for (int i = 0; i < ds.getNbComponents(); i++) {
+ *         Solver s = ds.getSolver(i);
+ *         if (s != null) s.set(ISF.lexico_LB(ds.getVariables(i)));
+ *     }
+ *     // Finally, solve the problem
+ *     ds.findAllSolutions();
+ * </pre>
+ * By default, each component is explored with {@link ISF#minDom_LB(IntVar...)} over its variables.
+ * Only integer variables (and views over them) are supported.
+ * The model is not modified by the resolution.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class DecompositionSolver {
+
+    private static final int FIRST = 0, ALL = 1, OPTIMAL = 2;
+
+    /**
+     * The model to solve
+     */
+    final Solver model;
+
+    /**
+     * Maximum number of components solved concurrently
+     */
+    final int nbThreads;
+
+    /**
+     * Set to true if the root propagation fails
+     */
+    final boolean infeasible;
+
+    /**
+     * Values of the variables, indexed like the ones of the model, fixed by the root propagation or by a solution
+     */
+    final int[] solution;
+
+    /**
+     * Variable id to index in the model
+     */
+    final TIntIntHashMap id2idx;
+
+    /**
+     * Decomposition of the model into components
+     */
+    final Component[] components;
+
+    // resolution parameters
+    int mode;
+    ResolutionPolicy policy;
+    int[] terms;
+
+    // resolution state
+    boolean hasSolution;
+    boolean limit;
+    boolean solved;
+    long nbSolutions;
+    long bestValue;
+
+    /**
+     * Creates a decomposition solver for <code>model</code> which solves the components one after the other.
+     *
+     * @param model the model to solve, the resolution should not have begun
+     */
+    public DecompositionSolver(Solver model) {
+        this(model, 1);
+    }
+
+    /**
+     * Creates a decomposition solver for <code>model</code> which solves up to <code>nbThreads</code> components
+     * concurrently.
+     * The model is duplicated once to run the root propagation, then each component is copied into its own solver.
+     *
+     * @param model     the model to solve, the resolution should not have begun
+     * @param nbThreads maximum number of components solved concurrently
+     */
+    public DecompositionSolver(Solver model, int nbThreads) {
+        if (nbThreads < 1) {
+            throw new SolverException("DecompositionSolver requires at least one thread");
+        }
+        this.model = model;
+        this.nbThreads = nbThreads;
+        int n = model.getNbVars();
+        for (int i = 0; i < n; i++) {
+            if (!isInt(model.getVar(i))) {
+                throw new SolverException("DecompositionSolver only deals with integer variables, "
+                        + model.getVar(i).getName() + " is not");
+            }
+        }
+        this.solution = new int[n];
+        this.id2idx = new TIntIntHashMap(n, .5f, -1, -1);
+        for (int i = 0; i < n; i++) {
+            id2idx.put(model.getVar(i).getId(), i);
+        }
+        // 1. propagate the root node
+        THashMap<Object, Object> identitymap = new THashMap<>();
+        Solver root = model.duplicateModel(identitymap);
+        boolean failed = false;
+        try {
+            root.propagate();
+        } catch (ContradictionException e) {
+            failed = true;
+        }
+        this.infeasible = failed;
+        if (infeasible) {
+            this.components = new Component[0];
+            return;
+        }
+        // 2. compute the connected components over the uninstantiated variables
+        Variable[] vars = new Variable[n];
+        boolean[] free = new boolean[n];
+        int maxId = 0;
+        for (int i = 0; i < n; i++) {
+            vars[i] = (Variable) identitymap.get(model.getVar(i));
+            free[i] = !vars[i].isInstantiated();
+            if (!free[i]) {
+                solution[i] = ((IntVar) vars[i]).getValue();
+            }
+            maxId = Math.max(maxId, vars[i].getId());
+        }
+        int[] id2node = new int[maxId + 1];
+        Arrays.fill(id2node, -1);
+        for (int i = 0; i < n; i++) {
+            id2node[vars[i].getId()] = i;
+        }
+        UndirectedGraph graph = new UndirectedGraph(n, SetType.LINKED_LIST, true);
+        for (int i = 0; i < n; i++) {
+            if (free[i]) {
+                IView[] views = vars[i].getViews();
+                for (int j = 0; j < views.length; j++) {
+                    int k = node(id2node, views[j]);
+                    if (k > -1 && k != i && free[k]) {
+                        graph.addEdge(i, k);
+                    }
+                }
+            }
+        }
+        Constraint[] cstrs = model.getCstrs();
+        int[] cstr2node = new int[cstrs.length];
+        for (int c = 0; c < cstrs.length; c++) {
+            // entailed constraints connect their variables too, since their copies are not entailed anymore
+            // once the constraints of the other components are removed
+            int prev = -1;
+            for (Propagator prop : ((Constraint) identitymap.get(cstrs[c])).getPropagators()) {
+                for (int v = 0; v < prop.getNbVars(); v++) {
+                    int k = node(id2node, prop.getVar(v));
+                    if (k > -1 && free[k]) {
+                        if (prev > -1 && prev != k) {
+                            graph.addEdge(prev, k);
+                        }
+                        prev = k;
+                    }
+                }
+            }
+            cstr2node[c] = prev;
+        }
+        ConnectivityFinder finder = new ConnectivityFinder(graph);
+        finder.findAllCC();
+        int[] node2cc = finder.getNode_CC();
+        int[] cc2comp = new int[finder.getNBCC()];
+        Arrays.fill(cc2comp, -1);
+        List<List<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (free[i]) {
+                int cc = node2cc[i];
+                if (cc2comp[cc] == -1) {
+                    cc2comp[cc] = nodes.size();
+                    nodes.add(new ArrayList<>());
+                }
+                nodes.get(cc2comp[cc]).add(i);
+            }
+        }
+        List<List<Constraint>> kept = new ArrayList<>();
+        for (int k = 0; k < nodes.size(); k++) {
+            kept.add(new ArrayList<>());
+        }
+        for (int c = 0; c < cstrs.length; c++) {
+            // constraints without uninstantiated variable are satisfied, according to the root propagation
+            if (cstr2node[c] > -1) {
+                kept.get(cc2comp[node2cc[cstr2node[c]]]).add(cstrs[c]);
+            }
+        }
+        // 3. then, build one copy of the model per component, if needed
+        this.components = new Component[nodes.size()];
+        IntStream range = IntStream.range(0, components.length);
+        if (nbThreads > 1) {
+            range = range.parallel();
+        }
+        range.forEach(k -> components[k] = new Component(this, nodes.get(k), kept.get(k), free));
+    }
+
+    private static int node(int[] id2node, Variable var) {
+        int id = var.getId();
+        return id < id2node.length ? id2node[id] : -1;
+    }
+
+    private static boolean isInt(Variable var) {
+        return (var.getTypeAndKind() & Variable.KIND) == Variable.INT
+                || (var.getTypeAndKind() & Variable.KIND) == Variable.BOOL;
+    }
+
+    /**
+     * @return the number of independent components found after the root propagation
+     */
+    public int getNbComponents() {
+        return components.length;
+    }
+
+    /**
+     * Returns the copy of the model solving the <code>i</code>-th component,
+     * which can be configured (search strategy, limits, monitors) before the resolution.
+     *
+     * @param i index of a component
+     * @return the solver of the component, or null if the component is a single unconstrained variable
+     */
+    public Solver getSolver(int i) {
+        return components[i].solver;
+    }
+
+    /**
+     * @param i index of a component
+     * @return the variables of the <code>i</code>-th component, within its copy of the model
+     * (or within the model, if the component is a single unconstrained variable)
+     */
+    public IntVar[] getVariables(int i) {
+        return components[i].decisionVars.clone();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// RELATED TO RESOLUTION //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Attempts to find a solution of the declared problem, that is, a solution of each component.
+     *
+     * @return <code>true</code> if and only if a solution has been found.
+     */
+    public boolean findSolution() {
+        this.mode = FIRST;
+        this.policy = ResolutionPolicy.SATISFACTION;
+        solve();
+        return hasSolution;
+    }
+
+    /**
+     * Attempts to find all solutions of the declared problem.
+     * The solutions of each component are enumerated, and the number of solutions of the problem is the product of
+     * the counts of the components.
+     * The count is exact only if no limit is reached.
+     *
+     * @return the number of found solutions.
+     * @throws ArithmeticException if the number of solutions exceeds {@link Long#MAX_VALUE}.
+     */
+    public long findAllSolutions() {
+        this.mode = ALL;
+        this.policy = ResolutionPolicy.SATISFACTION;
+        solve();
+        return nbSolutions;
+    }
+
+    /**
+     * Attempts optimize the sum of the <code>terms</code> w.r.t. to the optimization <code>policy</code>.
+     * Each component optimizes the sum of the terms it contains, and the best value is the sum of these optima.
+     *
+     * @param policy optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param terms  the variables whose sum is to optimize, they must be declared in the model.
+     * @throws SolverException if the bounds of the sum of the terms of a component exceed
+     *                         [{@link VF#MIN_INT_BOUND}, {@link VF#MAX_INT_BOUND}].
+     */
+    public void findOptimalSolution(ResolutionPolicy policy, IntVar... terms) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("DecompositionSolver.findOptimalSolution(...) cannot be called with ResolutionPolicy.SATISFACTION.");
+        }
+        int[] idx = new int[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            idx[i] = indexOf(model, terms[i]);
+            if (idx[i] < 0) {
+                throw new SolverException(terms[i].getName() + " cannot be found in the model, as expected");
+            }
+        }
+        this.mode = OPTIMAL;
+        this.policy = policy;
+        this.terms = idx;
+        solve();
+    }
+
+    /**
+     * Solves each component, possibly concurrently, and combines their results.
+     */
+    private void solve() {
+        solved = false;
+        for (Component c : components) {
+            c.reset();
+        }
+        if (mode == OPTIMAL && !infeasible) {
+            for (Component c : components) {
+                c.setObjective(terms);
+            }
+        }
+        solved = true;
+        hasSolution = !infeasible;
+        limit = false;
+        nbSolutions = infeasible ? 0 : 1;
+        bestValue = 0;
+        if (mode == OPTIMAL && !infeasible) {
+            // terms instantiated by the root propagation
+            for (int i = 0; i < terms.length; i++) {
+                if (indexOfComponent(terms[i]) < 0) {
+                    bestValue += solution[terms[i]];
+                }
+            }
+        }
+        if (nbThreads > 1 && components.length > 1) {
+            ForkJoinPool pool = new ForkJoinPool(nbThreads);
+            try {
+                pool.submit(() -> IntStream.range(0, components.length).parallel().forEach(k -> components[k].solve())).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                limit = true;
+            } catch (ExecutionException e) {
+                throw new SolverException("A component failed to be solved: " + e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        } else {
+            // once a component has no solution, neither has the problem
+            for (int k = 0; k < components.length && hasSolution; k++) {
+                components[k].solve();
+                hasSolution &= components[k].hasSolution;
+            }
+        }
+        for (Component c : components) {
+            if (c.solved) {
+                hasSolution &= c.hasSolution;
+                limit |= c.limit;
+                nbSolutions = Math.multiplyExact(nbSolutions, c.nbSolutions);
+                bestValue += c.bestValue;
+            }
+        }
+        if (!hasSolution) {
+            nbSolutions = 0;
+        }
+    }
+
+    /**
+     * Return the index of the component containing the <code>i</code>-th variable of the model, -1 if none.
+     */
+    private int indexOfComponent(int i) {
+        for (int k = 0; k < components.length; k++) {
+            if (components[k].contains(i)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// RELATED TO RESULTS ////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns information on the feasibility of the problem, on the last resolution.
+     * <p>
+     * Possible back values are:
+     * <br/>- {@link org.chocosolver.util.ESat#TRUE}: a solution has been found,
+     * <br/>- {@link org.chocosolver.util.ESat#FALSE}: the CSP has been proven to have no solution,
+     * <br/>- {@link org.chocosolver.util.ESat#UNDEFINED}: no solution has been found so far (within given limits)
+     * without proving the unfeasibility, though.
+     *
+     * @return an {@link org.chocosolver.util.ESat}.
+     */
+    public ESat isFeasible() {
+        if (!solved) return ESat.UNDEFINED;
+        boolean proven = false;
+        for (Component c : components) {
+            proven |= c.solved && !c.hasSolution && !c.limit;
+        }
+        if (infeasible || proven) return ESat.FALSE;
+        else if (hasSolution) return ESat.TRUE;
+        else return ESat.UNDEFINED;
+    }
+
+    /**
+     * @return <code>true</code> if a limit has been reached while solving a component during the last resolution,
+     * that is, if the resolution is not complete.
+     */
+    public boolean hasReachedLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of solutions found on the last resolution.
+     */
+    public long getSolutionCount() {
+        return nbSolutions;
+    }
+
+    /**
+     * @return the number of nodes explored by all the components on the last resolution.
+     */
+    public long getNodeCount() {
+        long nodes = 0;
+        for (Component c : components) {
+            if (c.solver != null) {
+                nodes += c.solver.getMeasures().getNodeCount();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * @return the number of fails encountered by all the components on the last resolution.
+     */
+    public long getFailCount() {
+        long fails = 0;
+        for (Component c : components) {
+            if (c.solver != null) {
+                fails += c.solver.getMeasures().getFailCount();
+            }
+        }
+        return fails;
+    }
+
+    /**
+     * @return the best value of the sum of the terms found on the last optimization.
+     * @throws SolverException if no solution has been found.
+     */
+    public long getBestValue() {
+        if (!hasSolution || mode != OPTIMAL) {
+            throw new SolverException("No solution of an optimization problem has been found");
+        }
+        return bestValue;
+    }
+
+    /**
+     * Get the value of <code>var</code> in the solution found (the best one, on optimisation problems).
+     *
+     * @param var a variable of the model
+     * @return the value of <code>var</code> in the solution
+     * @throws SolverException if no solution has been found.
+     */
+    public int getIntVal(IntVar var) {
+        if (!hasSolution || !solved) {
+            throw new SolverException("Empty solution. No solution found");
+        }
+        int idx = indexOf(model, var);
+        if (idx < 0) {
+            throw new SolverException(var.getName() + " cannot be found in the model, as expected");
+        }
+        return solution[idx];
+    }
+
+    /**
+     * Return the index of <code>var</code> within the variables of <code>solver</code>, -1 if it cannot be found
+     */
+    private static int indexOf(Solver solver, Variable var) {
+        for (int i = 0; i < solver.getNbVars(); i++) {
+            if (solver.getVar(i) == var) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * An independent component: a copy of the model restricted to the constraints of the component,
+     * which branches on the variables of the component only.
+     */
+    private static final class Component implements IMonitorSolution {
+
+        final DecompositionSolver master;
+        /* indices, in the model, of the variables of the component */
+        final int[] indices;
+        /* copies of the variables of the component, indexed like indices */
+        final IntVar[] mapping;
+        /* variables to branch on: the variables of the component which are not views */
+        final IntVar[] decisionVars;
+        /* the copy of the model, null for a single unconstrained variable */
+        final Solver solver;
+        /* multiplicities of the variables of the component in the objective, indexed like indices */
+        int[] coeffs;
+        IntVar objective;
+        Constraint sum;
+        /* number of variables of the copy before declaring the objective */
+        int nbVars;
+
+        // resolution state
+        boolean solved, hasSolution, limit;
+        long nbSolutions, bestValue;
+
+        Component(DecompositionSolver master, List<Integer> nodes, List<Constraint> constraints, boolean[] free) {
+            this.master = master;
+            Solver model = master.model;
+            int n = nodes.size();
+            this.indices = new int[n];
+            for (int i = 0; i < n; i++) {
+                indices[i] = nodes.get(i);
+            }
+            this.mapping = new IntVar[n];
+            if (constraints.isEmpty() && n == 1) {
+                this.solver = null;
+                mapping[0] = (IntVar) model.getVar(indices[0]);
+            } else {
+                // the copy only declares the constraints of the component, and the variables they rely on,
+                // so that the solutions recorded by the copy do not refer to the variables of the other components
+                this.solver = new Solver(model.getEnvironment().duplicate(), model.getName());
+                THashMap<Object, Object> identitymap = new THashMap<>();
+                boolean[] fixed = new boolean[free.length];
+                for (Constraint cstr : constraints) {
+                    // the variables instantiated by the root propagation may rely on the constraints of other components
+                    for (Propagator prop : cstr.getPropagators()) {
+                        for (int v = 0; v < prop.getNbVars(); v++) {
+                            int idx = master.id2idx.get(prop.getVar(v).getId());
+                            if (idx > -1 && !free[idx] && (prop.getVar(v).getTypeAndKind() & Variable.CSTE) == 0) {
+                                fixed[idx] = true;
+                            }
+                        }
+                    }
+                    cstr.duplicate(solver, identitymap);
+                    solver.post((Constraint) identitymap.get(cstr));
+                }
+                for (int i = 0; i < n; i++) {
+                    mapping[i] = (IntVar) identitymap.get(model.getVar(indices[i]));
+                }
+                for (int i = 0; i < fixed.length; i++) {
+                    if (fixed[i]) {
+                        solver.post(ICF.arithm((IntVar) identitymap.get(model.getVar(i)), "=", master.solution[i]));
+                    }
+                }
+                solver.plugMonitor(this);
+            }
+            List<IntVar> dvars = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if ((mapping[i].getTypeAndKind() & Variable.VIEW) == 0) {
+                    dvars.add(mapping[i]);
+                }
+            }
+            this.decisionVars = dvars.toArray(new IntVar[dvars.size()]);
+            if (solver != null) {
+                solver.set(ISF.minDom_LB(decisionVars));
+            }
+        }
+
+        boolean contains(int idx) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == idx) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Restores the root node of the copy of the model and clears the previous resolution, if any
+         */
+        void reset() {
+            if (solver != null) {
+                solver.getSearchLoop().reset();
+                if (sum != null) {
+                    solver.unpost(sum);
+                    // the variables declared for the objective would not be instantiated in the next solutions
+                    Variable[] vars = solver.getVars();
+                    for (int i = vars.length - 1; i >= nbVars; i--) {
+                        solver.unassociates(vars[i]);
+                    }
+                    sum = null;
+                    objective = null;
+                }
+            }
+            solved = hasSolution = limit = false;
+            nbSolutions = bestValue = 0;
+        }
+
+        /**
+         * Declares the terms of the objective, given by their indices in the model, which belong to this component
+         */
+        void setObjective(int[] terms) {
+            coeffs = new int[indices.length];
+            List<IntVar> vars = new ArrayList<>();
+            long lb = 0, ub = 0;
+            for (int t = 0; t < terms.length; t++) {
+                for (int i = 0; i < indices.length; i++) {
+                    if (indices[i] == terms[t]) {
+                        coeffs[i]++;
+                        vars.add(mapping[i]);
+                        lb += mapping[i].getLB();
+                        ub += mapping[i].getUB();
+                    }
+                }
+            }
+            if (solver != null && vars.size() > 0) {
+                if (lb < VF.MIN_INT_BOUND || ub > VF.MAX_INT_BOUND) {
+                    throw new SolverException("The sum of the terms of a component cannot be held by an integer variable: ["
+                            + lb + ", " + ub + "]");
+                }
+                nbVars = solver.getNbVars();
+                objective = VF.bounded("obj", (int) lb, (int) ub, solver);
+                sum = ICF.sum(vars.toArray(new IntVar[vars.size()]), objective);
+                solver.post(sum);
+            }
+        }
+
+        /**
+         * Solves this component according to the resolution parameters of the master
+         */
+        void solve() {
+            solved = true;
+            if (solver == null) {
+                // a single unconstrained variable
+                IntVar var = mapping[0];
+                hasSolution = true;
+                nbSolutions = var.getDomainSize();
+                int value = var.getLB();
+                if (master.mode == OPTIMAL && coeffs[0] > 0) {
+                    value = master.policy == ResolutionPolicy.MAXIMIZE ? var.getUB() : var.getLB();
+                    bestValue = (long) coeffs[0] * value;
+                }
+                master.solution[indices[0]] = value;
+                return;
+            }
+            switch (master.mode) {
+                case FIRST:
+                    solver.findSolution();
+                    break;
+                case ALL:
+                    solver.findAllSolutions();
+                    break;
+                case OPTIMAL:
+                    if (objective != null) {
+                        solver.findOptimalSolution(master.policy, objective);
+                    } else {
+                        solver.findSolution();
+                    }
+                    break;
+            }
+            nbSolutions = solver.getMeasures().getSolutionCount();
+            limit = solver.hasReachedLimit();
+        }
+
+        @Override
+        public void onSolution() {
+            if (!hasSolution || master.mode == OPTIMAL) {
+                // the last solution found is the best one
+                for (int i = 0; i < indices.length; i++) {
+                    master.solution[indices[i]] = mapping[i].getValue();
+                }
+                if (objective != null) {
+                    bestValue = objective.getValue();
+                }
+                hasSolution = true;
+            }
+        }
+    }
+}
@@ -28,11 +28,19 @@
  */
 package org.chocosolver.solver;
 
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.nogood.NogoodStoreFromRestarts;
 import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.thread.AbstractParallelMaster;
+import org.chocosolver.solver.thread.NogoodExchange;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.ESat;
 
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
 /**
  * A MasterSolver which enables multi-thread resolution.
  * The main idea of that class is to solve the same problem
@@ -42,7 +50,13 @@ import org.chocosolver.util.ESat;
  * On satisfaction problem, the first solver who finds a solution
  * advises the others.
  * On optimisation problem, the best value found so far is shared among
- * all the solvers.
+ * all the solvers: it is stored in an atomic integer, which each solver reads
+ * before applying a decision and on restarts.
+ * The first solver which completes its search stops the others.
+ * <p>
+ * Since the information exchanged depends on thread timing, two runs may end with different solutions and statistics.
+ * An opt-in deterministic mode (see {@link #setDeterministic(int)}) makes the solvers synchronize on a logical clock,
+ * based on the number of nodes each of them has explored: information is only exchanged at these barriers.
  * <p>
  * <p>
  * The expected ways to solve a problem using MasterSolver is:
@@ -81,7 +95,7 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
     /**
      * State if all solvers have reached a limit
      */
-    boolean limit;
+    volatile boolean limit;
 
     /**
      * resolution policy defined.
@@ -91,19 +105,53 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
     /**
      * Number of solutions found
      */
-    int nbSolution;
+    final AtomicInteger nbSolution;
 
     /**
      * Value of the objective variable, if any
      */
-    int bestValue;
+    final AtomicInteger bestValue;
+
+    /**
+     * Number of nodes between two barriers in deterministic mode, 0 if the mode is disabled.
+     */
+    int period;
+
+    /**
+     * Barrier of the slaves, in deterministic mode
+     */
+    Phaser barrier;
+
+    /**
+     * Information declared by each slave before arriving at a barrier, in deterministic mode:
+     * whether it has found a solution, the best value it has found on its own and whether it has completed its search.
+     */
+    boolean[] localSolution, localSuccess;
+    int[] localBest;
+
+    /**
+     * Information merged when the barrier is tripped, read by the slaves after it
+     */
+    boolean sharedSolution, halt;
+    int sharedBest;
+
+    /**
+     * Number of barriers tripped
+     */
+    int nbBarriers;
+
+    /**
+     * Cumulated time spent by the slaves waiting at barriers, in nanoseconds
+     */
+    final AtomicLong barrierTime;
 
     public MasterSolver() {
         feasible = ESat.FALSE;
         limit = true;
         policy = ResolutionPolicy.SATISFACTION;
-        nbSolution = 0;
-        bestValue = 0;
+        nbSolution = new AtomicInteger();
+        bestValue = new AtomicInteger();
+        barrierTime = new AtomicLong();
     }
 
     /**
@@ -112,17 +160,16 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
      * The solvers created are available thanks to the {@code }
      * <b>
      * Thus, there is n solvers in the returned array</b>
-     * Note that only the variables and the constraints are duplicated.
+     * Note that only the variables and the constraints are duplicated, the copies being built concurrently.
      *
      * @param model the model to duplicate
      * @param n     number of of copies to make.
      */
     public void populate(Solver model, int n) {
-        solvers = new Solver[n + 1];
-        solvers[0] = model;
-        for (int i = 1; i < n + 1; i++) {
-            solvers[i] = model.duplicateModel();
-        }
+        Solver[] copies = new Solver[n + 1];
+        copies[0] = model;
+        IntStream.rangeClosed(1, n).parallel().forEach(i -> copies[i] = model.duplicateModel());
+        solvers = copies;
     }
 
     /**
@@ -159,6 +206,74 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
         }
     }
 
+    /**
+     * Enables nogood sharing among the solvers.
+     * Each solver is expected to declare its own {@link NogoodStoreFromRestarts}, posted and plugged as a monitor,
+     * on its copy of the same variables (in the same order).
+     * Then, on each restart, a solver publishes the nogoods it extracts and imports the ones published by the others.
+     * Only nogoods made of at most <code>maxSize</code> decisions are exchanged.
+     *
+     * @param capacity maximum number of nogoods stored at a time in the exchange buffer
+     * @param maxSize  maximum size of a nogood to be exchanged
+     * @return the exchange buffer shared by the solvers
+     */
+    public NogoodExchange shareNogoods(int capacity, int maxSize) {
+        NogoodExchange exchange = new NogoodExchange(capacity);
+        for (int i = 0; i < solvers.length; i++) {
+            for (Constraint c : solvers[i].getCstrs()) {
+                if (c instanceof NogoodStoreFromRestarts) {
+                    ((NogoodStoreFromRestarts) c).share(exchange, i, maxSize);
+                }
+            }
+        }
+        return exchange;
+    }
+
+    /**
+     * Enables, or disables, the deterministic mode.
+     * <p>
+     * In deterministic mode, each solver stops every <code>period</code> nodes (as counted by its
+     * {@link org.chocosolver.solver.search.measure.IMeasures}) and waits for the others at a barrier.
+     * Solutions, bounds and completions are only exchanged at these barriers:
+     * a solver which completes its search does not stop the others immediately, they stop at their next barrier.
+     * Thus, given the same solvers and search strategies, a resolution always yields the same solutions and statistics,
+     * whatever the thread timing.
+     * <p>
+     * The shorter the period, the more often bounds are shared, but the higher the cost of waiting for the slowest solver
+     * (see {@link #getBarrierTime()}).
+     * Note that time limits and nogood sharing (see {@link #shareNogoods(int, int)}) still depend on thread timing.
+     *
+     * @param period number of nodes between two barriers, 0 to disable the deterministic mode
+     */
+    public void setDeterministic(int period) {
+        if (period < 0) {
+            throw new SolverException("The period of the deterministic mode should be positive");
+        }
+        this.period = period;
+    }
+
+    /**
+     * @return <code>true</code> if the deterministic mode is enabled
+     */
+    public boolean isDeterministic() {
+        return period > 0;
+    }
+
+    /**
+     * @return the number of barriers tripped during the last resolution, in deterministic mode
+     */
+    public int getBarrierCount() {
+        return nbBarriers;
+    }
+
+    /**
+     * @return the cumulated time, in nanoseconds, spent by the solvers waiting for each other at barriers
+     * during the last resolution, in deterministic mode
+     */
+    public long getBarrierTime() {
+        return barrierTime.get();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     /////////////////////////////////////// RELATED TO RESOLUTION //////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -175,7 +290,7 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
      * @return an {@link org.chocosolver.util.ESat}.
      */
     public ESat isFeasible() {
-        if (nbSolution > 0) return ESat.TRUE;
+        if (nbSolution.get() > 0) return ESat.TRUE;
         else if (limit) return ESat.UNDEFINED;
         else return ESat.FALSE;
     }
@@ -205,12 +320,16 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
      */
     public boolean findSolution() {
         this.policy = ResolutionPolicy.SATISFACTION;
+        this.nbSolution.set(0);
+        this.bestValue.set(0);
+        this.limit = true;
         this.slaves = new SlaveSolver[solvers.length];
         for (int i = 0; i < solvers.length; i++) {
             this.slaves[i] = new SlaveSolver(this, i, solvers[i]);
         }
+        prepareBarrier();
         this.distributedSlavery();
-        return nbSolution > 0;
+        return nbSolution.get() > 0;
     }
 
 
@@ -227,10 +346,14 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
         if (oidx == solvers[0].getNbVars()) {
             throw new SolverException(objective.getName() + " cannot be found in the first solver, as expected");
         }
+        this.nbSolution.set(0);
+        this.bestValue.set(policy == ResolutionPolicy.MINIMIZE ? Integer.MAX_VALUE : Integer.MIN_VALUE);
+        this.limit = true;
         this.slaves = new SlaveSolver[solvers.length];
         for (int i = 0; i < solvers.length; i++) {
             this.slaves[i] = new SlaveSolver(this, i, solvers[i], policy, (IntVar) solvers[i].getVar(oidx));
         }
+        prepareBarrier();
         this.distributedSlavery();
     }
 
@@ -252,54 +375,135 @@ public class MasterSolver extends AbstractParallelMaster<SlaveSolver> {
     }
 
     /**
-     * A solution of cost val has been found
-     * informs slaves that they must find better
+     * A solution of cost val has been found.
+     * The best value is updated without locking; slaves read it on their own (see {@link #getBestValue()}).
      *
      * @param val value of the objective variable
+     * @return <code>true</code> if the solution is better than the best one found so far
      */
-    synchronized boolean onSolution(int val) {
-        if (nbSolution == 0) {
-            bestValue = val;
-        }
-        nbSolution++;
-        boolean isBetter = false;
+    boolean onSolution(int val) {
+        boolean isBetter;
         switch (policy) {
             case MINIMIZE:
-                if (bestValue > val || nbSolution == 1) {
-                    bestValue = val;
-                    isBetter = true;
-                }
+                isBetter = bestValue.getAndAccumulate(val, Math::min) > val;
                 break;
             case MAXIMIZE:
-                if (bestValue < val || nbSolution == 1) {
-                    bestValue = val;
-                    isBetter = true;
-                }
+                isBetter = bestValue.getAndAccumulate(val, Math::max) < val;
                 break;
-            case SATISFACTION:
-                bestValue = 1;
-                isBetter = nbSolution == 1;
+            default:
+                isBetter = bestValue.getAndSet(1) == 0;
                 break;
         }
-        if (isBetter) {
-            for (int i = 0; i < slaves.length; i++) {
-                if (slaves[i] != null) {
-                    slaves[i].findBetterThan(val, policy);
-                }
-            }
-        }
+        nbSolution.incrementAndGet();
         return isBetter;
     }
 
-    synchronized void closeWithSuccess() {
+    /**
+     * @return <code>true</code> if at least one solution has been found by a slave.
+     */
+    boolean hasSolution() {
+        return nbSolution.get() > 0;
+    }
+
+    /**
+     * @return the best value of the objective variable found so far by the slaves, only relevant if
+     * at least one solution has been found.
+     */
+    int getBestValue() {
+        return bestValue.get();
+    }
+
+    void closeWithSuccess() {
         limit = false;
     }
 
+    /**
+     * The first slave which completes its task stops the others.
+     * In deterministic mode, the others are stopped at their next barrier.
+     */
     @Override
-    public synchronized void wishGranted() {
-        for (SlaveSolver s : slaves) {
-            s.stop();
+    public void wishGranted() {
+        if (period == 0) {
+            cancel();
         }
         super.wishGranted();
     }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// DETERMINISTIC MODE ////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private void prepareBarrier() {
+        int n = slaves.length;
+        localSolution = new boolean[n];
+        localSuccess = new boolean[n];
+        localBest = new int[n];
+        sharedSolution = halt = false;
+        nbBarriers = 0;
+        barrierTime.set(0);
+        barrier = period == 0 ? null : new Phaser(n) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                merge();
+                return registeredParties == 0;
+            }
+        };
+    }
+
+    /**
+     * Called by the last slave reaching a barrier, while the others are waiting:
+     * merges the information declared by each of them.
+     */
+    private void merge() {
+        nbBarriers++;
+        for (int i = 0; i < localBest.length; i++) {
+            halt |= localSuccess[i];
+            if (localSolution[i]) {
+                if (!sharedSolution) {
+                    sharedBest = localBest[i];
+                } else if (policy == ResolutionPolicy.MINIMIZE) {
+                    sharedBest = Math.min(sharedBest, localBest[i]);
+                } else if (policy == ResolutionPolicy.MAXIMIZE) {
+                    sharedBest = Math.max(sharedBest, localBest[i]);
+                }
+                sharedSolution = true;
+            }
+        }
+    }
+
+    private void declare(int id, boolean hasSolution, int best) {
+        localSolution[id] = hasSolution;
+        localBest[id] = best;
+    }
+
+    /**
+     * A slave reaches a barrier and waits for the others.
+     * Once it returns, {@link #sharedSolution} and {@link #sharedBest} can be read by the slave.
+     *
+     * @param id          the slave
+     * @param hasSolution <code>true</code> if the slave has found a solution on its own
+     * @param best        best value found by the slave on its own
+     * @return <code>true</code> if the slave should stop, because another one has completed its search
+     */
+    boolean arrive(int id, boolean hasSolution, int best) {
+        declare(id, hasSolution, best);
+        long t = System.nanoTime();
+        barrier.arriveAndAwaitAdvance();
+        barrierTime.addAndGet(System.nanoTime() - t);
+        return halt;
+    }
+
+    /**
+     * A slave stops attending barriers.
+     *
+     * @param id          the slave
+     * @param hasSolution <code>true</code> if the slave has found a solution on its own
+     * @param best        best value found by the slave on its own
+     * @param success     <code>true</code> if the slave has completed its search
+     */
+    void leave(int id, boolean hasSolution, int best, boolean success) {
+        declare(id, hasSolution, best);
+        localSuccess[id] = success;
+        barrier.arriveAndDeregister();
+    }
 }
@@ -98,6 +98,35 @@ public interface Settings extends Serializable {
         return 10000;
     }
 
+    /**
+     * Define the sampling of the revisions timed by the propagation engine:
+     * one revision out of N is timed (N being rounded up to a power of 2).
+     * Set to 0 to disable timing.
+     */
+    default public int getPropagatorTimeSampling() {
+        return 32;
+    }
+
+    /**
+     * Define the maximum number of consecutive executions of a non-idempotent propagator
+     * (see {@link org.chocosolver.solver.constraints.Propagator#isIdempotent()}) triggered by its own modifications.
+     * Set to 0 to never execute a propagator again because of its own modifications.
+     */
+    default public int getMaxConsecutiveReruns() {
+        return 16;
+    }
+
+    /**
+     * Define the period, in revisions, of the interruption points of the propagation engine:
+     * every N revisions (N being rounded up to a power of 2), the search monitors observing the propagation
+     * (see {@link org.chocosolver.solver.search.loop.monitors.IMonitorPropagation}) are called,
+     * so that a limit can be reached, and the fix-point abandoned, in the middle of a propagation.
+     * Set to 0 to disable interruption points.
+     */
+    default public int getPropagationCheckPeriod() {
+        return 1024;
+    }
+
     /**
      * Set to true to plug explanation engine in.
      */
@@ -29,23 +29,53 @@
 package org.chocosolver.solver;
 
 import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
 import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
 import org.chocosolver.solver.thread.AbstractParallelSlave;
 import org.chocosolver.solver.variables.IntVar;
 
 /**
+ * A slave which drives a solver on behalf of a {@link MasterSolver}.
+ * <p>
+ * The master only calls a slave from another thread to stop it (see {@link #stop()}), which simply sets a flag.
+ * On its own thread, before each decision and on each restart, the slave checks that flag
+ * and reads the best value shared by the master.
+ * In deterministic mode, the best value is only read at barriers, every given number of nodes
+ * (see {@link MasterSolver#setDeterministic(int)}).
  * <br/>
  *
  * @author Charles Prud'homme
  * @version choco
  * @since 27/10/14
  */
-public class SlaveSolver extends AbstractParallelSlave<MasterSolver> {
+public class SlaveSolver extends AbstractParallelSlave<MasterSolver> implements IMonitorDownBranch, IMonitorRestart {
 
     Solver solver;
     ResolutionPolicy policy;
     IntVar objective;
 
+    /**
+     * Set by the master to stop this slave
+     */
+    private volatile boolean stop;
+
+    /**
+     * Set to true when the search has been interrupted because of {@link #stop}
+     */
+    private boolean stopped;
+
+    /**
+     * Best value found by this slave on its own, and whether it has found one, used in deterministic mode
+     */
+    private boolean hasSolution;
+    private int best;
+
+    /**
+     * Number of nodes at which the next barrier is expected, in deterministic mode
+     */
+    private long nextBarrier;
+
     /**
      * Create a slave born to be mastered and work in parallel
      *
@@ -78,19 +108,37 @@ public class SlaveSolver extends AbstractParallelSlave<MasterSolver> {
         solver.plugMonitor((IMonitorSolution) () -> {
             ObjectiveManager om = solver.getSearchLoop().getObjectiveManager();
             int val = om.getPolicy() == ResolutionPolicy.SATISFACTION ? 1 : om.getBestSolutionValue().intValue();
+            hasSolution = true;
+            best = val;
             master.onSolution(val);
         });
-        if (policy.equals(ResolutionPolicy.SATISFACTION)) {
-            solver.findSolution();
-            if (!solver.hasReachedLimit()) {
-                master.closeWithSuccess();
+        solver.plugMonitor(this);
+        nextBarrier = master.period;
+        boolean success = false;
+        try {
+            if (stop) {
+                stopped = true;
+                return;
+            }
+            if (policy.equals(ResolutionPolicy.SATISFACTION)) {
+                solver.findSolution();
+            } else {
+                solver.findOptimalSolution(policy, objective);
             }
-        } else {
-            solver.findOptimalSolution(policy, objective);
-            if (!solver.hasReachedLimit()) {
-                master.closeWithSuccess();
+            success = !solver.hasReachedLimit() && !stopped;
+        } finally {
+            if (master.isDeterministic()) {
+                // the others must not wait for this slave anymore
+                master.leave(id, hasSolution, best, success);
             }
         }
+        // the objective manager reports the best value found by all the slaves
+        if (policy != ResolutionPolicy.SATISFACTION && master.hasSolution()) {
+            findBetterThan(master.getBestValue(), policy);
+        }
+        if (success) {
+            master.closeWithSuccess();
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -111,7 +159,66 @@ public class SlaveSolver extends AbstractParallelSlave<MasterSolver> {
         }
     }
 
+    @Override
     public void stop() {
-        solver.getSearchLoop().forceAlive(false);
+        stop = true;
+    }
+
+    /**
+     * Called on the slave's thread, at node boundaries: stops the search if required,
+     * otherwise reads the best value shared by the master.
+     */
+    private void synchronize() {
+        if (stop) {
+            stopped = true;
+            solver.getSearchLoop().interrupt("stopped by the master");
+        } else if (master.isDeterministic()) {
+            if (solver.getMeasures().getNodeCount() >= nextBarrier) {
+                nextBarrier += master.period;
+                if (master.arrive(id, hasSolution, best)) {
+                    stopped = true;
+                    solver.getSearchLoop().interrupt("stopped at a barrier");
+                } else if (master.sharedSolution) {
+                    importBound(master.sharedBest);
+                }
+            }
+        } else if (master.hasSolution()) {
+            importBound(master.getBestValue());
+        }
+    }
+
+    private void importBound(int value) {
+        if (policy != ResolutionPolicy.SATISFACTION) {
+            // the objective manager forces strictly better solutions only once it has found one
+            int offset = solver.getMeasures().getSolutionCount() > 0 ? 0 : 1;
+            findBetterThan(policy == ResolutionPolicy.MINIMIZE ? value - offset : value + offset, policy);
+        }
+    }
+
+    @Override
+    public void beforeDownLeftBranch() {
+        synchronize();
+    }
+
+    @Override
+    public void afterDownLeftBranch() {
+    }
+
+    @Override
+    public void beforeDownRightBranch() {
+        synchronize();
+    }
+
+    @Override
+    public void afterDownRightBranch() {
+    }
+
+    @Override
+    public void beforeRestart() {
+        synchronize();
+    }
+
+    @Override
+    public void afterRestart() {
     }
 }
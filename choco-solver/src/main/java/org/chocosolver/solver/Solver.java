@@ -60,6 +60,9 @@ import org.chocosolver.util.ESat;
 
 import java.io.*;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * The <code>Solver</code> is the header component of Constraint Programming.
@@ -490,6 +493,24 @@ public class Solver implements Serializable {
         vars[vIdx++] = variable;
     }
 
+    /**
+     * Ensure that <code>this</code> can store at least <code>nbVars</code> variables and <code>nbCstrs</code> constraints
+     * without growing its internal structures.
+     * Recommended usage: to be called before creating a large model, or before a call to {@link #post(Constraint...)}
+     * with many constraints.
+     *
+     * @param nbVars  expected number of variables
+     * @param nbCstrs expected number of constraints
+     */
+    public void ensureCapacity(int nbVars, int nbCstrs) {
+        if (nbVars > vars.length) {
+            vars = Arrays.copyOf(vars, Math.max(nbVars, vars.length * 3 / 2 + 1));
+        }
+        if (nbCstrs > cstrs.length) {
+            cstrs = Arrays.copyOf(cstrs, Math.max(nbCstrs, cstrs.length * 3 / 2 + 1));
+        }
+    }
+
     /**
      * Unlink the variable from <code>this</code>.
      *
@@ -561,22 +582,14 @@ public class Solver implements Serializable {
             dynAdd = true;
         }
         // then store the constraints
-        if (cIdx + cs.length >= cstrs.length) {
-            int nsize = cstrs.length;
-            while (cIdx + cs.length >= nsize) {
-                nsize *= 3 / 2 + 1;
-            }
-            Constraint[] tmp = cstrs;
-            cstrs = new Constraint[nsize];
-            System.arraycopy(tmp, 0, cstrs, 0, cIdx);
-        }
+        ensureCapacity(vIdx, cIdx + cs.length);
         System.arraycopy(cs, 0, cstrs, cIdx, cs.length);
         cIdx += cs.length;
         // specific behavior for dynamic addition and/or reified constraints
+        if (dynAdd) {
+            engine.dynamicAddition(permanent, cs);
+        }
         for (int i = 0; i < cs.length; i++) {
-            if (dynAdd) {
-                engine.dynamicAddition(cs[i], permanent);
-            }
             if (cs[i].isReified()) {
                 try {
                     cs[i].reif().setToTrue(Cause.Null);
@@ -608,10 +621,47 @@ public class Solver implements Serializable {
                 engine.dynamicDeletion(c);
             }
             // 4. remove the propagators of the constraint from its variables
-            for (Propagator prop : c.getPropagators()) {
-                for (int v = 0; v < prop.getNbVars(); v++) {
-                    prop.getVar(v).unlink(prop);
-                }
+            unlink(c);
+        }
+    }
+
+    /**
+     * Remove permanently the constraints <code>cs</code> from the constraint network,
+     * in a single pass over the constraints of <code>this</code>.
+     * Constraints which are not posted are ignored.
+     *
+     * @param cs the constraints to remove
+     */
+    public void unpost(Constraint... cs) {
+        Set<Constraint> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        Collections.addAll(toRemove, cs);
+        // 1. remove them from the network, the order of the remaining constraints is kept
+        Constraint[] removed = new Constraint[toRemove.size()];
+        int k = 0, j = 0;
+        for (int i = 0; i < cIdx; i++) {
+            if (toRemove.contains(cstrs[i])) {
+                removed[k++] = cstrs[i];
+            } else {
+                cstrs[j++] = cstrs[i];
+            }
+        }
+        Arrays.fill(cstrs, j, cIdx, null);
+        cIdx = j;
+        removed = Arrays.copyOf(removed, k);
+        // 2. check if the resolution already started -> if true, dynamic deletion
+        if (engine != NoPropagationEngine.SINGLETON && engine.isInitialized()) {
+            engine.dynamicDeletion(removed);
+        }
+        // 3. remove the propagators of the constraints from their variables
+        for (int i = 0; i < k; i++) {
+            unlink(removed[i]);
+        }
+    }
+
+    private static void unlink(Constraint c) {
+        for (Propagator prop : c.getPropagators()) {
+            for (int v = 0; v < prop.getNbVars(); v++) {
+                prop.getVar(v).unlink(prop);
             }
         }
     }
@@ -830,7 +880,7 @@ public class Solver implements Serializable {
      */
     protected void solve(boolean stopAtFirst) {
         if (engine == NoPropagationEngine.SINGLETON) {
-            this.set(PropagationEngineFactory.DEFAULT.make(this));
+            makeDefaultEngine();
         }
         measures.setReadingTimeCount(creationTime + System.nanoTime());
         search.launch(stopAtFirst);
@@ -844,11 +894,20 @@ public class Solver implements Serializable {
      */
     public void propagate() throws ContradictionException {
         if (engine == NoPropagationEngine.SINGLETON) {
-            this.set(PropagationEngineFactory.DEFAULT.make(this));
+            makeDefaultEngine();
         }
         engine.propagate();
     }
 
+    /**
+     * Build the default propagation engine, the time spent is recorded in the measures.
+     */
+    private void makeDefaultEngine() {
+        long time = -System.nanoTime();
+        this.set(PropagationEngineFactory.DEFAULT.make(this));
+        measures.setEngineBuildingTimeCount(time + System.nanoTime());
+    }
+
     /**
      * Return the current state of the CSP.
      * <p>
@@ -969,6 +1028,11 @@ public class Solver implements Serializable {
      * <p>
      * Note that a new instance of the environment is made, preserving the initial choice.
      * <p>
+     * The data of the constraints which are never modified once built, like the tuples of a table constraint
+     * or a multi-valued decision diagram, are shared by the copy rather than copied.
+     * Several copies of a solver can be made concurrently, from different threads, as long as the solver
+     * is not modified meanwhile.
+     * <p>
      * Duplicating a solver is only possible before any resolution process began.
      * This is a strong restriction which may be removed in the future.
      * Indeed, duplicating a solver should only be considered while dealing with multi-threading.
@@ -977,18 +1041,25 @@ public class Solver implements Serializable {
      * @throws org.chocosolver.solver.exception.SolverException if the search has already begun.
      */
     public Solver duplicateModel() {
+        return duplicateModel(new THashMap<>());
+    }
+
+    /**
+     * Duplicate the model declares within <code>this</code>, see {@link #duplicateModel()}.
+     * On return, <code>identitymap</code> maps each variable and constraint of <code>this</code> to its copy,
+     * which enables to retrieve the copy of a given variable.
+     *
+     * @param identitymap an empty map, filled with pairs (original object, copied object)
+     * @return a copy of <code>this</code>
+     * @throws org.chocosolver.solver.exception.SolverException if the search has already begun.
+     */
+    public Solver duplicateModel(THashMap<Object, Object> identitymap) {
         if (environment.getWorldIndex() > 0) {
             throw new SolverException("Duplicating a solver cannot be achieved once the resolution has begun.");
         }
         // Create a fresh solver
-        Solver clone;
-        try {
-            clone = new Solver(this.environment.getClass().newInstance(), this.name);
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new SolverException("The current solver cannot be duplicated:\n" + e.getMessage());
-        }
+        Solver clone = new Solver(this.environment.duplicate(), this.name);
 
-        THashMap<Object, Object> identitymap = new THashMap<>();
         // duplicate variables
         for (int i = 0; i < this.vIdx; i++) {
             this.vars[i].duplicate(clone, identitymap);
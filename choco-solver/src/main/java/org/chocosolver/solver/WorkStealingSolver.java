@@ -0,0 +1,718 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver;
+
+import gnu.trove.map.hash.THashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.objective.ObjectiveManager;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
+import org.chocosolver.solver.search.loop.monitors.IMonitorSolution;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.RootDecision;
+import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.thread.Subproblem;
+import org.chocosolver.solver.thread.SubproblemStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.ESat;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * A multi-thread solver which splits the search space among workers.
+ * <p>
+ * Unlike {@link MasterSolver}, where each solver explores the entire tree search with its own strategy,
+ * here the tree search is decomposed into disjoint {@link Subproblem}s, each of them being explored by one
+ * copy of the model (see {@link Solver#duplicateModel()}) running in a fork-join pool.
+ * The decomposition is made on demand: when less than {@link #getSplitThreshold()} subproblems are waiting to be explored,
+ * a busy worker gives away the right branch of its shallowest open decision, which is then stolen by an idle worker.
+ * <p>
+ * On satisfaction problems, the first solution found stops all the workers.
+ * When all solutions are enumerated, the solution counts of the subproblems are summed up.
+ * On optimisation problems, the best value found so far is shared among all the workers,
+ * and each of them reads it before applying a decision.
+ * <p>
+ * The expected ways to solve a problem using WorkStealingSolver is:
+ * <pre>
+ *     Solver solver = new Solver();
+ *     // declare the variables and constraints
+ *     //...
+ *     // Then create the work-stealing solver, with 4 workers
+ *     WorkStealingSolver wss = new WorkStealingSolver(solver, 4);
+ *     // configure the search strategy of each worker (optional, but recommended)
+ *     for (Solver w : wss.getWorkers()) {
+ *         w.set(ISF.minDom_LB(w.retrieveIntVars()));
+ *     }
+ *     // Finally, solve the problem
+ *     wss.findAllSolutions();
+ * </pre>
+ * Decisions have to be made by {@link org.chocosolver.solver.search.strategy.strategy.IntStrategy}-like strategies
+ * (ie, {@link FastDecision}s) to be given away. Other decisions are simply explored locally.
+ * Since each subproblem is solved in a fresh search, restarts and search monitors plugged in a worker
+ * are reset on each subproblem.
+ * A restart would explore again the right branches given away, so restarts are not allowed when
+ * enumerating all solutions: {@link #findAllSolutions()} fails if a worker restarts.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class WorkStealingSolver {
+
+    private static final int FIRST = 0, ALL = 1, OPTIMAL = 2;
+
+    /**
+     * The model to solve
+     */
+    final Solver model;
+
+    /**
+     * Copies of the model, one per worker
+     */
+    final Worker[] workers;
+
+    /**
+     * Workers not currently exploring a subproblem
+     */
+    final LinkedBlockingQueue<Worker> idle;
+
+    /**
+     * Number of subproblems waiting to be explored below which a worker gives a subproblem away
+     */
+    int splitThreshold;
+
+    // resolution parameters
+    int mode;
+    ResolutionPolicy policy;
+    int objIdx;
+
+    // resolution state
+    ForkJoinPool pool;
+    CountDownLatch done;
+    final AtomicInteger pending, queued;
+    final AtomicReference<Throwable> failure;
+    volatile boolean stop;
+    volatile boolean limit;
+
+    // shared solution
+    final AtomicInteger bestValue;
+    volatile boolean hasSolution;
+    int[] solution;
+
+    // statistics
+    final LongAdder nbSolutions, nbNodes, nbFails, nbSubproblems;
+
+    /**
+     * Creates a work-stealing solver for <code>model</code> with <code>nbWorkers</code> workers.
+     * The model is duplicated <code>nbWorkers</code> times, and is not modified by the resolution.
+     *
+     * @param model     the model to solve, the resolution should not have begun
+     * @param nbWorkers number of workers (ie, threads) to use
+     */
+    public WorkStealingSolver(Solver model, int nbWorkers) {
+        if (nbWorkers < 1) {
+            throw new SolverException("WorkStealingSolver requires at least one worker");
+        }
+        this.model = model;
+        this.workers = new Worker[nbWorkers];
+        this.idle = new LinkedBlockingQueue<>();
+        // the copies of the model are built concurrently
+        IntStream.range(0, nbWorkers).parallel().forEach(i -> workers[i] = new Worker(this, model));
+        this.splitThreshold = nbWorkers;
+        this.pending = new AtomicInteger();
+        this.queued = new AtomicInteger();
+        this.failure = new AtomicReference<>();
+        this.bestValue = new AtomicInteger();
+        this.nbSolutions = new LongAdder();
+        this.nbNodes = new LongAdder();
+        this.nbFails = new LongAdder();
+        this.nbSubproblems = new LongAdder();
+        this.policy = ResolutionPolicy.SATISFACTION;
+        this.limit = true;
+    }
+
+    /**
+     * Return the solvers driven by the workers, for instance to configure their search strategies.
+     * The i<sup>th</sup> variable of a worker is the copy of the i<sup>th</sup> variable of the model.
+     *
+     * @return the array of solvers
+     */
+    public Solver[] getWorkers() {
+        Solver[] solvers = new Solver[workers.length];
+        for (int i = 0; i < workers.length; i++) {
+            solvers[i] = workers[i].solver;
+        }
+        return solvers;
+    }
+
+    /**
+     * @return the number of subproblems waiting to be explored below which a busy worker gives a subproblem away.
+     */
+    public int getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    /**
+     * Set the number of subproblems waiting to be explored below which a busy worker gives a subproblem away.
+     * The default value is the number of workers.
+     * Higher values enable a better load balancing, at the cost of more subproblems.
+     *
+     * @param splitThreshold a positive value
+     */
+    public void setSplitThreshold(int splitThreshold) {
+        this.splitThreshold = splitThreshold;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// RELATED TO RESOLUTION //////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Attempts to find a solution of the declared problem.
+     * The first worker which finds a solution stops the process.
+     *
+     * @return <code>true</code> if and only if a solution has been found.
+     */
+    public boolean findSolution() {
+        this.mode = FIRST;
+        this.policy = ResolutionPolicy.SATISFACTION;
+        solve();
+        return hasSolution;
+    }
+
+    /**
+     * Attempts to find all solutions of the declared problem.
+     * The workers should not restart, otherwise the subproblems given away would be counted twice.
+     *
+     * @return the number of found solutions.
+     * @throws SolverException if a worker restarts
+     */
+    public long findAllSolutions() {
+        this.mode = ALL;
+        this.policy = ResolutionPolicy.SATISFACTION;
+        solve();
+        return nbSolutions.sum();
+    }
+
+    /**
+     * Attempts optimize the value of the <code>objective</code> variable w.r.t. to the optimization <code>policy</code>.
+     *
+     * @param policy    optimization policy, among ResolutionPolicy.MINIMIZE and ResolutionPolicy.MAXIMIZE
+     * @param objective the variable to optimize, the variable must be declared in the model.
+     */
+    public void findOptimalSolution(ResolutionPolicy policy, IntVar objective) {
+        if (policy == ResolutionPolicy.SATISFACTION) {
+            throw new SolverException("WorkStealingSolver.findOptimalSolution(...) cannot be called with ResolutionPolicy.SATISFACTION.");
+        }
+        this.objIdx = indexOf(model, objective);
+        if (objIdx < 0) {
+            throw new SolverException(objective.getName() + " cannot be found in the model, as expected");
+        }
+        this.mode = OPTIMAL;
+        this.policy = policy;
+        solve();
+    }
+
+    /**
+     * Explores the tree search, starting from the root node, and waits for all the subproblems to be explored.
+     */
+    private void solve() {
+        stop = false;
+        limit = false;
+        hasSolution = false;
+        solution = null;
+        bestValue.set(policy == ResolutionPolicy.MAXIMIZE ? Integer.MIN_VALUE : Integer.MAX_VALUE);
+        nbSolutions.reset();
+        nbNodes.reset();
+        nbFails.reset();
+        nbSubproblems.reset();
+        failure.set(null);
+        idle.clear();
+        for (Worker w : workers) {
+            idle.add(w);
+        }
+        done = new CountDownLatch(1);
+        pool = new ForkJoinPool(workers.length);
+        try {
+            submit(Subproblem.ROOT);
+            boolean interrupted = false;
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    // stop the workers, then wait for them to complete their current subproblem
+                    stop = true;
+                    limit = true;
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new SolverException("A worker failed while exploring a subproblem: " + t);
+        }
+    }
+
+    /**
+     * Declares a new subproblem to explore
+     *
+     * @param subproblem a subproblem
+     */
+    void submit(Subproblem subproblem) {
+        pending.incrementAndGet();
+        queued.incrementAndGet();
+        SubproblemTask task = new SubproblemTask(this, subproblem);
+        if (ForkJoinTask.inForkJoinPool()) {
+            task.fork();
+        } else {
+            pool.execute(task);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if a busy worker should give a subproblem away.
+     */
+    boolean isHungry() {
+        return !stop && queued.get() < splitThreshold;
+    }
+
+    /**
+     * A worker has explored a subproblem.
+     *
+     * @param worker   the worker
+     * @param measures measures of the search of the subproblem
+     */
+    void onSubproblemExplored(Worker worker, IMeasures measures) {
+        nbSubproblems.increment();
+        nbNodes.add(measures.getNodeCount());
+        nbFails.add(measures.getFailCount());
+        if (mode != FIRST) {
+            nbSolutions.add(measures.getSolutionCount());
+        }
+        if (!stop && worker.solver.hasReachedLimit()) {
+            limit = true;
+        }
+    }
+
+    /**
+     * A worker has found a solution.
+     *
+     * @param worker the worker
+     */
+    void onSolution(Worker worker) {
+        switch (mode) {
+            case FIRST:
+                synchronized (this) {
+                    if (!hasSolution) {
+                        solution = worker.record();
+                        nbSolutions.increment();
+                        hasSolution = true;
+                    }
+                }
+                stop = true;
+                break;
+            case ALL:
+                if (!hasSolution) {
+                    synchronized (this) {
+                        if (!hasSolution) {
+                            solution = worker.record();
+                            hasSolution = true;
+                        }
+                    }
+                }
+                break;
+            case OPTIMAL:
+                int val = ((IntVar) worker.mapping[objIdx]).getValue();
+                synchronized (this) {
+                    if (!hasSolution || isBetter(val, bestValue.get())) {
+                        solution = worker.record();
+                        bestValue.set(val);
+                        hasSolution = true;
+                    }
+                }
+                break;
+        }
+    }
+
+    private boolean isBetter(int val, int best) {
+        return policy == ResolutionPolicy.MINIMIZE ? val < best : val > best;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    /////////////////////////////////////// RELATED TO RESULTS ////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns information on the feasibility of the problem, on the last resolution.
+     * <p>
+     * Possible back values are:
+     * <br/>- {@link org.chocosolver.util.ESat#TRUE}: a solution has been found,
+     * <br/>- {@link org.chocosolver.util.ESat#FALSE}: the CSP has been proven to have no solution,
+     * <br/>- {@link org.chocosolver.util.ESat#UNDEFINED}: no solution has been found so far (within given limits)
+     * without proving the unfeasibility, though.
+     *
+     * @return an {@link org.chocosolver.util.ESat}.
+     */
+    public ESat isFeasible() {
+        if (hasSolution) return ESat.TRUE;
+        else if (limit) return ESat.UNDEFINED;
+        else return ESat.FALSE;
+    }
+
+    /**
+     * @return <code>true</code> if at least one worker reached a limit during the last resolution,
+     * that is, if the resolution is not complete.
+     */
+    public boolean hasReachedLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of solutions found on the last resolution.
+     */
+    public long getSolutionCount() {
+        return nbSolutions.sum();
+    }
+
+    /**
+     * @return the number of nodes explored by all the workers on the last resolution.
+     */
+    public long getNodeCount() {
+        return nbNodes.sum();
+    }
+
+    /**
+     * @return the number of fails encountered by all the workers on the last resolution.
+     */
+    public long getFailCount() {
+        return nbFails.sum();
+    }
+
+    /**
+     * @return the number of subproblems explored on the last resolution.
+     */
+    public long getSubproblemCount() {
+        return nbSubproblems.sum();
+    }
+
+    /**
+     * @return the best value of the objective variable found on the last optimization.
+     * @throws SolverException if no solution has been found.
+     */
+    public int getBestValue() {
+        if (!hasSolution || mode != OPTIMAL) {
+            throw new SolverException("No solution of an optimization problem has been found");
+        }
+        return bestValue.get();
+    }
+
+    /**
+     * Get the value of <code>var</code> in the solution found (the best one, on optimisation problems).
+     *
+     * @param var a variable of the model
+     * @return the value of <code>var</code> in the solution
+     * @throws SolverException if no solution has been found.
+     */
+    public int getIntVal(IntVar var) {
+        if (!hasSolution) {
+            throw new SolverException("Empty solution. No solution found");
+        }
+        int idx = indexOf(model, var);
+        if (idx < 0) {
+            throw new SolverException(var.getName() + " cannot be found in the model, as expected");
+        }
+        return solution[idx];
+    }
+
+    /**
+     * Return the index of <code>var</code> within the variables of <code>solver</code>, -1 if it cannot be found
+     */
+    private static int indexOf(Solver solver, Variable var) {
+        for (int i = 0; i < solver.getNbVars(); i++) {
+            if (solver.getVar(i) == var) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Explores a subproblem with the first idle worker.
+     */
+    private static final class SubproblemTask extends RecursiveAction {
+
+        final WorkStealingSolver master;
+        final Subproblem subproblem;
+
+        SubproblemTask(WorkStealingSolver master, Subproblem subproblem) {
+            this.master = master;
+            this.subproblem = subproblem;
+        }
+
+        @Override
+        protected void compute() {
+            master.queued.decrementAndGet();
+            try {
+                if (!master.stop) {
+                    // no worker is idle only if the pool compensates a blocked thread: wait for one,
+                    // since the search strategy configured in a worker cannot be given to an extra copy of the model
+                    Worker worker = master.idle.take();
+                    try {
+                        worker.explore(subproblem);
+                    } finally {
+                        master.idle.offer(worker);
+                    }
+                }
+            } catch (Throwable t) {
+                master.failure.compareAndSet(null, t);
+                master.stop = true;
+            } finally {
+                if (master.pending.decrementAndGet() == 0) {
+                    master.done.countDown();
+                }
+            }
+        }
+    }
+
+    /**
+     * A copy of the model, which explores subproblems and gives away the right branch of its shallowest open decision
+     * on demand.
+     */
+    private static final class Worker implements IMonitorDownBranch, IMonitorSolution, IMonitorRestart {
+
+        final WorkStealingSolver master;
+        final Solver solver;
+        /* variables of solver, indexed like the ones of the model */
+        final Variable[] mapping;
+        /* variable id to index in the model */
+        final TIntIntHashMap id2idx;
+        /* the search strategy, as declared by the user, or the default one */
+        AbstractStrategy<Variable> strategy;
+        Subproblem current;
+
+        // buffers to describe a subproblem to give away
+        final ArrayList<Decision> path;
+        int[] vars, values;
+        DecisionOperator<IntVar>[] operators;
+
+        @SuppressWarnings("unchecked")
+        Worker(WorkStealingSolver master, Solver model) {
+            this.master = master;
+            THashMap<Object, Object> identitymap = new THashMap<>();
+            this.solver = model.duplicateModel(identitymap);
+            int n = model.getNbVars();
+            this.mapping = new Variable[n];
+            this.id2idx = new TIntIntHashMap(n, .5f, -1, -1);
+            for (int i = 0; i < n; i++) {
+                mapping[i] = (Variable) identitymap.get(model.getVar(i));
+                id2idx.put(mapping[i].getId(), i);
+            }
+            this.path = new ArrayList<>();
+            this.vars = new int[16];
+            this.values = new int[16];
+            this.operators = new DecisionOperator[16];
+            solver.plugMonitor(this);
+        }
+
+        /**
+         * Explores <code>subproblem</code> from scratch
+         *
+         * @param subproblem a subproblem
+         */
+        @SuppressWarnings("unchecked")
+        void explore(Subproblem subproblem) {
+            solver.getSearchLoop().reset();
+            if (strategy == null) {
+                if (solver.getStrategy() == null) {
+                    solver.getSettings().getSearchBinder().configureSearch(solver);
+                }
+                strategy = solver.getStrategy();
+            }
+            current = subproblem;
+            solver.set(new SubproblemStrategy(solver, mapping, subproblem, strategy));
+            switch (master.mode) {
+                case FIRST:
+                    solver.findSolution();
+                    break;
+                case ALL:
+                    solver.findAllSolutions();
+                    break;
+                case OPTIMAL:
+                    IntVar objective = (IntVar) mapping[master.objIdx];
+                    solver.set(new ObjectiveManager<IntVar, Integer>(objective, master.policy, true));
+                    importBound();
+                    solver.findOptimalSolution(master.policy, objective);
+                    break;
+            }
+            master.onSubproblemExplored(this, solver.getMeasures());
+        }
+
+        /**
+         * Reads the best value found so far by all the workers and updates the objective manager accordingly
+         */
+        @SuppressWarnings("unchecked")
+        void importBound() {
+            if (master.hasSolution) {
+                ObjectiveManager<IntVar, Integer> om = solver.getObjectiveManager();
+                int best = master.bestValue.get();
+                // the objective manager forces strictly better solutions only once it has found one
+                int offset = solver.getMeasures().getSolutionCount() > 0 ? 0 : 1;
+                if (master.policy == ResolutionPolicy.MINIMIZE) {
+                    om.updateBestUB(best - offset);
+                } else {
+                    om.updateBestLB(best + offset);
+                }
+            }
+        }
+
+        /**
+         * Gives away the right branch of the shallowest open decision, if any
+         */
+        @SuppressWarnings("unchecked")
+        void split() {
+            path.clear();
+            Decision d = solver.getSearchLoop().getLastDecision();
+            while (d != RootDecision.ROOT) {
+                path.add(d);
+                d = d.getPrevious();
+            }
+            int n = 0;
+            for (int i = path.size() - 1; i >= 0; i--, n++) {
+                d = path.get(i);
+                if (!(d instanceof FastDecision)) {
+                    return;
+                }
+                FastDecision fd = (FastDecision) d;
+                int idx = id2idx.get(fd.getDecisionVariable().getId());
+                if (idx < 0) {
+                    return;
+                }
+                if (n == vars.length) {
+                    vars = java.util.Arrays.copyOf(vars, n * 3 / 2 + 1);
+                    values = java.util.Arrays.copyOf(values, n * 3 / 2 + 1);
+                    operators = java.util.Arrays.copyOf(operators, n * 3 / 2 + 1);
+                }
+                vars[n] = idx;
+                values[n] = fd.getDecisionValue();
+                if (fd.hasNext()) {
+                    // the right branch is given away, and will not be explored here
+                    operators[n] = fd.getDecisionOperator().opposite();
+                    fd.once(true);
+                    master.submit(current.extend(n + 1, vars, operators, values));
+                    return;
+                }
+                operators[n] = fd.getBranch() < 2 ? fd.getDecisionOperator() : fd.getDecisionOperator().opposite();
+            }
+        }
+
+        /**
+         * Records the values of the integer variables, indexed like the variables of the model
+         */
+        int[] record() {
+            int[] values = new int[mapping.length];
+            for (int i = 0; i < mapping.length; i++) {
+                if ((mapping[i].getTypeAndKind() & Variable.KIND) == Variable.INT
+                        || (mapping[i].getTypeAndKind() & Variable.KIND) == Variable.BOOL) {
+                    values[i] = ((IntVar) mapping[i]).getValue();
+                }
+            }
+            return values;
+        }
+
+        private void beforeDownBranch() {
+            if (master.stop) {
+                solver.getSearchLoop().interrupt("another worker stops the search");
+            } else if (master.mode == OPTIMAL) {
+                importBound();
+            }
+        }
+
+        @Override
+        public void beforeDownLeftBranch() {
+            beforeDownBranch();
+        }
+
+        @Override
+        public void afterDownLeftBranch() {
+            if (master.isHungry()) {
+                split();
+            }
+        }
+
+        @Override
+        public void beforeDownRightBranch() {
+            beforeDownBranch();
+        }
+
+        @Override
+        public void afterDownRightBranch() {
+            if (master.isHungry()) {
+                split();
+            }
+        }
+
+        @Override
+        public void onSolution() {
+            master.onSolution(this);
+        }
+
+        @Override
+        public void beforeRestart() {
+            if (master.mode == ALL) {
+                // the right branches given away would be explored again
+                throw new SolverException("WorkStealingSolver.findAllSolutions() does not support restarts");
+            }
+        }
+
+        @Override
+        public void afterRestart() {
+        }
+    }
+}
@@ -109,6 +109,11 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
     private Operation[] operations; // propagator state operations
     private int nbPendingEvt = 0;   // counter of enqued records -- usable as trigger for complex algorithm
     public long fineERcalls, coarseERcalls;  // statistics of calls to filter
+    public long nbRevisions, nbWaits; // statistics of revisions, and of revisions of other propagators while scheduled
+    public long nbPrunings, nbFails; // statistics of variable modifications and contradictions caused
+    public long nbTimed, timeSpent; // statistics of timed revisions and their cumulated duration (in ns)
+    public long scheduledAt; // number of revisions run by the engine when this was scheduled
+    public int nbReruns; // number of consecutive schedules due to its own modifications, maintained by the engine
     protected Propagator aCause; // cause of variable modifications. The default value is 'this"
     protected final PropagatorPriority priority;
     protected final boolean reactToFineEvt;
@@ -117,7 +122,8 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
     protected final Solver solver;   // solver of this propagator
     // variable related information
     protected V[] vars;// List of <code>variable</code> objects -- a variable can occur more than once, but it could not have the same index
-    private int[] vindices;// index of this within the list of propagator of the i^th variable
+    private int[] vindices;// index of this within the list of propagator of the i^th variable, -1 once unlinked
+    private int engineIndex = -1; // dense index of this within the propagation engine, if the engine relies on it
 
     //***********************************************************************************
     // CONSTRUCTORS
@@ -304,7 +310,11 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         solver.getEnvironment().save(operations[NEW]);
         // update activity mask of variables
         for (int v = 0; v < vars.length; v++) {
-            vars[v].recordMask(getPropagationConditions(v));
+            int mask = getPropagationConditions(v);
+            vars[v].recordMask(mask);
+            if (vindices[v] > -1) {
+                vars[v].setPropagationConditions(vindices[v], mask);
+            }
         }
     }
 
@@ -317,7 +327,11 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         solver.getEnvironment().save(operations[REIFIED]);
         // update activity mask of variables
         for (int v = 0; v < vars.length; v++) {
-            vars[v].recordMask(getPropagationConditions(v));
+            int mask = getPropagationConditions(v);
+            vars[v].recordMask(mask);
+            if (vindices[v] > -1) {
+                vars[v].setPropagationConditions(vindices[v], mask);
+            }
         }
     }
 
@@ -340,6 +354,8 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
             state = PASSIVE;
             solver.getEnvironment().save(operations[ACTIVE]);
             //TODO: update var mask back
+            // a passive propagator does not need to be notified anymore, until backtrack:
+            // the propagation engine unsubscribes it from a variable the next time this one would notify it
             solver.getEngine().desactivatePropagator(this);
         }
     }
@@ -468,6 +484,15 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         return ID;
     }
 
+    /**
+     * Estimate the time spent in the revisions of this, based on the timed ones.
+     *
+     * @return the estimated time spent in the revisions, in nanoseconds
+     */
+    public long getEstimatedTime() {
+        return nbTimed == 0 ? 0 : (long) ((double) timeSpent * nbRevisions / nbTimed);
+    }
+
     /**
      * @return the number of fine events which have not been treated yet
      */
@@ -512,6 +537,60 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         vindices[idx] = val;
     }
 
+    /**
+     * Stop being notified of the events on the <i>vIdx</i>^th variable,
+     * until a call to {@link #subscribe(int, boolean)} or, if <i>backtrackable</i> is set to true, backtrack.
+     * Has no effect if this is already unsubscribed from the variable.
+     * This enables watched literal like schemes.
+     *
+     * @param vIdx          index of the variable in this
+     * @param backtrackable set to true to restore the subscription on backtrack
+     */
+    protected final void unsubscribe(int vIdx, boolean backtrackable) {
+        if (vindices[vIdx] > -1) {
+            vars[vIdx].unsubscribe(vindices[vIdx], backtrackable);
+        }
+    }
+
+    /**
+     * Be notified again of the events on the <i>vIdx</i>^th variable,
+     * until a call to {@link #unsubscribe(int, boolean)} or, if <i>backtrackable</i> is set to true, backtrack.
+     * Has no effect if this is already subscribed to the variable.
+     *
+     * @param vIdx          index of the variable in this
+     * @param backtrackable set to true to cancel the subscription on backtrack
+     */
+    protected final void subscribe(int vIdx, boolean backtrackable) {
+        if (vindices[vIdx] > -1) {
+            vars[vIdx].subscribe(vindices[vIdx], backtrackable);
+        }
+    }
+
+    /**
+     * @param vIdx index of the variable in this
+     * @return true if this is notified of the events on the <i>vIdx</i>^th variable
+     */
+    protected final boolean isSubscribed(int vIdx) {
+        return vindices[vIdx] > -1 && vars[vIdx].isSubscribed(vindices[vIdx]);
+    }
+
+    /**
+     * @return the dense index of this within the propagation engine, or -1 if the engine does not rely on it
+     */
+    public final int getEngineIndex() {
+        return engineIndex;
+    }
+
+    /**
+     * Changes the dense index of this within the propagation engine.
+     * This method should not be called by the user.
+     *
+     * @param idx new index, -1 to unset
+     */
+    public final void setEngineIndex(int idx) {
+        engineIndex = idx;
+    }
+
     /**
      * @return the number of variables involved in <code>this</code>.
      */
@@ -570,6 +649,15 @@ public abstract class Propagator<V extends Variable> implements Serializable, IC
         return reactToFineEvt;
     }
 
+    /**
+     * @return true iff a single execution of this propagator reaches its own fix-point, which is assumed by default.
+     * A propagator which returns false is scheduled again on its own modifications, up to
+     * {@link org.chocosolver.solver.Settings#getMaxConsecutiveReruns()} consecutive times.
+     */
+    public boolean isIdempotent() {
+        return true;
+    }
+
     @Override
     public String toString() {
         StringBuilder st = new StringBuilder();
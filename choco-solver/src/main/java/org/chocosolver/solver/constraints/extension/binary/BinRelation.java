@@ -50,5 +50,12 @@ public abstract class BinRelation {
      */
     public abstract boolean isConsistent(int x, int y);
 
+    /**
+     * Returns a relation equivalent to this one, to be used in a copy of the model.
+     * A relation is never modified once built, so it is shared by the copies rather than copied:
+     * it may be read concurrently by solvers running in different threads.
+     *
+     * @return a relation equivalent to this one
+     */
     public abstract BinRelation duplicate();
 }
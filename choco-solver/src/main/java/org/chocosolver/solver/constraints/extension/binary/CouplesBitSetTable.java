@@ -52,7 +52,6 @@ class CouplesBitSetTable extends BinRelation {
      */
     protected final int[] offsets;
 
-
     protected final boolean feasible;
 
     /**
@@ -93,14 +92,6 @@ class CouplesBitSetTable extends BinRelation {
         }
     }
 
-    // required for duplicate method, should not be called by default
-    private CouplesBitSetTable(BitSet[][] table, int[] offsets, boolean feasible) {
-        this.table = table;
-        this.offsets = offsets;
-        this.feasible = feasible;
-
-    }
-
     public boolean isConsistent(int x, int y) {
         return table[0][x - offsets[0]].get(y - offsets[1]);
     }
@@ -127,13 +118,6 @@ class CouplesBitSetTable extends BinRelation {
 
     @Override
     public BinRelation duplicate() {
-        BitSet[][] nTables = new BitSet[table.length][];
-        for (int i = 0; i < table.length; i++) {
-            nTables[i] = new BitSet[table[i].length];
-            for (int j = 0; j < table[i].length; j++) {
-                nTables[i][j] = (BitSet) table[i][j].clone();
-            }
-        }
-        return new CouplesBitSetTable(nTables, offsets.clone(), feasible);
+        return this;
     }
 }
@@ -45,13 +45,11 @@ class CouplesTable extends BinRelation {
      */
     protected final int offset1, offset2;
 
-
     /**
      * size of the initial domain of x and y
      */
     protected final int range1, range2;
 
-
     protected final boolean feasible;
 
     public CouplesTable(Tuples tuples, IntVar var1, IntVar var2) {
@@ -69,16 +67,6 @@ class CouplesTable extends BinRelation {
         }
     }
 
-    // required for duplicate method, should not be called by default
-    private CouplesTable(BitSet table, int offset1, int offset2, int range1, int range2, boolean feasible) {
-        this.table = table;
-        this.offset1 = offset1;
-        this.offset2 = offset2;
-        this.range1 = range1;
-        this.range2 = range2;
-        this.feasible = feasible;
-    }
-
     public boolean isConsistent(int x, int y) {
         return table.get((x - offset1) * range2 + y - offset2) == feasible;
     }
@@ -89,6 +77,6 @@ class CouplesTable extends BinRelation {
 
     @Override
     public BinRelation duplicate() {
-        return new CouplesTable((BitSet) table.clone(), offset1, offset2, range1, range2, feasible);
+        return this;
     }
 }
@@ -77,15 +77,6 @@ class IterTuplesTable extends TuplesList {
         buildInitialListOfSupports();
     }
 
-    // required for duplicate method, should not be called by default
-    private IterTuplesTable(int[][] tuplesIndexes, int n, int[] lowerbounds, int[] ranges, int[][][] table) {
-        super(tuplesIndexes);
-        this.nbVar = n;
-        this.lowerbounds = lowerbounds;
-        this.ranges = ranges;
-        this.table = table;
-    }
-
     /**
      * return the number of tuples supporting each value of variable i
      *
@@ -163,6 +154,6 @@ class IterTuplesTable extends TuplesList {
 
     @Override
     public LargeRelation duplicate() {
-        return new IterTuplesTable(this.tuplesIndexes.clone(), this.nbVar, this.lowerbounds.clone(), this.ranges.clone(), this.table.clone());
+        return this;
     }
 }
@@ -257,7 +257,7 @@ public class PropTableStr2 extends Propagator<IntVar> {
                 this.vars[i].duplicate(solver, identitymap);
                 aVars[i] = (IntVar) identitymap.get(this.vars[i]);
             }
-            identitymap.put(this, new PropTableStr2(aVars, this.table.clone()));
+            identitymap.put(this, new PropTableStr2(aVars, this.table));
         }
     }
 }
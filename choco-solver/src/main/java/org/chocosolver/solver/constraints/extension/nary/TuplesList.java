@@ -56,12 +56,6 @@ public class TuplesList extends LargeRelation {
         return 1;
     };
 
-    // required for duplicate method, should not be called by default
-    TuplesList(int[][] tuplesIndexes) {
-        this.tuplesIndexes = tuplesIndexes;
-        Arrays.sort(tuplesIndexes, TCOMP);
-    }
-
     public TuplesList(Tuples tuples, IntVar[] vars) {
         int nb = tuples.nbTuples();
         int[][] _tuplesIndexes = new int[nb][];
@@ -96,6 +90,6 @@ public class TuplesList extends LargeRelation {
 
     @Override
     public LargeRelation duplicate() {
-        return new TuplesList(this.tuplesIndexes.clone());
+        return this;
     }
 }
@@ -96,16 +96,6 @@ public class TuplesTable extends LargeRelation {
         }
     }
 
-    // required for duplicate method, should not be called by default
-    private TuplesTable(int n, BitSet table, int[] lowerbounds, int[] upperbounds, boolean feasible, int[] blocks) {
-        this.n = n;
-        this.table = table;
-        this.lowerbounds = lowerbounds;
-        this.upperbounds = upperbounds;
-        this.feasible = feasible;
-        this.blocks = blocks;
-    }
-
     public boolean checkTuple(int[] tuple) {
         int address = 0;
         for (int i = (n - 1); i >= 0; i--) {
@@ -131,6 +121,6 @@ public class TuplesTable extends LargeRelation {
 
     @Override
     public LargeRelation duplicate() {
-        return new TuplesTable(n, (BitSet) table.clone(), lowerbounds.clone(), upperbounds.clone(), feasible, blocks.clone());
+        return this;
     }
 }
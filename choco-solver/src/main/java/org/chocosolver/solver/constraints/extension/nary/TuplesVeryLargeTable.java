@@ -81,7 +81,6 @@ public class TuplesVeryLargeTable extends LargeRelation {
         }
     }
 
-
     public TuplesVeryLargeTable(int n, int[] lowerbounds, int[] upperbounds, boolean feasible, TIntObjectHashMap<TIntObjectHashMap> supports) {
         this.n = n;
         this.lowerbounds = lowerbounds;
@@ -120,19 +119,8 @@ public class TuplesVeryLargeTable extends LargeRelation {
         }
     }
 
-
-    private void deepCopy(TIntObjectHashMap<TIntObjectHashMap> from, TIntObjectHashMap<TIntObjectHashMap> to) {
-        for (int k : from.keys()) {
-            TIntObjectHashMap<TIntObjectHashMap> _to = new TIntObjectHashMap<>();
-            to.put(k, _to);
-            deepCopy(from.get(k), _to);
-        }
-    }
-
     @Override
     public LargeRelation duplicate() {
-        TIntObjectHashMap<TIntObjectHashMap> _supports = new TIntObjectHashMap<>();
-        deepCopy(supports, _supports);
-        return new TuplesVeryLargeTable(n, lowerbounds.clone(), upperbounds.clone(), feasible, _supports);
+        return this;
     }
 }
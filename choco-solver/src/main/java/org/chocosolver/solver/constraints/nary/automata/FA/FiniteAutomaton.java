@@ -674,6 +674,9 @@ public class FiniteAutomaton implements IAutomaton {
 
     public FiniteAutomaton clone() throws CloneNotSupportedException {
         FiniteAutomaton auto = (FiniteAutomaton) super.clone();
+        // temporary structures must not be shared with the clone, which may be used in another thread
+        auto.nexts = new HashSet<>();
+        auto.tmpSet = new TIntHashSet();
         auto.representedBy = new Automaton();
         auto.states = new ArrayList<>();
         auto.stateToIndex = new TObjectIntHashMap<>();
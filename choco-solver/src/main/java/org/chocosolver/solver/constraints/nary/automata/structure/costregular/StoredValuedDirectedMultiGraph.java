@@ -646,16 +646,16 @@ public class StoredValuedDirectedMultiGraph {
     public StoredValuedDirectedMultiGraph duplicate(Solver solver) {
         StoredValuedDirectedMultiGraph graph = new StoredValuedDirectedMultiGraph();
         IEnvironment environment = solver.getEnvironment();
-        graph.starts = starts.clone();
-        graph.offsets = offsets.clone();
-        graph.layers = layers.clone();
+        // the structure of the graph is never modified once built, only the backtrackable data are copied
+        graph.starts = starts;
+        graph.offsets = offsets;
+        graph.layers = layers;
         graph.sourceIndex = layers[0][0];
         graph.tinkIndex = layers[layers.length - 1][0];
         graph.toUpdateLeft = new TIntArrayStack();
         graph.toUpdateRight = new TIntArrayStack();
 
         graph.GNodes = new Nodes();
-        graph.GArcs = new Arcs();
 
         int supportLength = this.supports.length;
 
@@ -663,10 +663,7 @@ public class StoredValuedDirectedMultiGraph {
 
         int asize = GArcs.values.length;
         graph.inStack = new BitSet(asize);//constraint.getSolver().getEnvironment().makeBitSet(asize);
-        graph.GArcs.values = GArcs.values.clone();
-        graph.GArcs.dests = GArcs.dests.clone();
-        graph.GArcs.origs = GArcs.origs.clone();
-        graph.GArcs.costs = GArcs.costs.clone();
+        graph.GArcs = GArcs;
 
         graph.inGraph = inGraph.duplicate(solver);
 
@@ -677,8 +674,8 @@ public class StoredValuedDirectedMultiGraph {
         int nsize = this.GNodes.outArcs.length;
         graph.GNodes.outArcs = new StoredIndexedBipartiteSetWithOffset[nsize];
         graph.GNodes.inArcs = new StoredIndexedBipartiteSetWithOffset[nsize];
-        graph.GNodes.layers = new int[nsize];
-        graph.GNodes.states = new int[nsize];
+        graph.GNodes.layers = GNodes.layers;
+        graph.GNodes.states = GNodes.states;
 
         graph.GNodes.prevLP = environment.makeIntVector(nsize, Integer.MIN_VALUE);
         graph.GNodes.nextLP = environment.makeIntVector(nsize, Integer.MIN_VALUE);
@@ -693,8 +690,6 @@ public class StoredValuedDirectedMultiGraph {
 
 
         for (int n = 0; n < nsize; n++) {
-            graph.GNodes.layers[n] = GNodes.layers[n];
-            graph.GNodes.states[n] = GNodes.states[n];
             if (GNodes.outArcs[n] != null) graph.GNodes.outArcs[n] = GNodes.outArcs[n].duplicate(solver);
             if (GNodes.inArcs[n] != null) graph.GNodes.inArcs[n] = GNodes.inArcs[n].duplicate(solver);
         }
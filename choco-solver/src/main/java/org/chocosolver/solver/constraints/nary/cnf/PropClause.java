@@ -45,7 +45,6 @@ import org.chocosolver.util.ESat;
 @Deprecated
 public class PropClause extends Propagator<BoolVar> {
 
-    int watchLit1, watchLit2;
     int nbvars;
 
     @SuppressWarnings({"unchecked"})
@@ -59,55 +58,44 @@ public class PropClause extends Propagator<BoolVar> {
         nbvars = 1;
     }
 
-    void awakeOnInst(int index) throws ContradictionException {
-        int val = vars[index].getValue();
-        if ((index < nbvars && val == 1)) {
-            setPassive();
-            return;
-        }
-        if (watchLit1 == index) {
-            setWatchLiteral(watchLit2);
-        } else if (watchLit2 == index) {
-            setWatchLiteral(watchLit1);
-        }
-        //HACK
-        //propagate();
-    }
-
     /**
-     * Search a watchLiteral. A watchLiteral (or wL) is pointing out one variable not yet instantiated.
-     * If every variables are instantiated, get out.
-     * Otherwise, set the new not yet instantiated wL.
+     * The two watch literals are the only variables this is subscribed to.
+     * A watch literal (or wL) is pointing out one variable not yet instantiated.
+     * On instantiation of a wL to 0, another wL is searched among the unsubscribed variables.
+     * If there is none, the other wL, if it is the only one not instantiated, is set to 1.
      *
-     * @param otherWL previous known wL
+     * @param index index of the instantiated wL
      * @throws ContradictionException if a contradiction occurs
      */
-    private void setWatchLiteral(int otherWL) throws ContradictionException {
-        int i = 0;
-        int cnt = 0;
-
-        BoolVar bv;
-        while (i < nbvars) {
-            bv = vars[i];
-            if (bv.isInstantiated()) {
-                if (bv.getValue() == 1) {
+    void awakeOnInst(int index) throws ContradictionException {
+        if (vars[index].getValue() == 1) {
+            setPassive();
+            return;
+        }
+        int other = -1, nbOthers = 0;
+        for (int i = 0; i < nbvars; i++) {
+            if (i == index) {
+                continue;
+            }
+            if (vars[i].isInstantiated()) {
+                if (vars[i].getValue() == 1) {
                     setPassive();
                     return;
-                } else {
-                    cnt++;
                 }
-            } else if (i != otherWL) {
-                watchLit1 = i;
-                watchLit2 = otherWL;
+            } else if (isSubscribed(i)) {
+                other = i;
+                nbOthers++;
+            } else {
+                // a new wL
+                subscribe(i, true);
+                unsubscribe(index, true);
                 return;
             }
-            i++;
         }
-        if (cnt == nbvars) {
+        if (nbOthers == 0) {
             this.contradiction(null, "Inconsistent");
-        }
-        if (i == nbvars) {
-            vars[otherWL].instantiateTo(1, aCause);
+        } else if (nbOthers == 1) {
+            vars[other].instantiateTo(1, aCause);
             setPassive();
         }
     }
@@ -120,8 +108,8 @@ public class PropClause extends Propagator<BoolVar> {
         } else {
             // search for watch literals and check the clause
             int n = vars.length;
-            int i = 0, wl = 0, cnt = 0;
-            while (i < n && wl < 2) {
+            int wl1 = -1, wl2 = -1, cnt = 0;
+            for (int i = 0; i < n; i++) {
                 BoolVar bv = vars[i];
                 if (bv.isInstantiated()) {
                     if (bv.getValue() == 1) {
@@ -130,17 +118,25 @@ public class PropClause extends Propagator<BoolVar> {
                     } else {
                         cnt++;
                     }
-                } else {
-                    watchLit2 = watchLit1;
-                    watchLit1 = i;
-                    wl++;
+                } else if (wl1 == -1) {
+                    wl1 = i;
+                } else if (wl2 == -1) {
+                    wl2 = i;
                 }
-                i++;
             }
             if (cnt == n) {
                 this.contradiction(null, "Inconsistent");
             } else if (cnt == n - 1) {
-                setWatchLiteral(watchLit1);
+                vars[wl1].instantiateTo(1, aCause);
+                setPassive();
+            } else {
+                for (int i = 0; i < n; i++) {
+                    if (i == wl1 || i == wl2) {
+                        subscribe(i, true);
+                    } else {
+                        unsubscribe(i, true);
+                    }
+                }
             }
         }
     }
@@ -30,15 +30,20 @@ package org.chocosolver.solver.constraints.nary.cnf;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
-import gnu.trove.map.hash.TIntObjectHashMap;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * A MiniSat solver.
  * <p/>
  * (or-tools, booleans.cc, ty L. Perron).
  * <br/>
+ * Literals index dense arrays: values, watches (with a blocker literal) and binary implications.
+ * On a failure, the conflict is analysed (first UIP) and the learnt clause is added to the clause database,
+ * from which the learnt clauses of high literal block distance (LBD) are periodically removed.
+ * As the decisions are taken outside of this (each instantiation of a variable opens a new level),
+ * a learnt clause is not used to backjump: it is asserted, if possible, once the level of the conflict is undone.
  *
  * @author Charles Prud'homme
  * @since 12/07/13
@@ -56,28 +61,67 @@ public class SatSolver {
      */
     static final int kErrorLiteral = -1;
 
+    // Values of a literal
+    static final byte kTrue = 0;
+    static final byte kFalse = 1;
+    static final byte kUndefined = 2;
+
+    // Number of learnt clauses (of size > 2) triggering the first reduction of the clause database,
+    // and its increment after each reduction.
+    static final int kFirstReduce = 2000;
+    static final int kIncReduce = 300;
+
     // If false, the constraints are already unsatisfiable. No part of
     // the solver state may be used!
     boolean ok_;
     // List of problem addClauses.
     ArrayList<Clause> clauses;
+    // List of learnt clauses (of size > 2).
+    ArrayList<Clause> learnts;
     // 'watches_[lit]' is a list of constraints watching 'lit'(will go
-    // there if literal becomes true).
-    TIntObjectHashMap<ArrayList<Watcher>> watches_;
+    // there if literal becomes true), 'blockers_[lit]' their blocker literals.
+    Clause[][] watches_;
+    int[][] blockers_;
+    int[] watches_size_;
     // implies_[lit] is a list of literals to set to true if 'lit' becomes true.
-    TIntObjectHashMap<TIntList> implies_;
-    // The current assignments.
-    TIntObjectHashMap<Boolean> assignment_;
+    int[][] implies_;
+    int[] implies_size_;
+    // The current value of each literal.
+    byte[] value_;
+    // The level of the assignment of each variable.
+    int[] level_;
+    // The clause which forced the assignment of each variable, if any.
+    Clause[] reason_;
+    // The literal which forced the assignment of each variable through a binary clause, if any.
+    int[] reason_lit_;
     // Assignment stack; stores all assigments made in the order they
     // were made.
-    TIntList trail_;
+    int[] trail_;
+    int trail_size_;
     // Separator indices for different decision levels in 'trail_'.
-    TIntList trail_markers_;
+    int[] trail_markers_;
+    int trail_markers_size_;
     // Head of queue(as index into the trail_.
     int qhead_;
     // Number of variables
     int num_vars_;
 
+    // The clause in conflict, if any, otherwise the binary clause in conflict is stored in 'conflict_bin_'.
+    Clause conflict_;
+    final int[] conflict_bin_;
+    // Learnt units, asserted again on each call to propagateOneLiteral.
+    TIntArrayList learnt_units_;
+    // Clauses learnt from the last conflicts, not yet asserted.
+    ArrayList<Clause> to_assert_;
+    // Number of learnt clauses triggering a reduction of the clause database.
+    int max_learnts_;
+
+    // Scratch structures for conflict analysis.
+    boolean[] seen_;
+    int[] level_stamps_;
+    int stamp_;
+    TIntArrayList learnt_clause_;
+
     TIntArrayList temporary_add_vector_;
     TIntArrayList touched_variables_;
 
@@ -87,11 +131,25 @@ public class SatSolver {
         this.qhead_ = 0;
         num_vars_ = 0;
         this.clauses = new ArrayList<>();
-        this.watches_ = new TIntObjectHashMap<>();
-        this.implies_ = new TIntObjectHashMap<>();
-        this.assignment_ = new TIntObjectHashMap<>();
-        this.trail_ = new TIntArrayList();
-        this.trail_markers_ = new TIntArrayList();
+        this.learnts = new ArrayList<>();
+        this.watches_ = new Clause[0][];
+        this.blockers_ = new int[0][];
+        this.watches_size_ = new int[0];
+        this.implies_ = new int[0][];
+        this.implies_size_ = new int[0];
+        this.value_ = new byte[0];
+        this.level_ = new int[0];
+        this.reason_ = new Clause[0];
+        this.reason_lit_ = new int[0];
+        this.seen_ = new boolean[0];
+        this.trail_ = new int[0];
+        this.trail_markers_ = new int[16];
+        this.level_stamps_ = new int[16];
+        this.conflict_bin_ = new int[2];
+        this.learnt_units_ = new TIntArrayList();
+        this.to_assert_ = new ArrayList<>();
+        this.max_learnts_ = kFirstReduce;
+        this.learnt_clause_ = new TIntArrayList();
         this.temporary_add_vector_ = new TIntArrayList();
         this.touched_variables_ = new TIntArrayList();
     }
@@ -99,9 +157,23 @@ public class SatSolver {
     // Add a new variable.
     public int newVariable() {
         int v = incrementVariableCounter();
-//            watches_.resize(2 * v + 2);
-//        implies_.resize(2 * v.value() + 2);
-        assignment_.put(v, Boolean.kUndefined);
+        if (v == level_.length) {
+            int nv = Math.max(16, v * 3 / 2 + 1);
+            level_ = Arrays.copyOf(level_, nv);
+            reason_ = Arrays.copyOf(reason_, nv);
+            reason_lit_ = Arrays.copyOf(reason_lit_, nv);
+            seen_ = Arrays.copyOf(seen_, nv);
+            trail_ = Arrays.copyOf(trail_, nv);
+            int nl = 2 * nv;
+            watches_ = Arrays.copyOf(watches_, nl);
+            blockers_ = Arrays.copyOf(blockers_, nl);
+            watches_size_ = Arrays.copyOf(watches_size_, nl);
+            implies_ = Arrays.copyOf(implies_, nl);
+            implies_size_ = Arrays.copyOf(implies_size_, nl);
+            int ol = value_.length;
+            value_ = Arrays.copyOf(value_, nl);
+            Arrays.fill(value_, ol, nl, kUndefined);
+        }
         return v;
     }
 
@@ -130,9 +202,9 @@ public class SatSolver {
         int lit = kUndefinedLiteral;
         int j = 0;
         for (int i = 0; i < ps.size(); i++) {
-            if (valueLit(ps.get(i)) == Boolean.kTrue || ps.get(i) == negated(lit)) {
+            if (valueLit(ps.get(i)) == kTrue || ps.get(i) == negated(lit)) {
                 return true;
-            } else if (valueLit(ps.get(i)) != Boolean.kFalse && ps.get(i) != lit) {
+            } else if (valueLit(ps.get(i)) != kFalse && ps.get(i) != lit) {
                 lit = ps.get(i);
                 ps.set(j++, lit);
             }
@@ -144,31 +216,20 @@ public class SatSolver {
 
         switch (ps.size()) {
             case 0:
-            return (ok_ = false);
+                return (ok_ = false);
             case 1:
-            uncheckedEnqueue(ps.get(0));
-            return (ok_ = propagate());
+                uncheckedEnqueue(ps.get(0));
+                return (ok_ = propagate());
             case 2:
                 int l0 = ps.get(0);
                 int l1 = ps.get(1);
-                TIntList i0 = implies_.get(negated(l0));
-                if (i0 == null) {
-                    i0 = new TIntArrayList();
-                    implies_.put(negated(l0), i0);
-                }
-                i0.add(l1);
-
-                TIntList i1 = implies_.get(negated(l1));
-                if (i1 == null) {
-                    i1 = new TIntArrayList();
-                    implies_.put(negated(l1), i1);
-                }
-                i1.add(l0);
+                addImplies(negated(l0), l1);
+                addImplies(negated(l1), l0);
                 break;
             default:
-            Clause cr = new Clause(ps.toArray());
-            clauses.add(cr);
-            attachClause(cr);
+                Clause cr = new Clause(ps.toArray());
+                clauses.add(cr);
+                attachClause(cr);
                 break;
 
         }
@@ -177,20 +238,20 @@ public class SatSolver {
 
     // Add the empty clause, making the solver contradictory.
     boolean addEmptyClause() {
-        temporary_add_vector_.clear();
+        temporary_add_vector_.resetQuick();
         return addClause(temporary_add_vector_);
     }
 
     // Add a unit clause to the solver.
     boolean addClause(int l) {
-        temporary_add_vector_.clear();
+        temporary_add_vector_.resetQuick();
         temporary_add_vector_.add(l);
         return addClause(temporary_add_vector_);
     }
 
     // Add a binary clause to the solver.
     boolean addClause(int p, int q) {
-        temporary_add_vector_.clear();
+        temporary_add_vector_.resetQuick();
         temporary_add_vector_.add(p);
         temporary_add_vector_.add(q);
         return addClause(temporary_add_vector_);
@@ -198,7 +259,7 @@ public class SatSolver {
 
     // Add a ternary clause to the solver.
     boolean addClause(int p, int q, int r) {
-        temporary_add_vector_.clear();
+        temporary_add_vector_.resetQuick();
         temporary_add_vector_.add(p);
         temporary_add_vector_.add(q);
         temporary_add_vector_.add(r);
@@ -207,37 +268,34 @@ public class SatSolver {
 
     // Incremental propagation.
     boolean initPropagator() {
-        touched_variables_.clear();
+        touched_variables_.resetQuick();
         return !ok_;
     }
 
     // Backtrack until a certain level.
     void cancelUntil(int level) {
         if (trailMarker() > level) {
-            for (int c = trail_.size() - 1; c >= trail_markers_.get(level); c--) {
-                int x = var(trail_.get(c));
-                assignment_.put(x, Boolean.kUndefined);
+            int m = trail_markers_[level];
+            for (int c = trail_size_ - 1; c >= m; c--) {
+                int l = trail_[c];
+                value_[l] = kUndefined;
+                value_[negated(l)] = kUndefined;
+                reason_[var(l)] = null;
             }
-            qhead_ = trail_markers_.get(level);
-            trail_.remove(trail_markers_.get(level), trail_.size() - trail_markers_.get(level));
-            trail_markers_.remove(level, trail_markers_.size() - level);
+            qhead_ = m;
+            trail_size_ = m;
+            trail_markers_size_ = level;
         }
     }
 
     // Gives the current decisionlevel.
     public int trailMarker() {
-        return trail_markers_.size();
-    }
-
-    // The current value of a variable.
-    Boolean valueVar(int x) {
-        return assignment_.get(x);
+        return trail_markers_size_;
     }
 
     // The current value of a literal.
-    Boolean valueLit(int l) {
-        Boolean b = assignment_.get(var(l));
-        return b == Boolean.kUndefined ? Boolean.kUndefined : xor(b, sign(l));
+    byte valueLit(int l) {
+        return value_[l];
     }
 
     // The current number of original clauses.
@@ -245,27 +303,39 @@ public class SatSolver {
         return clauses.size();
     }
 
+    // The current number of learnt clauses of size > 2.
+    int nLearnts() {
+        return learnts.size();
+    }
+
     // Propagates one literal, returns true if successful, false in case
     // of failure.
     boolean propagateOneLiteral(int lit) {
         assert ok_;
-        touched_variables_.clear();
+        touched_variables_.resetQuick();
+        if (!assertLearnts()) {
+            return false;
+        }
         if (!propagate()) {
+            analyze();
             return false;
         }
-        if (valueLit(lit) == Boolean.kTrue) {
+        if (valueLit(lit) == kTrue) {
             // Dummy decision level:
             pushTrailMarker();
             return true;
-        } else if (valueLit(lit) == Boolean.kFalse) {
+        } else if (valueLit(lit) == kFalse) {
             return false;
         }
         pushTrailMarker();
         // Unchecked enqueue
-        assert valueLit(lit) == Boolean.kUndefined;
-        assignment_.put(var(lit), makeBoolean(!sign(lit)));
-        trail_.add(lit);
-        return propagate();
+        assert valueLit(lit) == kUndefined;
+        assign(lit, null, kUndefinedLiteral);
+        if (!propagate()) {
+            analyze();
+            return false;
+        }
+        return true;
     }
 
 
@@ -275,23 +345,38 @@ public class SatSolver {
 
     // Begins a new decision level.
     void pushTrailMarker() {
-        trail_markers_.add(trail_.size());
+        if (trail_markers_size_ == trail_markers_.length) {
+            trail_markers_ = Arrays.copyOf(trail_markers_, trail_markers_size_ * 3 / 2 + 1);
+        }
+        trail_markers_[trail_markers_size_++] = trail_size_;
     }
 
     // Enqueue a literal. Assumes value of literal is undefined.
     void uncheckedEnqueue(int l) {
-        assert valueLit(l) == Boolean.kUndefined;
-        if (assignment_.get(var(l)) == Boolean.kUndefined) {
-            touched_variables_.add(l);
-        }
-        assignment_.put(var(l), sign(l) ? Boolean.kFalse : Boolean.kTrue);
-        trail_.add(l);
+        uncheckedEnqueue(l, null, kUndefinedLiteral);
+    }
+
+    // Enqueue a literal forced by a clause or by a literal (binary clause). Assumes value of literal is undefined.
+    private void uncheckedEnqueue(int l, Clause reason, int reason_lit) {
+        assert valueLit(l) == kUndefined;
+        touched_variables_.add(l);
+        assign(l, reason, reason_lit);
+    }
+
+    private void assign(int l, Clause reason, int reason_lit) {
+        int x = var(l);
+        value_[l] = kTrue;
+        value_[negated(l)] = kFalse;
+        level_[x] = trail_markers_size_;
+        reason_[x] = reason;
+        reason_lit_[x] = reason_lit;
+        trail_[trail_size_++] = l;
     }
 
     // Test if fact 'p' contradicts current state, Enqueue otherwise.
     boolean enqueue(int l) {
-        if (valueLit(l) != Boolean.kUndefined) {
-            return valueLit(l) != Boolean.kFalse;
+        if (valueLit(l) != kUndefined) {
+            return valueLit(l) != kFalse;
         } else {
             uncheckedEnqueue(l);
             return true;
@@ -301,51 +386,74 @@ public class SatSolver {
     // Attach a clause to watcher lists.
     void attachClause(Clause cr) {
         assert cr.size() > 1;
-        ArrayList<Watcher> l0 = watches_.get(negated(cr._g(0)));
-        if (l0 == null) {
-            l0 = new ArrayList<>();
-            watches_.put(negated(cr._g(0)), l0);
+        addWatch(negated(cr._g(0)), cr, cr._g(1));
+        addWatch(negated(cr._g(1)), cr, cr._g(0));
+    }
+
+    private void addWatch(int l, Clause cr, int blocker) {
+        int n = watches_size_[l];
+        if (watches_[l] == null) {
+            watches_[l] = new Clause[4];
+            blockers_[l] = new int[4];
+        } else if (n == watches_[l].length) {
+            watches_[l] = Arrays.copyOf(watches_[l], n * 3 / 2 + 1);
+            blockers_[l] = Arrays.copyOf(blockers_[l], n * 3 / 2 + 1);
         }
-        ArrayList<Watcher> l1 = watches_.get(negated(cr._g(1)));
-        if (l1 == null) {
-            l1 = new ArrayList<>();
-            watches_.put(negated(cr._g(1)), l1);
+        watches_[l][n] = cr;
+        blockers_[l][n] = blocker;
+        watches_size_[l]++;
+    }
+
+    private void addImplies(int l, int implied) {
+        int n = implies_size_[l];
+        if (implies_[l] == null) {
+            implies_[l] = new int[4];
+        } else if (n == implies_[l].length) {
+            implies_[l] = Arrays.copyOf(implies_[l], n * 3 / 2 + 1);
         }
-        l0.add(new Watcher(cr, cr._g(1)));
-        l1.add(new Watcher(cr, cr._g(0)));
+        implies_[l][n] = implied;
+        implies_size_[l]++;
     }
 
     // Perform unit propagation. returns true upon success.
     boolean propagate() {
         boolean result = true;
-        while (qhead_ < trail_.size()) {
-            int p = trail_.get(qhead_++);
+        while (qhead_ < trail_size_) {
+            int p = trail_[qhead_++];
             // Propagate the implies first.
-            TIntList to_add = implies_.get(p);
-            if (to_add != null) {
-                for (int i = 0; i < to_add.size(); ++i) {
-                    if (!enqueue(to_add.get(i))) {
-                        return false;
-                    }
+            int[] to_add = implies_[p];
+            for (int i = 0; i < implies_size_[p]; ++i) {
+                int l = to_add[i];
+                if (value_[l] == kFalse) {
+                    conflict_ = null;
+                    conflict_bin_[0] = negated(p);
+                    conflict_bin_[1] = l;
+                    qhead_ = trail_size_;
+                    return false;
+                } else if (value_[l] == kUndefined) {
+                    uncheckedEnqueue(l, null, p);
                 }
             }
 
             // 'p' is enqueued fact to propagate.
-            ArrayList<Watcher> ws = watches_.get(p);
+            Clause[] ws = watches_[p];
+            int[] bs = blockers_[p];
+            int n = watches_size_[p];
+            final int false_lit = negated(p);
 
             int i = 0;
             int j = 0;
-            while (ws != null && i < ws.size()) {
+            while (i < n) {
                 // Try to avoid inspecting the clause:
-                int blocker = ws.get(i).blocker;
-                if (valueLit(blocker) == Boolean.kTrue) {
-                    ws.set(j++, ws.get(i++));
+                int blocker = bs[i];
+                if (value_[blocker] == kTrue) {
+                    ws[j] = ws[i];
+                    bs[j++] = bs[i++];
                     continue;
                 }
 
                 // Make sure the false literal is data[1]:
-                Clause cr = ws.get(i).clause;
-                final int false_lit = negated(p);
+                Clause cr = ws[i];
                 if (cr._g(0) == false_lit) {
                     cr._s(0, cr._g(1));
                     cr._s(1, false_lit);
@@ -355,24 +463,20 @@ public class SatSolver {
 
                 // If 0th watch is true, then clause is already satisfied.
                 final int first = cr._g(0);
-                Watcher w = new Watcher(cr, first);
-                if (first != blocker && valueLit(first) == Boolean.kTrue) {
-                    ws.set(j++, w);
+                if (first != blocker && value_[first] == kTrue) {
+                    ws[j] = cr;
+                    bs[j++] = first;
                     continue;
                 }
 
                 // Look for new watch:
                 boolean cont = false;
                 for (int k = 2; k < cr.size(); k++) {
-                    if (valueLit(cr._g(k)) != Boolean.kFalse) {
-                        cr._s(1, cr._g(k));
+                    int l = cr._g(k);
+                    if (value_[l] != kFalse) {
+                        cr._s(1, l);
                         cr._s(k, false_lit);
-                        ArrayList<Watcher> lw = watches_.get(negated(cr._g(1)));
-                        if (lw == null) {
-                            lw = new ArrayList<>();
-                            watches_.put(negated(cr._g(1)), lw);
-                        }
-                        lw.add(w);
+                        addWatch(negated(l), cr, first);
                         cont = true;
                         break;
                     }
@@ -380,28 +484,228 @@ public class SatSolver {
 
                 // Did not find watch -- clause is unit under assignment:
                 if (!cont) {
-                    ws.set(j++, w);
-                    if (valueLit(first) == Boolean.kFalse) {
+                    ws[j] = cr;
+                    bs[j++] = first;
+                    if (value_[first] == kFalse) {
                         result = false;
-                        qhead_ = trail_.size();
+                        conflict_ = cr;
+                        qhead_ = trail_size_;
                         // Copy the remaining watches_:
-                        while (i < ws.size()) {
-                            ws.set(j++, ws.get(i++));
+                        while (i < n) {
+                            ws[j] = ws[i];
+                            bs[j++] = bs[i++];
                         }
                     } else {
-                        uncheckedEnqueue(first);
+                        uncheckedEnqueue(first, cr, kUndefinedLiteral);
                     }
                 }
             }
-            if (ws != null) {
-                for (int k = ws.size() - 1; k >= j; k--) {
-                    ws.remove(k);
-                }
+            for (int k = j; k < n; k++) {
+                ws[k] = null;
             }
+            watches_size_[p] = j;
         }
         return result;
     }
 
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    // Analyze the last conflict and learn a clause (first UIP), if possible.
+    void analyze() {
+        int level = trailMarker();
+        if (level == 0) {
+            return;
+        }
+        learnt_clause_.resetQuick();
+        learnt_clause_.add(kUndefinedLiteral);
+        int pathC = 0;
+        int p = kUndefinedLiteral;
+        int index = trail_size_ - 1;
+        Clause cr = conflict_;
+        do {
+            if (cr != null) {
+                for (int j = (p == kUndefinedLiteral) ? 0 : 1; j < cr.size(); j++) {
+                    pathC = mark(cr._g(j), level, pathC);
+                }
+            } else if (p == kUndefinedLiteral) {
+                pathC = mark(conflict_bin_[0], level, pathC);
+                pathC = mark(conflict_bin_[1], level, pathC);
+            } else {
+                pathC = mark(negated(reason_lit_[var(p)]), level, pathC);
+            }
+            if (pathC == 0) {
+                // the conflict does not depend on the current level
+                clearSeen();
+                return;
+            }
+            // Select next literal to look at:
+            while (!seen_[var(trail_[index--])]) ;
+            p = trail_[index + 1];
+            cr = reason_[var(p)];
+            seen_[var(p)] = false;
+            pathC--;
+            if (pathC > 0 && cr == null && reason_lit_[var(p)] == kUndefinedLiteral) {
+                // 'p' has been asserted without reason, the current level has no unique implication point
+                clearSeen();
+                return;
+            }
+        } while (pathC > 0);
+        learnt_clause_.set(0, negated(p));
+        for (int j = 1; j < learnt_clause_.size(); j++) {
+            seen_[var(learnt_clause_.getQuick(j))] = false;
+        }
+        learn(learnt_clause_);
+    }
+
+    private int mark(int q, int level, int pathC) {
+        int x = var(q);
+        if (!seen_[x] && level_[x] > 0) {
+            seen_[x] = true;
+            if (level_[x] >= level) {
+                pathC++;
+            } else {
+                learnt_clause_.add(q);
+            }
+        }
+        return pathC;
+    }
+
+    private void clearSeen() {
+        for (int i = 0; i < trail_size_; i++) {
+            seen_[var(trail_[i])] = false;
+        }
+    }
+
+    // Add a learnt clause, the first literal being the asserting one.
+    private void learn(TIntArrayList lits) {
+        if (lits.size() == 1) {
+            learnt_units_.add(lits.getQuick(0));
+            return;
+        }
+        // the second watch is the most recently falsified literal
+        int max_i = 1;
+        for (int i = 2; i < lits.size(); i++) {
+            if (level_[var(lits.getQuick(i))] > level_[var(lits.getQuick(max_i))]) {
+                max_i = i;
+            }
+        }
+        int l = lits.getQuick(max_i);
+        lits.setQuick(max_i, lits.getQuick(1));
+        lits.setQuick(1, l);
+        Clause cr = new Clause(lits.toArray());
+        cr.learnt = true;
+        cr.lbd = computeLBD(cr);
+        if (cr.size() == 2) {
+            addImplies(negated(cr._g(0)), cr._g(1));
+            addImplies(negated(cr._g(1)), cr._g(0));
+        } else {
+            learnts.add(cr);
+            attachClause(cr);
+        }
+        to_assert_.add(cr);
+        if (learnts.size() >= max_learnts_) {
+            reduceDB();
+        }
+    }
+
+    private int computeLBD(Clause cr) {
+        stamp_++;
+        int lbd = 0;
+        for (int i = 0; i < cr.size(); i++) {
+            int lvl = level_[var(cr._g(i))];
+            if (lvl >= level_stamps_.length) {
+                level_stamps_ = Arrays.copyOf(level_stamps_, Math.max(lvl + 1, level_stamps_.length * 3 / 2));
+            }
+            if (level_stamps_[lvl] != stamp_) {
+                level_stamps_[lvl] = stamp_;
+                lbd++;
+            }
+        }
+        return lbd;
+    }
+
+    // Assert the learnt units and the clauses learnt from the last conflicts, if they are unit.
+    // Returns false if one of them is falsified.
+    private boolean assertLearnts() {
+        for (int i = 0; i < learnt_units_.size(); i++) {
+            int l = learnt_units_.getQuick(i);
+            if (value_[l] == kFalse) {
+                return false;
+            } else if (value_[l] == kUndefined) {
+                uncheckedEnqueue(l);
+            }
+        }
+        for (int i = to_assert_.size() - 1; i >= 0; i--) {
+            Clause cr = to_assert_.remove(i);
+            int free = -1;
+            int nfree = 0;
+            for (int k = 0; k < cr.size() && nfree < 2; k++) {
+                byte v = value_[cr._g(k)];
+                if (v == kTrue) {
+                    nfree = 2; // satisfied
+                } else if (v == kUndefined) {
+                    free = k;
+                    nfree++;
+                }
+            }
+            if (nfree == 0) {
+                return false;
+            } else if (nfree == 1 && !cr.deleted) {
+                if (cr.size() == 2) {
+                    uncheckedEnqueue(cr._g(free), null, negated(cr._g(1 - free)));
+                } else if (free == 0) {
+                    uncheckedEnqueue(cr._g(0), cr, kUndefinedLiteral);
+                }
+            }
+        }
+        return true;
+    }
+
+    // Remove half of the learnt clauses, those of highest LBD, except the binary ones and the reasons.
+    void reduceDB() {
+        learnts.sort((c1, c2) -> c2.lbd - c1.lbd);
+        int toremove = learnts.size() / 2;
+        int j = 0;
+        for (int i = 0; i < learnts.size(); i++) {
+            Clause cr = learnts.get(i);
+            if (toremove > 0 && cr.lbd > 2 && !locked(cr)) {
+                cr.deleted = true;
+                toremove--;
+            } else {
+                learnts.set(j++, cr);
+            }
+        }
+        for (int i = learnts.size() - 1; i >= j; i--) {
+            learnts.remove(i);
+        }
+        // detach the deleted clauses
+        for (int l = 0; l < 2 * num_vars_; l++) {
+            Clause[] ws = watches_[l];
+            int[] bs = blockers_[l];
+            int n = watches_size_[l];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (!ws[i].deleted) {
+                    ws[k] = ws[i];
+                    bs[k++] = bs[i];
+                }
+            }
+            for (int i = k; i < n; i++) {
+                ws[i] = null;
+            }
+            watches_size_[l] = k;
+        }
+        max_learnts_ += kIncReduce;
+    }
+
+    // Is the clause the reason of an assignment?
+    private boolean locked(Clause cr) {
+        int l = cr._g(0);
+        return value_[l] == kTrue && reason_[var(l)] == cr;
+    }
+
 
     /**
      * inline Literal MakeLiteral(Variable var, bool sign) {
@@ -436,22 +740,6 @@ public class SatSolver {
         return (l >> 1);
     }
 
-    /**
-     * inline Boolean MakeBoolean(bool x) { return Boolean(!x); }
-     */
-    protected static Boolean makeBoolean(boolean b) {
-        return (b ? Boolean.kTrue : Boolean.kFalse);
-    }
-
-    /**
-     * inline Boolean Xor(Boolean a, bool b) {
-     * return Boolean((uint8)(a.value() ^ (uint8) b));
-     * }
-     */
-    protected static Boolean xor(Boolean a, boolean b) {
-        return Boolean.make((byte) (a.value() ^ (b ? 1 : 0)));
-    }
-
 
     /**
      * Clause -- a simple class for representing a clause
@@ -462,6 +750,9 @@ public class SatSolver {
      */
     class Clause {
         private int[] literals_;
+        boolean learnt;
+        int lbd; // literal block distance, for learnt clauses
+        boolean deleted;
 
         public Clause(int[] ps) {
             literals_ = ps.clone();
@@ -480,59 +771,4 @@ public class SatSolver {
         }
     }
 
-    /**
-     * // A watcher represent a clause attached to a literal.
-     * <br/>
-     * (or-tools, booleans.cc, ty L. Perron).
-     *
-     * @author Charles Prud'homme
-     * @since 12/07/13
-     */
-    class Watcher {
-
-        Clause clause;
-        int blocker;
-
-        public Watcher() {
-            blocker = kUndefinedLiteral;
-        }
-
-        public Watcher(final Clause cr, int l) {
-            this.clause = cr;
-            this.blocker = l;
-        }
-    }
-
-    /**
-     * <br/>
-     * (or-tools, booleans.cc, ty L. Perron).
-     *
-     * @author Charles Prud'homme, Laurent Perron
-     * @since 12/07/13
-     */
-    static enum Boolean {
-
-        kTrue((byte) 0),
-        kFalse((byte) 1),
-        kUndefined((byte) 2);
-
-
-        byte value;
-
-        Boolean(byte value) {
-            this.value = value;
-        }
-
-        public byte value() {
-            return value;
-        }
-
-        public static Boolean make(byte b) {
-            if (b == 0) return kTrue;
-            else if (b == 1) return kFalse;
-            else return kUndefined;
-        }
-
-    }
-
 }
@@ -52,6 +52,7 @@ public class Nogood implements INogood {
     final int nbvars;
     final int[] values;
     int idxInStore;
+    long activity; // number of values removed by this, see #getActivity()
 
 
     public Nogood(IntVar[] vars, int[] values) {
@@ -101,6 +102,7 @@ public class Nogood implements INogood {
         if (vars[wl[1]].isInstantiatedTo(values[wl[1]])) {
             int k = wl[0];
             if (vars[k].removeValue(values[k], pngs)) {
+                activity++;
                 return vars[k].isInstantiated() ? k : -1;
             }
             pngs.watch(vars[k], this, k);
@@ -146,11 +148,26 @@ public class Nogood implements INogood {
         // unit nogood
         if (vars[wl[0]].removeValue(values[wl[0]], pngs)) {
 //            pngs.silent(this);
+            activity++;
             return vars[wl[0]].isInstantiated() ? wl[0] : -1;
         }
         return -1;
     }
 
+    /**
+     * @return the number of values removed by this, since its creation or the last call to {@link #decayActivity()}
+     */
+    public long getActivity() {
+        return activity;
+    }
+
+    /**
+     * Halve the activity of this, to favour the nogoods which were recently useful.
+     */
+    public void decayActivity() {
+        activity >>= 1;
+    }
+
     @Override
     public boolean isUnit() {
         return false;
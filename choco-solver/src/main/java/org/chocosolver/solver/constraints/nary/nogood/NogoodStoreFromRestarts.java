@@ -28,6 +28,7 @@
  */
 package org.chocosolver.solver.constraints.nary.nogood;
 
+import gnu.trove.map.hash.TIntIntHashMap;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.monitors.IMonitorRestart;
@@ -35,6 +36,7 @@ import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
 import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.search.strategy.decision.RootDecision;
 import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
+import org.chocosolver.solver.thread.NogoodExchange;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.util.objects.queues.CircularQueue;
 
@@ -61,6 +63,14 @@ public class NogoodStoreFromRestarts extends Constraint implements IMonitorResta
     CircularQueue<INogood> nogoods;
 	final PropNogoodStore png;
 
+	// nogood sharing, optional
+	NogoodExchange exchange;
+	NogoodExchange.Reader reader;
+	int source;
+	int maxSize;
+	TIntIntHashMap var2idx;
+	int[] indices;
+
 	/**
 	 * A constraint for the specific Nogood store designed to store ONLY positive decisions.
 	 * Beware :
@@ -83,9 +93,40 @@ public class NogoodStoreFromRestarts extends Constraint implements IMonitorResta
         extractNogoodFromPath();
     }
 
+	/**
+	 * Shares the nogoods of this store with other solvers through <code>exchange</code>.
+	 * Each nogood extracted on a restart, made of at most <code>maxSize</code> decisions, is published.
+	 * Conversely, on each restart, the nogoods published by the other solvers and made of at most <code>maxSize</code>
+	 * decisions are imported in this store.
+	 * <p>
+	 * A nogood is exchanged as a set of indices of variables in the scope of the store:
+	 * all the stores sharing the same exchange must be declared on copies of the same variables, in the same order.
+	 * As they are extracted from decision paths, nogoods have a single literal per decision level,
+	 * so their size is also their literal block distance.
+	 *
+	 * @param exchange the exchange buffer
+	 * @param source   unique identifier of this store among those sharing <code>exchange</code>
+	 * @param maxSize  maximum size of the nogoods exported and imported
+	 */
+	public void share(NogoodExchange exchange, int source, int maxSize) {
+		this.exchange = exchange;
+		this.reader = exchange.newReader(source);
+		this.source = source;
+		this.maxSize = maxSize;
+		this.var2idx = new TIntIntHashMap(png.getNbVars(), .5f, -1, -1);
+		for (int i = 0; i < png.getNbVars(); i++) {
+			var2idx.put(png.getVar(i).getId(), i);
+		}
+		this.indices = new int[16];
+	}
+
     @Override
     public void afterRestart() {
         try {
+			// add nogoods learnt by other solvers
+			if (exchange != null) {
+				importNogoods();
+			}
 			// add newly created no goods
             while (!nogoods.isEmpty()) {
                 INogood ng = nogoods.pollFirst();
@@ -120,18 +161,60 @@ public class NogoodStoreFromRestarts extends Constraint implements IMonitorResta
                 i++;
             } else {
                 INogood ng;
+                vars[i] = decision.getDecisionVariable();
+                values[i] = (Integer) decision.getDecisionValue();
                 if (i == 0) {
                     // value can be removed permanently from var!
                     // todo: can be improved
-                    ng = new UnitNogood(decision.getDecisionVariable(), (Integer) decision.getDecisionValue());
+                    ng = new UnitNogood(vars[i], values[i]);
                 } else {
-                    vars[i] = decision.getDecisionVariable();
-                    values[i] = (Integer) decision.getDecisionValue();
                     // BEWARE: do not increment i, we use the array to avoid creating a temporary one!!
                     ng = new Nogood(Arrays.copyOf(vars, i + 1), Arrays.copyOf(values, i + 1));
                 }
                 nogoods.addLast(ng);
+				if (exchange != null && i + 1 <= maxSize) {
+					exportNogood(vars, values, i + 1);
+				}
             }
         }
     }
+
+	/**
+	 * Publishes the nogood made of the <code>size</code> first pairs of <code>vars</code> and <code>values</code>
+	 */
+	private void exportNogood(IntVar[] vars, int[] values, int size) {
+		if (indices.length < size) {
+			indices = new int[size];
+		}
+		for (int j = 0; j < size; j++) {
+			indices[j] = var2idx.get(vars[j].getId());
+			if (indices[j] < 0) {
+				return; // the decision variable is not in the scope of the store
+			}
+		}
+		exchange.publish(source, indices, values, size);
+	}
+
+	/**
+	 * Translates the nogoods published by the other solvers into local ones
+	 */
+	private void importNogoods() {
+		NogoodExchange.SharedNogood sng;
+		while ((sng = reader.next()) != null) {
+			int size = sng.size();
+			if (size <= maxSize) {
+				if (size == 1) {
+					nogoods.addLast(new UnitNogood(png.getVar(sng.getIndex(0)), sng.getValue(0)));
+				} else {
+					IntVar[] vars = new IntVar[size];
+					int[] values = new int[size];
+					for (int j = 0; j < size; j++) {
+						vars[j] = png.getVar(sng.getIndex(j));
+						values[j] = sng.getValue(j);
+					}
+					nogoods.addLast(new Nogood(vars, values));
+				}
+			}
+		}
+	}
 }
@@ -30,6 +30,7 @@ package org.chocosolver.solver.constraints.nary.nogood;
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.constraints.PropagatorPriority;
@@ -58,6 +59,7 @@ public class PropNogoodStore extends Propagator<IntVar> {
     List<INogood> allnogoods;
     TIntObjectHashMap<TIntList> vars2nogood;
     TIntObjectHashMap<TIntList> vars2idxinng;
+    TIntIntHashMap vars2idx; // index of a variable in this
     CircularQueue<IntVar> hasChanged;
 
     public PropNogoodStore(IntVar[] vars) {
@@ -67,6 +69,10 @@ public class PropNogoodStore extends Propagator<IntVar> {
         allnogoods = new ArrayList<>();
         units = new ArrayList<>();
         hasChanged = new CircularQueue<>(8);
+        vars2idx = new TIntIntHashMap(vars.length, .5f, -1, -1);
+        for (int i = 0; i < vars.length; i++) {
+            vars2idx.put(vars[i].getId(), i);
+        }
     }
 
     @Override
@@ -81,6 +87,13 @@ public class PropNogoodStore extends Propagator<IntVar> {
 
     @Override
     public void propagate(int evtmask) throws ContradictionException {
+        // only variables watched by a nogood need to be observed
+        for (int i = 0; i < vars.length; i++) {
+            TIntList nogoods = vars2nogood.get(vars[i].getId());
+            if (nogoods == null || nogoods.isEmpty()) {
+                unsubscribe(i, false);
+            }
+        }
         for (INogood ng : allnogoods) {
             ng.propagate(this);
         }
@@ -185,6 +198,50 @@ public class PropNogoodStore extends Propagator<IntVar> {
         }
     }
 
+    /**
+     * Add a nogood learnt from a conflict, in a state where its first literal is free
+     * and all the other ones are satisfied, the second one being the most recently satisfied.
+     * The nogood is watched on its first two literals and nothing is propagated:
+     * the caller is expected to forbid the first literal itself.
+     *
+     * @param ng a learnt nogood
+     */
+    public void addLearntNogood(Nogood ng) {
+        assert !ng.isUnit() && ng.size() > 1;
+        ng.setIdx(allnogoods.size());
+        allnogoods.add(ng);
+        watch(ng.getVar(0), ng, 0);
+        watch(ng.getVar(1), ng, 1);
+    }
+
+    /**
+     * Remove a nogood from this store.
+     * The indices of the other nogoods may be modified.
+     *
+     * @param ng a nogood of this store
+     */
+    public void removeNogood(Nogood ng) {
+        for (int j = 0; j < ng.size(); j++) {
+            unwatch(ng.getVar(j), ng);
+        }
+        int idx = ng.getIdx();
+        int last = allnogoods.size() - 1;
+        INogood moved = allnogoods.remove(last);
+        if (idx < last) {
+            allnogoods.set(idx, moved);
+            moved.setIdx(idx);
+            for (int j = 0; j < moved.size(); j++) {
+                TIntList nogoods = vars2nogood.get(moved.getVar(j).getId());
+                if (nogoods != null) {
+                    int ni = nogoods.indexOf(last);
+                    if (ni > -1) {
+                        nogoods.set(ni, idx);
+                    }
+                }
+            }
+        }
+    }
+
     public void watch(IntVar var, Nogood ng, int idxInNG) {
         TIntList nogoods = vars2nogood.get(var.getId());
         if (nogoods == null) {
@@ -192,6 +249,11 @@ public class PropNogoodStore extends Propagator<IntVar> {
             vars2nogood.put(var.getId(), nogoods);
         }
         nogoods.add(ng.getIdx());
+        int vidx = vars2idx.get(var.getId());
+        if (nogoods.size() == 1 && vidx > -1) {
+            // watches are not restored on backtrack, neither is the subscription
+            subscribe(vidx, false);
+        }
         TIntList indices = vars2idxinng.get(var.getId());
         if (indices == null) {
             indices = new TIntArrayList();
@@ -208,6 +270,11 @@ public class PropNogoodStore extends Propagator<IntVar> {
                 nogoods.removeAt(ni);
                 TIntList indices = vars2idxinng.get(var.getId());
                 indices.removeAt(ni);
+                int vidx = vars2idx.get(var.getId());
+                if (nogoods.isEmpty() && vidx > -1) {
+                    // like the watches, the subscription is not restored on backtrack
+                    unsubscribe(vidx, false);
+                }
             }
         }
     }
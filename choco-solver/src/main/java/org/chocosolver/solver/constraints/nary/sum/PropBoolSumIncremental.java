@@ -139,8 +139,8 @@ public class PropBoolSumIncremental extends Propagator<IntVar> {
 
     @Override
     public int getPropagationConditions(int vIdx) {
-        if (vIdx == n)
-            return IntEventType.boundAndInst();
+        // since the bounds of sum are maintained within [min, max], a bound modification of sum
+        // which does not instantiate it cannot lead to any filtering
         return IntEventType.instantiation();
     }
 
@@ -53,6 +53,9 @@ public abstract class Deduction implements Identity, Comparable<Deduction> {
 
     final Type mType;
 
+    // index of the deduction in the explanation engine which records it, -1 if not recorded yet
+    int rid = -1;
+
     public Deduction(Type yType) {
         this.mType = yType;
         id = _ID++;
@@ -30,13 +30,14 @@ package org.chocosolver.solver.explanations;
 
 import gnu.trove.set.hash.TIntHashSet;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * An explanation is the combination of two sets: a set of deduction and a set of propagators.
- * The deductions are stored in a list, and the uniqueness of elements is ensured during the add operation.
+ * The deductions are stored in an array, and the uniqueness of elements is ensured during the add operation.
  * This allows fast iteration over elements.
+ * Small explanations check uniqueness by scanning the array, a set of identifiers is only built
+ * when the explanation becomes large.
  * The propagators are stored in the same way.
  * <p>
  * Created by IntelliJ IDEA.
@@ -54,7 +55,11 @@ public class Explanation extends Deduction {
         }
     };
 
-    private List<Deduction> deductions;
+    // above this number of deductions, uniqueness is checked with 'did'
+    private static final int SCAN_LIMIT = 16;
+
+    private Deduction[] deductions;
+    private int size;
     private TIntHashSet did;
 
     public Explanation() {
@@ -95,11 +100,21 @@ public class Explanation extends Deduction {
             }
 
             if (this.deductions == null) {
-                this.deductions = new ArrayList<>(4);
-                this.did = new TIntHashSet();
+                this.deductions = new Deduction[4];
+            } else if (contain(d)) {
+                return;
+            }
+            if (size == deductions.length) {
+                deductions = Arrays.copyOf(deductions, size * 3 / 2 + 1);
             }
-            if (this.did.add(d.id)) {
-                this.deductions.add(d);
+            deductions[size++] = d;
+            if (did != null) {
+                did.add(d.id);
+            } else if (size > SCAN_LIMIT) {
+                did = new TIntHashSet(size * 2);
+                for (int i = 0; i < size; i++) {
+                    did.add(deductions[i].id);
+                }
             }
         }
     }
@@ -110,13 +125,29 @@ public class Explanation extends Deduction {
      * @param d deduction to remove
      */
     public void remove(Deduction d) {
-        this.deductions.remove(d);
-        this.did.remove(d.id);
+        if (did != null && !did.remove(d.id)) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (deductions[i].id == d.id) {
+                System.arraycopy(deductions, i + 1, deductions, i, size - i - 1);
+                deductions[--size] = null;
+                return;
+            }
+        }
     }
 
 
     public boolean contain(Deduction d) {
-        return deductions != null && did.contains(d.id);
+        if (did != null) {
+            return did.contains(d.id);
+        }
+        for (int i = 0; i < size; i++) {
+            if (deductions[i].id == d.id) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -124,8 +155,11 @@ public class Explanation extends Deduction {
      */
     public void reset() {
         if (this.deductions != null) {
-            this.deductions.clear();
-            this.did.clear();
+            Arrays.fill(deductions, 0, size, null);
+            size = 0;
+            if (did != null) {
+                did.clear();
+            }
         }
     }
 
@@ -135,19 +169,19 @@ public class Explanation extends Deduction {
      * @return number of deductions
      */
     public int nbDeductions() {
-        return deductions == null ? 0 : deductions.size();
+        return size;
     }
 
     /**
      * Return the i^th deduction contains in this.
-     * Deductions are stored in a list, their uniqueness is ensured during the add operation.
+     * Deductions are stored in an array, their uniqueness is ensured during the add operation.
      * This allows simple iteration over deductions of an explanation.
      *
      * @param i index of the deduction
      * @return the deduction at rank i
      */
     public Deduction getDeduction(int i) {
-        return deductions.get(i);
+        return deductions[i];
     }
 
 
@@ -157,12 +191,12 @@ public class Explanation extends Deduction {
 
 
         bf.append(" D: ");
-        if (this.deductions != null && !this.deductions.isEmpty()) {
-            bf.append("(").append(this.deductions.size()).append(") ");
-            for (Deduction d : this.deductions) {
-                bf.append(d).append(", ");
+        if (size > 0) {
+            bf.append("(").append(size).append(") ");
+            for (int i = 0; i < size; i++) {
+                bf.append(deductions[i]).append(", ");
             }
-            if (deductions.size() > 1) {
+            if (size > 1) {
                 bf.delete(bf.lastIndexOf(","), bf.length() - 1);
             }
         }
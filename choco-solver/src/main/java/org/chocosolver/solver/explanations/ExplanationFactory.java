@@ -32,6 +32,7 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.explanations.store.BufferedEventStore;
 import org.chocosolver.solver.explanations.store.EventConsumer;
 import org.chocosolver.solver.explanations.strategies.ConflictBasedBackjumping;
+import org.chocosolver.solver.explanations.strategies.ConflictBasedLearning;
 import org.chocosolver.solver.explanations.strategies.DynamicBacktracking;
 import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
@@ -85,6 +86,17 @@ public enum ExplanationFactory {
             new ConflictBasedBackjumping(solver.getExplainer());
         }
     },
+    /**
+     * add a Conflict-based jumping policy on contradiction to an explained solver,
+     * which also records the explanations of the conflicts as nogoods, propagated in the rest of the search.
+     */
+    LEARN {
+        @Override
+        public void plugin(Solver solver, boolean flattened) {
+            plugExpl(solver, flattened, false);
+            new ConflictBasedLearning(solver.getExplainer(), 1000);
+        }
+    },
     /**
      * add a Dynamic-Backtracking policy on contradiction to an explained solver.
      * It backtracks up to most recent decision involved in the explanation.
@@ -52,7 +52,7 @@ public class FlattenedRecorderExplanationEngine extends RecorderExplanationEngin
     @Override
     public Deduction explain(Deduction deduction) {
         if (deduction.mType == Deduction.Type.DecRight) {
-            return database.get(deduction.id);
+            return stored(deduction);
         } else {
             return super.explain(deduction);
         }
@@ -67,7 +67,7 @@ public class FlattenedRecorderExplanationEngine extends RecorderExplanationEngin
 
     @Override
     public Explanation flatten(Deduction deduction) {
-        Explanation e = database.get(deduction.id);
+        Explanation e = stored(deduction);
         if (e == null) {
             e = Explanation.SYSTEM.get();
         }
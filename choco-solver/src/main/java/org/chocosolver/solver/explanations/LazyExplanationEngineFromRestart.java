@@ -140,7 +140,7 @@ public class LazyExplanationEngineFromRestart extends RecorderExplanationEngine
         if (!isLeft) {
             // a refutation is explained thanks to the previous ones which are refutable
             if (decision != RootDecision.ROOT) {
-                Explanation explanation = database.get(br.getId());
+                Explanation explanation = stored(br);
                 if (explanation == null) {
                     explanation = new Explanation();
                 } else {
@@ -28,8 +28,7 @@
  */
 package org.chocosolver.solver.explanations;
 
-import gnu.trove.map.hash.TIntObjectHashMap;
-import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.map.hash.TLongObjectHashMap;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
@@ -40,10 +39,11 @@ import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
-import org.chocosolver.util.objects.queues.CircularQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 /**
  * Created by IntelliJ IDEA.
  * User: njussien
@@ -51,25 +51,38 @@ import org.slf4j.LoggerFactory;
  * Time: 14:18:18
  * <p/>
  * An RecorderExplanationEngine is used to record explanations throughout computation.
- * Here we just record the explanations in a HashMap ...
+ * Here we just record the explanations in arrays: the value removals of a variable are indexed by value
+ * (with an offset), the propagator activations by propagator, and every recorded deduction gets
+ * an index in the explanation database.
  * <p/>
  */
 public class RecorderExplanationEngine extends ExplanationEngine implements IMonitorInitPropagation {
 
     static Logger LOGGER = LoggerFactory.getLogger(RecorderExplanationEngine.class);
 
-    TIntObjectHashMap<AntiDomain> removedvalues; // maintien du domaine courant
-    TIntObjectHashMap<TIntObjectHashMap<ValueRemoval>> valueremovals; // maintain deduction base
-    // maintain cause of propagator activation -- can be sparse
-    TIntObjectHashMap<PropagatorActivation> propactivs;
-    TIntObjectHashMap<Explanation> database; // base d'explications
-
-    TIntObjectHashMap<TIntObjectHashMap<BranchingDecision>> leftbranchdecisions; // maintien de la base de left BranchingDecision
-    TIntObjectHashMap<TIntObjectHashMap<BranchingDecision>> rightbranchdecisions; // maintien de la base de right BranchingDecision
-
-    protected TIntHashSet expanded = new TIntHashSet();
-    protected TIntHashSet toexpand = new TIntHashSet();
-    protected CircularQueue<Deduction> pending = new CircularQueue<>(16);
+    // beyond this width, the value removals of a variable are not stored in an array but in 'widevalueremovals'
+    static final int DENSE_LIMIT = 1 << 12;
+    // minimal number of slots added when the value removals of a variable are enlarged
+    static final int DENSE_SLACK = 8;
+    static final ValueRemoval[] NO_REMOVAL = new ValueRemoval[0];
+
+    AntiDomain[] removedvalues; // maintien du domaine courant, indexed by variable
+    ValueRemoval[][] valueremovals; // maintain deduction base, indexed by variable then by value - offsets[var]
+    int[] offsets;
+    TLongObjectHashMap<ValueRemoval> widevalueremovals; // maintain deduction base, out of the dense range
+    // maintain cause of propagator activation -- can be sparse, indexed by propagator
+    PropagatorActivation[] propactivs;
+    Explanation[] database; // base d'explications, indexed by recorded deduction
+    int nbRecorded; // number of recorded deductions
+
+    TLongObjectHashMap<BranchingDecision> leftbranchdecisions; // maintien de la base de left BranchingDecision
+    TLongObjectHashMap<BranchingDecision> rightbranchdecisions; // maintien de la base de right BranchingDecision
+
+    // scratch structures of flatten
+    protected int[] marks = new int[16];
+    protected int stamp;
+    protected Deduction[] pending = new Deduction[16];
+    protected final Explanation single = new Explanation();
 
     public RecorderExplanationEngine(Solver solver) {
         super(solver);
@@ -80,12 +93,14 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
                     "# Enabling explanations:\n" +
                     "PLUG_EXPLANATION=true\n");
         }
-        removedvalues = new TIntObjectHashMap<>();
-        valueremovals = new TIntObjectHashMap<>();
-        propactivs = new TIntObjectHashMap<>();
-        database = new TIntObjectHashMap<>();
-        leftbranchdecisions = new TIntObjectHashMap<>();
-        rightbranchdecisions = new TIntObjectHashMap<>();
+        removedvalues = new AntiDomain[16];
+        valueremovals = new ValueRemoval[16][];
+        offsets = new int[16];
+        widevalueremovals = new TLongObjectHashMap<>();
+        propactivs = new PropagatorActivation[16];
+        database = new Explanation[16];
+        leftbranchdecisions = new TLongObjectHashMap<>();
+        rightbranchdecisions = new TLongObjectHashMap<>();
         solver.plugMonitor(this);
     }
 
@@ -111,14 +126,20 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
     @Override
     public AntiDomain getRemovedValues(IntVar v) {
         int vid = v.getId();
-        AntiDomain toreturn = removedvalues.get(vid);
+        if (vid >= removedvalues.length) {
+            int nsize = Math.max(vid + 1, removedvalues.length * 3 / 2);
+            removedvalues = Arrays.copyOf(removedvalues, nsize);
+            valueremovals = Arrays.copyOf(valueremovals, nsize);
+            offsets = Arrays.copyOf(offsets, nsize);
+        }
+        AntiDomain toreturn = removedvalues[vid];
         if (toreturn == null) {
             toreturn = v.antiDomain();
-            removedvalues.put(vid, toreturn);
-            TIntObjectHashMap<ValueRemoval> hm = valueremovals.get(vid);
-            if (hm == null) {
-                hm = new TIntObjectHashMap<>();
-                valueremovals.put(vid, hm);
+            removedvalues[vid] = toreturn;
+            if (valueremovals[vid] == null) {
+                // most variables never lose a value: the dense range is built on demand by getValueRemoval
+                valueremovals[vid] = NO_REMOVAL;
+                offsets[vid] = v.getLB();
             }
         }
         return toreturn;
@@ -126,21 +147,51 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
 
     @Override
     public Explanation retrieve(IntVar var, int val) {
-        return database.get(getValueRemoval(var, val).id);
+        return stored(getValueRemoval(var, val));
     }
 
     public ValueRemoval getValueRemoval(IntVar var, int val) {
         int vid = var.getId();
-        ValueRemoval vr;
-        TIntObjectHashMap<ValueRemoval> hm = valueremovals.get(vid);
-        if (hm == null) {
-            hm = new TIntObjectHashMap<>();
-            valueremovals.put(vid, hm);
+        if (vid >= valueremovals.length || valueremovals[vid] == null) {
+            getRemovedValues(var);
         }
-        vr = hm.get(val);
+        ValueRemoval[] vrs = valueremovals[vid];
+        int idx = val - offsets[vid];
+        if (idx < 0 || idx >= vrs.length) {
+            // the value is out of the dense range, try to enlarge it
+            int from = Math.min(offsets[vid], val);
+            int to = Math.max(offsets[vid] + vrs.length - 1, val);
+            if (vrs.length == 0) {
+                from = to = val;
+            }
+            if ((long) to - from + 1 > DENSE_LIMIT) {
+                long key = ((long) vid << 32) | (val & 0xFFFFFFFFL);
+                ValueRemoval vr = widevalueremovals.get(key);
+                if (vr == null) {
+                    vr = new ValueRemoval(var, val);
+                    widevalueremovals.put(key, vr);
+                }
+                return vr;
+            }
+            // leave some room in the growing direction
+            int slack = Math.min(DENSE_LIMIT - (to - from + 1), Math.max(DENSE_SLACK, vrs.length / 2));
+            if (val < offsets[vid] || vrs.length == 0) {
+                from -= slack;
+            } else {
+                to += slack;
+            }
+            ValueRemoval[] nvrs = new ValueRemoval[to - from + 1];
+            if (vrs.length > 0) {
+                System.arraycopy(vrs, 0, nvrs, offsets[vid] - from, vrs.length);
+            }
+            valueremovals[vid] = vrs = nvrs;
+            offsets[vid] = from;
+            idx = val - from;
+        }
+        ValueRemoval vr = vrs[idx];
         if (vr == null) {
             vr = new ValueRemoval(var, val);
-            valueremovals.get(vid).put(val, vr);
+            vrs[idx] = vr;
         }
         return vr;
     }
@@ -149,48 +200,74 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
     public PropagatorActivation getPropagatorActivation(Propagator propagator) {
 //        assert propagator.isActive();
         int pid = propagator.getId();
-        PropagatorActivation pa;
-        pa = propactivs.get(pid);
+        if (pid >= propactivs.length) {
+            propactivs = Arrays.copyOf(propactivs, Math.max(pid + 1, propactivs.length * 3 / 2));
+        }
+        PropagatorActivation pa = propactivs[pid];
         if (pa == null) {
             pa = new PropagatorActivation(propagator);
-            propactivs.put(pid, pa);
+            propactivs[pid] = pa;
         }
         return pa;
     }
 
     @Override
     public BranchingDecision getDecision(Decision decision, boolean isLeft) {
-        int vid = decision.getDecisionVariable().getId();
-        TIntObjectHashMap<BranchingDecision> mapvar = isLeft ? leftbranchdecisions.get(vid) : rightbranchdecisions.get(vid);
-        BranchingDecision vr;
-        if (mapvar == null) {
-            mapvar = new TIntObjectHashMap<>();
-            if (isLeft) {
-                if (!decision.hasNext()) {
-                    System.out.println(decision);
-                    throw new SolverException("Arg!");
-                }
-                leftbranchdecisions.put(vid, mapvar);
-            } else {
-                rightbranchdecisions.put(vid, mapvar);
-            }
-        }
-        vr = mapvar.get(decision.getId());
+        long key = key(decision.getDecisionVariable(), decision);
+        TLongObjectHashMap<BranchingDecision> map = isLeft ? leftbranchdecisions : rightbranchdecisions;
+        BranchingDecision vr = map.get(key);
         if (vr == null) {
+            if (isLeft && !decision.hasNext()) {
+                System.out.println(decision);
+                throw new SolverException("Arg!");
+            }
             vr = new BranchingDecision(decision, isLeft);
-            mapvar.put(decision.getId(), vr);
+            map.put(key, vr);
         }
         return vr;
     }
 
+    private static long key(Variable var, Decision decision) {
+        return ((long) var.getId() << 32) | (decision.getId() & 0xFFFFFFFFL);
+    }
+
     @Override
     public void store(Deduction deduction, Explanation explanation) {
-        database.put(deduction.id, explanation);
+        int rid = index(deduction);
+        database[rid] = explanation;
+    }
+
+    /**
+     * Get the explanation recorded for <code>deduction</code>, if any.
+     *
+     * @param deduction a deduction
+     * @return its explanation, or null if none has been recorded
+     */
+    protected Explanation stored(Deduction deduction) {
+        return deduction.rid < 0 || deduction.rid >= database.length ? null : database[deduction.rid];
+    }
+
+    /**
+     * Get the index of <code>deduction</code> in the explanation database, assigns one if needed.
+     *
+     * @param deduction a deduction
+     * @return its index
+     */
+    protected int index(Deduction deduction) {
+        if (deduction.rid < 0) {
+            deduction.rid = nbRecorded++;
+        }
+        if (deduction.rid >= database.length) {
+            int nsize = Math.max(deduction.rid + 1, database.length * 3 / 2);
+            database = Arrays.copyOf(database, nsize);
+            marks = Arrays.copyOf(marks, nsize);
+        }
+        return deduction.rid;
     }
 
     @Override
     public void removeLeftDecisionFrom(Decision decision, Variable var) {
-        leftbranchdecisions.get(var.getId()).remove(decision.getId());
+        leftbranchdecisions.remove(key(var, decision));
     }
 
 
@@ -201,7 +278,7 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
     @Override
     public void activePropagator(BoolVar var, Propagator propagator) {
         PropagatorActivation pa = getPropagatorActivation(propagator);
-        Explanation expl = database.get(pa.id);
+        Explanation expl = stored(pa);
         if (expl == null) {
             expl = new Explanation();
         } else {
@@ -219,7 +296,7 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
         // 1. retrieve the deduction
         Deduction vr = getValueRemoval(var, val);
         // 2. get the previous explanation, if any
-        Explanation expl = database.get(vr.id);
+        Explanation expl = stored(vr);
         if (expl == null) {
             expl = new Explanation();
             store(vr, expl);
@@ -336,44 +413,50 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
     public Explanation flatten(Explanation expl) {
         Explanation toreturn = new Explanation();
 
-
-        expanded.clear();
-        toexpand.clear();
-        pending.clear();
+        // a deduction is marked with the current stamp once enqueued
+        stamp++;
+        int head = 0, tail = 0;
 
         Deduction ded;
         int nbd = expl.nbDeductions();
         for (int i = 0; i < nbd; i++) {
             ded = expl.getDeduction(i);
-            pending.addLast(ded);
-            toexpand.add(ded.id);
+            int rid = index(ded);
+            marks[rid] = stamp;
+            tail = enqueue(ded, tail);
         }
 
 
-        while (!pending.isEmpty()) {
-            ded = pending.pollFirst();
-            toexpand.remove(ded.id);
-            expanded.add(ded.id);
+        while (head < tail) {
+            ded = pending[head];
+            pending[head++] = null;
 
-            Explanation e = database.get(ded.id);
-//            System.out.printf("%s \n", ded);
+            Explanation e = stored(ded);
             if (e != null) {
                 nbd = e.nbDeductions();
                 for (int i = 0; i < nbd; i++) {
                     ded = e.getDeduction(i);
-//                    System.out.printf("\t-> %s\n", ded);
-                    if (!expanded.contains(ded.id) && toexpand.add(ded.id)) {
-                        pending.addLast(ded);
+                    int rid = index(ded);
+                    if (marks[rid] != stamp) {
+                        marks[rid] = stamp;
+                        tail = enqueue(ded, tail);
                     }
                 }
             } else {
                 toreturn.add(ded);
             }
-//            System.out.printf("\n");
         }
         return toreturn;
     }
 
+    private int enqueue(Deduction ded, int tail) {
+        if (tail == pending.length) {
+            pending = Arrays.copyOf(pending, tail * 3 / 2 + 1);
+        }
+        pending[tail] = ded;
+        return tail + 1;
+    }
+
     @Override
     public Explanation flatten(IntVar var, int val) {
         // TODO check that it is always called with val NOT in var
@@ -383,9 +466,11 @@ public class RecorderExplanationEngine extends ExplanationEngine implements IMon
 
     @Override
     public Explanation flatten(Deduction deduction) {
-        Explanation expl = new Explanation();
-        expl.add(deduction);
-        return flatten(expl);
+        single.reset();
+        single.add(deduction);
+        Explanation toreturn = flatten(single);
+        single.reset();
+        return toreturn;
     }
 
     @Override
@@ -30,8 +30,7 @@ import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.explanations.antidom.AntiDomain;
-import org.chocosolver.solver.explanations.store.IEventStore;
-import org.chocosolver.solver.explanations.store.QueueEventStore;
+import org.chocosolver.solver.explanations.store.RingEventStore;
 import org.chocosolver.solver.search.loop.monitors.IMonitorClose;
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitPropagation;
 import org.chocosolver.solver.search.loop.monitors.IMonitorUpBranch;
@@ -39,14 +38,11 @@ import org.chocosolver.solver.search.strategy.decision.Decision;
 import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
-import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
 /**
  * UNSAFE
  *
@@ -57,70 +53,21 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
 
     static Logger LOGGER = LoggerFactory.getLogger(RunnableExplanationEngine.class);
 
-    private final IEventStore estore;
+    private final RingEventStore estore;
     final ExplanationEngine mainEngine;
 
     Thread me;
-    AtomicBoolean alive;
 
     public RunnableExplanationEngine(Solver solver, ExplanationEngine eng) {
         super(solver);
-        estore = new QueueEventStore();
+        estore = new RingEventStore(1 << 16);
         mainEngine = eng;
         solver.plugMonitor(this);
     }
 
     @Override
     public void run() {
-        int one, two, three;
-        IntVar var;
-        IEventType etype;
-        ICause cause;
-        boolean bug;
-        while (alive.get()) {
-            while (estore.getSize() > 0) {
-                synchronized (estore) {
-                    estore.popEvent();
-                    var = estore.getVariable(0);
-                    etype = estore.getEventType(0);
-                    cause = estore.getCause(0);
-                    one = estore.getFirstValue(0);
-                    two = estore.getSecondValue(0);
-                    three = estore.getThirdValue(0);
-
-                    if (LOGGER.isDebugEnabled()) {
-                        LOGGER.debug("GOT {} {} {} {} {}", var, cause, etype, one, two, three);
-                    }
-                    bug = true;
-                    if (etype == IntEventType.REMOVE) {
-                        mainEngine.removeValue(var, one, cause);
-                        bug = false;
-                    }
-                    if (etype == IntEventType.INSTANTIATE) {
-                        mainEngine.instantiateTo(var, one, cause, two, three);
-                        bug = false;
-                    }
-                    if (etype == IntEventType.INCLOW) {
-                        mainEngine.updateLowerBound(var, one, two, cause);
-                        bug = false;
-                    }
-                    if (etype == IntEventType.DECUPP) {
-                        mainEngine.updateUpperBound(var, one, two, cause);
-                        bug = false;
-                    }
-                    if (etype == PropagatorEventType.FULL_PROPAGATION) {
-                        Propagator prop = (Propagator) cause;
-                        BoolVar bVar = (BoolVar) var;
-                        mainEngine.activePropagator(bVar, prop);
-                        bug = false;
-                    }
-                }
-                if (bug) {
-                    throw new UnsupportedOperationException("Unknown type " + etype);
-                }
-            }
-        }
-
+        estore.consume(mainEngine);
     }
 
     /**
@@ -133,9 +80,7 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
      */
     @Override
     public void removeValue(IntVar var, int val, ICause cause) {
-        synchronized (estore) {
-            estore.pushEvent(var, cause, IntEventType.REMOVE, val, 0, 0);
-        }
+        estore.pushEvent(var, cause, IntEventType.REMOVE, val, 0, 0);
     }
 
     /**
@@ -149,9 +94,7 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
      */
     @Override
     public void updateLowerBound(IntVar intVar, int old, int value, ICause cause) {
-        synchronized (estore) {
-            estore.pushEvent(intVar, cause, IntEventType.INCLOW, old, value, 0);
-        }
+        estore.pushEvent(intVar, cause, IntEventType.INCLOW, old, value, 0);
     }
 
     /**
@@ -165,9 +108,7 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
      */
     @Override
     public void updateUpperBound(IntVar var, int old, int value, ICause cause) {
-        synchronized (estore) {
-            estore.pushEvent(var, cause, IntEventType.DECUPP, old, value, 0);
-        }
+        estore.pushEvent(var, cause, IntEventType.DECUPP, old, value, 0);
     }
 
     /**
@@ -182,16 +123,12 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
      */
     @Override
     public void instantiateTo(IntVar var, int val, ICause cause, int oldLB, int oldUB) {
-        synchronized (estore) {
-            estore.pushEvent(var, cause, IntEventType.INSTANTIATE, val, oldLB, oldUB);
-        }
+        estore.pushEvent(var, cause, IntEventType.INSTANTIATE, val, oldLB, oldUB);
     }
 
     @Override
     public void activePropagator(BoolVar var, Propagator propagator) {
-        synchronized (estore) {
-            estore.pushEvent(var, propagator, PropagatorEventType.FULL_PROPAGATION, 0, 0, 0);
-        }
+        estore.pushEvent(var, propagator, PropagatorEventType.FULL_PROPAGATION, 0, 0, 0);
     }
 
     @Override
@@ -305,13 +242,13 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
 
     private void goOrWait() {
         if (!Thread.currentThread().equals(me)) {
-            while (estore.getSize() > 0) ;
+            estore.awaitEmpty();
         }
     }
 
     @Override
     public void beforeClose() {
-        alive.set(false);
+        estore.close();
         try {
             me.join();
         } catch (InterruptedException e) {
@@ -331,7 +268,7 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
 
     @Override
     public void afterInitialPropagation() {
-        alive = new AtomicBoolean(true);
+        estore.open();
         me = new Thread(this);
         me.setDaemon(true);
         me.start();
@@ -339,9 +276,8 @@ public class RunnableExplanationEngine extends ExplanationEngine implements Runn
 
     @Override
     public void beforeUpBranch() {
-        synchronized (estore) {
-            estore.clear();
-        }
+        // the recorded domains are backtrackable, they must be up-to-date before the world is restored
+        estore.awaitEmpty();
     }
 
     @Override
@@ -27,24 +27,18 @@
 package org.chocosolver.solver.explanations.store;
 
 import org.chocosolver.solver.ICause;
-import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.explanations.BranchingDecision;
 import org.chocosolver.solver.explanations.Deduction;
 import org.chocosolver.solver.explanations.Explanation;
 import org.chocosolver.solver.explanations.ExplanationEngine;
 import org.chocosolver.solver.explanations.antidom.AntiDomain;
 import org.chocosolver.solver.search.strategy.decision.Decision;
-import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
-import org.chocosolver.solver.variables.events.IntEventType;
-import org.chocosolver.solver.variables.events.PropagatorEventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
-
 /**
  * Created by cprudhom on 18/11/14.
  * Project: choco.
@@ -55,71 +49,35 @@ public class BufferedEventStore {
 
     private final ExplanationEngine delegate;
 
-    private final ArrayDeque<IntVar> varChunks;
-    private final ArrayDeque<ICause> cauChunks;
-    private final ArrayDeque<IEventType> masChunks;
-    private final ArrayDeque<Integer> val1Chunks;
-    private final ArrayDeque<Integer> val2Chunks;
-    private final ArrayDeque<Integer> val3Chunks;
-    volatile int size;
+    private final RingEventStore ring;
 
 
     public BufferedEventStore(ExplanationEngine receiver) {
         delegate = receiver;
-        varChunks = new ArrayDeque<>();
-        cauChunks = new ArrayDeque<>();
-        masChunks = new ArrayDeque<>();
-        val1Chunks = new ArrayDeque<>();
-        val2Chunks = new ArrayDeque<>();
-        val3Chunks = new ArrayDeque<>();
-        size = 0;
+        ring = new RingEventStore(1 << 16);
     }
 
 
-    public synchronized void push(IntVar var, ICause cause, IEventType etype, int one, int two, int three) {
-        varChunks.addLast(var);
-        cauChunks.addLast(cause);
-        masChunks.addLast(etype);
-        val1Chunks.addLast(one);
-        val2Chunks.addLast(two);
-        val3Chunks.addLast(three);
-        size++;
-        LOGGER.debug("PUSH: <{},{},{},{},{},{}>", var, cause, etype, one, two, three);
+    public void push(IntVar var, ICause cause, IEventType etype, int one, int two, int three) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("PUSH: <{},{},{},{},{},{}>", var, cause, etype, one, two, three);
+        }
+        ring.pushEvent(var, cause, etype, one, two, three);
+    }
+
+    /**
+     * Explain the pushed events until {@link #close()} is called.
+     */
+    public void consume() {
+        ring.consume(delegate);
+    }
 
+    public void open() {
+        ring.open();
     }
 
-    public synchronized void pop() {
-        if (size > 0) {
-            IntVar var;
-            IEventType etype;
-            ICause cause;
-            int one, two, three;
-            var = varChunks.removeFirst();
-            etype = masChunks.removeFirst();
-            cause = cauChunks.removeFirst();
-            one = val1Chunks.removeFirst();
-            two = val2Chunks.removeFirst();
-            three = val3Chunks.removeFirst();
-
-            LOGGER.debug("POP: <{},{},{},{},{},{}> ({})", var, cause, etype, one, two, three, size - 1);
-
-            if (etype == IntEventType.REMOVE) {
-                delegate.removeValue(var, one, cause);
-            } else if (etype == IntEventType.INSTANTIATE) {
-                delegate.instantiateTo(var, one, cause, two, three);
-            } else if (etype == IntEventType.INCLOW) {
-                delegate.updateLowerBound(var, one, two, cause);
-            } else if (etype == IntEventType.DECUPP) {
-                delegate.updateUpperBound(var, one, two, cause);
-            } else if (etype == PropagatorEventType.FULL_PROPAGATION) {
-                Propagator prop = (Propagator) cause;
-                BoolVar bVar = (BoolVar) var;
-                delegate.activePropagator(bVar, prop);
-            }
-            size--;
-        } else {
-            notify();
-        }
+    public void close() {
+        ring.close();
     }
 
     public Deduction explain(IntVar var, int val) {
@@ -150,16 +108,10 @@ public class BufferedEventStore {
         return delegate.getRemovedValues(v);
     }
 
-    public synchronized void hurryUp() {
-        LOGGER.debug("hurryUp! {}", size);
-        if (size > 0) {
-            LOGGER.debug("LOCKED hurryUp -> wait");
-            try {
-                wait();
-            } catch (InterruptedException ex) {
-                LOGGER.error("{}", ex);
-            }
+    public void hurryUp() {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("hurryUp! {}", ring.getSize());
         }
-        LOGGER.debug("RUN hurryUp! ");
+        ring.awaitEmpty();
     }
 }
@@ -27,7 +27,7 @@
 package org.chocosolver.solver.explanations.store;
 
 /**
- * A event consumer which pop event stored in BufferedEventStore and explain it, one by one.
+ * A event consumer which pop events stored in BufferedEventStore and explain them, by batch.
  * <p/>
  * Created by cprudhom on 18/11/14.
  * Project: choco.
@@ -35,24 +35,19 @@ package org.chocosolver.solver.explanations.store;
 public class EventConsumer implements Runnable {
 
     private final BufferedEventStore eventStore;
-    private volatile boolean alive;
 
     public EventConsumer(BufferedEventStore eventStore) {
         this.eventStore = eventStore;
-        this.alive = true;
+        eventStore.open();
     }
 
 
     @Override
     public void run() {
-        boolean _a = alive;
-        while (_a) {
-            eventStore.pop();
-            _a = alive;
-        }
+        eventStore.consume();
     }
 
-    public synchronized void kill() {
-        alive = false;
+    public void kill() {
+        eventStore.close();
     }
 }
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.explanations.store;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free single-producer/single-consumer ring buffer of events, to be explained by another thread.
+ * <p/>
+ * The search thread is the only producer: it pushes events with {@link #pushEvent}, and may wait for
+ * the events to be explained with {@link #awaitEmpty()}.
+ * The explanation thread is the only consumer: it calls {@link #consume(ExplanationEngine)} which replays
+ * the events, by batch, on an explanation engine from the time the store is opened until it is closed.
+ * Events are stored column-wise in pre-allocated arrays, nothing is allocated on push.
+ * When there is nothing to do, each side spins, then yields and finally parks for a short time;
+ * the other side unparks it as soon as there is something to do.
+ * <p/>
+ * Note that the explanation engine is not thread-safe, it should only be queried by the producer
+ * once the store is empty.
+ *
+ * @since 17/10/26
+ */
+public class RingEventStore {
+
+    private static final byte REMOVE = 0, INSTANTIATE = 1, INCLOW = 2, DECUPP = 3, FULL_PROPAGATION = 4;
+
+    // maximum number of events replayed before the consumer publishes its progress
+    private static final int BATCH = 256;
+    // back-off: number of empty rounds spent spinning, then yielding, before parking
+    private static final int SPINS = 64, YIELDS = 128;
+    private static final long PARK_NANOS = 100_000;
+
+    private final int mask;
+    private final IntVar[] vars;
+    private final ICause[] causes;
+    private final byte[] types;
+    private final int[] ones, twos, threes;
+
+    // number of events consumed, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // number of events pushed, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // local copies of the other side's counter, to limit volatile reads
+    private long cachedHead, cachedTail;
+
+    private volatile Thread consumer, producer;
+    private volatile boolean consumerParked, producerParked;
+    private volatile boolean open;
+
+    /**
+     * Create a ring buffer of at least <code>capacity</code> events
+     *
+     * @param capacity minimum number of pending events
+     */
+    public RingEventStore(int capacity) {
+        int c = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = c - 1;
+        vars = new IntVar[c];
+        causes = new ICause[c];
+        types = new byte[c];
+        ones = new int[c];
+        twos = new int[c];
+        threes = new int[c];
+    }
+
+    /**
+     * Push an event, waits if the ring buffer is full. To be called by the producer only.
+     */
+    public void pushEvent(IntVar var, ICause cause, IEventType mask, int one, int two, int three) {
+        assert cause != Cause.Null : "cause null";
+        long t = tail.get();
+        if (t - cachedHead > this.mask) {
+            cachedHead = head.get();
+            int idle = 0;
+            while (t - cachedHead > this.mask) {
+                idle = producerBackoff(idle, t - this.mask);
+                cachedHead = head.get();
+            }
+        }
+        int i = (int) t & this.mask;
+        vars[i] = var;
+        causes[i] = cause;
+        types[i] = code(mask);
+        ones[i] = one;
+        twos[i] = two;
+        threes[i] = three;
+        // a plain volatile write: the write of the tail must not be reordered with the read of the flag,
+        // otherwise the consumer could park after having missed this event, and this side miss the unpark
+        tail.set(t + 1);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Wait until all the pushed events have been replayed. To be called by the producer only.
+     */
+    public void awaitEmpty() {
+        long t = tail.get();
+        int idle = 0;
+        while (head.get() != t) {
+            idle = producerBackoff(idle, t);
+        }
+    }
+
+    /**
+     * @return the number of events pushed but not replayed yet
+     */
+    public int getSize() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Replay events on <code>engine</code> until {@link #close()} is called. To be called by the consumer only.
+     *
+     * @param engine the engine which explains the events
+     */
+    public void consume(ExplanationEngine engine) {
+        consumer = Thread.currentThread();
+        int idle = 0;
+        while (open) {
+            if (drain(engine, BATCH) > 0) {
+                idle = 0;
+            } else if (++idle < SPINS) {
+                // spin
+            } else if (idle < YIELDS) {
+                Thread.yield();
+            } else {
+                idle = YIELDS;
+                consumerParked = true;
+                if (open && head.get() == tail.get()) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                consumerParked = false;
+            }
+        }
+    }
+
+    /**
+     * Replay at most <code>max</code> events on <code>engine</code>. To be called by the consumer only.
+     *
+     * @param engine the engine which explains the events
+     * @param max    maximum number of events to replay
+     * @return the number of events replayed
+     */
+    public int drain(ExplanationEngine engine, int max) {
+        long h = head.get();
+        if (cachedTail == h) {
+            cachedTail = tail.get();
+            if (cachedTail == h) {
+                return 0;
+            }
+        }
+        int n = (int) Math.min(max, cachedTail - h);
+        for (int k = 0; k < n; k++) {
+            int i = (int) (h + k) & mask;
+            IntVar var = vars[i];
+            ICause cause = causes[i];
+            vars[i] = null;
+            causes[i] = null;
+            switch (types[i]) {
+                case REMOVE:
+                    engine.removeValue(var, ones[i], cause);
+                    break;
+                case INSTANTIATE:
+                    engine.instantiateTo(var, ones[i], cause, twos[i], threes[i]);
+                    break;
+                case INCLOW:
+                    engine.updateLowerBound(var, ones[i], twos[i], cause);
+                    break;
+                case DECUPP:
+                    engine.updateUpperBound(var, ones[i], twos[i], cause);
+                    break;
+                case FULL_PROPAGATION:
+                    engine.activePropagator((BoolVar) var, (Propagator) cause);
+                    break;
+            }
+        }
+        // see pushEvent
+        head.set(h + n);
+        if (producerParked) {
+            LockSupport.unpark(producer);
+        }
+        return n;
+    }
+
+    /**
+     * Allow the consumer to run, should be called before starting it.
+     */
+    public void open() {
+        open = true;
+    }
+
+    /**
+     * Stop the consumer.
+     */
+    public void close() {
+        open = false;
+        Thread c = consumer;
+        if (c != null) {
+            LockSupport.unpark(c);
+        }
+    }
+
+    /**
+     * Back-off of the producer, waiting for the consumer to reach <code>until</code>
+     */
+    private int producerBackoff(int idle, long until) {
+        if (++idle < SPINS) {
+            return idle;
+        } else if (idle < YIELDS) {
+            Thread.yield();
+        } else {
+            idle = YIELDS;
+            producer = Thread.currentThread();
+            producerParked = true;
+            if (head.get() < until) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            producerParked = false;
+        }
+        return idle;
+    }
+
+    private static byte code(IEventType type) {
+        if (type == IntEventType.REMOVE) {
+            return REMOVE;
+        } else if (type == IntEventType.INSTANTIATE) {
+            return INSTANTIATE;
+        } else if (type == IntEventType.INCLOW) {
+            return INCLOW;
+        } else if (type == IntEventType.DECUPP) {
+            return DECUPP;
+        } else if (type == PropagatorEventType.FULL_PROPAGATION) {
+            return FULL_PROPAGATION;
+        }
+        throw new UnsupportedOperationException("Unknown type " + type);
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.explanations.strategies;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.nary.nogood.Nogood;
+import org.chocosolver.solver.constraints.nary.nogood.PropNogoodStore;
+import org.chocosolver.solver.explanations.BranchingDecision;
+import org.chocosolver.solver.explanations.Deduction;
+import org.chocosolver.solver.explanations.Explanation;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.search.loop.monitors.IMonitorDownBranch;
+import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.chocosolver.solver.search.strategy.decision.RootDecision.ROOT;
+
+/**
+ * A conflict-based backjumping which also learns from conflicts.
+ * On each contradiction, the decisions which explain it form a nogood, which is recorded in a watched-literal store
+ * once the search has jumped back to the most recent of them.
+ * The nogood is then propagated in the rest of the tree search, and not only on the refuted decision.
+ * <br/>
+ * When the number of learnt nogoods exceeds a threshold, half of them, the least active ones, are forgotten
+ * (the activity of a nogood is the number of values it removed) and the threshold is increased by 10%.
+ * The nogoods are learnt for a resolution, and forgotten when a new one starts.
+ * <br/>
+ * Beware: nogoods are only learnt from conflicts explained by assignment decisions on integer variables.
+ *
+ * @since 17/10/26
+ */
+public class ConflictBasedLearning extends ConflictBasedBackjumping implements IMonitorDownBranch, IMonitorInitialize {
+
+    private final PropNogoodStore store;
+    private final List<Nogood> learnt;
+    private int maxLearnt;
+    private Nogood pending; // nogood learnt on the last conflict, to record once the search has jumped back
+
+    /**
+     * @param mExplanationEngine an explanation engine
+     * @param maxLearnt          initial maximum number of learnt nogoods
+     */
+    public ConflictBasedLearning(ExplanationEngine mExplanationEngine, int maxLearnt) {
+        super(mExplanationEngine);
+        this.maxLearnt = maxLearnt;
+        this.learnt = new ArrayList<>();
+        List<IntVar> scope = new ArrayList<>();
+        for (int i = 0; i < mSolver.getNbVars(); i++) {
+            Variable v = mSolver.getVar(i);
+            if ((v.getTypeAndKind() & Variable.TYPE) == Variable.VAR && (v.getTypeAndKind() & Variable.INT) != 0) {
+                scope.add((IntVar) v);
+            }
+        }
+        this.store = new PropNogoodStore(scope.toArray(new IntVar[scope.size()]));
+        mSolver.post(new Constraint("LearntNogoods", store));
+    }
+
+    /**
+     * @return the number of nogoods currently learnt
+     */
+    public int getNbLearntNogoods() {
+        return learnt.size();
+    }
+
+    @Override
+    protected void updateVRExplainUponbacktracking(int nworld, Explanation expl, ICause cause) {
+        learn(nworld, expl);
+        super.updateVRExplainUponbacktracking(nworld, expl, cause);
+    }
+
+    /**
+     * Build the nogood made of the left decisions of <i>expl</i>,
+     * the first literal being the decision to refute and the second one the most recent of the others.
+     */
+    private void learn(int nworld, Explanation expl) {
+        pending = null;
+        Decision dec = mSolver.getSearchLoop().getLastDecision();
+        while (dec != ROOT && nworld > 1) {
+            dec = dec.getPrevious();
+            nworld--;
+        }
+        if (dec == ROOT || !dec.hasNext() || !isAssignment(dec)) {
+            return;
+        }
+        int n = expl.nbDeductions();
+        IntVar[] vars = new IntVar[n];
+        int[] values = new int[n];
+        int[] worlds = new int[n];
+        vars[0] = (IntVar) dec.getDecisionVariable();
+        values[0] = (Integer) dec.getDecisionValue();
+        int size = 1;
+        for (int i = 0; i < n; i++) {
+            Deduction d = expl.getDeduction(i);
+            switch (d.getmType()) {
+                case DecLeft:
+                    Decision ld = ((BranchingDecision) d).getDecision();
+                    if (ld == dec) {
+                        continue;
+                    }
+                    if (!isAssignment(ld)) {
+                        return;
+                    }
+                    // insertion by decreasing world index
+                    int j = size;
+                    while (j > 1 && worlds[j - 1] < ld.getWorldIndex()) {
+                        vars[j] = vars[j - 1];
+                        values[j] = values[j - 1];
+                        worlds[j] = worlds[j - 1];
+                        j--;
+                    }
+                    vars[j] = (IntVar) ld.getDecisionVariable();
+                    values[j] = (Integer) ld.getDecisionValue();
+                    worlds[j] = ld.getWorldIndex();
+                    size++;
+                    break;
+                case DecRight: // should have been flattened
+                    return;
+                default: // root facts and propagator activations
+                    break;
+            }
+        }
+        // a unit nogood is useless: the refutation of the first decision is never undone
+        if (size > 1) {
+            IntVar[] nvars = new IntVar[size];
+            int[] nvalues = new int[size];
+            System.arraycopy(vars, 0, nvars, 0, size);
+            System.arraycopy(values, 0, nvalues, 0, size);
+            pending = new Nogood(nvars, nvalues);
+        }
+    }
+
+    private static boolean isAssignment(Decision dec) {
+        return dec instanceof FastDecision && ((FastDecision) dec).getDecisionOperator() == DecisionOperator.int_eq;
+    }
+
+    @Override
+    public void beforeDownLeftBranch() {
+    }
+
+    @Override
+    public void afterDownLeftBranch() {
+    }
+
+    @Override
+    public void beforeDownRightBranch() {
+        if (pending != null) {
+            Nogood ng = pending;
+            pending = null;
+            if (isAsserting(ng)) {
+                // the refutation of the decision, about to be applied, forbids the first literal
+                store.addLearntNogood(ng);
+                learnt.add(ng);
+                if (learnt.size() > maxLearnt) {
+                    reduce();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void afterDownRightBranch() {
+    }
+
+    /**
+     * @return true if the first literal of <i>ng</i> is free and all the others are satisfied
+     */
+    private static boolean isAsserting(Nogood ng) {
+        if (ng.getVar(0).isInstantiated() || !ng.getVar(0).contains(ng.getVal(0))) {
+            return false;
+        }
+        for (int i = 1; i < ng.size(); i++) {
+            if (!ng.getVar(i).isInstantiatedTo(ng.getVal(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if <i>ng</i> currently forbids a value, that is, it may be part of an explanation
+     */
+    private static boolean isReason(Nogood ng) {
+        int sat = 0, removed = 0;
+        for (int i = 0; i < ng.size(); i++) {
+            if (ng.getVar(i).isInstantiatedTo(ng.getVal(i))) {
+                sat++;
+            } else if (!ng.getVar(i).contains(ng.getVal(i))) {
+                removed++;
+            }
+        }
+        return removed == 1 && sat == ng.size() - 1;
+    }
+
+    /**
+     * Forget the least active half of the learnt nogoods, except those which are reasons.
+     */
+    private void reduce() {
+        learnt.sort(Comparator.comparingLong(Nogood::getActivity));
+        int toremove = learnt.size() / 2;
+        List<Nogood> kept = new ArrayList<>(learnt.size() - toremove);
+        for (int i = 0; i < learnt.size(); i++) {
+            Nogood ng = learnt.get(i);
+            if (toremove > 0 && !isReason(ng)) {
+                store.removeNogood(ng);
+                toremove--;
+            } else {
+                ng.decayActivity();
+                kept.add(ng);
+            }
+        }
+        learnt.clear();
+        learnt.addAll(kept);
+        maxLearnt += maxLearnt / 10;
+    }
+
+    @Override
+    public void beforeInitialize() {
+        pending = null;
+        for (int i = 0; i < learnt.size(); i++) {
+            store.removeNogood(learnt.get(i));
+        }
+        learnt.clear();
+    }
+
+    @Override
+    public void afterInitialize() {
+    }
+}
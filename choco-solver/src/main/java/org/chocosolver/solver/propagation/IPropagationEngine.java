@@ -28,10 +28,15 @@
  */
 package org.chocosolver.solver.propagation;
 
+import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.ISearchLoop;
+import org.chocosolver.solver.search.loop.monitors.IMonitorPropagation;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
 import org.chocosolver.solver.variables.events.PropagatorEventType;
@@ -72,6 +77,86 @@ public interface IPropagationEngine extends Serializable {
         }
     }
 
+    /**
+     * Compute the mask which selects the revisions to time, wrt {@link Settings#getPropagatorTimeSampling()}:
+     * a revision is timed when the number of revisions run so far, masked, is 0.
+     *
+     * @param settings settings of the solver
+     * @return the sampling mask, -1 if timing is disabled
+     */
+    static int samplingMask(Settings settings) {
+        return periodMask(settings.getPropagatorTimeSampling());
+    }
+
+    /**
+     * Compute the mask which selects the revisions followed by an interruption point,
+     * wrt {@link Settings#getPropagationCheckPeriod()}.
+     *
+     * @param settings settings of the solver
+     * @return the check mask, -1 if interruption points are disabled
+     * @see #checkpoint(Solver, long)
+     */
+    static int checkMask(Settings settings) {
+        return periodMask(settings.getPropagationCheckPeriod());
+    }
+
+    /**
+     * Compute the mask selecting one number out of <i>period</i>, <i>period</i> being rounded up to a power of 2.
+     *
+     * @param period a period
+     * @return the mask, -1 if <i>period</i> is not positive
+     */
+    static int periodMask(int period) {
+        if (period <= 0) {
+            return -1;
+        }
+        int p = 1;
+        while (p < period) {
+            p <<= 1;
+        }
+        return p - 1;
+    }
+
+    /**
+     * Interruption point of a propagation: informs the search monitors observing the propagation
+     * (see {@link IMonitorPropagation}) that <i>revisions</i> revisions have been run since its beginning.
+     * The monitors are never called concurrently.
+     * If the search loop has reached a limit while it propagates a node
+     * (see {@link ISearchLoop#isInterruptible()}), the propagation is abandoned by throwing a contradiction;
+     * the search loop, being interrupted, does not consider it as a failure.
+     * Any other propagation, for instance one run by a search strategy, a search monitor or by
+     * {@link Solver#propagate()}, goes on up to its fix-point: the limit stops the search at the next step.
+     *
+     * @param solver    the solver
+     * @param revisions number of revisions run since the beginning of the current propagation
+     * @throws ContradictionException if a limit has been reached during the propagation of a node
+     */
+    static void checkpoint(Solver solver, long revisions) throws ContradictionException {
+        ISearchLoop searchLoop = solver.getSearchLoop();
+        boolean reached;
+        // the components of a ComponentPropagationEngine may be propagated concurrently: monitors are called one at a time
+        synchronized (searchLoop) {
+            searchLoop.getSMList().duringPropagation(revisions);
+            reached = searchLoop.hasReachedLimit();
+        }
+        if (reached && searchLoop.isInterruptible()) {
+            solver.getEngine().fails(Cause.Null, null, ISearchLoop.MSG_LIMIT);
+        }
+    }
+
+    /**
+     * Check whether <i>propagator</i> has to be scheduled on its own modification, that is,
+     * if it is not idempotent and has been run less than {@link Settings#getMaxConsecutiveReruns()} consecutive times
+     * because of its own modifications.
+     *
+     * @param propagator the propagator which modified one of its variables
+     * @param maxReruns  maximum number of consecutive reruns
+     * @return true if <i>propagator</i> has to be scheduled again
+     */
+    static boolean rerun(Propagator propagator, int maxReruns) {
+        return propagator.nbReruns < maxReruns && !propagator.isIdempotent();
+    }
+
     /**
      * Is the engine initialized?
      * Important for dynamic addition of constraints
@@ -124,5 +209,30 @@ public interface IPropagationEngine extends Serializable {
 
     void dynamicAddition(Constraint c, boolean permanent);
 
+    /**
+     * Add constraints <i>cs</i> at once, see {@link #dynamicAddition(Constraint, boolean)}.
+     * Engines can override it to update their structures only once.
+     *
+     * @param permanent whether the constraints are permanent or not
+     * @param cs        constraints to add
+     */
+    default void dynamicAddition(boolean permanent, Constraint... cs) {
+        for (int i = 0; i < cs.length; i++) {
+            dynamicAddition(cs[i], permanent);
+        }
+    }
+
     void dynamicDeletion(Constraint c);
+
+    /**
+     * Remove constraints <i>cs</i> at once, see {@link #dynamicDeletion(Constraint)}.
+     * Engines can override it to update their structures only once.
+     *
+     * @param cs constraints to remove
+     */
+    default void dynamicDeletion(Constraint... cs) {
+        for (int i = 0; i < cs.length; i++) {
+            dynamicDeletion(cs[i]);
+        }
+    }
 }
@@ -29,6 +29,9 @@
 package org.chocosolver.solver.propagation;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.propagation.hardcoded.AdaptivePropagatorEngine;
+import org.chocosolver.solver.propagation.hardcoded.ComponentPropagationEngine;
+import org.chocosolver.solver.propagation.hardcoded.FlatSevenQueuesPropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.SevenQueuesPropagatorEngine;
 import org.chocosolver.solver.propagation.hardcoded.TwoBucketPropagationEngine;
 
@@ -55,6 +58,39 @@ public enum PropagationEngineFactory {
         }
     },
 
+    /**
+     * Create a seven queue dynamic propagator-oriented propagation engine
+     * which does not allocate while propagating (flat structures, dense indices and no logging).
+     */
+    PROPAGATORDRIVEN_7QD_FLAT() {
+        @Override
+        public IPropagationEngine make(Solver solver) {
+            return new FlatSevenQueuesPropagatorEngine(solver);
+        }
+    },
+
+    /**
+     * Create a seven queue propagator-oriented propagation engine
+     * which learns the priority of propagators from their cost and effectiveness.
+     */
+    PROPAGATORDRIVEN_7QD_ADAPTIVE() {
+        @Override
+        public IPropagationEngine make(Solver solver) {
+            return new AdaptivePropagatorEngine(solver);
+        }
+    },
+
+    /**
+     * Create an engine which propagates separately the connected components of the propagators,
+     * the initial propagation is parallel when the environment is thread-safe.
+     */
+    PROPAGATORDRIVEN_7QD_COMPONENTS() {
+        @Override
+        public IPropagationEngine make(Solver solver) {
+            return new ComponentPropagationEngine(solver);
+        }
+    },
+
     /**
      * Create a propagation engine which handles both priority and separated coarse propagation.
      */
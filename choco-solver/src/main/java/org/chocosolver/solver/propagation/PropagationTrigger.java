@@ -88,6 +88,24 @@ public class PropagationTrigger implements Serializable {
         }
     }
 
+    /**
+     * Take over the propagators not yet propagated by <i>other</i>, and its permanent ones.
+     * <i>other</i> is left empty.
+     *
+     * @param other another trigger
+     */
+    public void merge(PropagationTrigger other) {
+        assert perm_propagators.size() == perm_world.size();
+        sta_propagators.addAll(other.sta_propagators);
+        perm_propagators.addAll(other.perm_propagators);
+        perm_world.addAll(other.perm_world);
+        size += other.size;
+        other.sta_propagators.clear();
+        other.perm_propagators.clear();
+        other.perm_world.clear();
+        other.size = 0;
+    }
+
     public void remove(Propagator propagator) {
         // Remove a pending propagator, ie, not yet propagated
 
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation.hardcoded;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+
+import java.util.Arrays;
+
+/**
+ * A seven queues propagator-oriented engine which learns the priority of the propagators.
+ * <br/>
+ * For each propagator, the engine measures the time spent in its revisions and
+ * its effectiveness, that is, the ratio of revisions which modify a variable or fail.
+ * The expected time to get one useful revision is then compared to the one of all propagators,
+ * and the static priority is increased (resp. decreased) by one for each factor {@link #FACTOR}
+ * the propagator is costlier (resp. cheaper).
+ * Hence, cheap and effective propagators are run first,
+ * whereas expensive and seldom effective ones are delayed until the others reach a fix-point.
+ * <br/>
+ * The priorities are updated every {@link #WINDOW} revisions of a propagator,
+ * and the statistics are halved on a regular basis to forget the oldest measures.
+ *
+ * @since 17/10/26
+ */
+public class AdaptivePropagatorEngine extends FlatSevenQueuesPropagatorEngine {
+
+    /**
+     * Number of revisions of a propagator between two updates of its priority (a power of 2).
+     */
+    public static final int WINDOW = 32;
+
+    /**
+     * Ratio of cost between two consecutive priorities.
+     */
+    public static final double FACTOR = 4.;
+
+    private static final int MAX_DELTA = 3;
+    private static final long DECAY = 1 << 12; // statistics are halved once reached
+    private static final double LOG_FACTOR = Math.log(FACTOR);
+
+    protected long[] calls; // number of revisions
+    protected long[] times; // cumulative time of revisions, in nanoseconds
+    protected long[] effects; // number of revisions which modify a variable or fail
+    protected int[] prio; // learned priorities
+
+    private long totalCalls, totalTime, totalEffects;
+    private boolean effective; // set to true when the current revision is effective
+
+    public AdaptivePropagatorEngine(Solver solver) {
+        super(solver);
+        int n = propagators.length;
+        calls = new long[n];
+        times = new long[n];
+        effects = new long[n];
+        prio = new int[n];
+        for (int i = 0; i < size; i++) {
+            prio[i] = propagators[i].getPriority().priority;
+        }
+    }
+
+    @Override
+    protected void execute(Propagator prop, int aid) throws ContradictionException {
+        effective = false;
+        long start = System.nanoTime();
+        try {
+            super.execute(prop, aid);
+        } catch (ContradictionException cex) {
+            effective = true;
+            throw cex;
+        } finally {
+            record(aid, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) throws ContradictionException {
+        if (cause == lastProp) {
+            effective = true;
+        }
+        super.onVariableUpdate(variable, type, cause);
+    }
+
+    @Override
+    protected int priority(Propagator prop, int aid) {
+        return prio[aid];
+    }
+
+    /**
+     * @param propagator a propagator
+     * @return the learned priority of <i>propagator</i>, or its static one if it is unknown
+     */
+    public int getLearnedPriority(Propagator propagator) {
+        int aid = propagator.getEngineIndex();
+        return aid > -1 ? prio[aid] : propagator.getPriority().priority;
+    }
+
+    private void record(int aid, long time) {
+        calls[aid]++;
+        times[aid] += time;
+        totalCalls++;
+        totalTime += time;
+        if (effective) {
+            effects[aid]++;
+            totalEffects++;
+        }
+        if ((calls[aid] & (WINDOW - 1)) == 0) {
+            update(aid);
+        }
+        if (calls[aid] >= DECAY) {
+            calls[aid] >>= 1;
+            times[aid] >>= 1;
+            effects[aid] >>= 1;
+        }
+        if (totalCalls >= DECAY * size) {
+            totalCalls >>= 1;
+            totalTime >>= 1;
+            totalEffects >>= 1;
+        }
+    }
+
+    /**
+     * Update the priority of the propagator at index <i>aid</i>.
+     */
+    private void update(int aid) {
+        double cost = expectedCost(times[aid], calls[aid], effects[aid]);
+        double ref = expectedCost(totalTime, totalCalls, totalEffects);
+        int delta = (int) Math.round(Math.log(cost / ref) / LOG_FACTOR);
+        delta = Math.max(-MAX_DELTA, Math.min(MAX_DELTA, delta));
+        prio[aid] = Math.max(1, Math.min(7, propagators[aid].getPriority().priority + delta));
+    }
+
+    /**
+     * @return the expected time, in nanoseconds, of an effective revision (with Laplace smoothing)
+     */
+    private static double expectedCost(long time, long calls, long effects) {
+        return (time + 1.) / (calls + 1.) * (calls + 2.) / (effects + 1.);
+    }
+
+    @Override
+    protected void added(int aid) {
+        if (calls != null) { // not on construction
+            if (aid >= calls.length) {
+                int n = propagators.length;
+                calls = Arrays.copyOf(calls, n);
+                times = Arrays.copyOf(times, n);
+                effects = Arrays.copyOf(effects, n);
+                prio = Arrays.copyOf(prio, n);
+            }
+            calls[aid] = 0;
+            times[aid] = 0;
+            effects[aid] = 0;
+            prio[aid] = propagators[aid].getPriority().priority;
+        }
+    }
+
+    @Override
+    protected void moved(int from, int to) {
+        calls[to] = calls[from];
+        times[to] = times[from];
+        effects[to] = effects[from];
+        prio[to] = prio[from];
+    }
+}
@@ -0,0 +1,499 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation.hardcoded;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.util.graphOperations.connectivity.ConnectivityFinder;
+import org.chocosolver.util.objects.graphs.UndirectedGraph;
+import org.chocosolver.util.objects.setDataStructures.SetType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A propagation engine which partitions the propagators into connected components,
+ * two propagators being connected when they share a variable (views being connected to their variable).
+ * Each component is managed by its own {@link FlatSevenQueuesPropagatorEngine}
+ * and only the components touched by a modification are propagated.
+ * <br/>
+ * When the environment supports concurrent modifications (see {@link IEnvironment#isThreadSafe()})
+ * and no explanation engine is active, the initial propagation of the components is run in parallel
+ * on a fork-join pool; otherwise, components are propagated one after the other.
+ * The propagation during the search is always sequential.
+ * Constants, which connect no component, are the only variables shared by concurrent tasks:
+ * their lists of propagators are never modified once built (see {@link Variable#unsubscribe(int, boolean)}),
+ * and the search monitors observing the propagation are called one at a time
+ * (see {@link IPropagationEngine#checkpoint(Solver, long)}).
+ * <br/>
+ * A constraint added during the resolution may merge components, but components are never split.
+ *
+ * @since 17/10/26
+ */
+public class ComponentPropagationEngine implements IPropagationEngine {
+
+    /**
+     * Below that number of propagators, components are propagated by a single task.
+     */
+    private static final int GRAIN = 64;
+
+    private final Solver solver;
+    private final ContradictionException exception; // the exception in case of contradiction
+    private final ForkJoinPool pool;
+
+    private int[] id2cc; // component of a variable or a propagator, wrt its ID, or -1
+    private int[] parent; // union-find structure over the components, to merge them
+    private FlatSevenQueuesPropagatorEngine[] engines; // engine of each component, if any propagator
+    private int nbcc; // number of components
+
+    private int[] dirty; // components to propagate
+    private boolean[] isDirty;
+    private int nbDirty;
+
+    private boolean forked; // set to true once the initial propagation has been considered for parallelism
+    private boolean parallel; // set to true while components are propagated concurrently
+    private final AtomicReference<ContradictionException> failure = new AtomicReference<>();
+
+    public ComponentPropagationEngine(Solver solver) {
+        this(solver, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a component-based engine.
+     *
+     * @param solver the solver
+     * @param pool   the pool running the initial propagation, or null to propagate sequentially
+     */
+    public ComponentPropagationEngine(Solver solver, ForkJoinPool pool) {
+        this.solver = solver;
+        this.exception = new ContradictionException();
+        this.pool = pool;
+        Variable[] vars = solver.getVars();
+        Constraint[] constraints = solver.getCstrs();
+        int maxId = 0;
+        for (int i = 0; i < vars.length; i++) {
+            maxId = Math.max(maxId, vars[i].getId());
+        }
+        int[] id2node = new int[maxId + 1];
+        Arrays.fill(id2node, -1);
+        for (int i = 0; i < vars.length; i++) {
+            id2node[vars[i].getId()] = i;
+        }
+        // 1. compute the connected components over the variables
+        UndirectedGraph graph = new UndirectedGraph(vars.length, SetType.LINKED_LIST, true);
+        for (int i = 0; i < vars.length; i++) {
+            IView[] views = vars[i].getViews();
+            for (int j = 0; j < views.length; j++) {
+                int k = node(id2node, views[j]);
+                if (k > -1 && k != i) {
+                    graph.addEdge(i, k);
+                }
+            }
+        }
+        for (int c = 0; c < constraints.length; c++) {
+            int prev = -1;
+            for (Propagator prop : constraints[c].getPropagators()) {
+                for (int v = 0; v < prop.getNbVars(); v++) {
+                    Variable var = prop.getVar(v);
+                    int k = node(id2node, var);
+                    if (k > -1 && !isConstant(var)) {
+                        if (prev > -1 && prev != k) {
+                            graph.addEdge(prev, k);
+                        }
+                        prev = k;
+                    }
+                }
+            }
+        }
+        ConnectivityFinder finder = new ConnectivityFinder(graph);
+        finder.findAllCC();
+        int[] node2cc = finder.getNode_CC();
+        nbcc = 0;
+        id2cc = new int[Math.max(maxId + 1, solver.getNbIdElt() + 1)];
+        Arrays.fill(id2cc, -1);
+        parent = new int[0];
+        engines = new FlatSevenQueuesPropagatorEngine[0];
+        dirty = new int[0];
+        isDirty = new boolean[0];
+        for (int i = 0; i < finder.getNBCC(); i++) {
+            newCC();
+        }
+        for (int i = 0; i < vars.length; i++) {
+            id2cc[vars[i].getId()] = node2cc[i];
+        }
+        // 2. then, build one engine per component
+        List<List<Propagator>> props = new ArrayList<>();
+        for (int c = 0; c < constraints.length; c++) {
+            Propagator[] cprops = constraints[c].getPropagators();
+            int cc = ccOf(constraints[c]);
+            while (props.size() <= cc) {
+                props.add(new ArrayList<>());
+            }
+            Collections.addAll(props.get(cc), cprops);
+            for (int j = 0; j < cprops.length; j++) {
+                setCC(cprops[j], cc);
+            }
+        }
+        for (int cc = 0; cc < props.size(); cc++) {
+            List<Propagator> ps = props.get(cc);
+            if (ps.size() > 0) {
+                Propagator[] aps = ps.toArray(new Propagator[ps.size()]);
+                engines[cc] = new FlatSevenQueuesPropagatorEngine(solver, aps);
+                engines[cc].trigger.addAll(aps);
+                schedule(cc);
+            }
+        }
+    }
+
+    private static int node(int[] id2node, Variable var) {
+        int id = var.getId();
+        return id < id2node.length ? id2node[id] : -1;
+    }
+
+    private static boolean isConstant(Variable var) {
+        return (var.getTypeAndKind() & Variable.CSTE) != 0;
+    }
+
+    /**
+     * @return the number of connected components, including the ones without propagators and the merged ones
+     */
+    public int getNbComponents() {
+        return nbcc;
+    }
+
+    /**
+     * @param propagator a propagator managed by this
+     * @return the component of <i>propagator</i>
+     */
+    public int getComponent(Propagator propagator) {
+        return find(id2cc[propagator.getId()]);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    private int newCC() {
+        int cc = nbcc++;
+        if (cc == parent.length) {
+            int ns = Math.max(16, cc * 3 / 2 + 1);
+            parent = Arrays.copyOf(parent, ns);
+            engines = Arrays.copyOf(engines, ns);
+            dirty = Arrays.copyOf(dirty, ns);
+            isDirty = Arrays.copyOf(isDirty, ns);
+        }
+        parent[cc] = cc;
+        return cc;
+    }
+
+    private int find(int cc) {
+        while (parent[cc] != cc) {
+            parent[cc] = parent[parent[cc]];
+            cc = parent[cc];
+        }
+        return cc;
+    }
+
+    private void setCC(int id, int cc) {
+        if (id >= id2cc.length) {
+            int os = id2cc.length;
+            id2cc = Arrays.copyOf(id2cc, Math.max(id + 1, os * 3 / 2));
+            Arrays.fill(id2cc, os, id2cc.length, -1);
+        }
+        id2cc[id] = cc;
+    }
+
+    private void setCC(Propagator propagator, int cc) {
+        setCC(propagator.getId(), cc);
+    }
+
+    /**
+     * Return the component of <i>var</i>, a new one is created if <i>var</i> is unknown.
+     */
+    private int ccOf(Variable var) {
+        int id = var.getId();
+        if (id >= id2cc.length || id2cc[id] == -1) {
+            setCC(id, newCC());
+        }
+        return find(id2cc[id]);
+    }
+
+    /**
+     * Return the component of the first non-constant variable of <i>constraint</i>, or the one of its first variable.
+     */
+    private int ccOf(Constraint constraint) {
+        Propagator[] cprops = constraint.getPropagators();
+        for (int j = 0; j < cprops.length; j++) {
+            for (int v = 0; v < cprops[j].getNbVars(); v++) {
+                if (!isConstant(cprops[j].getVar(v))) {
+                    return ccOf(cprops[j].getVar(v));
+                }
+            }
+        }
+        return ccOf(cprops[0].getVar(0));
+    }
+
+    private void schedule(int cc) {
+        if (!isDirty[cc]) {
+            isDirty[cc] = true;
+            dirty[nbDirty++] = cc;
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public boolean isInitialized() {
+        return true;
+    }
+
+    @Override
+    public void propagate() throws ContradictionException {
+        if (!forked) {
+            forked = true;
+            if (pool != null && nbDirty > 1
+                    && solver.getEnvironment().isThreadSafe()
+                    && !solver.getExplainer().isActive()) {
+                forkJoin();
+            }
+        }
+        while (nbDirty > 0) {
+            int cc = dirty[nbDirty - 1];
+            engines[cc].propagate();
+            assert dirty[nbDirty - 1] == cc : "a component has modified another one";
+            isDirty[cc] = false;
+            nbDirty--;
+        }
+    }
+
+    /**
+     * Propagate concurrently the components to propagate.
+     * On success, no more component is to propagate.
+     * On failure, the first contradiction met is thrown, and all components are still to propagate (and flush).
+     */
+    private void forkJoin() throws ContradictionException {
+        int[] ccs = Arrays.copyOf(dirty, nbDirty);
+        int[] loads = new int[ccs.length + 1];
+        for (int i = 0; i < ccs.length; i++) {
+            loads[i + 1] = loads[i] + engines[ccs[i]].size;
+        }
+        parallel = true;
+        try {
+            pool.invoke(new Fork(ccs, loads, 0, ccs.length));
+        } finally {
+            parallel = false;
+        }
+        ContradictionException ce = failure.getAndSet(null);
+        if (ce != null) {
+            throw exception.set(ce.c, ce.v, ce.s);
+        }
+        for (int i = 0; i < nbDirty; i++) {
+            isDirty[dirty[i]] = false;
+        }
+        nbDirty = 0;
+    }
+
+    @Override
+    public void flush() {
+        for (int i = 0; i < nbDirty; i++) {
+            engines[dirty[i]].flush();
+            isDirty[dirty[i]] = false;
+        }
+        nbDirty = 0;
+    }
+
+    @Override
+    public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause instanceof Propagator) {
+            ((Propagator) cause).nbFails++;
+        }
+        if (parallel) {
+            // the unique exception cannot be shared by the tasks
+            throw new ContradictionException().set(cause, variable, message);
+        }
+        throw exception.set(cause, variable, message);
+    }
+
+    @Override
+    public ContradictionException getContradictionException() {
+        return exception;
+    }
+
+    @Override
+    public void clear() {
+        // void
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) throws ContradictionException {
+        int id = variable.getId();
+        if (id < id2cc.length && id2cc[id] > -1) {
+            int cc = find(id2cc[id]);
+            if (engines[cc] != null) {
+                if (!parallel) {
+                    schedule(cc);
+                }
+                engines[cc].onVariableUpdate(variable, type, cause);
+            }
+        }
+    }
+
+    @Override
+    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
+        engines[getComponent(propagator)].delayedPropagation(propagator, type);
+    }
+
+    @Override
+    public void onPropagatorExecution(Propagator propagator) {
+        engines[getComponent(propagator)].onPropagatorExecution(propagator);
+    }
+
+    @Override
+    public void desactivatePropagator(Propagator propagator) {
+        engines[getComponent(propagator)].desactivatePropagator(propagator);
+    }
+
+    /**
+     * Add <i>c</i> to the component of its variables.
+     * If it connects many components, they are merged first, which is expected to happen at a fix-point.
+     */
+    @Override
+    public void dynamicAddition(Constraint c, boolean permanent) {
+        Propagator[] cprops = c.getPropagators();
+        int cc = ccOf(c);
+        for (int j = 0; j < cprops.length; j++) {
+            for (int v = 0; v < cprops[j].getNbVars(); v++) {
+                Variable var = cprops[j].getVar(v);
+                if (!isConstant(var)) {
+                    cc = merge(cc, ccOf(var));
+                }
+            }
+        }
+        if (engines[cc] == null) {
+            engines[cc] = new FlatSevenQueuesPropagatorEngine(solver, new Propagator[0]);
+        }
+        for (int j = 0; j < cprops.length; j++) {
+            setCC(cprops[j], cc);
+        }
+        engines[cc].dynamicAddition(c, permanent);
+        schedule(cc);
+    }
+
+    /**
+     * Merge the components <i>c1</i> and <i>c2</i>, and their engines.
+     *
+     * @return the resulting component
+     */
+    private int merge(int c1, int c2) {
+        if (c1 == c2) {
+            return c1;
+        }
+        FlatSevenQueuesPropagatorEngine e1 = engines[c1], e2 = engines[c2];
+        parent[c2] = c1;
+        engines[c2] = null;
+        if (e2 != null) {
+            if (e1 == null) {
+                engines[c1] = e2;
+            } else {
+                assert e1.notEmpty == 0 && e2.notEmpty == 0 : "merge components which are not at a fix-point";
+                // the smallest engine is merged into the largest one
+                if (e1.size < e2.size) {
+                    e2.merge(e1);
+                    engines[c1] = e2;
+                } else {
+                    e1.merge(e2);
+                }
+            }
+        }
+        if (isDirty[c2]) {
+            // c2 is still referenced in the dirty list, replace it
+            for (int i = 0; i < nbDirty; i++) {
+                if (dirty[i] == c2) {
+                    dirty[i] = dirty[--nbDirty];
+                    break;
+                }
+            }
+            isDirty[c2] = false;
+            schedule(c1);
+        }
+        return c1;
+    }
+
+    @Override
+    public void dynamicDeletion(Constraint c) {
+        engines[getComponent(c.getPropagators()[0])].dynamicDeletion(c);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Propagate a range of components, possibly by splitting it in two sub-tasks.
+     */
+    private final class Fork extends RecursiveAction {
+
+        private final int[] ccs;
+        private final int[] loads;
+        private final int from, to;
+
+        Fork(int[] ccs, int[] loads, int from, int to) {
+            this.ccs = ccs;
+            this.loads = loads;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && loads[to] - loads[from] > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Fork(ccs, loads, from, mid), new Fork(ccs, loads, mid, to));
+            } else {
+                for (int i = from; i < to && failure.get() == null; i++) {
+                    try {
+                        engines[ccs[i]].propagate();
+                    } catch (ContradictionException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -106,6 +106,10 @@ class FakeEngine implements IPropagationEngine {
     }
 
     public static void checkIdempotency(Propagator lastProp) throws ContradictionException {
+        if (!lastProp.isIdempotent()) {
+            // declared as such, the engine runs it again on its own modifications
+            return;
+        }
         if (LoggerFactory.getLogger(IPropagationEngine.class).isDebugEnabled()) {
             IPropagationEngine.Trace.printPropagation(null, lastProp);
         }
@@ -0,0 +1,630 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.propagation.hardcoded;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Settings;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.IPropagationEngine;
+import org.chocosolver.solver.propagation.PropagationTrigger;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.PropagatorEventType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A variant of {@link SevenQueuesPropagatorEngine} designed to make no allocation while propagating.
+ * <br/>
+ * Each propagator stores its dense index in the engine (see {@link Propagator#getEngineIndex()}),
+ * the seven queues are ring buffers of propagator indices,
+ * and the pending events and event masks of all propagators are stored in two flat arrays,
+ * the ones of the i^th propagator lying in [<code>offsets[i]</code>, <code>offsets[i] + ecapacities[i]</code>).
+ * <br/>
+ * As in {@link SevenQueuesPropagatorEngine}, the structures grow by half when propagators are added,
+ * and a deleted propagator is replaced by the last one.
+ * The room of the events of a deleted propagator is reclaimed when it lies at the end of the flat arrays,
+ * otherwise the flat arrays are compacted once more than half of them is unused.
+ * <br/>
+ * Tracing is compiled out: set {@link #TRACE} to true and recompile to print the propagation.
+ *
+ * @since 17/10/26
+ */
+public class FlatSevenQueuesPropagatorEngine implements IPropagationEngine {
+
+    /**
+     * Set to true to trace propagation, requires to recompile.
+     */
+    private static final boolean TRACE = false;
+
+    private static final int WORD_MASK = 0xffffffff;
+    private static final int NB_QUEUES = 8;
+
+    protected final ContradictionException exception; // the exception in case of contradiction
+    protected Propagator[] propagators;
+    protected int size; // number of propagators
+
+    protected int[][] queues; // the i^th queue is a ring buffer of propagator indices
+    protected final int[] qhead; // head of each queue
+    protected final int[] qsize; // size of each queue
+    protected int notEmpty; // point out the no empty queues
+    protected boolean[] scheduled;
+    protected Propagator lastProp;
+    protected int lastAid; // index of lastProp, or -1
+
+    protected int[] offsets; // position of the events of the i^th propagator in evtqueues and eventmasks
+    protected int[] ecapacities; // number of events of the i^th propagator: its number of variables if it reacts to fine events, 0 otherwise
+    protected int[] evtqueues; // ring buffers of pending variable indices
+    protected int[] ehead; // head of the event ring buffer of the i^th propagator
+    protected int[] esize; // size of the event ring buffer of the i^th propagator
+    protected int[] eventmasks;// eventmasks[offsets[i] + j] stores modification events on the j^th variable of the i^th propagator
+    private int eused; // end of the used part of evtqueues and eventmasks
+    private int ewasted; // room of deleted propagators in the used part of evtqueues and eventmasks
+    private boolean init;
+
+    final PropagationTrigger trigger; // an object that starts the propagation
+
+    final Settings.Idem idemStrat;
+
+    private final int samplingMask; // revisions to time, see IPropagationEngine.samplingMask
+    private final int maxReruns; // consecutive reruns of a non-idempotent propagator, see IPropagationEngine.rerun
+    private long revisions; // number of revisions run so far
+    private final Solver solver;
+    private final int checkMask; // revisions followed by an interruption point, see IPropagationEngine.checkpoint
+    private long start; // number of revisions run before the current propagation
+
+    public FlatSevenQueuesPropagatorEngine(Solver solver) {
+        this(solver, collect(solver));
+        trigger.addAll(Arrays.copyOf(propagators, size));
+    }
+
+    /**
+     * Create an engine which only manages <i>propagators</i>.
+     * Contrary to {@link #FlatSevenQueuesPropagatorEngine(Solver)}, the propagators are not added to the trigger,
+     * that is, they are not propagated on the first call to {@link #propagate()}.
+     *
+     * @param solver      the solver
+     * @param propagators the propagators to manage
+     */
+    public FlatSevenQueuesPropagatorEngine(Solver solver, Propagator[] propagators) {
+        this.exception = new ContradictionException();
+        this.trigger = new PropagationTrigger(this, solver);
+        this.idemStrat = solver.getSettings().getIdempotencyStrategy();
+        this.samplingMask = IPropagationEngine.samplingMask(solver.getSettings());
+        this.maxReruns = solver.getSettings().getMaxConsecutiveReruns();
+        this.solver = solver;
+        this.checkMask = IPropagationEngine.checkMask(solver.getSettings());
+        qhead = new int[NB_QUEUES];
+        qsize = new int[NB_QUEUES];
+        this.propagators = new Propagator[0];
+        queues = new int[NB_QUEUES][0];
+        scheduled = new boolean[0];
+        offsets = new int[0];
+        ecapacities = new int[0];
+        evtqueues = new int[0];
+        ehead = new int[0];
+        esize = new int[0];
+        eventmasks = new int[0];
+        lastAid = -1;
+        ensureCapacity(propagators.length);
+        for (int p = 0; p < propagators.length; p++) {
+            add(propagators[p]);
+        }
+        notEmpty = 0;
+        init = true;
+    }
+
+    private static Propagator[] collect(Solver solver) {
+        List<Propagator> _propagators = new ArrayList<>();
+        Constraint[] constraints = solver.getCstrs();
+        for (int c = 0; c < constraints.length; c++) {
+            Collections.addAll(_propagators, constraints[c].getPropagators());
+        }
+        return _propagators.toArray(new Propagator[_propagators.size()]);
+    }
+
+    @Override
+    public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause instanceof Propagator) {
+            ((Propagator) cause).nbFails++;
+        }
+        throw exception.set(cause, variable, message);
+    }
+
+    @Override
+    public ContradictionException getContradictionException() {
+        return exception;
+    }
+
+    @Override
+    public boolean isInitialized() {
+        return init;
+    }
+
+    @SuppressWarnings({"NullableProblems"})
+    @Override
+    public void propagate() throws ContradictionException {
+        int aid;
+        start = revisions;
+        if (trigger.needToRun()) {
+            trigger.propagate();
+        }
+        for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(0)) {
+            while (qsize[i] > 0) {
+                aid = pollQueue(i);
+                lastAid = aid;
+                lastProp = propagators[aid];
+                scheduled[aid] = false;
+                lastProp.nbRevisions++;
+                lastProp.nbWaits += revisions - lastProp.scheduledAt;
+                if ((++revisions & samplingMask) == 0) {
+                    long t = System.nanoTime();
+                    try {
+                        execute(lastProp, aid);
+                    } finally {
+                        lastProp.nbTimed++;
+                        lastProp.timeSpent += System.nanoTime() - t;
+                    }
+                } else {
+                    execute(lastProp, aid);
+                }
+                // This part is for debugging only!!
+                if (Settings.Idem.disabled != idemStrat) {
+                    FakeEngine.checkIdempotency(lastProp);
+                }
+                if ((revisions & checkMask) == 0) {
+                    IPropagationEngine.checkpoint(solver, revisions - start);
+                }
+            }
+            notEmpty = notEmpty & ~(1 << i);
+        }
+    }
+
+    /**
+     * Revise the propagator <i>prop</i>, whose index is <i>aid</i>, wrt its pending events.
+     *
+     * @param prop a propagator
+     * @param aid  its index in this
+     * @throws ContradictionException if a failure occurs
+     */
+    protected void execute(Propagator prop, int aid) throws ContradictionException {
+        if (prop.reactToFineEvent()) {
+            int o = offsets[aid];
+            while (esize[aid] > 0) {
+                int v = pollEvent(aid);
+                assert prop.isActive() : "propagator is not active:" + prop;
+                if (TRACE) {
+                    IPropagationEngine.Trace.printPropagation(prop.getVar(v), prop);
+                }
+                // clear event
+                int mask = eventmasks[o + v];
+                eventmasks[o + v] = 0;
+                prop.decNbPendingEvt();
+                // run propagation on the specific event
+                prop.fineERcalls++;
+                prop.propagate(v, mask);
+            }
+        } else if (prop.isActive()) { // need to be checked due to views
+            if (TRACE) {
+                IPropagationEngine.Trace.printPropagation(null, prop);
+            }
+            prop.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
+    /**
+     * Return the queue in which <i>prop</i>, whose index is <i>aid</i>, is scheduled.
+     * By default, this is its static priority.
+     *
+     * @param prop a propagator
+     * @param aid  its index in this
+     * @return a value in [1,7]
+     */
+    protected int priority(Propagator prop, int aid) {
+        return prop.getPriority().priority;
+    }
+
+    private int nextNotEmpty(int fromIndex) {
+        int word = notEmpty & (WORD_MASK << fromIndex);
+        if (word != 0) {
+            return Integer.numberOfTrailingZeros(word);
+        } else {
+            return -1;
+        }
+    }
+
+    private int pollQueue(int q) {
+        int[] queue = queues[q];
+        int aid = queue[qhead[q]];
+        if (++qhead[q] == queue.length) {
+            qhead[q] = 0;
+        }
+        qsize[q]--;
+        return aid;
+    }
+
+    private void addQueue(int q, int aid) {
+        int[] queue = queues[q];
+        int pos = qhead[q] + qsize[q]++;
+        if (pos >= queue.length) {
+            pos -= queue.length;
+        }
+        queue[pos] = aid;
+    }
+
+    private int pollEvent(int aid) {
+        int o = offsets[aid];
+        int v = evtqueues[o + ehead[aid]];
+        if (++ehead[aid] == ecapacities[aid]) {
+            ehead[aid] = 0;
+        }
+        esize[aid]--;
+        return v;
+    }
+
+    private void addEvent(int aid, int pindice) {
+        int capacity = ecapacities[aid];
+        int pos = ehead[aid] + esize[aid]++;
+        if (pos >= capacity) {
+            pos -= capacity;
+        }
+        evtqueues[offsets[aid] + pos] = pindice;
+    }
+
+    /**
+     * Remove all pending events of the propagator at index <i>aid</i>.
+     */
+    private void clearEvents(int aid) {
+        int o = offsets[aid];
+        while (esize[aid] > 0) {
+            eventmasks[o + pollEvent(aid)] = 0;
+        }
+        ehead[aid] = 0;
+    }
+
+    @Override
+    public void flush() {
+        int aid;
+        if (lastProp != null) {
+            aid = lastAid;
+            if (lastProp.reactToFineEvent()) {
+                clearEvents(aid);
+                lastProp.flushPendingEvt();
+            }
+            scheduled[aid] = false;
+        }
+        for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(i + 1)) {
+            while (qsize[i] > 0) {
+                aid = pollQueue(i);
+                lastAid = aid;
+                lastProp = propagators[aid];
+                if (lastProp.reactToFineEvent()) {
+                    clearEvents(aid);
+                    lastProp.flushPendingEvt();
+                }
+                scheduled[aid] = false;
+            }
+            qhead[i] = 0;
+            notEmpty = notEmpty & ~(1 << i);
+        }
+    }
+
+    @Override
+    public void onVariableUpdate(Variable variable, IEventType type, ICause cause) throws ContradictionException {
+        if (TRACE) {
+            IPropagationEngine.Trace.printModification(variable, type, cause);
+        }
+        Propagator[] vpropagators = variable.getPropagators();
+        int nbp = vpropagators.length;
+        int[] vindices = variable.getPIndices();
+        Propagator prop;
+        int pindice;
+        int first = variable.getFirstPropagator(type);
+
+        for (int p = nbp - 1; p >= first; p--) {
+            prop = vpropagators[p];
+            if (prop.isPassive()) {
+                // lazy unsubscription of a passive propagator, see Propagator.setPassive():
+                // the one which takes its position is still to be considered, and the first one moves forward
+                variable.unsubscribe(p++, true);
+                first++;
+                continue;
+            }
+            pindice = vindices[p];
+            if ((cause != prop || IPropagationEngine.rerun(prop, maxReruns)) && prop.isActive() && prop.advise(pindice, type.getMask())) {
+                int aid = prop.getEngineIndex();
+                if (prop.reactToFineEvent()) {
+                    int k = offsets[aid] + pindice;
+                    boolean needSched = (eventmasks[k] == 0);
+                    eventmasks[k] |= type.getStrengthenedMask();
+                    if (needSched) {
+                        if (TRACE) {
+                            IPropagationEngine.Trace.printSchedule(prop);
+                        }
+                        prop.incNbPendingEvt();
+                        addEvent(aid, pindice);
+                    } else if (TRACE) {
+                        IPropagationEngine.Trace.printAlreadySchedule(prop);
+                    }
+                }
+                if (cause != prop) {
+                    // even if already scheduled, the next execution is not only due to its own modifications
+                    prop.nbReruns = 0;
+                }
+                if (!scheduled[aid]) {
+                    int prio = priority(prop, aid);
+                    addQueue(prio, aid);
+                    scheduled[aid] = true;
+                    prop.scheduledAt = revisions;
+                    if (cause == prop) {
+                        prop.nbReruns++;
+                    }
+                    notEmpty = notEmpty | (1 << prio);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delayedPropagation(Propagator propagator, PropagatorEventType type) throws ContradictionException {
+        if (propagator.getNbPendingEvt() == 0) {
+            if (TRACE) {
+                IPropagationEngine.Trace.printPropagation(null, propagator);
+            }
+            propagator.coarseERcalls++;
+            propagator.propagate(type.getStrengthenedMask());
+        }
+    }
+
+    @Override
+    public void onPropagatorExecution(Propagator propagator) {
+        desactivatePropagator(propagator);
+    }
+
+    @Override
+    public void desactivatePropagator(Propagator propagator) {
+        if (propagator.reactToFineEvent()) {
+            int aid = propagator.getEngineIndex();
+            if (aid > -1) {
+                // we don't remove the element from its master to avoid costly operations
+                clearEvents(aid);
+                propagator.flushPendingEvt();
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        // void
+    }
+
+    @Override
+    public void dynamicAddition(Constraint c, boolean permanent) {
+        dynamicAddition(permanent, c);
+    }
+
+    @Override
+    public void dynamicAddition(boolean permanent, Constraint... cs) {
+        int nsize = size;
+        for (int i = 0; i < cs.length; i++) {
+            nsize += cs[i].getPropagators().length;
+        }
+        ensureCapacity(nsize);
+        for (int i = 0; i < cs.length; i++) {
+            for (Propagator prop : cs[i].getPropagators()) {
+                add(prop);
+                trigger.dynAdd(prop, permanent);
+            }
+        }
+    }
+
+    @Override
+    public void dynamicDeletion(Constraint c) {
+        for (Propagator toDelete : c.getPropagators()) {
+            remove(toDelete);
+            trigger.remove(toDelete);
+        }
+    }
+
+    @Override
+    public void dynamicDeletion(Constraint... cs) {
+        for (int i = 0; i < cs.length; i++) {
+            dynamicDeletion(cs[i]);
+        }
+    }
+
+    /**
+     * Take over the propagators of <i>other</i>, and its trigger.
+     * Both engines are expected to be at a fix-point, <i>other</i> should not be used anymore.
+     *
+     * @param other another engine
+     */
+    void merge(FlatSevenQueuesPropagatorEngine other) {
+        ensureCapacity(size + other.size);
+        for (int i = 0; i < other.size; i++) {
+            add(other.propagators[i]);
+        }
+        trigger.merge(other.trigger);
+    }
+
+    /**
+     * Ensure the structures can store <i>capacity</i> propagators, they grow by half at least.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > propagators.length) {
+            int ncap = Math.max(capacity, propagators.length * 3 / 2 + 1);
+            propagators = Arrays.copyOf(propagators, ncap);
+            scheduled = Arrays.copyOf(scheduled, ncap);
+            offsets = Arrays.copyOf(offsets, ncap);
+            ecapacities = Arrays.copyOf(ecapacities, ncap);
+            ehead = Arrays.copyOf(ehead, ncap);
+            esize = Arrays.copyOf(esize, ncap);
+            // a queue must be able to store all the propagators, the ring buffers are unrolled
+            for (int q = 0; q < NB_QUEUES; q++) {
+                int[] queue = queues[q];
+                int[] nqueue = new int[ncap];
+                for (int k = 0; k < qsize[q]; k++) {
+                    nqueue[k] = queue[(qhead[q] + k) % queue.length];
+                }
+                queues[q] = nqueue;
+                qhead[q] = 0;
+            }
+        }
+    }
+
+    /**
+     * Add <i>prop</i> at the end of the propagators, the capacity is expected to be large enough.
+     */
+    private void add(Propagator prop) {
+        int aid = size++;
+        int nbe = prop.reactToFineEvent() ? prop.getNbVars() : 0;
+        if (eused + nbe > evtqueues.length) {
+            int ncap = Math.max(eused + nbe, evtqueues.length * 3 / 2 + 1);
+            evtqueues = Arrays.copyOf(evtqueues, ncap);
+            eventmasks = Arrays.copyOf(eventmasks, ncap);
+        }
+        propagators[aid] = prop;
+        prop.setEngineIndex(aid);
+        scheduled[aid] = false;
+        offsets[aid] = eused;
+        ecapacities[aid] = nbe;
+        ehead[aid] = 0;
+        esize[aid] = 0;
+        eused += nbe;
+        added(aid);
+    }
+
+    /**
+     * Remove <i>toDelete</i>, which is replaced by the last propagator.
+     */
+    private void remove(Propagator toDelete) {
+        int idtd = toDelete.getEngineIndex();
+        int idtm = --size;
+        assert idtd > -1 && idtd <= idtm : "wrong id for prop to delete";
+        assert !scheduled[idtd] : "try to delete a propagator which is scheduled (fine)";
+        assert esize[idtd] == 0 : "try to delete a propagator which has events to propagate (fine)";
+        // the event masks of the deleted propagator are all 0, its room can be reused as is
+        if (offsets[idtd] + ecapacities[idtd] == eused) {
+            eused -= ecapacities[idtd];
+        } else {
+            ewasted += ecapacities[idtd];
+        }
+        if (lastAid == idtd) {
+            lastAid = -1;
+            lastProp = null;
+        }
+        // the last propagator takes the place of the deleted one
+        if (idtd < idtm) {
+            Propagator toMove = propagators[idtm];
+            propagators[idtd] = toMove;
+            toMove.setEngineIndex(idtd);
+            scheduled[idtd] = scheduled[idtm];
+            offsets[idtd] = offsets[idtm];
+            ecapacities[idtd] = ecapacities[idtm];
+            ehead[idtd] = ehead[idtm];
+            esize[idtd] = esize[idtm];
+            if (scheduled[idtd]) {
+                rename(idtm, idtd);
+            }
+            if (lastAid == idtm) {
+                lastAid = idtd;
+            }
+            moved(idtm, idtd);
+        }
+        propagators[idtm] = null;
+        scheduled[idtm] = false;
+        toDelete.setEngineIndex(-1);
+        if (ewasted > eused / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Replace the index <i>from</i> by <i>to</i> in the queues.
+     */
+    private void rename(int from, int to) {
+        for (int q = nextNotEmpty(0); q > -1; q = nextNotEmpty(q + 1)) {
+            int[] queue = queues[q];
+            for (int k = 0; k < qsize[q]; k++) {
+                int pos = (qhead[q] + k) % queue.length;
+                if (queue[pos] == from) {
+                    queue[pos] = to;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the room of the deleted propagators from the flat arrays of events.
+     */
+    private void compact() {
+        int[] nevtqueues = new int[evtqueues.length];
+        int[] neventmasks = new int[eventmasks.length];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(evtqueues, offsets[i], nevtqueues, k, ecapacities[i]);
+            System.arraycopy(eventmasks, offsets[i], neventmasks, k, ecapacities[i]);
+            offsets[i] = k;
+            k += ecapacities[i];
+        }
+        evtqueues = nevtqueues;
+        eventmasks = neventmasks;
+        eused = k;
+        ewasted = 0;
+    }
+
+    /**
+     * Called once a propagator has been added at index <i>aid</i>, to let subclasses update their own structures;
+     * the capacity of the structures of this engine is given by <code>propagators.length</code>.
+     * Note that it is called on construction, before the subclass' constructor runs.
+     *
+     * @param aid index of the new propagator
+     */
+    protected void added(int aid) {
+        // void
+    }
+
+    /**
+     * Called once the propagator at index <i>from</i>, the last one, has taken the place of a deleted propagator
+     * at index <i>to</i>, to let subclasses update their own structures.
+     *
+     * @param from former index of the propagator
+     * @param to   new index of the propagator
+     */
+    protected void moved(int from, int to) {
+        // void
+    }
+}
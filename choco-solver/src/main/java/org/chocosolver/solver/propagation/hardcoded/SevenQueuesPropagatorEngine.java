@@ -48,6 +48,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -69,7 +70,8 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
     protected final ContradictionException exception; // the exception in case of contradiction
     protected final IEnvironment environment; // environment of backtrackable objects
     protected final Variable[] variables;
-    protected Propagator[] propagators;
+    protected Propagator[] propagators; // may be larger than the number of propagators
+    protected int size; // number of propagators
 
     protected final CircularQueue<Propagator>[] pro_queue;
     protected Propagator lastProp;
@@ -84,12 +86,22 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     final Settings.Idem idemStrat;
 
+    private final int samplingMask; // revisions to time, see IPropagationEngine.samplingMask
+    private final int maxReruns; // consecutive reruns of a non-idempotent propagator, see IPropagationEngine.rerun
+    private long revisions; // number of revisions run so far
+    private final Solver solver;
+    private final int checkMask; // revisions followed by an interruption point, see IPropagationEngine.checkpoint
+    private long start; // number of revisions run before the current propagation
 
     public SevenQueuesPropagatorEngine(Solver solver) {
         this.exception = new ContradictionException();
         this.environment = solver.getEnvironment();
         this.trigger = new PropagationTrigger(this, solver);
         this.idemStrat = solver.getSettings().getIdempotencyStrategy();
+        this.samplingMask = IPropagationEngine.samplingMask(solver.getSettings());
+        this.maxReruns = solver.getSettings().getMaxConsecutiveReruns();
+        this.solver = solver;
+        this.checkMask = IPropagationEngine.checkMask(solver.getSettings());
 
         variables = solver.getVars();
         List<Propagator> _propagators = new ArrayList<>();
@@ -106,6 +118,7 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
             }
         }
         propagators = _propagators.toArray(new Propagator[_propagators.size()]);
+        size = propagators.length;
         trigger.addAll(propagators);
 
         //p2i = new AId2AbId(m, M, -1);
@@ -134,6 +147,9 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     @Override
     public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause instanceof Propagator) {
+            ((Propagator) cause).nbFails++;
+        }
         throw exception.set(cause, variable, message);
     }
 
@@ -150,8 +166,8 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
     @SuppressWarnings({"NullableProblems"})
     @Override
     public void propagate() throws ContradictionException {
-        int mask, aid;
-        IntCircularQueue evtset;
+        int aid;
+        start = revisions;
         if (trigger.needToRun()) {
             trigger.propagate();
         }
@@ -161,38 +177,59 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                 // revision of the variable
                 aid = p2i.get(lastProp.getId());
                 scheduled[aid] = 0;
-                if (lastProp.reactToFineEvent()) {
-                    evtset = eventsets[aid];
-                    while (evtset.size() > 0) {
-                        int v = evtset.pollFirst();
-                        assert lastProp.isActive() : "propagator is not active:" + lastProp;
-                        if (LOGGER.isDebugEnabled()) {
-                            IPropagationEngine.Trace.printPropagation(lastProp.getVar(v), lastProp);
-                        }
-                        // clear event
-                        mask = eventmasks[aid][v];
-                        eventmasks[aid][v] = 0;
-                        lastProp.decNbPendingEvt();
-                        // run propagation on the specific event
-                        lastProp.fineERcalls++;
-                        lastProp.propagate(v, mask);
+                lastProp.nbRevisions++;
+                lastProp.nbWaits += revisions - lastProp.scheduledAt;
+                if ((++revisions & samplingMask) == 0) {
+                    long t = System.nanoTime();
+                    try {
+                        execute(lastProp, aid);
+                    } finally {
+                        lastProp.nbTimed++;
+                        lastProp.timeSpent += System.nanoTime() - t;
                     }
-                } else if (lastProp.isActive()) { // need to be checked due to views
-                    //assert lastProp.isActive() : "propagator is not active:" + lastProp;
-                    if (LOGGER.isDebugEnabled()) {
-                        IPropagationEngine.Trace.printPropagation(null, lastProp);
-                    }
-                    lastProp.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+                } else {
+                    execute(lastProp, aid);
                 }
                 // This part is for debugging only!!
                 if (Settings.Idem.disabled != idemStrat) {
                     FakeEngine.checkIdempotency(lastProp);
                 }
+                if ((revisions & checkMask) == 0) {
+                    IPropagationEngine.checkpoint(solver, revisions - start);
+                }
             }
             notEmpty = notEmpty & ~(1 << i);
         }
     }
 
+    private void execute(Propagator prop, int aid) throws ContradictionException {
+        int mask;
+        IntCircularQueue evtset;
+        if (prop.reactToFineEvent()) {
+            evtset = eventsets[aid];
+            while (evtset.size() > 0) {
+                int v = evtset.pollFirst();
+                assert prop.isActive() : "propagator is not active:" + prop;
+                if (LOGGER.isDebugEnabled()) {
+                    IPropagationEngine.Trace.printPropagation(prop.getVar(v), prop);
+                }
+                // clear event
+                mask = eventmasks[aid][v];
+                eventmasks[aid][v] = 0;
+                prop.decNbPendingEvt();
+                // run propagation on the specific event
+                prop.fineERcalls++;
+                prop.propagate(v, mask);
+            }
+        } else if (prop.isActive()) { // need to be checked due to views
+            //assert lastProp.isActive() : "propagator is not active:" + lastProp;
+            if (LOGGER.isDebugEnabled()) {
+                IPropagationEngine.Trace.printPropagation(null, prop);
+            }
+            prop.propagate(PropagatorEventType.FULL_PROPAGATION.getMask());
+        }
+    }
+
     private int nextNotEmpty(int fromIndex) {
         int word = notEmpty & (WORD_MASK << fromIndex);
         if (word != 0) {
@@ -249,11 +286,19 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
         int[] vindices = variable.getPIndices();
         Propagator prop;
         int pindice;
+        int first = variable.getFirstPropagator(type);
 
-        for (int p = nbp - 1; p >= 0; p--) {
+        for (int p = nbp - 1; p >= first; p--) {
             prop = vpropagators[p];
+            if (prop.isPassive()) {
+                // lazy unsubscription of a passive propagator, see Propagator.setPassive():
+                // the one which takes its position is still to be considered, and the first one moves forward
+                variable.unsubscribe(p++, true);
+                first++;
+                continue;
+            }
             pindice = vindices[p];
-            if (cause != prop && prop.isActive() && prop.advise(pindice, type.getMask())) {
+            if ((cause != prop || IPropagationEngine.rerun(prop, maxReruns)) && prop.isActive() && prop.advise(pindice, type.getMask())) {
                 int aid = p2i.get(prop.getId());
                 if (prop.reactToFineEvent()) {
                     boolean needSched = (eventmasks[aid][pindice] == 0);
@@ -268,10 +313,18 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
                         IPropagationEngine.Trace.printAlreadySchedule(prop);
                     }
                 }
+                if (cause != prop) {
+                    // even if already scheduled, the next execution is not only due to its own modifications
+                    prop.nbReruns = 0;
+                }
                 if (scheduled[aid] == 0) {
                     int prio = /*dynamic ? prop.dynPriority() :*/ prop.getPriority().priority;
                     pro_queue[prio].addLast(prop);
                     scheduled[aid] = (short) (prio + 1);
+                    prop.scheduledAt = revisions;
+                    if (cause == prop) {
+                        prop.nbReruns++;
+                    }
 //                    notEmpty.set(prio);
                     notEmpty = notEmpty | (1 << prio);
                 }
@@ -321,84 +374,56 @@ public class SevenQueuesPropagatorEngine implements IPropagationEngine {
 
     @Override
     public void dynamicAddition(Constraint c, boolean permanent) {
-        int osize = propagators.length;
-        int nbp = c.getPropagators().length;
-        int nsize = osize + nbp;
-        Propagator[] _propagators = propagators;
-        propagators = new Propagator[nsize];
-        System.arraycopy(_propagators, 0, propagators, 0, osize);
-        System.arraycopy(c.getPropagators(), 0, propagators, osize, nbp);
-        for (int j = osize; j < nsize; j++) {
-            p2i.set(propagators[j].getId(), j);
-            trigger.dynAdd(propagators[j], permanent);
-        }
-
-        short[] _scheduled = scheduled;
-        scheduled = new short[nsize];
-        System.arraycopy(_scheduled, 0, scheduled, 0, osize);
-
-
-        IntCircularQueue[] _eventsets = eventsets;
-        eventsets = new IntCircularQueue[nsize];
-        System.arraycopy(_eventsets, 0, eventsets, 0, osize);
-
-        int[][] _eventmasks = eventmasks;
-        eventmasks = new int[nsize][];
-        System.arraycopy(_eventmasks, 0, eventmasks, 0, osize);
-        for (int i = osize; i < nsize; i++) {
-            if (propagators[i].reactToFineEvent()) {
-                int nbv = propagators[i].getNbVars();
+        Propagator[] cprops = c.getPropagators();
+        ensureCapacity(size + cprops.length);
+        for (int j = 0; j < cprops.length; j++) {
+            int i = size++;
+            propagators[i] = cprops[j];
+            p2i.set(cprops[j].getId(), i);
+            scheduled[i] = 0;
+            if (cprops[j].reactToFineEvent()) {
+                int nbv = cprops[j].getNbVars();
                 eventsets[i] = new IntCircularQueue(nbv);
                 eventmasks[i] = new int[nbv];
             }
+            trigger.dynAdd(cprops[j], permanent);
+        }
+    }
+
+    /**
+     * Ensure the structures can store <i>capacity</i> propagators, they grow by half at least.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > propagators.length) {
+            int ncap = Math.max(capacity, propagators.length * 3 / 2 + 1);
+            propagators = Arrays.copyOf(propagators, ncap);
+            scheduled = Arrays.copyOf(scheduled, ncap);
+            eventsets = Arrays.copyOf(eventsets, ncap);
+            eventmasks = Arrays.copyOf(eventmasks, ncap);
         }
     }
 
     @Override
     public void dynamicDeletion(Constraint c) {
         for (Propagator toDelete : c.getPropagators()) {
-            int nsize = propagators.length - 1;
-            Propagator toMove = propagators[nsize];
             int idtd = p2i.get(toDelete.getId());
-            int idtm = p2i.get(toMove.getId());
-
+            int idtm = --size;
             assert idtd <= idtm : "wrong id for prop to delete";
-
-            // 1. remove from propagators[] and p2i
-            Propagator[] _propagators = propagators;
-            propagators = new Propagator[nsize];
-            System.arraycopy(_propagators, 0, propagators, 0, nsize);
-
-            // 2. resize scheduled
-            short stm = scheduled[idtm];
             assert scheduled[idtd] == 0 : "try to delete a propagator which is scheduled (fine)";
-            short[] _scheduled = scheduled;
-            scheduled = new short[nsize];
-            System.arraycopy(_scheduled, 0, scheduled, 0, nsize);
-
-
-            // 3. remove eventsets
-            IntCircularQueue estm = eventsets[idtm];
             assert !toDelete.reactToFineEvent() || eventsets[idtd].isEmpty() : "try to delete a propagator which has events to propagate (fine)";
-            IntCircularQueue[] _eventsets = eventsets;
-            eventsets = new IntCircularQueue[nsize];
-            System.arraycopy(_eventsets, 0, eventsets, 0, nsize);
-
-            // 4. remove eventmasks
-            int[] emtm = eventmasks[idtm];
-//            assert eventmasks[idtd]. : "try to delete a propagator which has events to propagate (fine)";
-            int[][] _eventmasks = eventmasks;
-            eventmasks = new int[nsize][];
-            System.arraycopy(_eventmasks, 0, eventmasks, 0, nsize);
-
-            // 4. copy data
-            if (idtd < nsize) {
+            // the last propagator takes the place of the deleted one
+            if (idtd < idtm) {
+                Propagator toMove = propagators[idtm];
                 propagators[idtd] = toMove;
                 p2i.set(toMove.getId(), idtd);
-                scheduled[idtd] = stm;
-                eventsets[idtd] = estm;
-                eventmasks[idtd] = emtm;
+                scheduled[idtd] = scheduled[idtm];
+                eventsets[idtd] = eventsets[idtm];
+                eventmasks[idtd] = eventmasks[idtm];
             }
+            propagators[idtm] = null;
+            scheduled[idtm] = 0;
+            eventsets[idtm] = null;
+            eventmasks[idtm] = null;
             trigger.remove(toDelete);
         }
     }
@@ -108,11 +108,22 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
     final PropagationTrigger trigger; // an object that starts the propagation
     final Settings.Idem idemStrat;
 
+    private final int samplingMask; // revisions to time, see IPropagationEngine.samplingMask
+    private final int maxReruns; // consecutive reruns of a non-idempotent propagator, see IPropagationEngine.rerun
+    private long revisions; // number of revisions run so far
+    private final Solver solver;
+    private final int checkMask; // revisions followed by an interruption point, see IPropagationEngine.checkpoint
+    private long start; // number of revisions run before the current propagation
+
     public TwoBucketPropagationEngine(Solver solver) {
         this.exception = new ContradictionException();
         this.environment = solver.getEnvironment();
         this.trigger = new PropagationTrigger(this, solver);
         this.idemStrat = solver.getSettings().getIdempotencyStrategy();
+        this.samplingMask = IPropagationEngine.samplingMask(solver.getSettings());
+        this.maxReruns = solver.getSettings().getMaxConsecutiveReruns();
+        this.solver = solver;
+        this.checkMask = IPropagationEngine.checkMask(solver.getSettings());
 
         variables = solver.getVars();
         List<Propagator> _propagators = new ArrayList<>();
@@ -183,6 +194,9 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
 
     @Override
     public void fails(ICause cause, Variable variable, String message) throws ContradictionException {
+        if (cause instanceof Propagator) {
+            ((Propagator) cause).nbFails++;
+        }
         throw exception.set(cause, variable, message);
     }
 
@@ -199,23 +213,24 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
     @SuppressWarnings({"NullableProblems"})
     @Override
     public void propagate() throws ContradictionException {
+        start = revisions;
         if (trigger.needToRun()) {
             trigger.propagate();
         }
         for (int i = nextNotEmpty(0); i > -1; i = nextNotEmpty(0)) {
             if (i == 0) { // specific case, for finest events
                 while (!pro_queue_f[i].isEmpty()) {
-                    propagateFine(pro_queue_f[i]);
+                    revise(pro_queue_f[i], true);
                 }
                 notEmpty = notEmpty & ~1;
             } else if (i < max_f) { // other finest events, lower priority
-                propagateFine(pro_queue_f[i]);
+                revise(pro_queue_f[i], true);
                 if (pro_queue_f[i].isEmpty()) {
                     notEmpty = notEmpty & ~(1 << i);
                 }
             } else { // coarse events
                 int j = i - max_f;
-                propagateCoarse(pro_queue_c[j]);
+                revise(pro_queue_c[j], false);
                 if (pro_queue_c[j].isEmpty()) {
                     notEmpty = notEmpty & ~(1 << i);
                 }
@@ -232,6 +247,32 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
         }
     }
 
+    private void revise(ArrayDeque<Propagator> queue, boolean fine) throws ContradictionException {
+        Propagator prop = queue.peekFirst();
+        prop.nbRevisions++;
+        prop.nbWaits += revisions - prop.scheduledAt;
+        if ((++revisions & samplingMask) == 0) {
+            long t = System.nanoTime();
+            try {
+                if (fine) {
+                    propagateFine(queue);
+                } else {
+                    propagateCoarse(queue);
+                }
+            } finally {
+                prop.nbTimed++;
+                prop.timeSpent += System.nanoTime() - t;
+            }
+        } else if (fine) {
+            propagateFine(queue);
+        } else {
+            propagateCoarse(queue);
+        }
+        if ((revisions & checkMask) == 0) {
+            IPropagationEngine.checkpoint(solver, revisions - start);
+        }
+    }
+
     private void propagateFine(ArrayDeque<Propagator> pro_queue_f) throws ContradictionException {
         lastProp = pro_queue_f.pollFirst();
         // revision of the variable
@@ -329,10 +370,16 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
             Trace.printModification(variable, type, cause);
         }
         int nbp = variable.getNbProps();
-        for (int p = 0; p < nbp; p++) {
+        for (int p = variable.getFirstPropagator(type); p < nbp; p++) {
             Propagator prop = variable.getPropagator(p);
+            if (prop.isPassive()) {
+                // lazy unsubscription of a passive propagator, see Propagator.setPassive():
+                // the one which takes its position has already been considered
+                variable.unsubscribe(p, true);
+                continue;
+            }
             int pindice = variable.getIndexInPropagator(p);
-            if (cause != prop && prop.isActive() && prop.advise(pindice, type.getMask())) {
+            if ((cause != prop || IPropagationEngine.rerun(prop, maxReruns)) && prop.isActive() && prop.advise(pindice, type.getMask())) {
                 int aid = p2i.get(prop.getId());
                 if (prop.reactToFineEvent()) {
                     boolean needSched = (eventmasks[aid][pindice] == 0);
@@ -347,11 +394,19 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
                         Trace.printAlreadySchedule(prop);
                     }
                 }
+                if (cause != prop) {
+                    // even if already scheduled, the next execution is not only due to its own modifications
+                    prop.nbReruns = 0;
+                }
                 if (!schedule_f[aid]) {
                     PropagatorPriority prio = prop.getPriority();
                     int q = match_f[prio.priority - 1];
                     pro_queue_f[q].addLast(prop);
                     schedule_f[aid] = true;
+                    prop.scheduledAt = revisions;
+                    if (cause == prop) {
+                        prop.nbReruns++;
+                    }
                     notEmpty = notEmpty | (1 << q);
                 }
             }
@@ -368,6 +423,7 @@ public class TwoBucketPropagationEngine implements IPropagationEngine {
             if (q == -1) throw new SolverException("Cannot schedule coarse event for low priority propagator.");
             pro_queue_c[q].addLast(propagator);
             schedule_c[aid] = true;
+            propagator.scheduledAt = revisions;
             event_c[aid] = type;
             notEmpty = notEmpty | (1 << (q + max_f));
         }
@@ -30,6 +30,7 @@ package org.chocosolver.solver.search.limits;
 
 import org.chocosolver.solver.search.loop.monitors.IMonitorInitialize;
 import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.monitors.IMonitorPropagation;
 
 /**
  * Set a limit over the search time.
@@ -39,7 +40,8 @@ import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
  * @author Charles Prud'homme
  * @since 15 juil. 2010
  */
-public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenNode, IMonitorInitialize {
+public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenNode, IMonitorPropagation,
+        IMonitorInitialize {
 
     private long timelimit;
 
@@ -122,6 +124,13 @@ public class ThreadTimeCounter extends Thread implements ICounter, IMonitorOpenN
     public void afterOpenNode() {
     }
 
+    @Override
+    public void duringPropagation(long revisions) {
+        if (isreached) {
+            action.onLimitReached();
+        }
+    }
+
     @Override
     public void beforeInitialize() {
     }
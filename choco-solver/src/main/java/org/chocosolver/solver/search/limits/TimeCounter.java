@@ -30,16 +30,18 @@ package org.chocosolver.solver.search.limits;
 
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.search.loop.monitors.IMonitorOpenNode;
+import org.chocosolver.solver.search.loop.monitors.IMonitorPropagation;
 
 /**
  * A limit over run time.
  * It acts as a monitor, to be up-to-date when the search loop asks for limit reaching.
+ * It is also updated at the interruption points of the propagation engine, so that a long propagation can be stopped.
  * <br/>
  *
  * @author Charles Prud'homme
  * @since 19/04/11
  */
-public class TimeCounter extends ACounter implements IMonitorOpenNode {
+public class TimeCounter extends ACounter implements IMonitorOpenNode, IMonitorPropagation {
 
     private Solver solver;
 
@@ -69,4 +71,9 @@ public class TimeCounter extends ACounter implements IMonitorOpenNode {
     public void afterOpenNode() {
     }
 
+    @Override
+    public void duringPropagation(long revisions) {
+        setCounter(System.nanoTime() - offset);
+    }
+
 }
@@ -133,6 +133,11 @@ public interface ISearchLoop extends Serializable {
 
 	boolean hasReachedLimit();
 
+	/**
+	 * @return true iff the current propagation is run by the search loop and can be abandoned when a limit is reached
+	 */
+	boolean isInterruptible();
+
 	int getTimeStamp();
 
 	Decision getLastDecision();
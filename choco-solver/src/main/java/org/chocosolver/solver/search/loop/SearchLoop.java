@@ -127,6 +127,9 @@ public class SearchLoop implements ISearchLoop {
 
     boolean hasReachedLimit;
 
+    // true while the search loop propagates a node, that is, while reaching a limit can abandon the propagation
+    boolean interruptible;
+
     public SearchMonitorList smList;
 
     /**
@@ -172,6 +175,7 @@ public class SearchLoop implements ISearchLoop {
             nextState = INIT;
             rootWorldIndex = -1;
             searchWorldIndex = -1;
+            hasReachedLimit = false;
             measures.reset();
             objectivemanager = SAT();
             solver.set(SINGLETON);
@@ -320,12 +324,14 @@ public class SearchLoop implements ISearchLoop {
     private void initialPropagation() {
         this.env.worldPush();
         try {
-            solver.getEngine().propagate();
+            propagate();
         } catch (ContradictionException e) {
             this.env.worldPop();
-            solver.setFeasible(FALSE);
             solver.getEngine().flush();
-            interrupt(MSG_INIT);
+            if (alive) {
+                solver.setFeasible(FALSE);
+                interrupt(MSG_INIT);
+            } // otherwise, a limit has been reached during the propagation, see IPropagationEngine.checkpoint
             return;
         }
         this.env.worldPush(); // push another wolrd to recover the state after initial propagation
@@ -374,6 +380,21 @@ public class SearchLoop implements ISearchLoop {
         smList.onSolution();
     }
 
+    /**
+     * Propagates the current node, the only propagations which can be abandoned when a limit is reached,
+     * see {@link org.chocosolver.solver.propagation.IPropagationEngine#checkpoint}.
+     *
+     * @throws ContradictionException if a failure occurs or a limit is reached during the propagation
+     */
+    private void propagate() throws ContradictionException {
+        interruptible = true;
+        try {
+            solver.getEngine().propagate();
+        } finally {
+            interruptible = false;
+        }
+    }
+
     /**
      * Goes down in the tree search : apply the current decision.
      */
@@ -392,13 +413,15 @@ public class SearchLoop implements ISearchLoop {
             objectivemanager.apply(decision);
             objectivemanager.postDynamicCut();
 
-            solver.getEngine().propagate();
+            propagate();
             moveTo(OPEN_NODE);
         } catch (ContradictionException e) {
             solver.getEngine().flush();
             moveTo(UP_BRANCH);
             jumpTo = 1;
-            smList.onContradiction(e);
+            if (alive) { // otherwise, a limit has been reached during the propagation: this is not a failure
+                smList.onContradiction(e);
+            }
         }
     }
 
@@ -434,10 +457,12 @@ public class SearchLoop implements ISearchLoop {
         solver.getEnvironment().worldPush(); //issue#55
         try {
             objectivemanager.postDynamicCut();
-            solver.getEngine().propagate();
+            propagate();
             nextState = OPEN_NODE;
         } catch (ContradictionException e) {
-            interrupt(MSG_CUT);
+            if (alive) {
+                interrupt(MSG_CUT);
+            }
         }
     }
 
@@ -533,6 +558,11 @@ public class SearchLoop implements ISearchLoop {
         return hasReachedLimit;
     }
 
+    @Override
+    public boolean isInterruptible() {
+        return interruptible;
+    }
+
     @Override
     public int getTimeStamp() {
         return timeStamp;
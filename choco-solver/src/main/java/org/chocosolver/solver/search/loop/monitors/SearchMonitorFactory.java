@@ -97,6 +97,34 @@ public class SearchMonitorFactory {
         solver.plugMonitor(counter);
     }
 
+    /**
+     * Defines a limit over the memory reserved by the trails of the environment.
+     * When the limit is reached, the resolution is stopped.
+     * <br/>
+     * Since trails never release the memory they reserve, restarting would not reduce it.
+     *
+     * @param limit maximal number of bytes reserved by the trails
+     * @see org.chocosolver.memory.IEnvironment#getMemoryFootprint()
+     */
+    public static void limitTrailMemory(Solver solver, long limit) {
+        TrailMemoryCounter counter = new TrailMemoryCounter(solver.getEnvironment(), limit);
+        counter.setAction(ActionCounterFactory.interruptSearch(solver.getSearchLoop()));
+        solver.plugMonitor(counter);
+    }
+
+    /**
+     * Defines a limit on the number of revisions run by the propagation of a single node.
+     * When the limit is reached, the propagation is abandoned and the resolution is stopped.
+     *
+     * @param limit maximal number of revisions per propagation
+     * @see org.chocosolver.solver.Settings#getPropagationCheckPeriod()
+     */
+    public static void limitPropagation(Solver solver, long limit) {
+        PropagationCounter counter = new PropagationCounter(limit);
+        counter.setAction(ActionCounterFactory.interruptSearch(solver.getSearchLoop()));
+        solver.plugMonitor(counter);
+    }
+
     /**
      * Defines a limit over the number of solutions found during the resolution.
      * WHen the limit is reached, the resolution is stopped.
@@ -40,8 +40,8 @@ import java.util.List;
  * @since 09/05/11
  */
 public final class SearchMonitorList implements IMonitorClose, IMonitorContradiction, IMonitorDownBranch,
-        IMonitorInitialize, IMonitorInitPropagation, IMonitorInterruption, IMonitorOpenNode, IMonitorRestart,
-        IMonitorSolution, IMonitorUpBranch {
+        IMonitorInitialize, IMonitorInitPropagation, IMonitorInterruption, IMonitorOpenNode, IMonitorPropagation,
+        IMonitorRestart, IMonitorSolution, IMonitorUpBranch {
 
     List<IMonitorClose> mclos = new ArrayList<>();
     List<IMonitorContradiction> mcont = new ArrayList<>();
@@ -50,6 +50,7 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
     List<IMonitorInitPropagation> mipro = new ArrayList<>();
     List<IMonitorInterruption> minte = new ArrayList<>();
     List<IMonitorOpenNode> mopno = new ArrayList<>();
+    List<IMonitorPropagation> mprop = new ArrayList<>();
     List<IMonitorRestart> mrest = new ArrayList<>();
     List<IMonitorSolution> msolu = new ArrayList<>();
     List<IMonitorUpBranch> mubra = new ArrayList<>();
@@ -97,6 +98,13 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
         }
     }
 
+    @Override
+    public void duringPropagation(long revisions) {
+        for (int i = 0; i < mprop.size(); i++) {
+            mprop.get(i).duringPropagation(revisions);
+        }
+    }
+
     @Override
     public void onSolution() {
         for (int i = 0; i < msolu.size(); i++) {
@@ -211,6 +219,9 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
             if (sm instanceof IMonitorOpenNode) {
                 mopno.add((IMonitorOpenNode) sm);
             }
+            if (sm instanceof IMonitorPropagation) {
+                mprop.add((IMonitorPropagation) sm);
+            }
             if (sm instanceof IMonitorRestart) {
                 mrest.add((IMonitorRestart) sm);
             }
@@ -247,6 +258,9 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
             if (sm instanceof IMonitorOpenNode) {
                 isPluggedIn = mopno.contains(sm);
             }
+            if (sm instanceof IMonitorPropagation) {
+                isPluggedIn = mprop.contains(sm);
+            }
             if (sm instanceof IMonitorRestart) {
                 isPluggedIn = mrest.contains(sm);
             }
@@ -268,6 +282,7 @@ public final class SearchMonitorList implements IMonitorClose, IMonitorContradic
         minte.clear();
         mipro.clear();
         mopno.clear();
+        mprop.clear();
         mrest.clear();
         msolu.clear();
         mubra.clear();
@@ -31,6 +31,7 @@ package org.chocosolver.solver.search.measure;
 import org.chocosolver.solver.search.loop.monitors.ISearchMonitor;
 
 import java.io.Serializable;
+import java.util.Map;
 
 /**
  * Interface for providing resolution statistics
@@ -80,6 +81,12 @@ public interface IMeasures extends ISearchMonitor, Serializable, Cloneable {
 	/** set the reading time count */
     void setReadingTimeCount(long time);
 
+    /** @return the time spent building the propagation engine (in sec), included in the reading time count */
+    float getEngineBuildingTimeCount();
+
+    /** set the time spent building the propagation engine */
+    void setEngineBuildingTimeCount(long time);
+
     /** Updates the time recorder */
     void updateTimeCount();
 
@@ -110,12 +117,33 @@ public interface IMeasures extends ISearchMonitor, Serializable, Cloneable {
 	/** @return the fine event count (incremental propagations) */
     long getEventsCount();
 
+    /** @return the number of variable modifications done by propagators */
+    long getPruningsCount();
+
+    /** @return the estimated time spent in propagator revisions (in sec), based on timed revisions */
+    float getPropagatorTimeCount();
+
+    /** @return statistics of the propagators, aggregated per class, in a CSV format */
+    String toPropagatorCSV();
+
+    /** @return statistics of the propagators, per class and per propagator, in a JSON format */
+    String toPropagatorJSON();
+
     /** @return the used memory */
     long getUsedMemory();
 
 	/** updates the memory usage count */
 	void updateMemoryUsed();
 
+    /** @return the memory reserved by the trails of the environment, in bytes */
+    long getTrailMemory();
+
+    /** @return the memory reserved by each trail of the environment, in bytes, indexed by trail class name */
+    Map<String, Long> getTrailMemoryPerTrail();
+
+    /** @return the greatest world index reached by the environment */
+    int getPeakWorldIndex();
+
     /** @return the solution count of the measure */
     long getSolutionCount();
 
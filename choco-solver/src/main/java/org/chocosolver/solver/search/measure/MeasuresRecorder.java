@@ -35,6 +35,8 @@ import org.chocosolver.solver.constraints.Propagator;
 import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.loop.monitors.*;
 
+import java.util.Map;
+
 /**
  * Object which stores resolution information to get statistics
  *
@@ -55,6 +57,7 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
     public long solutionCount;
     public long timeCount;
     public long readingTimeCount;
+    public long engineBuildingTimeCount;
     public long initialisationTimeCount;
     public long initialPropagationTimeCount;
     public long nodeCount;
@@ -63,6 +66,7 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
     public long restartCount;
     public long maxDepth, depth;
     public long propagationCount, eventCount;
+    public long pruningCount, propagatorTimeCount;
     public long usedMemory;
 
     protected long startingTime, startingMemory;
@@ -87,6 +91,7 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         mr.solutionCount = solutionCount;
         mr.timeCount = timeCount;
         mr.readingTimeCount = readingTimeCount;
+        mr.engineBuildingTimeCount = engineBuildingTimeCount;
         mr.initialisationTimeCount = initialisationTimeCount;
         mr.initialPropagationTimeCount = initialPropagationTimeCount;
         mr.nodeCount = nodeCount;
@@ -97,6 +102,8 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         mr.depth = depth;
         mr.propagationCount = propagationCount;
         mr.eventCount = eventCount;
+        mr.pruningCount = pruningCount;
+        mr.propagatorTimeCount = propagatorTimeCount;
         mr.usedMemory = usedMemory;
         mr.startingTime = startingTime;
         mr.startingMemory = startingMemory;
@@ -133,10 +140,13 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         solutionCount = 0;
         hasObjective = false;
         readingTimeCount = 0;
+        engineBuildingTimeCount = 0;
         initialisationTimeCount = 0;
         initialPropagationTimeCount = 0;
         propagationCount = 0;
         eventCount = 0;
+        pruningCount = 0;
+        propagatorTimeCount = 0;
         maxDepth = 0;
         cstrs = null;
     }
@@ -175,6 +185,16 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         this.readingTimeCount = time;
     }
 
+    @Override
+    public float getEngineBuildingTimeCount() {
+        return engineBuildingTimeCount / IN_SEC;
+    }
+
+    @Override
+    public void setEngineBuildingTimeCount(long time) {
+        this.engineBuildingTimeCount = time;
+    }
+
     @Override
     public float getInitialisationTimeCount() {
         return initialisationTimeCount / IN_SEC;
@@ -210,6 +230,16 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         return eventCount;
     }
 
+    @Override
+    public long getPruningsCount() {
+        return pruningCount;
+    }
+
+    @Override
+    public float getPropagatorTimeCount() {
+        return propagatorTimeCount / IN_SEC;
+    }
+
     @Override
     public boolean isObjectiveOptimal() {
         return objectiveOptimal;
@@ -239,6 +269,21 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         usedMemory = memoryUsedInMB() - startingMemory;
     }
 
+    @Override
+    public long getTrailMemory() {
+        return solver.getEnvironment().getMemoryFootprint();
+    }
+
+    @Override
+    public Map<String, Long> getTrailMemoryPerTrail() {
+        return solver.getEnvironment().getMemoryFootprintPerTrail();
+    }
+
+    @Override
+    public int getPeakWorldIndex() {
+        return solver.getEnvironment().getPeakWorldIndex();
+    }
+
     @Override
     public void updatePropagationCount() {
         if (cstrs == null || cstrs.length != solver.getNbCstrs()) {
@@ -246,11 +291,15 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         }
         propagationCount = 0;
         eventCount = 0;
+        pruningCount = 0;
+        propagatorTimeCount = 0;
         for (int i = 0; i < cstrs.length; i++) {
             Propagator[] propagators = cstrs[i].getPropagators();
             for (int j = 0; j < propagators.length; j++) {
                 propagationCount += propagators[j].coarseERcalls;
                 eventCount += propagators[j].fineERcalls;
+                pruningCount += propagators[j].nbPrunings;
+                propagatorTimeCount += propagators[j].getEstimatedTime();
             }
         }
 
@@ -444,10 +493,11 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
         if (hasObjective()) {
             st.append("\t").append(solver.getObjectiveManager()).append(",\n");
         }
-        st.append(String.format("\tBuilding time : %,.3fs\n\tInitialisation : %,.3fs\n\tInitial propagation : %,.3fs" +
+        st.append(String.format("\tBuilding time : %,.3fs (engine: %,.3fs)\n\tInitialisation : %,.3fs\n\tInitial propagation : %,.3fs" +
                 "\n\tResolution : %,.3fs\n\tNodes: %,d\n\tBacktracks: %,d\n\tFails: %,d\n\t" +
-                "Restarts: %,d\n\tMax depth: %,d\n\tPropagations: %,d + %,d\n\tMemory: %,dmb\n\tVariables: %,d\n\tConstraints: %,d",
+                "Restarts: %,d\n\tMax depth: %,d\n\tPeak world: %,d\n\tPropagations: %,d + %,d\n\tMemory: %,dmb\n\tTrail: %,db%s\n\tVariables: %,d\n\tConstraints: %,d",
                 getReadingTimeCount(),
+                getEngineBuildingTimeCount(),
                 getInitialisationTimeCount(),
                 getInitialPropagationTimeCount(),
                 getTimeCount(),
@@ -456,15 +506,46 @@ public final class MeasuresRecorder implements IMeasures, IMonitorClose, IMonito
                 getFailCount(),
                 getRestartCount(),
                 getMaxDepth(),
+                getPeakWorldIndex(),
                 getEventsCount(),
                 getPropagationsCount(),
                 getUsedMemory(),
+                getTrailMemory(),
+                trailsToString(),
                 solver.getNbVars(),
                 solver.getNbCstrs()
         ));
         return st.toString();
     }
 
+    /**
+     * @return the memory reserved by each trail, as " (name: bytes, ...)", or an empty string if there is no trail
+     */
+    private String trailsToString() {
+        Map<String, Long> trails = getTrailMemoryPerTrail();
+        if (trails.isEmpty()) {
+            return "";
+        }
+        StringBuilder st = new StringBuilder(" (");
+        for (Map.Entry<String, Long> trail : trails.entrySet()) {
+            if (st.length() > 2) {
+                st.append(", ");
+            }
+            st.append(String.format("%s: %,db", trail.getKey(), trail.getValue()));
+        }
+        return st.append(')').toString();
+    }
+
+    @Override
+    public String toPropagatorCSV() {
+        return PropagatorMeasures.toCSV(solver);
+    }
+
+    @Override
+    public String toPropagatorJSON() {
+        return PropagatorMeasures.toJSON(solver);
+    }
+
     @Override
     public String toCSV() {
         // solutionCount;buildingTime(sec);initTime(sec);initPropag(sec);totalTime(sec);objective;nodes;backtracks;fails;restarts;fineProp;coarseProp;
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.measure;
+
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.Propagator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of the propagators of a solver, as recorded by the propagation engine:
+ * number of revisions, of calls to filter, of variable modifications, of contradictions,
+ * estimated time spent in revisions (based on a sample of timed revisions, see
+ * {@link org.chocosolver.solver.Settings#getPropagatorTimeSampling()})
+ * and number of revisions of other propagators run while a propagator is waiting in a queue.
+ * <br/>
+ * Statistics are given per propagator or aggregated per propagator class,
+ * sorted by decreasing estimated time.
+ *
+ * @since 17/10/26
+ */
+public final class PropagatorMeasures {
+
+    private static final float IN_SEC = 1000 * 1000 * 1000f;
+
+    private static final String CSV_HEADER = "class;propagators;revisions;fineCalls;coarseCalls;prunings;fails;time(sec);waits;";
+
+    /**
+     * Name of the propagators (or class of propagators)
+     */
+    public final String name;
+    /**
+     * Number of propagators aggregated
+     */
+    public long count;
+    public long revisions, fineCalls, coarseCalls, prunings, fails, waits;
+    /**
+     * Estimated time spent in revisions, in nanoseconds
+     */
+    public long time;
+
+    private PropagatorMeasures(String name) {
+        this.name = name;
+    }
+
+    private void add(Propagator propagator) {
+        count++;
+        revisions += propagator.nbRevisions;
+        fineCalls += propagator.fineERcalls;
+        coarseCalls += propagator.coarseERcalls;
+        prunings += propagator.nbPrunings;
+        fails += propagator.nbFails;
+        waits += propagator.nbWaits;
+        time += propagator.getEstimatedTime();
+    }
+
+    private static final Comparator<PropagatorMeasures> BY_TIME = (m1, m2) -> Long.compare(m2.time, m1.time);
+
+    /**
+     * @param solver a solver
+     * @return the statistics of each propagator of <i>solver</i>, sorted by decreasing time
+     */
+    public static PropagatorMeasures[] perPropagator(Solver solver) {
+        List<PropagatorMeasures> measures = new ArrayList<>();
+        for (Constraint c : solver.getCstrs()) {
+            for (Propagator p : c.getPropagators()) {
+                PropagatorMeasures m = new PropagatorMeasures(p.getClass().getSimpleName() + "#" + p.getId());
+                m.add(p);
+                measures.add(m);
+            }
+        }
+        PropagatorMeasures[] array = measures.toArray(new PropagatorMeasures[measures.size()]);
+        Arrays.sort(array, BY_TIME);
+        return array;
+    }
+
+    /**
+     * @param solver a solver
+     * @return the statistics of the propagators of <i>solver</i> aggregated per class, sorted by decreasing time
+     */
+    public static PropagatorMeasures[] perClass(Solver solver) {
+        Map<String, PropagatorMeasures> measures = new LinkedHashMap<>();
+        for (Constraint c : solver.getCstrs()) {
+            for (Propagator p : c.getPropagators()) {
+                String clazz = p.getClass().getSimpleName();
+                PropagatorMeasures m = measures.get(clazz);
+                if (m == null) {
+                    m = new PropagatorMeasures(clazz);
+                    measures.put(clazz, m);
+                }
+                m.add(p);
+            }
+        }
+        PropagatorMeasures[] array = measures.values().toArray(new PropagatorMeasures[measures.size()]);
+        Arrays.sort(array, BY_TIME);
+        return array;
+    }
+
+    /**
+     * @param solver a solver
+     * @return the statistics of the propagators of <i>solver</i> aggregated per class, in a CSV format (with a header)
+     */
+    public static String toCSV(Solver solver) {
+        StringBuilder st = new StringBuilder(CSV_HEADER).append('\n');
+        for (PropagatorMeasures m : perClass(solver)) {
+            st.append(String.format("%s;%d;%d;%d;%d;%d;%d;%.3f;%d;\n",
+                    m.name, m.count, m.revisions, m.fineCalls, m.coarseCalls, m.prunings, m.fails, m.time / IN_SEC, m.waits));
+        }
+        return st.toString();
+    }
+
+    /**
+     * @param solver a solver
+     * @return the statistics of the propagators of <i>solver</i>, per class and per propagator, in a JSON format
+     */
+    public static String toJSON(Solver solver) {
+        StringBuilder st = new StringBuilder();
+        st.append("{\n  \"classes\": [");
+        append(st, perClass(solver));
+        st.append("],\n  \"propagators\": [");
+        append(st, perPropagator(solver));
+        st.append("]\n}\n");
+        return st.toString();
+    }
+
+    private static void append(StringBuilder st, PropagatorMeasures[] measures) {
+        for (int i = 0; i < measures.length; i++) {
+            PropagatorMeasures m = measures[i];
+            st.append(i == 0 ? "\n" : ",\n");
+            st.append("    {\"name\": \"").append(escape(m.name)).append('"');
+            st.append(", \"propagators\": ").append(m.count);
+            st.append(", \"revisions\": ").append(m.revisions);
+            st.append(", \"fineCalls\": ").append(m.fineCalls);
+            st.append(", \"coarseCalls\": ").append(m.coarseCalls);
+            st.append(", \"prunings\": ").append(m.prunings);
+            st.append(", \"fails\": ").append(m.fails);
+            st.append(", \"timeNs\": ").append(m.time);
+            st.append(", \"waits\": ").append(m.waits).append('}');
+        }
+        if (measures.length > 0) {
+            st.append("\n  ");
+        }
+    }
+
+    private static String escape(String s) {
+        StringBuilder st = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                st.append('\\').append(c);
+            } else if (c < 0x20) {
+                st.append(String.format("\\u%04x", (int) c));
+            } else {
+                st.append(c);
+            }
+        }
+        return st.toString();
+    }
+}
@@ -426,6 +426,30 @@ public class IntStrategyFactory {
         return domOverWDeg(VARS, SEED, min_value_selector());
     }
 
+    /**
+     * Assignment strategy which selects a variable according to <code>ConflictDriven</code>:
+     * the variables involved in recent failures are selected first.
+     *
+     * @param VARS         list of variables
+     * @param DECAY        decay factor of the scores, in ]0,1]
+     * @param VAL_SELECTOR heuristic to selected the value to assign to the selected variable
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> conflictDriven(IntVar[] VARS, double DECAY, IntValueSelector VAL_SELECTOR) {
+        return new ConflictDriven(VARS, DECAY, VAL_SELECTOR);
+    }
+
+    /**
+     * Assignment strategy which selects a variable according to <code>ConflictDriven</code>,
+     * with a decay factor of 0.95, and assign it to its lower bound
+     *
+     * @param VARS list of variables
+     * @return assignment strategy
+     */
+    public static AbstractStrategy<IntVar> conflictDriven(IntVar[] VARS) {
+        return conflictDriven(VARS, 0.95d, min_value_selector());
+    }
+
     /**
      * Create an Activity based search strategy.
      * <p/>
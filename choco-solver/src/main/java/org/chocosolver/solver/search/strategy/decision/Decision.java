@@ -111,6 +111,15 @@ public abstract class Decision<V extends Variable> implements Identity, ICause,
         branch++;
     }
 
+    /**
+     * Return the current branch of the decision: 0 if not applied yet, 1 if applied once, 2 if refuted once
+     *
+     * @return the current branch
+     */
+    public int getBranch() {
+        return branch;
+    }
+
     /**
      * Should this decision be a one-shot decision, non refutable.
      * @param once a boolean
@@ -72,6 +72,15 @@ public class FastDecision extends Decision<IntVar> {
         this.assignment = assignment;
     }
 
+    /**
+     * Return the decision operator of this decision, as declared on creation
+     *
+     * @return a decision operator
+     */
+    public DecisionOperator<IntVar> getDecisionOperator() {
+        return assignment;
+    }
+
     @Override
     public void reverse() {
         this.assignment = assignment.opposite();
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.search.strategy.selectors.variables;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.chocosolver.memory.IStateInt;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.monitors.IMonitorContradiction;
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.decision.fast.FastDecision;
+import org.chocosolver.solver.search.strategy.selectors.IntValueSelector;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+import org.chocosolver.util.PoolManager;
+import org.chocosolver.util.objects.queues.DoubleMinHeap;
+
+/**
+ * A conflict-driven variable selection, in the spirit of VSIDS.
+ * <p/>
+ * Each variable has a score, initialized to its degree.
+ * On each failure, the score of the variables of the failing propagator (or the variable in failure
+ * if the cause is not a propagator) is increased by an increment, which is then divided by <code>decay</code>.
+ * So, old conflicts weigh exponentially less than recent ones.
+ * <br/>
+ * The variables are stored in a heap ordered by decreasing score: a bump costs O(log n) and
+ * the best uninstantiated variable is selected in O(log n), instantiated ones being removed lazily
+ * from the heap and re-inserted once the world of their removal is backtracked.
+ *
+ * @since 17/10/26
+ */
+public class ConflictDriven extends AbstractStrategy<IntVar> implements IMonitorContradiction {
+
+    // scores are rescaled beyond this value
+    private static final double RESCALE = 1e100;
+
+    private final double decay;
+    private final double[] scores;
+    private double increment;
+
+    private final DoubleMinHeap heap; // keyed by -score
+    private final boolean[] inHeap;
+
+    // variables removed from the heap since they were instantiated,
+    // those beyond 'validRemoved' were removed in a world which has been backtracked
+    private final int[] removed;
+    private int nbRemoved;
+    private final IStateInt validRemoved;
+
+    private final TIntIntHashMap vid2idx;
+    private final TIntObjectHashMap<int[]> pid2idx; // indices of the variables of a propagator
+
+    private final PoolManager<FastDecision> decisionPool;
+
+    private final IntValueSelector valueSelector;
+
+    /**
+     * @param variables     variables to branch on
+     * @param decay         decay factor, in ]0,1]
+     * @param valueSelector heuristic to select the value to assign to the selected variable
+     */
+    public ConflictDriven(IntVar[] variables, double decay, IntValueSelector valueSelector) {
+        super(variables);
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("decay should be in ]0,1]");
+        }
+        Solver solver = variables[0].getSolver();
+        this.decay = decay;
+        this.increment = 1;
+        int n = variables.length;
+        this.scores = new double[n];
+        this.heap = new DoubleMinHeap(n);
+        this.inHeap = new boolean[n];
+        this.removed = new int[n];
+        this.validRemoved = solver.getEnvironment().makeInt(0);
+        this.vid2idx = new TIntIntHashMap(n, 0.5f, -1, -1);
+        this.pid2idx = new TIntObjectHashMap<>();
+        for (int i = 0; i < n; i++) {
+            vid2idx.put(variables[i].getId(), i);
+            scores[i] = variables[i].getNbProps();
+        }
+        this.valueSelector = valueSelector;
+        this.decisionPool = new PoolManager<>();
+        solver.plugMonitor(this);
+    }
+
+    @Override
+    public void init() throws ContradictionException {
+        heap.clear();
+        nbRemoved = 0;
+        validRemoved.set(0);
+        for (int i = 0; i < vars.length; i++) {
+            heap.insert(-scores[i], i);
+            inHeap[i] = true;
+        }
+    }
+
+    @Override
+    public Decision<IntVar> getDecision() {
+        // re-insert the variables removed in a world which has been backtracked
+        int valid = validRemoved.get();
+        while (nbRemoved > valid) {
+            int i = removed[--nbRemoved];
+            heap.insert(-scores[i], i);
+            inHeap[i] = true;
+        }
+        IntVar best = null;
+        while (best == null && !heap.isEmpty()) {
+            int i = heap.min();
+            if (vars[i].isInstantiated()) {
+                heap.removemin();
+                inHeap[i] = false;
+                removed[nbRemoved++] = i;
+            } else {
+                best = vars[i];
+            }
+        }
+        if (nbRemoved > valid) {
+            validRemoved.set(nbRemoved);
+        }
+        return computeDecision(best);
+    }
+
+    @Override
+    public Decision<IntVar> computeDecision(IntVar variable) {
+        if (variable == null || variable.isInstantiated()) {
+            return null;
+        }
+        int currentVal = valueSelector.selectValue(variable);
+        FastDecision current = decisionPool.getE();
+        if (current == null) {
+            current = new FastDecision(decisionPool);
+        }
+        current.set(variable, currentVal, DecisionOperator.int_eq);
+        return current;
+    }
+
+    @Override
+    public void onContradiction(ContradictionException cex) {
+        if (cex.c instanceof Propagator) {
+            Propagator prop = (Propagator) cex.c;
+            int[] idx = pid2idx.get(prop.getId());
+            if (idx == null) {
+                idx = indices(prop);
+                pid2idx.put(prop.getId(), idx);
+            }
+            for (int k = 0; k < idx.length; k++) {
+                bump(idx[k]);
+            }
+        } else if (cex.v != null) {
+            int i = vid2idx.get(cex.v.getId());
+            if (i > -1) {
+                bump(i);
+            }
+        }
+        increment /= decay;
+        if (increment > RESCALE) {
+            rescale();
+        }
+    }
+
+    private int[] indices(Propagator prop) {
+        int n = 0;
+        int[] idx = new int[prop.getNbVars()];
+        for (int k = 0; k < idx.length; k++) {
+            Variable v = prop.getVar(k);
+            int i = vid2idx.get(v.getId());
+            if (i > -1) {
+                idx[n++] = i;
+            }
+        }
+        if (n < idx.length) {
+            int[] tmp = idx;
+            idx = new int[n];
+            System.arraycopy(tmp, 0, idx, 0, n);
+        }
+        return idx;
+    }
+
+    private void bump(int i) {
+        scores[i] += increment;
+        if (inHeap[i]) {
+            heap.update(-scores[i], i);
+        }
+    }
+
+    private void rescale() {
+        increment /= RESCALE;
+        heap.clear();
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] /= RESCALE;
+            if (inHeap[i]) {
+                heap.insert(-scores[i], i);
+            }
+        }
+    }
+
+    /**
+     * @param variable a variable
+     * @return the current score of <code>variable</code>, or 0 if it is not handled by this
+     */
+    public double getScore(IntVar variable) {
+        int i = vid2idx.get(variable.getId());
+        return i > -1 ? scores[i] : 0;
+    }
+}
@@ -28,8 +28,21 @@
  */
 package org.chocosolver.solver.thread;
 
+import org.chocosolver.solver.exception.SolverException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
- * Master a set of slaves which will work in parallel
+ * Master a set of slaves which will work in parallel.
+ * <p>
+ * Slaves are run by an executor service, one thread per slave.
+ * The master waits for all of them to complete on a latch, without polling.
+ * A master can be cancelled (see {@link #cancel()}): each slave is then asked to stop
+ * (see {@link AbstractParallelSlave#stop()}) and the master waits for all of them to acknowledge it.
  *
  * @param <S>
  */
@@ -40,8 +53,10 @@ public class AbstractParallelMaster<S extends AbstractParallelSlave> {
     //***********************************************************************************
 
 	public S[] slaves;
-	public int nbWorkingSlaves;
-    public boolean wait;
+	private final AtomicInteger nbWorkingSlaves = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile CountDownLatch allDone = new CountDownLatch(0);
+    private volatile boolean cancelled;
 
     public AbstractParallelMaster() {}
 
@@ -50,20 +65,39 @@ public class AbstractParallelMaster<S extends AbstractParallelSlave> {
     //***********************************************************************************
 
     /**
-     * Make the slaves work in parallel
+     * Make the slaves work in parallel, and wait for all of them to complete.
+     * If the calling thread is interrupted, the slaves are cancelled and the interruption status is restored.
+     *
+     * @throws SolverException if a slave has thrown an exception
      */
     public void distributedSlavery() {
-        nbWorkingSlaves = slaves.length;
-        for (int i = 0; i < slaves.length; i++) {
-            slaves[i].workInParallel();
-        }
-        wait = true;
+        cancelled = false;
+        failure.set(null);
+        nbWorkingSlaves.set(slaves.length);
+        allDone = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(slaves.length);
         try {
-            while (wait)
-                Thread.sleep(20);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(0);
+            for (int i = 0; i < slaves.length; i++) {
+                slaves[i].workInParallel(executor);
+            }
+            boolean interrupted = false;
+            while (allDone.getCount() > 0) {
+                try {
+                    allDone.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    cancel();
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new SolverException("A slave failed: " + t);
         }
     }
 
@@ -71,7 +105,7 @@ public class AbstractParallelMaster<S extends AbstractParallelSlave> {
      * Make the slaves work in sequence
      */
     public void sequentialSlavery() {
-        nbWorkingSlaves = slaves.length;
+        nbWorkingSlaves.set(slaves.length);
         for (int i = 0; i < slaves.length; i++) {
             slaves[i].work();
         }
@@ -80,10 +114,44 @@ public class AbstractParallelMaster<S extends AbstractParallelSlave> {
     /**
      * A slave notify the master that he fulfilled his task
      */
-    public synchronized void wishGranted() {
-        nbWorkingSlaves--;
-        if (nbWorkingSlaves == 0) {
-            wait = false;
+    public void wishGranted() {
+        if (nbWorkingSlaves.decrementAndGet() == 0) {
+            allDone.countDown();
+        }
+    }
+
+    /**
+     * A slave notify the master that he failed to fulfill his task: all slaves are cancelled.
+     *
+     * @param t the cause of the failure
+     */
+    public void failed(Throwable t) {
+        failure.compareAndSet(null, t);
+        cancel();
+    }
+
+    /**
+     * Ask all the slaves to stop as soon as possible.
+     * This does not wait for the slaves to be stopped.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (S s : slaves) {
+            s.stop();
         }
     }
+
+    /**
+     * @return <code>true</code> if the slaves have been asked to stop since the last call to {@link #distributedSlavery()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return the number of slaves which have not fulfilled their task yet
+     */
+    public int getNbWorkingSlaves() {
+        return nbWorkingSlaves.get();
+    }
 }
@@ -28,6 +28,8 @@
  */
 package org.chocosolver.solver.thread;
 
+import java.util.concurrent.Executor;
+
 /**
  * Slave born to be mastered and work in parallel
  *
@@ -62,21 +64,33 @@ public abstract class AbstractParallelSlave<P extends AbstractParallelMaster> {
     //***********************************************************************************
 
     /**
-     * Creates a new thread to work in parallel
+     * Submits the task of this slave to <code>executor</code>.
+     * On completion, successful or not, the master is notified.
+     *
+     * @param executor the executor which runs the slave
      */
-    public void workInParallel() {
-        Thread t = new Thread() {
-            @Override
-            public void run() {
+    public void workInParallel(Executor executor) {
+        executor.execute(() -> {
+            try {
                 work();
+            } catch (Throwable t) {
+                master.failed(t);
+            } finally {
                 master.wishGranted();
             }
-        };
-        t.start();
+        });
     }
 
     /**
      * do something
      */
     public abstract void work();
+
+    /**
+     * Ask this slave to stop working as soon as possible.
+     * This is called by the master, from another thread, so implementations should only set a flag
+     * to be checked by the slave itself.
+     */
+    public void stop() {
+    }
 }
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.thread;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free buffer to exchange nogoods between solvers running in parallel, for instance
+ * the ones of a {@link org.chocosolver.solver.MasterSolver}.
+ * <p>
+ * A nogood is published as a set of (variable index, value) pairs, where a variable index refers to
+ * a position in a scope shared by all solvers (each solver declares its own copy of the variables, in the same order).
+ * The buffer is a bounded ring: publishing never blocks, and a reader which lags behind of more than
+ * the capacity of the buffer silently misses the oldest nogoods.
+ * A slot only stores increasing sequence numbers, so a nogood published late may be dropped, never a more recent one.
+ * Each solver reads the buffer through its own {@link Reader}, which skips the nogoods it published.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class NogoodExchange {
+
+    /**
+     * The ring of nogoods, the i<sup>th</sup> nogood published is stored in <code>ring[i & mask]</code>
+     */
+    private final AtomicReferenceArray<SharedNogood> ring;
+
+    private final int mask;
+
+    /**
+     * Sequence number of the next nogood to publish
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Creates an exchange buffer storing at most <code>capacity</code> nogoods at a time
+     * (rounded up to the next power of two).
+     *
+     * @param capacity maximum number of nogoods stored
+     */
+    public NogoodExchange(int capacity) {
+        int c = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(c);
+        this.mask = c - 1;
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Publishes a nogood made of the <code>size</code> first pairs of <code>indices</code> and <code>values</code>.
+     * The arrays are copied, so they can be reused by the caller.
+     *
+     * @param source  identifier of the publisher
+     * @param indices indices of the variables in the shared scope
+     * @param values  values of the variables
+     * @param size    number of pairs in the nogood
+     */
+    public void publish(int source, int[] indices, int[] values, int size) {
+        long seq = tail.getAndIncrement();
+        int slot = (int) (seq & mask);
+        SharedNogood ng = new SharedNogood(seq, source, Arrays.copyOf(indices, size), Arrays.copyOf(values, size));
+        // a slot only moves forward: a slower publisher must not overwrite a more recent nogood,
+        // otherwise the readers would wait for the latter forever
+        SharedNogood current;
+        do {
+            current = ring.get(slot);
+            if (current != null && current.seq > seq) {
+                // already overwritten: the readers count it as missed
+                return;
+            }
+        } while (!ring.compareAndSet(slot, current, ng));
+    }
+
+    /**
+     * @return the number of nogoods published so far
+     */
+    public long getNbPublished() {
+        return tail.get();
+    }
+
+    /**
+     * @return the maximum number of nogoods stored at a time
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Creates a reader for the solver identified by <code>source</code>.
+     * The reader starts with the next nogood to be published.
+     *
+     * @param source identifier of the solver, nogoods published with this identifier are skipped
+     * @return a new reader
+     */
+    public Reader newReader(int source) {
+        return new Reader(source, tail.get());
+    }
+
+    /**
+     * A nogood stored in an exchange buffer
+     */
+    public static final class SharedNogood {
+
+        final long seq;
+        final int source;
+        final int[] indices;
+        final int[] values;
+
+        SharedNogood(long seq, int source, int[] indices, int[] values) {
+            this.seq = seq;
+            this.source = source;
+            this.indices = indices;
+            this.values = values;
+        }
+
+        /**
+         * @return the number of pairs in this nogood
+         */
+        public int size() {
+            return indices.length;
+        }
+
+        /**
+         * @param i index of the pair
+         * @return the index, in the shared scope, of the variable of the i<sup>th</sup> pair
+         */
+        public int getIndex(int i) {
+            return indices[i];
+        }
+
+        /**
+         * @param i index of the pair
+         * @return the value of the i<sup>th</sup> pair
+         */
+        public int getValue(int i) {
+            return values[i];
+        }
+
+        /**
+         * @return the identifier of the publisher
+         */
+        public int getSource() {
+            return source;
+        }
+    }
+
+    /**
+     * A cursor on an exchange buffer, not thread-safe: it has to be used by a single solver.
+     */
+    public final class Reader {
+
+        final int source;
+        long cursor;
+        long missed;
+
+        Reader(int source, long cursor) {
+            this.source = source;
+            this.cursor = cursor;
+        }
+
+        /**
+         * @return the next nogood published by another solver, or <code>null</code> if there is none yet.
+         */
+        public SharedNogood next() {
+            while (cursor < tail.get()) {
+                SharedNogood ng = ring.get((int) (cursor & mask));
+                if (ng == null || ng.seq < cursor) {
+                    // the slot has been reserved but the nogood is not published yet
+                    return null;
+                }
+                if (ng.seq > cursor) {
+                    // overwritten: jump to the oldest nogood still stored
+                    long oldest = Math.max(cursor + 1, tail.get() - mask - 1);
+                    missed += oldest - cursor;
+                    cursor = oldest;
+                    continue;
+                }
+                cursor++;
+                if (ng.source != source) {
+                    return ng;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the number of nogoods overwritten before this reader could read them
+         */
+        public long getNbMissed() {
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.thread;
+
+import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.Arrays;
+
+/**
+ * A subproblem of a tree search, described as the sequence of (variable, operator, value) triples
+ * which leads from the root node to the root of the sub-tree.
+ * <p>
+ * Variables are referred by their index in the original model (see {@link org.chocosolver.solver.Solver#getVar(int)}),
+ * so that a subproblem can be replayed on any copy of that model.
+ * A subproblem is immutable.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public final class Subproblem {
+
+    /**
+     * The subproblem standing for the entire search space.
+     */
+    public static final Subproblem ROOT = new Subproblem(new int[0], new DecisionOperator[0], new int[0]);
+
+    private final int[] vars;
+    private final DecisionOperator<IntVar>[] operators;
+    private final int[] values;
+
+    private Subproblem(int[] vars, DecisionOperator<IntVar>[] operators, int[] values) {
+        this.vars = vars;
+        this.operators = operators;
+        this.values = values;
+    }
+
+    /**
+     * Creates the subproblem made of <code>this</code> extended with the <code>n</code> first triples given in parameters.
+     *
+     * @param n         number of triples to append
+     * @param vars      indices of the variables
+     * @param operators decision operators, as applied to reach the sub-tree (that is, negated for right branches)
+     * @param values    values
+     * @return a new subproblem
+     */
+    @SuppressWarnings("unchecked")
+    public Subproblem extend(int n, int[] vars, DecisionOperator<IntVar>[] operators, int[] values) {
+        int k = this.vars.length;
+        int[] nvars = Arrays.copyOf(this.vars, k + n);
+        DecisionOperator<IntVar>[] nops = Arrays.copyOf(this.operators, k + n);
+        int[] nvals = Arrays.copyOf(this.values, k + n);
+        System.arraycopy(vars, 0, nvars, k, n);
+        System.arraycopy(operators, 0, nops, k, n);
+        System.arraycopy(values, 0, nvals, k, n);
+        return new Subproblem(nvars, nops, nvals);
+    }
+
+    /**
+     * @return the number of triples describing this subproblem, that is, its depth in the tree search.
+     */
+    public int size() {
+        return vars.length;
+    }
+
+    /**
+     * @param i index of the triple
+     * @return the index, in the original model, of the variable of the i<sup>th</sup> triple
+     */
+    public int getVarIndex(int i) {
+        return vars[i];
+    }
+
+    /**
+     * @param i index of the triple
+     * @return the decision operator of the i<sup>th</sup> triple
+     */
+    public DecisionOperator<IntVar> getOperator(int i) {
+        return operators[i];
+    }
+
+    /**
+     * @param i index of the triple
+     * @return the value of the i<sup>th</sup> triple
+     */
+    public int getValue(int i) {
+        return values[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder st = new StringBuilder("Subproblem[");
+        for (int i = 0; i < vars.length; i++) {
+            if (i > 0) st.append(", ");
+            st.append('#').append(vars[i]).append(operators[i].toString()).append(values[i]);
+        }
+        return st.append(']').toString();
+    }
+}
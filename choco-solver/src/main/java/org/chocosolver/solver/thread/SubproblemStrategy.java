@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.thread;
+
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.strategy.decision.Decision;
+import org.chocosolver.solver.search.strategy.strategy.AbstractStrategy;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.Variable;
+
+/**
+ * A search strategy which restricts the search to a {@link Subproblem}.
+ * <p>
+ * On initialization, the triples of the subproblem are applied and propagated, at the world reached after the initial
+ * propagation, so that the subproblem is part of the root node of the search (and is preserved on restarts).
+ * Then, decisions are computed by the wrapped strategy.
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class SubproblemStrategy extends AbstractStrategy<Variable> {
+
+    final Solver solver;
+
+    /**
+     * Variables of <code>solver</code>, indexed like the ones of the original model
+     */
+    final Variable[] mapping;
+
+    final Subproblem subproblem;
+
+    final AbstractStrategy<Variable> strategy;
+
+    /**
+     * Creates a strategy which first applies <code>subproblem</code>, then delegates to <code>strategy</code>.
+     *
+     * @param solver     the solver in which the subproblem is explored
+     * @param mapping    variables of <code>solver</code>, indexed like the variables of the original model
+     * @param subproblem the subproblem to explore
+     * @param strategy   the strategy to explore the subproblem
+     */
+    public SubproblemStrategy(Solver solver, Variable[] mapping, Subproblem subproblem, AbstractStrategy<Variable> strategy) {
+        super(strategy.getVariables());
+        this.solver = solver;
+        this.mapping = mapping;
+        this.subproblem = subproblem;
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void init() throws ContradictionException {
+        if (subproblem.size() > 0) {
+            for (int i = 0; i < subproblem.size(); i++) {
+                subproblem.getOperator(i).apply((IntVar) mapping[subproblem.getVarIndex(i)], subproblem.getValue(i), Cause.Null);
+            }
+            solver.getEngine().propagate();
+        }
+        strategy.init();
+    }
+
+    @Override
+    public Decision<Variable> getDecision() {
+        return strategy.getDecision();
+    }
+
+    @Override
+    public Decision<Variable> computeDecision(Variable var) {
+        return strategy.computeDecision(var);
+    }
+
+    /**
+     * @return the subproblem explored
+     */
+    public Subproblem getSubproblem() {
+        return subproblem;
+    }
+
+    /**
+     * @return the strategy used to explore the subproblem
+     */
+    public AbstractStrategy<Variable> getStrategy() {
+        return strategy;
+    }
+}
@@ -29,9 +29,14 @@
 package org.chocosolver.solver.trace;
 
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.exception.SolverException;
 import org.chocosolver.solver.search.loop.monitors.*;
 import org.chocosolver.solver.variables.Variable;
 
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
 import static org.chocosolver.util.tools.StringUtils.pad;
 
 /**
@@ -253,6 +258,49 @@ public class Chatterbox {
     }
 
 
+    /**
+     * Print the statistics of the propagators, aggregated per class, in a CSV format.
+     * <p/>
+     * Recommended usage: to be called after the resolution step.
+     *
+     * @param solver the solver to evaluate
+     */
+    public static void printPropagatorStatistics(Solver solver) {
+        System.out.println(solver.getMeasures().toPropagatorCSV());
+    }
+
+    /**
+     * Plug a search monitor which writes the statistics of the propagators in <code>fileName</code>
+     * before closing the search.
+     * The statistics are written in a JSON format if <code>fileName</code> ends with ".json",
+     * in a CSV format otherwise (see {@link org.chocosolver.solver.search.measure.PropagatorMeasures}).
+     * <p/>
+     * Recommended usage: to be called before the resolution step.
+     *
+     * @param solver   the solver to evaluate
+     * @param fileName the file to write in
+     */
+    public static void dumpPropagatorStatistics(final Solver solver, final String fileName) {
+        solver.plugMonitor(new IMonitorClose() {
+            @Override
+            public void beforeClose() {
+                String stats = fileName.endsWith(".json") ?
+                        solver.getMeasures().toPropagatorJSON() :
+                        solver.getMeasures().toPropagatorCSV();
+                try (Writer writer = new FileWriter(fileName)) {
+                    writer.write(stats);
+                } catch (IOException e) {
+                    throw new SolverException("Unable to write propagator statistics in " + fileName);
+                }
+            }
+
+            @Override
+            public void afterClose() {
+            }
+        });
+    }
+
+
     //////////////
 
     /**
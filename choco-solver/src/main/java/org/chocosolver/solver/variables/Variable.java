@@ -110,6 +110,55 @@ public interface Variable extends Identity, Serializable, Comparable<Variable> {
      */
     int getIndexInPropagator(int pidx);
 
+    /**
+     * Return the position of the first propagator to notify of <i>event</i>.
+     * The propagators of this are partitioned wrt the events they react to, so that only those in
+     * [<code>getFirstPropagator(event)</code>, <code>getNbProps()</code>) have to be considered on <i>event</i>.
+     * The other ones either do not react to <i>event</i> or are unsubscribed.
+     *
+     * @param event an event
+     * @return index of the first propagator to notify of <i>event</i>
+     */
+    int getFirstPropagator(IEventType event);
+
+    /**
+     * Declare the propagation conditions of the propagator at position <i>pidx</i>,
+     * that is the events it reacts to, in order to notify it only of those events.
+     * Should not be called by the user.
+     *
+     * @param pidx index of the propagator within the list of propagators of this
+     * @param mask propagation conditions of the propagator wrt this
+     */
+    void setPropagationConditions(int pidx, int mask);
+
+    /**
+     * Stop notifying the propagator at position <i>pidx</i> of any event on this,
+     * until a call to {@link #subscribe(int, boolean)} or, if <i>backtrackable</i> is set to true, backtrack.
+     * Has no effect if the propagator is already unsubscribed, or if this is a constant.
+     * Should not be called by the user, see {@link Propagator#unsubscribe(int, boolean)}.
+     *
+     * @param pidx          index of the propagator within the list of propagators of this
+     * @param backtrackable set to true to restore the subscription on backtrack
+     */
+    void unsubscribe(int pidx, boolean backtrackable);
+
+    /**
+     * Notify again the propagator at position <i>pidx</i> of events on this,
+     * until a call to {@link #unsubscribe(int, boolean)} or, if <i>backtrackable</i> is set to true, backtrack.
+     * Has no effect if the propagator is already subscribed, or if this is a constant.
+     * Should not be called by the user, see {@link Propagator#subscribe(int, boolean)}.
+     *
+     * @param pidx          index of the propagator within the list of propagators of this
+     * @param backtrackable set to true to cancel the subscription on backtrack
+     */
+    void subscribe(int pidx, boolean backtrackable);
+
+    /**
+     * @param pidx index of the propagator within the list of propagators of this
+     * @return true if the propagator at position <i>pidx</i> is notified of events on this
+     */
+    boolean isSubscribed(int pidx);
+
     /**
      * Build and add a monitor to the monitor list of <code>this</code>.
      * The monitor is inactive at the creation and must be activated (by the engine propagation).
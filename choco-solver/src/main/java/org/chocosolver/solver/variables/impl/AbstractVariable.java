@@ -28,7 +28,6 @@
  */
 package org.chocosolver.solver.variables.impl;
 
-import org.chocosolver.solver.Cause;
 import org.chocosolver.solver.ICause;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Propagator;
@@ -36,7 +35,11 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.variables.IVariableMonitor;
 import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.events.IEventType;
+import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.solver.variables.view.IView;
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.trail.ITrailStorage;
 
 import java.util.Arrays;
 
@@ -65,9 +68,31 @@ public abstract class AbstractVariable implements Variable {
 
     protected final String name;
 
+    // Propagators are partitioned into four contiguous levels, wrt to the events they react to:
+    // UNSUBSCRIBED ones are never notified, INSTANTIATE ones only on instantiation,
+    // BOUND ones on bound modification or instantiation and REMOVE ones on any event.
+    private static final int UNSUBSCRIBED = 0, INSTANTIATE = 1, BOUND = 2, REMOVE = 3;
+    // The levels are defined on the masks of IntEventType. The events of the other variables fit into them:
+    // SetEventType.REMOVE_FROM_ENVELOPE and RealEventType.DECUPP share their mask with IntEventType.INCLOW,
+    // and the other ones are dispatched to the REMOVE level.
+    private static final int INSTANTIATE_MASK = IntEventType.INSTANTIATE.getMask();
+    private static final int BOUND_MASK = IntEventType.BOUND.getMask();
+
     private Propagator[] propagators; // list of propagators of the variable
     private int[] pindices;    // index of the variable in the i^th propagator
+    private int[] plevels;    // level of the i^th propagator, when subscribed
     private int pIdx;
+    private final int[] pFirst; // index of the first propagator of each level
+
+    // log of the (un)subscriptions made during search: the propagator and the index of this in it,
+    // complemented on subscription
+    private Propagator[] slogProps;
+    private int[] slogIdx;
+    private int slogSize;
+    private int[] slogMarks; // for each world with (un)subscriptions: size of the log and last world before it
+    private int nbSlogMarks;
+    private int slogWorld;
+    private Operation slogUndo;
 
     private IView[] views; // views to inform of domain modification
     private int vIdx; // index of the last view not null in views -- not backtrable
@@ -88,6 +113,9 @@ public abstract class AbstractVariable implements Variable {
         monitors = new IVariableMonitor[2];
         propagators = new Propagator[8];
         pindices = new int[8];
+        plevels = new int[8];
+        pFirst = new int[REMOVE + 1];
+        slogWorld = -1;
         ID = solver.nextId();
         _plugexpl = solver.getSettings().plugExplanationIn();
         solver.associates(this);
@@ -110,8 +138,11 @@ public abstract class AbstractVariable implements Variable {
             pindices = new int[itmp.length * 3 / 2 + 1];
             System.arraycopy(itmp, 0, pindices, 0, pIdx);
 
+            plevels = Arrays.copyOf(plevels, pindices.length);
         }
+        // a new propagator is notified of any event, until its propagation conditions are known
         propagators[pIdx] = propagator;
+        plevels[pIdx] = REMOVE;
         pindices[pIdx++] = idxInProp;
         return pIdx - 1;
     }
@@ -129,13 +160,182 @@ public abstract class AbstractVariable implements Variable {
         }
         // Dynamic addition of a propagator may be not considered yet, so the assertion is not correct
         if (i < pIdx) {
-            propagators[i] = propagators[pIdx - 1];
-            pindices[i] = pindices[--pIdx];
+            // move it to the last level, then to the last position
+            for (int l = levelOf(i) + 1; l <= REMOVE; l++) {
+                swap(i, --pFirst[l]);
+                i = pFirst[l];
+            }
+            swap(i, --pIdx);
+            propagator.setVIndices(pindices[pIdx], -1);
             propagators[pIdx] = null;
             pindices[pIdx] = 0;
         }
     }
 
+    @Override
+    public int getFirstPropagator(IEventType event) {
+        int mask = event.getMask();
+        if ((mask & INSTANTIATE_MASK) != 0) {
+            return pFirst[INSTANTIATE];
+        } else if ((mask & BOUND_MASK) != 0) {
+            return pFirst[BOUND];
+        }
+        return pFirst[REMOVE];
+    }
+
+    @Override
+    public void setPropagationConditions(int pidx, int mask) {
+        int level;
+        if ((mask & ~(BOUND_MASK | INSTANTIATE_MASK)) != 0) { // removal or unknown events
+            level = REMOVE;
+        } else if ((mask & BOUND_MASK) != 0) {
+            level = BOUND;
+        } else {
+            level = INSTANTIATE;
+        }
+        int current = levelOf(pidx);
+        plevels[pidx] = level;
+        if (current != UNSUBSCRIBED) {
+            // a static information: the move is not recorded
+            move(pidx, current, level);
+        }
+    }
+
+    @Override
+    public void unsubscribe(int pidx, boolean backtrackable) {
+        int current = levelOf(pidx);
+        if (current != UNSUBSCRIBED) {
+            if (backtrackable) {
+                log(propagators[pidx], pindices[pidx]);
+            }
+            move(pidx, current, UNSUBSCRIBED);
+        }
+    }
+
+    @Override
+    public void subscribe(int pidx, boolean backtrackable) {
+        if (levelOf(pidx) == UNSUBSCRIBED) {
+            if (backtrackable) {
+                log(propagators[pidx], ~pindices[pidx]);
+            }
+            move(pidx, UNSUBSCRIBED, plevels[pidx]);
+        }
+    }
+
+    @Override
+    public boolean isSubscribed(int pidx) {
+        return pidx >= pFirst[INSTANTIATE];
+    }
+
+    /**
+     * @return the level of the propagator at position <i>pidx</i>, wrt to its position
+     */
+    private int levelOf(int pidx) {
+        int l = REMOVE;
+        while (l > UNSUBSCRIBED && pidx < pFirst[l]) {
+            l--;
+        }
+        return l;
+    }
+
+    /**
+     * Move the propagator at position <i>pidx</i>, from level <i>from</i> to level <i>to</i>,
+     * by swapping it with the propagators at the frontier of the levels in between.
+     */
+    private void move(int pidx, int from, int to) {
+        for (int l = from; l > to; l--) {
+            swap(pidx, pFirst[l]);
+            pidx = pFirst[l]++;
+        }
+        for (int l = from + 1; l <= to; l++) {
+            swap(pidx, --pFirst[l]);
+            pidx = pFirst[l];
+        }
+    }
+
+    private void swap(int i, int j) {
+        if (i != j) {
+            Propagator p = propagators[i];
+            propagators[i] = propagators[j];
+            propagators[j] = p;
+            int k = pindices[i];
+            pindices[i] = pindices[j];
+            pindices[j] = k;
+            k = plevels[i];
+            plevels[i] = plevels[j];
+            plevels[j] = k;
+            propagators[i].setVIndices(pindices[i], i);
+            propagators[j].setVIndices(pindices[j], j);
+        }
+    }
+
+    private void log(Propagator p, int idx) {
+        IEnvironment environment = solver.getEnvironment();
+        int wi = environment.getWorldIndex();
+        if (slogWorld != wi) {
+            if (slogUndo == null) {
+                slogProps = new Propagator[8];
+                slogIdx = new int[8];
+                slogMarks = new int[8];
+                environment.addMemoryFootprint(8L * (ITrailStorage.SIZEOF_REF + 4) + 8L * 4);
+                slogUndo = new Operation() {
+                    @Override
+                    public void undo() {
+                        undoSubscriptions();
+                    }
+
+                    @Override
+                    public void commit(int worldIndex) {
+                        // the next (un)subscriptions in a world above worldIndex must be logged in a new mark
+                        if (slogWorld > worldIndex) {
+                            slogWorld = worldIndex;
+                        }
+                    }
+                };
+            } else if (nbSlogMarks == slogMarks.length) {
+                environment.addMemoryFootprint(nbSlogMarks * 4L);
+                slogMarks = Arrays.copyOf(slogMarks, nbSlogMarks * 2);
+            }
+            slogMarks[nbSlogMarks++] = slogSize;
+            slogMarks[nbSlogMarks++] = slogWorld;
+            slogWorld = wi;
+            environment.save(slogUndo);
+        }
+        if (slogSize == slogProps.length) {
+            int n = slogSize * 3 / 2 + 1;
+            environment.addMemoryFootprint((long) (n - slogSize) * (ITrailStorage.SIZEOF_REF + 4));
+            slogProps = Arrays.copyOf(slogProps, n);
+            slogIdx = Arrays.copyOf(slogIdx, n);
+        }
+        slogProps[slogSize] = p;
+        slogIdx[slogSize++] = idx;
+    }
+
+    private void undoSubscriptions() {
+        slogWorld = slogMarks[--nbSlogMarks];
+        int from = slogMarks[--nbSlogMarks];
+        while (slogSize > from) {
+            Propagator p = slogProps[--slogSize];
+            slogProps[slogSize] = null;
+            int idx = slogIdx[slogSize];
+            boolean unsubscribed = idx >= 0;
+            if (!unsubscribed) {
+                idx = ~idx;
+            }
+            int pidx = p.getVIndices()[idx];
+            // the propagator may have been unlinked in the meantime
+            // and a non-backtrackable (un)subscription may have been made since
+            if (pidx > -1 && pidx < pIdx && propagators[pidx] == p && pindices[pidx] == idx) {
+                int current = levelOf(pidx);
+                if (unsubscribed && current == UNSUBSCRIBED) {
+                    move(pidx, UNSUBSCRIBED, plevels[pidx]);
+                } else if (!unsubscribed && current != UNSUBSCRIBED) {
+                    move(pidx, current, UNSUBSCRIBED);
+                }
+            }
+        }
+    }
+
     @Override
     public Propagator[] getPropagators() {
         if (propagators.length > pIdx) {
@@ -179,6 +379,10 @@ public abstract class AbstractVariable implements Variable {
 	@Override
     public void notifyPropagators(IEventType event, ICause cause) throws ContradictionException {
         assert cause != null;
+        if (cause instanceof Propagator) {
+            // a modification is counted once: the other variables and views are notified on behalf of a view
+            ((Propagator) cause).nbPrunings++;
+        }
         notifyMonitors(event);
         if ((modificationEvents & event.getMask()) != 0) {
             solver.getEngine().onVariableUpdate(this, event, cause);
@@ -189,16 +393,9 @@ public abstract class AbstractVariable implements Variable {
     @Override
     public void notifyViews(IEventType event, ICause cause) throws ContradictionException {
         assert cause != null;
-        if (cause == Cause.Null) {
-            for (int i = vIdx - 1; i >= 0; i--) {
-                views[i].transformEvent(event, cause);
-            }
-        } else {
-            for (int i = vIdx - 1; i >= 0; i--) {
-                if (views[i] != cause) { // reference is enough
-                    views[i].transformEvent(event, cause);
-                }
-            }
+        // the view used for the modification, if any, is notified too: it does not notify its propagators by itself
+        for (int i = vIdx - 1; i >= 0; i--) {
+            views[i].transformEvent(event, cause);
         }
     }
 
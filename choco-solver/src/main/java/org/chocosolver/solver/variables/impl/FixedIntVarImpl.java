@@ -224,6 +224,18 @@ public class FixedIntVarImpl extends AbstractVariable implements IntVar {
     public void recordMask(int mask) {
     }
 
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void setPropagationConditions(int pidx, int mask) {
+    }
+
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void unsubscribe(int pidx, boolean backtrackable) {
+    }
+
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void subscribe(int pidx, boolean backtrackable) {
+    }
+
     @Override
     public IIntDeltaMonitor monitorDelta(ICause propagator) {
         return IIntDeltaMonitor.Default.NONE;
@@ -182,6 +182,18 @@ public class FixedSetVarImpl extends AbstractVariable implements SetVar {
     public void subscribeView(IView view) {
     }
 
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void setPropagationConditions(int pidx, int mask) {
+    }
+
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void unsubscribe(int pidx, boolean backtrackable) {
+    }
+
+    @Override//void (a constant receives no event), and its propagators may belong to independent components
+    public void subscribe(int pidx, boolean backtrackable) {
+    }
+
     @Override
     public void explain(ExplanationEngine xengine, VariableState what, Explanation to) {
         throw new UnsupportedOperationException("SetConstantView does not (yet) implement method explain(...)");
@@ -40,7 +40,6 @@ import org.chocosolver.solver.variables.Variable;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.delta.NoDelta;
-import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.ESat;
 
 /**
@@ -66,29 +65,17 @@ public final class BoolNotView extends IntView implements BoolVar {
 
     @Override
     public boolean setToTrue(ICause cause) throws ContradictionException {
-        if (var.setToFalse(this)) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.setToFalse(through(cause));
     }
 
     @Override
     public boolean setToFalse(ICause cause) throws ContradictionException {
-        if (var.setToTrue(this)) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.setToTrue(through(cause));
     }
 
     @Override
     public boolean removeValue(int value, ICause cause) throws ContradictionException {
-        if (var.removeValue(1 - value, this)) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.removeValue(1 - value, through(cause));
     }
 
     @Override
@@ -110,33 +97,17 @@ public final class BoolNotView extends IntView implements BoolVar {
 
     @Override
     public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
-        if (var.instantiateTo(1 - value, this)) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.instantiateTo(1 - value, through(cause));
     }
 
     @Override
     public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
-        if (value > 0) {
-            if (var.instantiateTo(1 - value, this)) {
-                notifyPropagators(IntEventType.INSTANTIATE, cause);
-                return true;
-            }
-        }
-        return false;
+        return value > 0 && var.instantiateTo(1 - value, through(cause));
     }
 
     @Override
     public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
-        if (value < 1) {
-            if (var.instantiateTo(1 - value, this)) {
-                notifyPropagators(IntEventType.INSTANTIATE, cause);
-                return true;
-            }
-        }
-        return false;
+        return value < 1 && var.instantiateTo(1 - value, through(cause));
     }
 
     @Override
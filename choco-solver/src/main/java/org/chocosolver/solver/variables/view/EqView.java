@@ -38,7 +38,6 @@ import org.chocosolver.solver.explanations.VariableState;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
-import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 
@@ -63,26 +62,7 @@ public class EqView extends IntView {
     @Override
     public boolean removeValue(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int inf = getLB();
-        int sup = getUB();
-        if (inf <= value && value <= sup) {
-			IntEventType e = IntEventType.REMOVE;
-
-            boolean done = var.removeValue(value, this);
-            if (done) {
-                if (value == inf) {
-                    e = IntEventType.INCLOW;
-                } else if (value == sup) {
-                    e = IntEventType.DECUPP;
-                }
-                if (this.isInstantiated()) {
-                    e = IntEventType.INSTANTIATE;
-                }
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.removeValue(value, through(cause));
     }
 
     @Override
@@ -93,61 +73,26 @@ public class EqView extends IntView {
         } else if (getUB() <= to) {
             return updateUpperBound(from - 1, cause);
         } else {
-            boolean done = var.removeInterval(from, to, this);
-            if (done) {
-                notifyPropagators(IntEventType.REMOVE, cause);
-            }
-            return done;
+            return var.removeInterval(from, to, through(cause));
         }
     }
 
     @Override
     public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        boolean done = var.instantiateTo(value, this);
-        if (done) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-
-        return false;
+        return var.instantiateTo(value, through(cause));
     }
 
     @Override
     public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getLB();
-        if (old < value) {
-			IntEventType e = IntEventType.INCLOW;
-            boolean done = var.updateLowerBound(value, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        //        }
-        return false;
+        return var.updateLowerBound(value, through(cause));
     }
 
     @Override
     public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getUB();
-        if (old > value) {
-			IntEventType e = IntEventType.DECUPP;
-            boolean done = var.updateUpperBound(value, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateUpperBound(value, through(cause));
     }
 
     @Override
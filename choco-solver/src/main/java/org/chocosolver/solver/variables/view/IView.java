@@ -54,10 +54,16 @@ public interface IView extends ICause, Variable {
     Variable getVariable();
 
     /**
-     * Transform the original event wrt the view
+     * Transform the original event wrt the view, and notify the propagators of the view.
+     * <p/>
+     * A view modifies its variable on its own behalf, then the variable dispatches the event
+     * to its propagators and to all its views: a variable and its views form a single notification unit.
+     * As when each of them notified its own propagators, only the propagators of the variable or view
+     * actually modified are notified on behalf of the original cause, the other ones are notified
+     * on behalf of the view used for the modification, or of the notified view itself.
      *
      * @param evt   original event
-     * @param cause cause of the modification
+     * @param cause cause of the modification of the variable: the original one, or the view used for it
      * @throws ContradictionException can encounter a contradiction
      */
     void transformEvent(IEventType evt, ICause cause) throws ContradictionException;
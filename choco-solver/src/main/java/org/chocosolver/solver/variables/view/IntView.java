@@ -72,6 +72,8 @@ public abstract class IntView extends AbstractVariable implements IView, IntVar
 
     protected DisposableRangeIterator _riterator;
 
+    private ICause modifier; // cause of the last modification of the variable made through this view
+
     public IntView(String name, IntVar var, Solver solver) {
         super(name, solver);
         this.var = var;
@@ -132,9 +134,30 @@ public abstract class IntView extends AbstractVariable implements IView, IntVar
         }
     }
 
+    /**
+     * Record <i>cause</i> as the cause of a modification of the variable made through this view.
+     *
+     * @param cause cause of the modification of this view
+     * @return this view, the cause of the modification of the variable
+     */
+    protected final ICause through(ICause cause) {
+        modifier = cause;
+        return this;
+    }
+
+    /**
+     * @param cause cause of the modification of the variable
+     * @return the cause to notify the propagators of this view with
+     */
+    protected final ICause causeOf(ICause cause) {
+        // like the ones of the variable, propagators are notified on behalf of the view used for the modification,
+        // except the ones of this view itself, which are notified on behalf of the original cause
+        return cause == this ? modifier : this;
+    }
+
     @Override
     public void transformEvent(IEventType evt, ICause cause) throws ContradictionException {
-        notifyPropagators(evt, this);
+        notifyPropagators(evt, causeOf(cause));
     }
 
     @Override
@@ -78,27 +78,7 @@ public class MinusView extends IntView {
 
     @Override
     public boolean removeValue(int value, ICause cause) throws ContradictionException {
-        int inf = getLB();
-        int sup = getUB();
-        if (inf <= value && value <= sup) {
-			IntEventType e = IntEventType.REMOVE;
-
-            boolean done = var.removeValue(-value, this);
-
-            if (value == inf) {
-                e = IntEventType.INCLOW;
-            } else if (value == sup) {
-                e = IntEventType.DECUPP;
-            }
-            if (done) {
-                if (this.isInstantiated()) {
-                    e = IntEventType.INSTANTIATE;
-                }
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.removeValue(-value, through(cause));
     }
 
     @Override
@@ -108,56 +88,23 @@ public class MinusView extends IntView {
         } else if (getUB() <= to) {
             return updateUpperBound(from - 1, cause);
         } else {
-            boolean done = var.removeInterval(-to, -from, this);
-            if (done) {
-                notifyPropagators(IntEventType.REMOVE, cause);
-            }
-            return done;
+            return var.removeInterval(-to, -from, through(cause));
         }
     }
 
     @Override
     public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
-        boolean done = var.instantiateTo(-value, this);
-        if (done) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.instantiateTo(-value, through(cause));
     }
 
     @Override
     public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
-        int old = this.getLB();
-        if (old < value) {
-			IntEventType e = IntEventType.INCLOW;
-            boolean done = var.updateUpperBound(-value, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateUpperBound(-value, through(cause));
     }
 
     @Override
     public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
-        int old = this.getUB();
-        if (old > value) {
-			IntEventType e = IntEventType.DECUPP;
-            boolean done = var.updateLowerBound(-value, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateLowerBound(-value, through(cause));
     }
 
     @Override
@@ -363,6 +310,6 @@ public class MinusView extends IntView {
         } else if (evt == IntEventType.DECUPP) {
             evt = IntEventType.INCLOW;
         }
-        notifyPropagators(evt, this);
+        notifyPropagators(evt, causeOf(cause));
     }
 }
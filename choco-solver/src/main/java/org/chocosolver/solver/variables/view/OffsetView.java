@@ -39,7 +39,6 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.solver.variables.delta.IIntDeltaMonitor;
 import org.chocosolver.solver.variables.delta.NoDelta;
-import org.chocosolver.solver.variables.events.IntEventType;
 import org.chocosolver.util.iterators.DisposableRangeIterator;
 import org.chocosolver.util.iterators.DisposableValueIterator;
 
@@ -82,26 +81,7 @@ public final class OffsetView extends IntView {
     @Override
     public boolean removeValue(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int inf = getLB();
-        int sup = getUB();
-        if (inf <= value && value <= sup) {
-			IntEventType e = IntEventType.REMOVE;
-
-            boolean done = var.removeValue(value - cste, this);
-            if (done) {
-                if (value == inf) {
-                    e = IntEventType.INCLOW;
-                } else if (value == sup) {
-                    e = IntEventType.DECUPP;
-                }
-                if (this.isInstantiated()) {
-                    e = IntEventType.INSTANTIATE;
-                }
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.removeValue(value - cste, through(cause));
     }
 
     @Override
@@ -112,61 +92,26 @@ public final class OffsetView extends IntView {
         } else if (getUB() <= to) {
             return updateUpperBound(from - 1, cause);
         } else {
-            boolean done = var.removeInterval(from - cste, to - cste, this);
-            if (done) {
-                notifyPropagators(IntEventType.REMOVE, cause);
-            }
-            return done;
+            return var.removeInterval(from - cste, to - cste, through(cause));
         }
     }
 
     @Override
     public boolean instantiateTo(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        boolean done = var.instantiateTo(value - cste, this);
-        if (done) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-
-        return false;
+        return var.instantiateTo(value - cste, through(cause));
     }
 
     @Override
     public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getLB();
-        if (old < value) {
-			IntEventType e = IntEventType.INCLOW;
-            boolean done = var.updateLowerBound(value - cste, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-//        }
-        return false;
+        return var.updateLowerBound(value - cste, through(cause));
     }
 
     @Override
     public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getUB();
-        if (old > value) {
-			IntEventType e = IntEventType.DECUPP;
-            boolean done = var.updateUpperBound(value - cste, this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateUpperBound(value - cste, through(cause));
     }
 
     @Override
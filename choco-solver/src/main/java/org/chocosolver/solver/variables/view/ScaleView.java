@@ -82,28 +82,7 @@ public final class ScaleView extends IntView {
     @Override
     public boolean removeValue(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        if (value % cste == 0) {
-            int inf = getLB();
-            int sup = getUB();
-            if (inf <= value && value <= sup) {
-				IntEventType e = IntEventType.REMOVE;
-
-                boolean done = var.removeValue(value / cste, this);
-                if (done) {
-                    if (value == inf) {
-                        e = IntEventType.INCLOW;
-                    } else if (value == sup) {
-                        e = IntEventType.DECUPP;
-                    }
-                    if (this.isInstantiated()) {
-                        e = IntEventType.INSTANTIATE;
-                    }
-                    this.notifyPropagators(e, cause);
-                    return true;
-                }
-            }
-        }
-        return false;
+        return value % cste == 0 && var.removeValue(value / cste, through(cause));
     }
 
     @Override
@@ -114,11 +93,7 @@ public final class ScaleView extends IntView {
         } else if (getUB() <= to) {
             return updateUpperBound(from - 1, cause);
         } else {
-            boolean done = var.removeInterval(MathUtils.divCeil(from, cste), MathUtils.divFloor(to, cste), this);
-            if (done) {
-                notifyPropagators(IntEventType.REMOVE, cause);
-            }
-            return done;
+            return var.removeInterval(MathUtils.divCeil(from, cste), MathUtils.divFloor(to, cste), through(cause));
         }
     }
 
@@ -128,48 +103,19 @@ public final class ScaleView extends IntView {
         if (value % cste != 0) {
             contradiction(cause, IntEventType.INSTANTIATE, "Not a multiple of " + cste);
         }
-        boolean done = var.instantiateTo(value / cste, this);
-        if (done) {
-            notifyPropagators(IntEventType.INSTANTIATE, cause);
-            return true;
-        }
-        return false;
+        return var.instantiateTo(value / cste, through(cause));
     }
 
     @Override
     public boolean updateLowerBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getLB();
-        if (old < value) {
-			IntEventType e = IntEventType.INCLOW;
-            boolean done = var.updateLowerBound(MathUtils.divCeil(value, cste), this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateLowerBound(MathUtils.divCeil(value, cste), through(cause));
     }
 
     @Override
     public boolean updateUpperBound(int value, ICause cause) throws ContradictionException {
         assert cause != null;
-        int old = this.getUB();
-        if (old > value) {
-			IntEventType e = IntEventType.DECUPP;
-            boolean done = var.updateUpperBound(MathUtils.divFloor(value, cste), this);
-            if (isInstantiated()) {
-                e = IntEventType.INSTANTIATE;
-            }
-            if (done) {
-                this.notifyPropagators(e, cause);
-                return true;
-            }
-        }
-        return false;
+        return var.updateUpperBound(MathUtils.divFloor(value, cste), through(cause));
     }
 
     @Override
@@ -48,7 +48,7 @@ public class DoubleMinHeap {
         elts = new int[max + 1];
         posOf = new int[max + 1];
         size = 0;
-        keys[0] = Integer.MIN_VALUE;
+        keys[0] = Double.NEGATIVE_INFINITY;
         elts[0] = Integer.MIN_VALUE;
     }
 
@@ -157,6 +157,13 @@ public class DoubleMinHeap {
         System.out.println();
     }
 
+    /**
+     * @return the element with the smallest key, the heap should not be empty
+     */
+    public int min() {
+        return elts[1];
+    }
+
     public int removemin() {
         if (PRINT) System.out.printf("<< REM MIN\n");
         if (PRINT) print();
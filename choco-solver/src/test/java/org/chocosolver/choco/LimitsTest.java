@@ -31,10 +31,13 @@ package org.chocosolver.choco;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.loop.ISearchLoop;
 import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.loop.monitors.SearchMonitorFactory;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.ESat;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -128,6 +131,91 @@ public class LimitsTest {
         Assert.assertEquals(sc, sl);
     }
 
+    @Test(groups = "1s")
+    public void testTrailMemory() {
+        Solver s = modelit();
+        SearchMonitorFactory.limitTrailMemory(s, 1);
+        s.findAllSolutions();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertTrue(s.getMeasures().getTrailMemory() > 1);
+
+        s = modelit();
+        SearchMonitorFactory.limitTrailMemory(s, 64L * 1024 * 1024);
+        s.findAllSolutions();
+        Assert.assertFalse(s.hasReachedLimit());
+        Assert.assertEquals(s.getMeasures().getSolutionCount(), 14200);
+    }
+
+    /**
+     * A model whose initial propagation runs a very large number of revisions
+     * before detecting the infeasibility.
+     */
+    private static Solver pingpong() {
+        return pingpong(100_000_000);
+    }
+
+    private static Solver pingpong(int ub) {
+        Solver solver = new Solver();
+        IntVar x = VariableFactory.bounded("x", 0, ub, solver);
+        IntVar y = VariableFactory.bounded("y", 0, ub, solver);
+        solver.post(IntConstraintFactory.arithm(x, "<", y));
+        solver.post(IntConstraintFactory.arithm(y, "<", x));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testTimeInPropagation() {
+        Solver s = pingpong();
+        long tl = 100;
+        SearchMonitorFactory.limitTime(s, tl);
+        s.findSolution();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertEquals(s.isFeasible(), ESat.UNDEFINED);
+        int tc = (int) (s.getMeasures().getTimeCount() * 1000);
+        Assert.assertTrue(tc <= tl + (tl * 50 / 100), tl + " vs. " + tc);
+    }
+
+    @Test(groups = "1s")
+    public void testThreadTimeInPropagation() {
+        Solver s = pingpong();
+        long tl = 100;
+        SearchMonitorFactory.limitThreadTime(s, tl);
+        s.findSolution();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertEquals(s.isFeasible(), ESat.UNDEFINED);
+        int tc = (int) (s.getMeasures().getTimeCount() * 1000);
+        Assert.assertTrue(tc <= tl + (tl * 50 / 100), tl + " vs. " + tc);
+    }
+
+    @Test(groups = "1s")
+    public void testPropagation() {
+        Solver s = pingpong();
+        SearchMonitorFactory.limitPropagation(s, 10000);
+        s.findSolution();
+        Assert.assertTrue(s.hasReachedLimit());
+        Assert.assertEquals(s.isFeasible(), ESat.UNDEFINED);
+
+        s = modelit();
+        SearchMonitorFactory.limitPropagation(s, 100000);
+        s.findAllSolutions();
+        Assert.assertFalse(s.hasReachedLimit());
+        Assert.assertEquals(s.getMeasures().getSolutionCount(), 14200);
+    }
+
+    @Test(groups = "1s")
+    public void testPropagationOutOfSearch() {
+        // only the propagation of a node is abandoned, any other one reaches its fix-point
+        Solver s = pingpong(100_000);
+        SearchMonitorFactory.limitPropagation(s, 1000);
+        try {
+            s.propagate();
+            Assert.fail();
+        } catch (ContradictionException e) {
+            Assert.assertNotEquals(e.s, ISearchLoop.MSG_LIMIT);
+        }
+        Assert.assertTrue(s.hasReachedLimit());
+    }
+
     @Test(groups = "1s")
     public void durationTest() {
         long d = SMF.convertInMilliseconds("0.50s");
@@ -38,6 +38,7 @@ import org.chocosolver.solver.explanations.ExplanationFactory;
 import org.chocosolver.solver.explanations.PropagatorActivation;
 import org.chocosolver.solver.explanations.RecorderExplanationEngine;
 import org.chocosolver.solver.explanations.strategies.ConflictBasedBackjumping;
+import org.chocosolver.solver.explanations.strategies.ConflictBasedLearning;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.trace.Chatterbox;
 import org.chocosolver.solver.variables.BoolVar;
@@ -61,7 +62,8 @@ import java.util.List;
  */
 public class ExplanationTest {
 
-    private final ExplanationFactory[] engines = {ExplanationFactory.NONE, ExplanationFactory.CBJ, ExplanationFactory.DBT};
+    private final ExplanationFactory[] engines = {ExplanationFactory.NONE, ExplanationFactory.CBJ, ExplanationFactory.LEARN,
+            ExplanationFactory.DBT};
 
     @Test(groups = "10s")
     public void testNosol0() {
@@ -280,6 +282,48 @@ public class ExplanationTest {
         }
     }
 
+    @Test(groups = "1s")
+    public void testLearning() {
+        for (int max : new int[]{2, 1000}) {
+            for (long seed = 0; seed < 10; seed++) {
+                // all solutions are found, whatever the nogoods learnt and forgotten
+                Solver solver = new Solver();
+                int n = 8;
+                IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+                for (int i = 0; i < n - 1; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        solver.post(ICF.arithm(q[i], "!=", q[j]));
+                        solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                        solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+                    }
+                }
+                solver.set(ISF.random_value(q, seed));
+                ExplanationFactory.plugExpl(solver, false, false);
+                ConflictBasedLearning cbl = new ConflictBasedLearning(solver.getExplainer(), max);
+                Assert.assertEquals(solver.findAllSolutions(), 92);
+                Assert.assertTrue(cbl.getNbLearntNogoods() > 0);
+            }
+
+            // learnt nogoods prune the search space explored by conflict-based backjumping
+            long[] nodes = new long[2];
+            for (int l = 0; l < 2; l++) {
+                Solver solver = new Solver();
+                IntVar[] pigeons = VF.enumeratedArray("p", 7, 0, 5, solver);
+                solver.post(ICF.alldifferent(pigeons, "NEQS"));
+                solver.set(ISF.lexico_LB(pigeons));
+                ExplanationFactory.plugExpl(solver, false, false);
+                if (l == 0) {
+                    new ConflictBasedBackjumping(solver.getExplainer());
+                } else {
+                    new ConflictBasedLearning(solver.getExplainer(), max);
+                }
+                Assert.assertFalse(solver.findSolution());
+                nodes[l] = solver.getMeasures().getNodeCount();
+            }
+            Assert.assertTrue(nodes[1] <= nodes[0], nodes[1] + " vs. " + nodes[0]);
+        }
+    }
+
     @Test(groups = "1s")
     public void testLazy() {
         Solver solver = new Solver();
@@ -33,6 +33,8 @@ import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.set.SetConstraintsFactory;
 import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.assignments.DecisionOperator;
@@ -49,6 +51,7 @@ import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.SetVar;
 import org.chocosolver.solver.variables.VF;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.tools.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -362,4 +365,52 @@ public class StrategyTest {
         double va = eval.evaluate(v1);
         Assert.assertEquals(-5.0, va);
     }
+
+    @Test(groups = "1s")
+    public void testConflictDriven1() {
+        Solver solver = new Solver();
+        int n = 8;
+        IntVar[] q = VF.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+            }
+        }
+        solver.set(ISF.conflictDriven(q));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+    }
+
+    @Test(groups = "1s")
+    public void testConflictDrivenRestart() {
+        Solver solver = new Solver();
+        IntVar[] p = VF.enumeratedArray("p", 7, 0, 5, solver);
+        solver.post(ICF.alldifferent(p, "NEQS"));
+        solver.set(ISF.conflictDriven(p));
+        SMF.luby(solver, 2, 2, new FailCounter(2), 100);
+        Assert.assertFalse(solver.findSolution());
+        Assert.assertTrue(solver.getMeasures().getRestartCount() > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testConflictDriven2() {
+        Solver solver = new Solver();
+        IntVar[] x = VF.enumeratedArray("x", 5, 0, 3, solver);
+        IntVar[] y = VF.enumeratedArray("y", 5, 0, 4, solver);
+        solver.post(ICF.alldifferent(x, "NEQS"));
+        solver.post(ICF.arithm(y[0], "<", y[1]));
+        IntVar[] all = ArrayUtils.append(y, x);
+        ConflictDriven cd = new ConflictDriven(all, 0.9d, new IntDomainMin());
+        solver.set(cd);
+        Assert.assertFalse(solver.findSolution());
+        // only the variables involved in failures are bumped
+        for (int i = 0; i < x.length; i++) {
+            Assert.assertTrue(cd.getScore(x[i]) > x[i].getNbProps());
+        }
+        for (int i = 2; i < y.length; i++) {
+            Assert.assertEquals(cd.getScore(y[i]), (double) y[i].getNbProps());
+        }
+    }
 }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentCheckpointTrailing;
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class CheckpointTrailTest {
+
+    @Test(groups = "1s")
+    public void testRandom() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            IEnvironment[] envs = {new EnvironmentTrailing(), new EnvironmentCheckpointTrailing(3)};
+            IStateInt[][] ints = new IStateInt[2][10];
+            IStateLong[][] longs = new IStateLong[2][10];
+            IStateBool[][] bools = new IStateBool[2][10];
+            for (int e = 0; e < 2; e++) {
+                for (int i = 0; i < 10; i++) {
+                    ints[e][i] = envs[e].makeInt(i);
+                    longs[e][i] = envs[e].makeLong(i);
+                    bools[e][i] = envs[e].makeBool(false);
+                }
+            }
+            for (int k = 0; k < 2000; k++) {
+                int action = rnd.nextInt(10);
+                int i = rnd.nextInt(10);
+                int v = rnd.nextInt(100);
+                int w = envs[0].getWorldIndex() == 0 ? 0 : rnd.nextInt(envs[0].getWorldIndex());
+                for (int e = 0; e < 2; e++) {
+                    if (action < 3) {
+                        envs[e].worldPush();
+                    } else if (action < 4 && envs[e].getWorldIndex() > 0) {
+                        envs[e].worldPop();
+                    } else if (action < 5) {
+                        envs[e].worldPopUntil(w);
+                    } else {
+                        ints[e][i].set(v);
+                        longs[e][i].set(v * 1000L);
+                        bools[e][i].set(v % 2 == 0);
+                    }
+                }
+                Assert.assertEquals(envs[1].getWorldIndex(), envs[0].getWorldIndex());
+                for (int j = 0; j < 10; j++) {
+                    Assert.assertEquals(ints[1][j].get(), ints[0][j].get());
+                    Assert.assertEquals(longs[1][j].get(), longs[0][j].get());
+                    Assert.assertEquals(bools[1][j].get(), bools[0][j].get());
+                }
+            }
+            Assert.assertTrue(((EnvironmentCheckpointTrailing) envs[1]).getRestoreCount() > 0);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCreatedAfterSnapshot() {
+        EnvironmentCheckpointTrailing env = new EnvironmentCheckpointTrailing(2);
+        IStateInt a = env.makeInt(0);
+        env.worldPush();
+        env.worldPush();
+        a.set(2);
+        IStateInt b = env.makeInt(0);
+        env.worldPush();
+        a.set(3);
+        b.set(3);
+        env.worldPopUntil(0);
+        Assert.assertEquals(a.get(), 0);
+        Assert.assertEquals(env.getRestoreCount(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testRestarts() {
+        long[] nodes = new long[2];
+        IEnvironment[] envs = {new EnvironmentTrailing(), new EnvironmentCheckpointTrailing(4)};
+        for (int k = 0; k < envs.length; k++) {
+            Solver solver = new Solver(envs[k], "queens");
+            IntVar[] q = VF.enumeratedArray("q", 30, 1, 30, solver);
+            for (int i = 0; i < 30; i++) {
+                for (int j = i + 1; j < 30; j++) {
+                    solver.post(ICF.arithm(q[i], "!=", q[j]));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+                }
+            }
+            solver.set(ISF.random_value(q, 0));
+            SMF.luby(solver, 2, 2, new FailCounter(2), 25000);
+            Assert.assertTrue(solver.findSolution());
+            nodes[k] = solver.getMeasures().getNodeCount();
+        }
+        Assert.assertEquals(nodes[1], nodes[0]);
+        Assert.assertTrue(((EnvironmentCheckpointTrailing) envs[1]).getRestoreCount() > 0);
+    }
+
+    @Test(groups = "1s")
+    public void testDuplicate() {
+        Solver solver = new Solver(new EnvironmentCheckpointTrailing(5), "copy");
+        IntVar x = VF.enumerated("x", 0, 3, solver);
+        solver.post(ICF.arithm(x, ">", 1));
+        Solver copy = solver.duplicateModel();
+        Assert.assertTrue(copy.getEnvironment() instanceof EnvironmentCheckpointTrailing);
+        Assert.assertNotSame(copy.getEnvironment(), solver.getEnvironment());
+        Assert.assertEquals(((EnvironmentCheckpointTrailing) copy.getEnvironment()).getPeriod(), 5);
+        Assert.assertEquals(copy.getEnvironment().getWorldIndex(), 0);
+    }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentOffHeapTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class OffHeapTrailTest {
+
+    @Test(groups = "1s")
+    public void testPushPop() {
+        IEnvironment environment = Environments.OFFHEAP_TRAIL.make();
+        Assert.assertTrue(environment instanceof EnvironmentOffHeapTrailing);
+        IStateInt i = environment.makeInt(1);
+        IStateBool b = environment.makeBool(false);
+        IStateLong l = environment.makeLong(1L << 40);
+        IStateDouble d = environment.makeFloat(.5);
+
+        environment.worldPush();
+        i.set(2);
+        b.set(true);
+        l.set(-1);
+        d.set(Double.NEGATIVE_INFINITY);
+        environment.worldPush();
+        // more updates than a chunk can hold
+        for (int k = 0; k < 50000; k++) {
+            environment.worldPush();
+            i.set(k);
+            l.set(k * 3L);
+            d.set(k / 2.);
+            b.set(k % 2 == 0);
+        }
+        for (int k = 49999; k > 0; k--) {
+            environment.worldPop();
+            Assert.assertEquals(i.get(), k - 1);
+            Assert.assertEquals(l.get(), (k - 1) * 3L);
+            Assert.assertEquals(d.get(), (k - 1) / 2.);
+            Assert.assertEquals(b.get(), (k - 1) % 2 == 0);
+        }
+        environment.worldPop();
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 2);
+        Assert.assertTrue(b.get());
+        Assert.assertEquals(l.get(), -1);
+        Assert.assertEquals(d.get(), Double.NEGATIVE_INFINITY);
+
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 1);
+        Assert.assertFalse(b.get());
+        Assert.assertEquals(l.get(), 1L << 40);
+        Assert.assertEquals(d.get(), .5);
+    }
+
+    @Test(groups = "1s")
+    public void testFakeHistory() {
+        IEnvironment environment = Environments.OFFHEAP_TRAIL.make();
+        environment.buildFakeHistoryOn(new Except_0(environment));
+        IStateInt a = environment.makeInt(10);
+        a.set(11);
+        environment.worldPush();
+        IStateBool b = environment.makeBool(true);
+        a.set(12);
+        b.set(false);
+        environment.worldPush();
+        IStateInt c = environment.makeInt(32);
+        a.set(13);
+        b.set(true);
+        c.set(33);
+
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 12);
+        Assert.assertFalse(b.get());
+        Assert.assertEquals(c.get(), 32);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 11);
+        Assert.assertTrue(b.get());
+        Assert.assertEquals(c.get(), 32);
+    }
+
+    @Test(groups = "1s")
+    public void testSameSearch() {
+        long[] nodes = new long[2];
+        Environments[] envs = {Environments.TRAIL, Environments.OFFHEAP_TRAIL};
+        for (int k = 0; k < envs.length; k++) {
+            Solver solver = new Solver(envs[k].make(), "queens");
+            IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+            for (int i = 0; i < 8; i++) {
+                for (int j = i + 1; j < 8; j++) {
+                    solver.post(ICF.arithm(q[i], "!=", q[j]));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+                }
+            }
+            Assert.assertTrue(solver.duplicateModel().getEnvironment().getClass() == envs[k].make().getClass());
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            nodes[k] = solver.getMeasures().getNodeCount();
+        }
+        Assert.assertEquals(nodes[1], nodes[0]);
+    }
+
+    @Test(groups = "1s")
+    public void testCommit() {
+        Environments[] envs = {Environments.TRAIL, Environments.OFFHEAP_TRAIL};
+        int[][] values = new int[2][];
+        for (int k = 0; k < envs.length; k++) {
+            IEnvironment environment = envs[k].make();
+            IStateInt[] is = new IStateInt[7];
+            IStateLong l = environment.makeLong(0);
+            for (int j = 0; j < is.length; j++) {
+                is[j] = environment.makeInt(j);
+            }
+            Random random = new Random(0);
+            values[k] = new int[3000 + is.length + 1];
+            // enough updates to commit across chunks
+            for (int n = 0; n < 3000; n++) {
+                int r = random.nextInt(10);
+                if (r < 4 || environment.getWorldIndex() == 0) {
+                    environment.worldPush();
+                    for (int m = random.nextInt(5000); m >= 0; m--) {
+                        is[m % is.length].add(1);
+                    }
+                    l.add(1);
+                } else if (r < 7) {
+                    environment.worldCommit();
+                } else {
+                    environment.worldPop();
+                }
+                values[k][n] = is[n % is.length].get() + (int) l.get();
+            }
+            while (environment.getWorldIndex() > 0) {
+                environment.worldPop();
+            }
+            // commits merged into world 0 are not undone
+            for (int j = 0; j < is.length; j++) {
+                values[k][3000 + j] = is[j].get();
+            }
+            values[k][3000 + is.length] = (int) l.get();
+        }
+        Assert.assertEquals(values[1], values[0]);
+    }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.structure.S64BitSet;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class S64BitSetTest {
+
+    private static void check(BitSet expected, S64BitSet actual) {
+        Assert.assertEquals(actual.copyToBitSet(), expected);
+        Assert.assertEquals(actual.cardinality(), expected.cardinality());
+        Assert.assertEquals(actual.length(), expected.length());
+    }
+
+    private static void random(Environments env, int seed) {
+        Random rnd = new Random(seed);
+        IEnvironment environment = env.make();
+        int n = 64 * 5 + 13;
+        S64BitSet bs = new S64BitSet(environment, n);
+        BitSet ref = new BitSet(n);
+        Deque<BitSet> stack = new ArrayDeque<>();
+        for (int k = 0; k < 3000; k++) {
+            int a = rnd.nextInt(n), b = rnd.nextInt(n);
+            int from = Math.min(a, b), to = Math.max(a, b);
+            long[] mask = new long[rnd.nextInt(7)];
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] = rnd.nextLong();
+            }
+            switch (rnd.nextInt(10)) {
+                case 0:
+                    environment.worldPush();
+                    stack.push((BitSet) ref.clone());
+                    break;
+                case 1:
+                    if (!stack.isEmpty()) {
+                        environment.worldPop();
+                        ref = stack.pop();
+                    }
+                    break;
+                case 2:
+                    bs.set(from, to);
+                    ref.set(from, to);
+                    break;
+                case 3:
+                    bs.clear(from, to);
+                    ref.clear(from, to);
+                    break;
+                case 4:
+                    bs.and(mask);
+                    ref.and(BitSet.valueOf(mask));
+                    break;
+                case 5:
+                    if (mask.length * 64 <= n) {
+                        bs.or(mask);
+                        ref.or(BitSet.valueOf(mask));
+                    }
+                    break;
+                case 6:
+                    bs.andNot(mask);
+                    ref.andNot(BitSet.valueOf(mask));
+                    break;
+                case 7:
+                    bs.flip(from, to);
+                    ref.flip(from, to);
+                    break;
+                default:
+                    bs.set(a, b % 2 == 0);
+                    ref.set(a, b % 2 == 0);
+                    break;
+            }
+            check(ref, bs);
+        }
+        while (!stack.isEmpty()) {
+            environment.worldPop();
+            ref = stack.pop();
+            check(ref, bs);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRandomTrail() {
+        for (int seed = 0; seed < 10; seed++) {
+            random(Environments.TRAIL, seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRandomCopy() {
+        for (int seed = 0; seed < 10; seed++) {
+            random(Environments.COPY, seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testBulk() {
+        IEnvironment environment = Environments.TRAIL.make();
+        S64BitSet bs = new S64BitSet(environment, 640);
+        bs.set(0, 640);
+        environment.worldPush();
+        bs.clear(10, 600);
+        bs.and(new long[]{-1L, 0xFFL});
+        bs.clear(3);
+        Assert.assertEquals(bs.cardinality(), 9);
+        environment.worldPush();
+        bs.or(new long[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 1L});
+        Assert.assertEquals(bs.nextSetBit(10), 576);
+        environment.worldPop();
+        Assert.assertEquals(bs.nextSetBit(10), -1);
+        environment.worldPop();
+        Assert.assertEquals(bs.cardinality(), 640);
+    }
+
+    @Test(groups = "1s")
+    public void testCommit() {
+        for (Environments env : new Environments[]{Environments.TRAIL, Environments.UNIFIED_TRAIL}) {
+            IEnvironment environment = env.make();
+            S64BitSet bs = new S64BitSet(environment, 128);
+            bs.set(0, 128);
+            environment.worldPush();
+            bs.clear(0);
+            environment.worldPush();
+            bs.clear(64);
+            bs.clear(1);
+            environment.worldCommit();
+            Assert.assertEquals(bs.nextSetBit(0), 2);
+            // the words modified in the committed world must be saved again in a new world
+            environment.worldPush();
+            bs.clear(2);
+            bs.clear(65);
+            environment.worldPop();
+            Assert.assertEquals(bs.nextSetBit(0), 2);
+            Assert.assertEquals(bs.nextSetBit(64), 65);
+            environment.worldPop();
+            Assert.assertEquals(bs.cardinality(), 128);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCreatedDuringSearch() {
+        IEnvironment environment = Environments.TRAIL.make();
+        environment.buildFakeHistoryOn(new Except_0(environment));
+        environment.worldPush();
+        S64BitSet bs = new S64BitSet(environment, 200);
+        bs.set(5, 150);
+        environment.worldPush();
+        bs.clear(5, 100);
+        Assert.assertEquals(bs.nextSetBit(0), 100);
+        environment.worldPop();
+        Assert.assertEquals(bs.nextSetBit(0), 5);
+        environment.worldPop();
+        Assert.assertTrue(bs.isEmpty());
+        Assert.assertEquals(bs.nextSetBit(0), -1);
+    }
+}
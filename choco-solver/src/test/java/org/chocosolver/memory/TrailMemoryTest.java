@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.trailing.EnvironmentTrailing;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.search.measure.IMeasures;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class TrailMemoryTest {
+
+    private static void fill(IEnvironment environment) {
+        IStateInt a = environment.makeInt(0);
+        IStateLong b = environment.makeLong(0);
+        for (int i = 1; i <= 200; i++) {
+            environment.worldPush();
+            a.set(i);
+            b.set(i);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testTrailing() {
+        for (Environments env : new Environments[]{Environments.TRAIL, Environments.UNIFIED_TRAIL,
+                Environments.OFFHEAP_TRAIL, Environments.CHECKPOINT_TRAIL}) {
+            IEnvironment environment = env.make();
+            Assert.assertEquals(environment.getMemoryFootprint(), 0);
+            fill(environment);
+            Assert.assertEquals(environment.getTrailSize(), 400, env.name());
+            long footprint = environment.getMemoryFootprint();
+            Assert.assertTrue(footprint > 0, env.name());
+            environment.worldPopUntil(10);
+            Assert.assertEquals(environment.getTrailSize(), 20, env.name());
+            Assert.assertEquals(environment.getPeakWorldIndex(), 200);
+            Assert.assertEquals(environment.getMemoryFootprint(), footprint);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testPerTrail() {
+        IEnvironment environment = Environments.TRAIL.make();
+        fill(environment);
+        Map<String, Long> footprints = environment.getMemoryFootprintPerTrail();
+        Assert.assertEquals(footprints.size(), 2);
+        Assert.assertTrue(footprints.get("StoredIntTrail") > 0);
+        Assert.assertTrue(footprints.get("StoredLongTrail") > footprints.get("StoredIntTrail"));
+        Assert.assertEquals(footprints.values().stream().mapToLong(Long::longValue).sum(),
+                environment.getMemoryFootprint());
+    }
+
+    @Test(groups = "1s")
+    public void testCopy() {
+        IEnvironment environment = Environments.COPY.make();
+        fill(environment);
+        Assert.assertEquals(environment.getPeakWorldIndex(), 200);
+        Assert.assertEquals(environment.getMemoryFootprint(), 0);
+        Assert.assertTrue(environment.getMemoryFootprintPerTrail().isEmpty());
+    }
+
+    @Test(groups = "1s")
+    public void testMeasures() {
+        Solver solver = new Solver();
+        IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+        for (int i = 0; i < 8; i++) {
+            for (int j = i + 1; j < 8; j++) {
+                solver.post(ICF.arithm(q[i], "!=", q[j]));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+            }
+        }
+        solver.findSolution();
+        IMeasures measures = solver.getMeasures();
+        Assert.assertEquals(measures.getPeakWorldIndex(), solver.getEnvironment().getPeakWorldIndex());
+        Assert.assertTrue(measures.getPeakWorldIndex() > 0);
+        Assert.assertFalse(measures.getTrailMemoryPerTrail().isEmpty());
+        String stats = measures.toString();
+        Assert.assertTrue(stats.contains("Peak world: "), stats);
+        for (String trail : measures.getTrailMemoryPerTrail().keySet()) {
+            Assert.assertTrue(stats.contains(trail + ": "), stats);
+        }
+    }
+
+    private static long reserved(EnvironmentTrailing environment) {
+        long trails = environment.getMemoryFootprintPerTrail().values().stream().mapToLong(Long::longValue).sum();
+        return environment.getMemoryFootprint() - trails;
+    }
+
+    @Test(groups = "1s")
+    public void testEnumerated() throws ContradictionException {
+        Solver solver = new Solver();
+        IntVar x = VF.enumerated("x", 0, 999, solver);
+        EnvironmentTrailing environment = (EnvironmentTrailing) solver.getEnvironment();
+        // the log of the bit set is reserved on creation
+        long reserved = reserved(environment);
+        Assert.assertTrue(reserved > 0);
+        for (int i = 0; i < 200; i++) {
+            environment.worldPush();
+            x.removeValue(5 * i, Cause.Null);
+        }
+        // the words are saved in the log of the bit set, only one operation per world is trailed
+        Assert.assertTrue(reserved(environment) > reserved + 200 * 16);
+    }
+
+    @Test(groups = "1s")
+    public void testCheckpoint() {
+        IEnvironment trail = Environments.TRAIL.make();
+        IEnvironment checkpoint = Environments.CHECKPOINT_TRAIL.make();
+        fill(trail);
+        fill(checkpoint);
+        // the snapshots are accounted for
+        Assert.assertTrue(checkpoint.getMemoryFootprint() > trail.getMemoryFootprint());
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.memory;
+
+import org.chocosolver.memory.structure.Operation;
+import org.chocosolver.memory.trailing.EnvironmentUnifiedTrailing;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class UnifiedTrailTest {
+
+    @Test(groups = "1s")
+    public void testPushPop() {
+        IEnvironment environment = Environments.UNIFIED_TRAIL.make();
+        Assert.assertTrue(environment instanceof EnvironmentUnifiedTrailing);
+        IStateInt i = environment.makeInt(1);
+        IStateBool b = environment.makeBool(false);
+        IStateLong l = environment.makeLong(1L << 40);
+        IStateDouble d = environment.makeFloat(.5);
+        IStateIntVector iv = environment.makeIntVector(3, 7);
+        IStateDoubleVector dv = environment.makeDoubleVector(3, 1.5);
+        int[] undone = new int[1];
+
+        environment.worldPush();
+        i.set(2);
+        b.set(true);
+        l.set(-1);
+        d.set(Double.NEGATIVE_INFINITY);
+        iv.quickSet(1, -7);
+        dv.quickSet(2, -1.5);
+        new Operation(environment) {
+            @Override
+            public void undo() {
+                undone[0]++;
+            }
+        };
+
+        environment.worldPush();
+        i.set(3);
+        iv.quickSet(1, 8);
+        iv.quickSet(2, 9);
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 2);
+        Assert.assertEquals(iv.quickGet(1), -7);
+        Assert.assertEquals(iv.quickGet(2), 7);
+        Assert.assertEquals(undone[0], 0);
+
+        environment.worldPop();
+        Assert.assertEquals(i.get(), 1);
+        Assert.assertFalse(b.get());
+        Assert.assertEquals(l.get(), 1L << 40);
+        Assert.assertEquals(d.get(), .5);
+        Assert.assertEquals(iv.quickGet(1), 7);
+        Assert.assertEquals(dv.quickGet(2), 1.5);
+        Assert.assertEquals(undone[0], 1);
+    }
+
+    @Test(groups = "1s")
+    public void testCommit() {
+        IEnvironment environment = Environments.UNIFIED_TRAIL.make();
+        IStateInt a = environment.makeInt(0);
+        IStateIntVector v = environment.makeIntVector(2, 0);
+        environment.worldPush();
+        a.set(1);
+        environment.worldPush();
+        a.set(2);
+        v.quickSet(0, 2);
+        environment.worldCommit();
+        Assert.assertEquals(environment.getWorldIndex(), 1);
+        a.set(3);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 0);
+        Assert.assertEquals(v.quickGet(0), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testFakeHistory() {
+        IEnvironment environment = Environments.UNIFIED_TRAIL.make();
+        environment.buildFakeHistoryOn(new Except_0(environment));
+        IStateInt a = environment.makeInt(10);
+        a.set(11);
+        environment.worldPush();
+        IStateBool b = environment.makeBool(true);
+        a.set(12);
+        b.set(false);
+        environment.worldPush();
+        IStateInt c = environment.makeInt(32);
+        a.set(13);
+        b.set(true);
+        c.set(33);
+
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 12);
+        Assert.assertFalse(b.get());
+        Assert.assertEquals(c.get(), 32);
+        environment.worldPop();
+        Assert.assertEquals(a.get(), 11);
+        Assert.assertTrue(b.get());
+        Assert.assertEquals(c.get(), 32);
+    }
+
+    @Test(groups = "1s")
+    public void testSameSearch() {
+        long[] nodes = new long[2];
+        Environments[] envs = {Environments.TRAIL, Environments.UNIFIED_TRAIL};
+        for (int k = 0; k < envs.length; k++) {
+            Solver solver = new Solver(envs[k].make(), "queens");
+            IntVar[] q = VF.enumeratedArray("q", 8, 1, 8, solver);
+            for (int i = 0; i < 8; i++) {
+                for (int j = i + 1; j < 8; j++) {
+                    solver.post(ICF.arithm(q[i], "!=", q[j]));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", j - i));
+                    solver.post(ICF.arithm(q[i], "!=", q[j], "+", i - j));
+                }
+            }
+            Assert.assertTrue(solver.duplicateModel().getEnvironment().getClass() == envs[k].make().getClass());
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+            nodes[k] = solver.getMeasures().getNodeCount();
+        }
+        Assert.assertEquals(nodes[1], nodes[0]);
+    }
+}
@@ -47,6 +47,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.Random;
+import java.util.stream.IntStream;
 
 /**
  * <br/>
@@ -1765,5 +1766,35 @@ public class DuplicateTest {
         Assert.assertEquals(copy.toString(), solver.toString());
         Assert.assertEquals(copy.getMeasures().getSolutionCount(), solver.getMeasures().getSolutionCount());
     }
-}
 
+    @Test(groups = "1s")
+    public void test85() {
+        Solver solver = new Solver("Choco");
+        IntVar[] v = VF.enumeratedArray("v", 4, 0, 5, solver);
+        Random rnd = new Random(85);
+        Tuples tuples = new Tuples(true);
+        for (int i = 0; i < 300; i++) {
+            tuples.add(rnd.nextInt(6), rnd.nextInt(6), rnd.nextInt(6), rnd.nextInt(6));
+        }
+        for (String op : new String[]{"GAC3rm", "GAC2001", "GACSTR+", "GAC2001+", "GAC3rm+", "FC", "STR2+"}) {
+            solver.post(ICF.table(v, tuples, op));
+        }
+        for (String op : new String[]{"AC3", "AC3rm", "AC3bit+rm", "AC2001", "FC"}) {
+            solver.post(ICF.table(v[0], v[1], TuplesFactory.arithm(v[0], "!=", v[1]), op));
+        }
+        solver.post(ICF.mddc(v, new MultivaluedDecisionDiagram(v, tuples)));
+
+        // copies are made concurrently, then solved concurrently, while sharing the tuples
+        Solver[] copies = new Solver[4];
+        IntStream.range(0, copies.length).parallel().forEach(i -> copies[i] = solver.duplicateModel());
+        IntStream.range(0, copies.length).parallel().forEach(i -> copies[i].findAllSolutions());
+        solver.findAllSolutions();
+
+        Assert.assertTrue(solver.getMeasures().getSolutionCount() > 0);
+        for (Solver copy : copies) {
+            Assert.assertEquals(copy.getNbVars(), solver.getNbVars());
+            Assert.assertEquals(copy.getNbCstrs(), solver.getNbCstrs());
+            Assert.assertEquals(copy.getMeasures().getSolutionCount(), solver.getMeasures().getSolutionCount());
+        }
+    }
+}
@@ -168,6 +168,76 @@ public class DynamicPostTest {
         Assert.assertEquals(solver.getNbCstrs(), 0);
     }
 
+    @Test(groups = "1s")
+    public void test5() {
+        final Solver solver = new Solver();
+        final IntVar X = VariableFactory.enumerated("X", 1, 2, solver);
+        final IntVar Y = VariableFactory.enumerated("Y", 1, 2, solver);
+        final IntVar Z = VariableFactory.enumerated("Z", 1, 2, solver);
+        solver.plugMonitor(new IMonitorOpenNode() {
+            @Override
+            public void beforeOpenNode() {
+            }
+
+            @Override
+            public void afterOpenNode() {
+                if (solver.getMeasures().getNodeCount() == 1) {
+                    solver.post(IntConstraintFactory.arithm(X, "=", Y), IntConstraintFactory.arithm(Y, "=", Z));
+                }
+            }
+        });
+        solver.set(engine.make(solver));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 2);
+    }
+
+    @Test(groups = "1s")
+    public void test6() {
+        final Solver solver = new Solver();
+        final IntVar X = VariableFactory.enumerated("X", 1, 2, solver);
+        final IntVar Y = VariableFactory.enumerated("Y", 1, 2, solver);
+        final IntVar Z = VariableFactory.enumerated("Z", 1, 2, solver);
+        final Constraint c1 = IntConstraintFactory.arithm(X, "=", Y);
+        final Constraint c2 = IntConstraintFactory.arithm(X, "=", Z);
+        final Constraint c3 = IntConstraintFactory.arithm(X, ">=", 1);
+        solver.post(c1, c3, c2);
+        solver.plugMonitor((IMonitorSolution) () -> solver.unpost(c2, c1));
+        solver.set(engine.make(solver));
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 5);
+        Assert.assertEquals(solver.getNbCstrs(), 1);
+        Assert.assertEquals(solver.getCstrs()[0], c3);
+    }
+
+    @Test(groups = "1s")
+    public void test7() {
+        int n = 2000;
+        final Solver solver = new Solver();
+        solver.ensureCapacity(n, n - 1);
+        IntVar[] X = VariableFactory.enumeratedArray("X", n, 0, 2, solver);
+        Constraint[] cs = new Constraint[n - 1];
+        for (int i = 0; i < n - 1; i++) {
+            cs[i] = IntConstraintFactory.arithm(X[i], "<=", X[i + 1]);
+        }
+        solver.post(IntConstraintFactory.arithm(X[0], "=", X[n - 1]));
+        solver.set(engine.make(solver));
+        solver.plugMonitor(new IMonitorOpenNode() {
+            @Override
+            public void beforeOpenNode() {
+            }
+
+            @Override
+            public void afterOpenNode() {
+                if (solver.getMeasures().getNodeCount() == 1) {
+                    solver.post(cs);
+                }
+            }
+        });
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 3);
+        Assert.assertEquals(solver.getNbCstrs(), n);
+    }
+
     private static void popAll(List<Constraint> stack, Solver solver) {
         stack.forEach(solver::unpost);
     }
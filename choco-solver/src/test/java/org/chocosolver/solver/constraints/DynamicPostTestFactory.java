@@ -44,7 +44,10 @@ public class DynamicPostTestFactory {
 
     PropagationEngineFactory[] engines = new PropagationEngineFactory[]{
             PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE,
-            PropagationEngineFactory.PROPAGATORDRIVEN_7QD};
+            PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+            PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT,
+            PropagationEngineFactory.PROPAGATORDRIVEN_7QD_ADAPTIVE,
+            PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS};
 
     @Factory
     public Object[] createInstances() {
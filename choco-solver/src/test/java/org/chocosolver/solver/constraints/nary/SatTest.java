@@ -42,6 +42,10 @@ import org.chocosolver.util.ESat;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 /**
  * <br/>
  *
@@ -204,4 +208,45 @@ public class SatTest {
         Assert.assertEquals(var.getValue(), 2);
 
     }
+
+    @Test(groups = "1s")
+    public void testRandom3SAT() {
+        int n = 12;
+        for (long seed = 0; seed < 20; seed++) {
+            Random rnd = new Random(seed);
+            int[][] clauses = new int[50][3];
+            for (int i = 0; i < clauses.length; i++) {
+                for (int j = 0; j < 3; j++) {
+                    clauses[i][j] = (rnd.nextInt(n) + 1) * (rnd.nextBoolean() ? 1 : -1);
+                }
+            }
+            // brute force
+            int expected = 0;
+            for (int a = 0; a < (1 << n); a++) {
+                boolean sat = true;
+                for (int i = 0; i < clauses.length && sat; i++) {
+                    boolean csat = false;
+                    for (int j = 0; j < 3 && !csat; j++) {
+                        int v = Math.abs(clauses[i][j]) - 1;
+                        csat = ((a >> v) & 1) == (clauses[i][j] > 0 ? 1 : 0);
+                    }
+                    sat = csat;
+                }
+                if (sat) expected++;
+            }
+            Solver solver = new Solver();
+            BoolVar[] bs = VF.boolArray("b", n, solver);
+            for (int i = 0; i < clauses.length; i++) {
+                List<BoolVar> pos = new ArrayList<>();
+                List<BoolVar> neg = new ArrayList<>();
+                for (int j = 0; j < 3; j++) {
+                    (clauses[i][j] > 0 ? pos : neg).add(bs[Math.abs(clauses[i][j]) - 1]);
+                }
+                SatFactory.addClauses(pos.toArray(new BoolVar[pos.size()]), neg.toArray(new BoolVar[neg.size()]));
+            }
+            solver.set(ISF.random_bound(bs, seed));
+            solver.findAllSolutions();
+            Assert.assertEquals(solver.getMeasures().getSolutionCount(), expected, "seed " + seed);
+        }
+    }
 }
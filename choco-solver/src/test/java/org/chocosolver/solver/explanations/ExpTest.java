@@ -57,6 +57,43 @@ public class ExpTest {
 		Assert.assertTrue(s2.getMeasures().getNodeCount() >= s3.getMeasures().getNodeCount());
 	}
 
+	@Test(groups = "1s")
+	public void test02() {
+		Solver s = new Solver();
+		IntVar x = VF.enumerated("x", 0, 50, s);
+		Explanation e = new Explanation();
+		ValueRemoval[] vrs = new ValueRemoval[40];
+		for (int i = 0; i < vrs.length; i++) {
+			vrs[i] = new ValueRemoval(x, i);
+			e.add(vrs[i]);
+			e.add(vrs[i]);
+			Assert.assertEquals(e.nbDeductions(), i + 1);
+		}
+		for (int i = 0; i < vrs.length; i += 2) {
+			e.remove(vrs[i]);
+		}
+		Assert.assertEquals(e.nbDeductions(), vrs.length / 2);
+		for (int i = 0; i < vrs.length; i++) {
+			Assert.assertEquals(e.contain(vrs[i]), i % 2 == 1);
+		}
+		Assert.assertEquals(e.getDeduction(0), vrs[1]);
+		e.reset();
+		Assert.assertEquals(e.nbDeductions(), 0);
+		Assert.assertFalse(e.contain(vrs[1]));
+	}
+
+	@Test(groups = "1s")
+	public void test03() {
+		// wide domains: the value removals are not all stored in arrays
+		Solver s = new Solver();
+		IntVar[] x = VF.boundedArray("x", 3, 0, 10000, s);
+		s.post(ICF.arithm(x[0], "<", x[1]));
+		s.post(ICF.arithm(x[1], "<", x[2]));
+		s.post(ICF.arithm(x[2], "<", x[0]));
+		ExplanationFactory.CBJ.plugin(s, true);
+		Assert.assertFalse(s.findSolution());
+	}
+
 	private Solver test(int n, int m, int expMode) {
         // infeasible problem
         Solver s = new Solver();
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.explanations.store;
+
+import org.chocosolver.solver.ICause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.explanations.ExplanationEngine;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class RingEventStoreTest {
+
+    @Test(groups = "1s")
+    public void testOrder() throws InterruptedException {
+        Solver solver = new Solver();
+        IntVar x = VF.bounded("x", 0, 10, solver);
+        ICause cause = ICF.arithm(x, ">", 0).getPropagator(0);
+        final int n = 20_000;
+        final long[] got = new long[2];
+        ExplanationEngine counter = new ExplanationEngine(solver) {
+            @Override
+            public void removeValue(IntVar var, int val, ICause c) {
+                // events must be replayed in order
+                if (val != got[0]) {
+                    got[1]++;
+                }
+                got[0]++;
+            }
+
+            @Override
+            public void updateLowerBound(IntVar var, int old, int value, ICause c) {
+                if (old != got[0] || value != old + 1) {
+                    got[1]++;
+                }
+                got[0]++;
+            }
+        };
+        RingEventStore store = new RingEventStore(16);
+        store.open();
+        Thread consumer = new Thread(() -> store.consume(counter));
+        consumer.start();
+        for (int i = 0; i < n; i++) {
+            if (i % 3 == 0) {
+                store.pushEvent(x, cause, IntEventType.INCLOW, i, i + 1, 0);
+            } else {
+                store.pushEvent(x, cause, IntEventType.REMOVE, i, 0, 0);
+            }
+            if (i % 5_000 == 0) {
+                store.awaitEmpty();
+                Assert.assertEquals(got[0], i + 1);
+            }
+        }
+        store.awaitEmpty();
+        Assert.assertEquals(store.getSize(), 0);
+        store.close();
+        consumer.join();
+        Assert.assertEquals(got[0], n);
+        Assert.assertEquals(got[1], 0);
+    }
+
+    @Test(groups = "1s")
+    public void testDrain() {
+        Solver solver = new Solver();
+        IntVar x = VF.bounded("x", 0, 10, solver);
+        ICause cause = ICF.arithm(x, ">", 0).getPropagator(0);
+        final int[] got = new int[1];
+        ExplanationEngine counter = new ExplanationEngine(solver) {
+            @Override
+            public void removeValue(IntVar var, int val, ICause c) {
+                got[0]++;
+            }
+        };
+        RingEventStore store = new RingEventStore(8);
+        for (int i = 0; i < 6; i++) {
+            store.pushEvent(x, cause, IntEventType.REMOVE, i, 0, 0);
+        }
+        Assert.assertEquals(store.getSize(), 6);
+        Assert.assertEquals(store.drain(counter, 4), 4);
+        Assert.assertEquals(store.drain(counter, 4), 2);
+        Assert.assertEquals(store.drain(counter, 4), 0);
+        Assert.assertEquals(got[0], 6);
+        Assert.assertEquals(store.getSize(), 0);
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.para;
+
+import org.chocosolver.memory.trailing.EnvironmentCheckpointTrailing;
+import org.chocosolver.solver.DecompositionSolver;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VF;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class DecompositionSolverTest {
+
+    /**
+     * <code>nb</code> independent blocks of 3 variables, each of them being linked to a variable fixed at root,
+     * plus an unconstrained variable
+     */
+    private static Solver blocks(int nb, IntVar[][] x) {
+        Solver solver = new Solver();
+        IntVar c = VF.enumerated("c", 0, 5, solver);
+        solver.post(ICF.arithm(c, "=", 1));
+        for (int b = 0; b < nb; b++) {
+            x[b] = VF.enumeratedArray("x" + b, 3, 0, 3, solver);
+            solver.post(ICF.alldifferent(x[b]));
+            solver.post(ICF.arithm(x[b][0], "<", x[b][1]));
+            solver.post(ICF.arithm(x[b][2], "!=", c));
+        }
+        VF.enumerated("free", 1, 3, solver);
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testAll() {
+        IntVar[][] x = new IntVar[4][];
+        Solver model = blocks(4, x);
+        DecompositionSolver ds = new DecompositionSolver(model);
+        Assert.assertEquals(ds.getNbComponents(), 5);
+        long nbSol = ds.findAllSolutions();
+        Assert.assertEquals(ds.isFeasible(), ESat.TRUE);
+        Assert.assertFalse(ds.hasReachedLimit());
+        // a second resolution gives the same result
+        Assert.assertEquals(ds.findAllSolutions(), nbSol);
+        Assert.assertEquals(ds.getIntVal(x[0][2]) == 1, false);
+        // the model is not modified, and gives the same count
+        Assert.assertEquals(model.findAllSolutions(), nbSol);
+        Assert.assertTrue(ds.getNodeCount() < model.getMeasures().getNodeCount());
+    }
+
+    @Test(groups = "1s")
+    public void testAllParallel() {
+        IntVar[][] x = new IntVar[6][];
+        DecompositionSolver ds = new DecompositionSolver(blocks(6, x), 4);
+        Assert.assertEquals(ds.findAllSolutions(), 3 * (long) Math.pow(9, 6));
+    }
+
+    @Test(groups = "1s")
+    public void testSat() {
+        IntVar[][] x = new IntVar[3][];
+        DecompositionSolver ds = new DecompositionSolver(blocks(3, x));
+        for (int i = 0; i < ds.getNbComponents(); i++) {
+            Solver s = ds.getSolver(i);
+            if (s != null) s.set(ISF.lexico_UB(ds.getVariables(i)));
+        }
+        Assert.assertTrue(ds.findSolution());
+        for (int b = 0; b < 3; b++) {
+            Assert.assertTrue(ds.getIntVal(x[b][0]) < ds.getIntVal(x[b][1]));
+            Assert.assertNotEquals(ds.getIntVal(x[b][0]), ds.getIntVal(x[b][2]));
+            Assert.assertNotEquals(ds.getIntVal(x[b][1]), ds.getIntVal(x[b][2]));
+            Assert.assertNotEquals(ds.getIntVal(x[b][2]), 1);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testNoSol() {
+        IntVar[][] x = new IntVar[3][];
+        Solver model = blocks(3, x);
+        // a triangle to colour with 2 colours, which is not detected at root
+        IntVar[] t = VF.enumeratedArray("t", 3, 0, 1, model);
+        model.post(ICF.arithm(t[0], "!=", t[1]));
+        model.post(ICF.arithm(t[1], "!=", t[2]));
+        model.post(ICF.arithm(t[0], "!=", t[2]));
+        DecompositionSolver ds = new DecompositionSolver(model);
+        Assert.assertFalse(ds.findSolution());
+        Assert.assertEquals(ds.isFeasible(), ESat.FALSE);
+        Assert.assertEquals(ds.findAllSolutions(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testRootFailure() {
+        IntVar[][] x = new IntVar[2][];
+        Solver model = blocks(2, x);
+        model.post(ICF.arithm(x[1][0], ">", 3));
+        DecompositionSolver ds = new DecompositionSolver(model);
+        Assert.assertEquals(ds.getNbComponents(), 0);
+        Assert.assertFalse(ds.findSolution());
+        Assert.assertEquals(ds.isFeasible(), ESat.FALSE);
+    }
+
+    @Test(groups = "1s")
+    public void testOpt() {
+        IntVar[][] x = new IntVar[5][];
+        Solver model = blocks(5, x);
+        IntVar[] terms = new IntVar[6];
+        for (int b = 0; b < 5; b++) {
+            terms[b] = x[b][2];
+        }
+        for (IntVar v : model.retrieveIntVars()) {
+            if (v.getName().equals("c")) {
+                terms[5] = v; // the variable fixed at root
+            }
+        }
+        DecompositionSolver ds = new DecompositionSolver(model, 2);
+        ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, terms);
+        Assert.assertEquals(ds.isFeasible(), ESat.TRUE);
+        Assert.assertEquals(ds.getBestValue(), 5 * 3 + 1);
+        ds.findOptimalSolution(ResolutionPolicy.MINIMIZE, terms);
+        Assert.assertEquals(ds.getBestValue(), 0 + 1);
+        Assert.assertEquals(ds.getIntVal(x[3][2]), 0);
+        // check against the model
+        IntVar sum = VF.bounded("sum", 0, 100, model);
+        model.post(ICF.sum(terms, sum));
+        model.findOptimalSolution(ResolutionPolicy.MAXIMIZE, sum);
+        Assert.assertEquals(model.getObjectiveManager().getBestSolutionValue().intValue(), 5 * 3 + 1);
+    }
+
+    @Test(groups = "1s")
+    public void testAllStopsOnNoSol() {
+        Solver model = new Solver(new EnvironmentCheckpointTrailing(7), "nosol");
+        // a triangle to colour with 2 colours first, then blocks
+        IntVar[] t = VF.enumeratedArray("t", 3, 0, 1, model);
+        model.post(ICF.arithm(t[0], "!=", t[1]));
+        model.post(ICF.arithm(t[1], "!=", t[2]));
+        model.post(ICF.arithm(t[0], "!=", t[2]));
+        for (int b = 0; b < 3; b++) {
+            IntVar[] x = VF.enumeratedArray("x" + b, 3, 0, 3, model);
+            model.post(ICF.alldifferent(x));
+        }
+        DecompositionSolver ds = new DecompositionSolver(model);
+        Assert.assertEquals(ds.findAllSolutions(), 0);
+        Assert.assertEquals(ds.isFeasible(), ESat.FALSE);
+        boolean stopped = false;
+        for (int i = 0; i < ds.getNbComponents(); i++) {
+            Solver s = ds.getSolver(i);
+            // the copies keep the settings of the environment of the model
+            Assert.assertEquals(((EnvironmentCheckpointTrailing) s.getEnvironment()).getPeriod(), 7);
+            if (stopped) {
+                Assert.assertEquals(s.getMeasures().getNodeCount(), 0);
+            } else {
+                stopped = s.getMeasures().getSolutionCount() == 0;
+            }
+        }
+        Assert.assertTrue(stopped);
+    }
+
+    @Test(groups = "1s", expectedExceptions = SolverException.class)
+    public void testOptOverflow() {
+        Solver model = new Solver();
+        IntVar[] x = VF.boundedArray("x", 2, 0, VF.MAX_INT_BOUND, model);
+        model.post(ICF.arithm(x[0], "<=", x[1]));
+        DecompositionSolver ds = new DecompositionSolver(model);
+        ds.findOptimalSolution(ResolutionPolicy.MAXIMIZE, x);
+    }
+}
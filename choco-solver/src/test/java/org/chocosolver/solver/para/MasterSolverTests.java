@@ -33,6 +33,14 @@ import org.chocosolver.solver.ResolutionPolicy;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.nary.nogood.NogoodStoreFromRestarts;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.thread.AbstractParallelMaster;
+import org.chocosolver.solver.thread.AbstractParallelSlave;
+import org.chocosolver.solver.thread.NogoodExchange;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
 import org.chocosolver.util.ESat;
@@ -210,4 +218,134 @@ public class MasterSolverTests {
         Assert.assertEquals(ESat.FALSE, ms.isFeasible());
     }
 
+    @Test(groups = "1s")
+    public void testOptFourSolversTwice() {
+        Solver s0 = golomb(10);
+        MasterSolver ms = new MasterSolver();
+        ms.populate(s0, 3);
+        ms.findOptimalSolution(ResolutionPolicy.MINIMIZE, (IntVar) s0.getVars()[9]);
+        Assert.assertEquals(ESat.TRUE, ms.isFeasible());
+        Assert.assertFalse(ms.hasReachedLimit());
+
+        Solver s1 = langford(3, 9);
+        ms.populate(s1, 3);
+        Assert.assertTrue(ms.findSolution());
+        Assert.assertFalse(ms.hasReachedLimit());
+    }
+
+    private static class FaultySlave extends AbstractParallelSlave<AbstractParallelMaster<FaultySlave>> {
+
+        volatile boolean stopped;
+
+        FaultySlave(AbstractParallelMaster<FaultySlave> master, int id) {
+            super(master, id);
+        }
+
+        @Override
+        public void work() {
+            if (id == 0) {
+                throw new UnsupportedOperationException("faulty slave");
+            }
+            while (!stopped) {
+                Thread.yield();
+            }
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+
+    @Test(groups = "1s", expectedExceptions = SolverException.class)
+    public void testSlaveFailure() {
+        AbstractParallelMaster<FaultySlave> master = new AbstractParallelMaster<>();
+        master.slaves = new FaultySlave[]{new FaultySlave(master, 0), new FaultySlave(master, 1), new FaultySlave(master, 2)};
+        master.distributedSlavery();
+    }
+
+    private static void nogoods(MasterSolver ms, int n) {
+        Solver[] solvers = ms.getSolvers();
+        for (int i = 0; i < solvers.length; i++) {
+            IntVar[] vars = new IntVar[n];
+            for (int j = 0; j < n; j++) {
+                vars[j] = (IntVar) solvers[i].getVars()[j + 2]; // skip ZERO and ONE
+            }
+            NogoodStoreFromRestarts ngs = new NogoodStoreFromRestarts(vars);
+            solvers[i].post(ngs);
+            solvers[i].plugMonitor(ngs);
+            solvers[i].set(ISF.random_value(vars, i));
+            SMF.luby(solvers[i], 2, 2, new FailCounter(2), 25000);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSatFourSolversNogoods() {
+        Solver s0 = langford(3, 9);
+        MasterSolver ms = new MasterSolver();
+        ms.populate(s0, 3);
+        nogoods(ms, 27);
+        NogoodExchange exchange = ms.shareNogoods(1024, 8);
+        Assert.assertTrue(ms.findSolution());
+        Assert.assertEquals(exchange.getCapacity(), 1024);
+    }
+
+    @Test(groups = "1s")
+    public void testSatFourSolversNogoodsNoSol() {
+        Solver s0 = langford(3, 8);
+        MasterSolver ms = new MasterSolver();
+        ms.populate(s0, 3);
+        nogoods(ms, 24);
+        NogoodExchange exchange = ms.shareNogoods(1024, 8);
+        Assert.assertFalse(ms.findSolution());
+        Assert.assertEquals(ESat.FALSE, ms.isFeasible());
+        Assert.assertTrue(exchange.getNbPublished() > 0);
+    }
+
+    private long[] deterministicRun(int period, boolean opt) {
+        Solver s0 = opt ? golomb(8) : langford(3, 10);
+        MasterSolver ms = new MasterSolver();
+        ms.populate(s0, 3);
+        ms.setDeterministic(period);
+        Solver[] solvers = ms.getSolvers();
+        for (int i = 0; i < solvers.length; i++) {
+            IntVar[] vars = new IntVar[opt ? 8 : 30];
+            for (int j = 0; j < vars.length; j++) {
+                vars[j] = (IntVar) solvers[i].getVars()[j + 2];
+            }
+            solvers[i].set(ISF.random_value(vars, i));
+        }
+        if (opt) {
+            ms.findOptimalSolution(ResolutionPolicy.MINIMIZE, (IntVar) s0.getVars()[9]); // last tick
+            Assert.assertEquals(s0.getObjectiveManager().getBestSolutionValue(), 34);
+        } else {
+            Assert.assertTrue(ms.findSolution());
+        }
+        Assert.assertFalse(ms.hasReachedLimit());
+        Assert.assertTrue(ms.getBarrierCount() > 0);
+        long[] stats = new long[2 * solvers.length + 1];
+        for (int i = 0; i < solvers.length; i++) {
+            stats[2 * i] = solvers[i].getMeasures().getNodeCount();
+            stats[2 * i + 1] = solvers[i].getMeasures().getSolutionCount();
+        }
+        stats[stats.length - 1] = ms.getBarrierCount();
+        return stats;
+    }
+
+    @Test(groups = "1s")
+    public void testDeterministicOpt() {
+        long[] ref = deterministicRun(100, true);
+        for (int k = 0; k < 2; k++) {
+            Assert.assertEquals(deterministicRun(100, true), ref);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testDeterministicSat() {
+        long[] ref = deterministicRun(10, false);
+        for (int k = 0; k < 2; k++) {
+            Assert.assertEquals(deterministicRun(10, false), ref);
+        }
+    }
+
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.para;
+
+import org.chocosolver.solver.thread.NogoodExchange;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class NogoodExchangeTest {
+
+    @Test(groups = "1s")
+    public void testSkipOwn() {
+        NogoodExchange exchange = new NogoodExchange(8);
+        NogoodExchange.Reader r0 = exchange.newReader(0);
+        NogoodExchange.Reader r1 = exchange.newReader(1);
+        exchange.publish(0, new int[]{1, 2, 3}, new int[]{4, 5, 6}, 2);
+        exchange.publish(1, new int[]{7}, new int[]{8}, 1);
+        NogoodExchange.SharedNogood ng = r1.next();
+        Assert.assertNotNull(ng);
+        Assert.assertEquals(ng.size(), 2);
+        Assert.assertEquals(ng.getIndex(1), 2);
+        Assert.assertEquals(ng.getValue(1), 5);
+        Assert.assertNull(r1.next());
+        ng = r0.next();
+        Assert.assertNotNull(ng);
+        Assert.assertEquals(ng.getSource(), 1);
+        Assert.assertEquals(ng.getIndex(0), 7);
+        Assert.assertNull(r0.next());
+    }
+
+    @Test(groups = "1s")
+    public void testOverwrite() {
+        NogoodExchange exchange = new NogoodExchange(3);
+        Assert.assertEquals(exchange.getCapacity(), 4);
+        NogoodExchange.Reader r1 = exchange.newReader(1);
+        for (int i = 0; i < 10; i++) {
+            exchange.publish(0, new int[]{i}, new int[]{i}, 1);
+        }
+        int n = 0;
+        NogoodExchange.SharedNogood ng;
+        while ((ng = r1.next()) != null) {
+            Assert.assertEquals(ng.getValue(0), 6 + n);
+            n++;
+        }
+        Assert.assertEquals(n, 4);
+        Assert.assertEquals(r1.getNbMissed(), 6);
+        Assert.assertEquals(exchange.getNbPublished(), 10);
+    }
+
+    @Test(groups = "1s")
+    public void testConcurrentPublish() throws InterruptedException {
+        final NogoodExchange exchange = new NogoodExchange(1 << 16);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int source = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    exchange.publish(source, new int[]{source, i}, new int[]{i, source}, 2);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        NogoodExchange.Reader r = exchange.newReader(-1);
+        Assert.assertNull(r.next()); // a reader starts with the next nogood published
+        exchange.publish(0, new int[]{0}, new int[]{0}, 1);
+        Assert.assertNotNull(r.next());
+        Assert.assertEquals(exchange.getNbPublished(), 4001);
+    }
+
+    @Test(groups = "1s")
+    public void testConcurrentOverwrite() throws InterruptedException {
+        final NogoodExchange exchange = new NogoodExchange(2);
+        NogoodExchange.Reader r = exchange.newReader(-1);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int source = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    exchange.publish(source, new int[]{i}, new int[]{source}, 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        // once the publishers are done, a reader never waits for a slot overwritten by a late publisher
+        long read = 0;
+        while (r.next() != null) {
+            read++;
+        }
+        Assert.assertEquals(read + r.getNbMissed(), exchange.getNbPublished());
+    }
+}
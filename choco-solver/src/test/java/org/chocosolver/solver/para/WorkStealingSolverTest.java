@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.para;
+
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.WorkStealingSolver;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.exception.SolverException;
+import org.chocosolver.solver.search.limits.FailCounter;
+import org.chocosolver.solver.search.loop.monitors.SMF;
+import org.chocosolver.solver.search.strategy.ISF;
+import org.chocosolver.solver.variables.IntVar;
+import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class WorkStealingSolverTest {
+
+    private Solver queens(int n) {
+        Solver solver = new Solver();
+        IntVar[] q = VariableFactory.enumeratedArray("q", n, 1, n, solver);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                int k = j - i;
+                solver.post(IntConstraintFactory.arithm(q[i], "!=", q[j]));
+                solver.post(IntConstraintFactory.arithm(q[i], "!=", q[j], "+", -k));
+                solver.post(IntConstraintFactory.arithm(q[i], "!=", q[j], "+", k));
+            }
+        }
+        return solver;
+    }
+
+    private Solver golomb(int m) {
+        Solver solver = new Solver();
+        IntVar[] ticks = VariableFactory.enumeratedArray("a", m, 0, (1 << (m + 1)) - 1, solver);
+        solver.post(IntConstraintFactory.arithm(ticks[0], "=", 0));
+        for (int i = 0; i < m - 1; i++) {
+            solver.post(IntConstraintFactory.arithm(ticks[i + 1], ">", ticks[i]));
+        }
+        IntVar[] diffs = VariableFactory.enumeratedArray("d", (m * m - m) / 2, 0, (1 << (m + 1)) - 1, solver);
+        for (int k = 0, i = 0; i < m - 1; i++) {
+            for (int j = i + 1; j < m; j++, k++) {
+                solver.post(IntConstraintFactory.scalar(new IntVar[]{ticks[j], ticks[i]}, new int[]{1, -1}, diffs[k]));
+                solver.post(IntConstraintFactory.arithm(diffs[k], ">=", (j - i) * (j - i + 1) / 2));
+            }
+        }
+        solver.post(IntConstraintFactory.alldifferent(diffs, "BC"));
+        if (m > 2) {
+            solver.post(IntConstraintFactory.arithm(diffs[0], "<", diffs[diffs.length - 1]));
+        }
+        return solver;
+    }
+
+    private static void lexico(WorkStealingSolver wss, int n) {
+        for (Solver w : wss.getWorkers()) {
+            IntVar[] vars = new IntVar[n];
+            for (int i = 0; i < n; i++) {
+                vars[i] = (IntVar) w.getVar(i + 2); // skip ZERO and ONE
+            }
+            w.set(ISF.lexico_LB(vars));
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAllOneWorker() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(8), 1);
+        Assert.assertEquals(wss.findAllSolutions(), 92);
+        Assert.assertEquals(wss.isFeasible(), ESat.TRUE);
+        Assert.assertFalse(wss.hasReachedLimit());
+    }
+
+    @Test(groups = "1s")
+    public void testAllFourWorkers() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(8), 4);
+        Assert.assertEquals(wss.findAllSolutions(), 92);
+        Assert.assertTrue(wss.getSubproblemCount() > 1);
+    }
+
+    @Test(groups = "1s")
+    public void testAllFourWorkersLexico() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(9), 4);
+        wss.setSplitThreshold(16);
+        lexico(wss, 9);
+        Assert.assertEquals(wss.findAllSolutions(), 352);
+        // a second resolution gives the same result
+        Assert.assertEquals(wss.findAllSolutions(), 352);
+    }
+
+    @Test(groups = "1s")
+    public void testSatFourWorkers() {
+        Solver model = queens(10);
+        WorkStealingSolver wss = new WorkStealingSolver(model, 4);
+        Assert.assertTrue(wss.findSolution());
+        Assert.assertEquals(wss.getSolutionCount(), 1);
+        IntVar[] q = model.retrieveIntVars();
+        for (int i = 0; i < q.length; i++) {
+            for (int j = i + 1; j < q.length; j++) {
+                if (q[i].getName().startsWith("q") && q[j].getName().startsWith("q")) {
+                    Assert.assertNotEquals(wss.getIntVal(q[i]), wss.getIntVal(q[j]));
+                }
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testSatFourWorkersNoSol() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(3), 4);
+        Assert.assertFalse(wss.findSolution());
+        Assert.assertEquals(wss.isFeasible(), ESat.FALSE);
+        Assert.assertEquals(wss.findAllSolutions(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testOptFourWorkers() {
+        Solver model = golomb(8);
+        IntVar[] ticks = model.retrieveIntVars();
+        IntVar last = null;
+        for (IntVar v : ticks) {
+            if (v.getName().equals("a[7]")) {
+                last = v;
+            }
+        }
+        WorkStealingSolver wss = new WorkStealingSolver(model, 4);
+        lexico(wss, 8);
+        wss.findOptimalSolution(ResolutionPolicy.MINIMIZE, last);
+        Assert.assertEquals(wss.isFeasible(), ESat.TRUE);
+        Assert.assertFalse(wss.hasReachedLimit());
+        Assert.assertEquals(wss.getBestValue(), 34);
+        Assert.assertEquals(wss.getIntVal(last), 34);
+    }
+
+    @Test(groups = "1s")
+    public void testOptFourWorkersNoSol() {
+        Solver model = golomb(6);
+        IntVar[] vars = model.retrieveIntVars();
+        model.post(ICF.arithm(vars[vars.length - 1], "=", vars[2]));
+        WorkStealingSolver wss = new WorkStealingSolver(model, 4);
+        wss.findOptimalSolution(ResolutionPolicy.MAXIMIZE, vars[3]);
+        Assert.assertEquals(wss.isFeasible(), ESat.FALSE);
+    }
+
+    @Test(groups = "1s", expectedExceptions = SolverException.class)
+    public void testAllRestart() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(8), 2);
+        for (Solver w : wss.getWorkers()) {
+            SMF.luby(w, 2, 2, new FailCounter(2), 1000);
+        }
+        wss.findAllSolutions();
+    }
+
+    @Test(groups = "1s")
+    public void testSatRestart() {
+        WorkStealingSolver wss = new WorkStealingSolver(queens(8), 2);
+        for (Solver w : wss.getWorkers()) {
+            SMF.luby(w, 2, 2, new FailCounter(2), 1000);
+        }
+        Assert.assertTrue(wss.findSolution());
+    }
+}
@@ -28,12 +28,37 @@
  */
 package org.chocosolver.solver.propagation;
 
+import org.chocosolver.memory.Environments;
+import org.chocosolver.solver.ResolutionPolicy;
+import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.cnf.LogOp;
+import org.chocosolver.solver.constraints.nary.cnf.PropClause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.hardcoded.AdaptivePropagatorEngine;
+import org.chocosolver.solver.propagation.hardcoded.ComponentPropagationEngine;
+import org.chocosolver.solver.search.loop.monitors.SearchMonitorFactory;
+import org.chocosolver.solver.search.measure.PropagatorMeasures;
+import org.chocosolver.solver.trace.Chatterbox;
+import org.chocosolver.solver.variables.BoolVar;
 import org.chocosolver.solver.variables.IntVar;
 import org.chocosolver.solver.variables.VariableFactory;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 /**
  * <br/>
  *
@@ -54,4 +79,369 @@ public class PropEngineTest {
 
 
     }
+
+    private static Solver queens(int n, PropagationEngineFactory engine) {
+        Solver solver = new Solver();
+        IntVar[] q = VariableFactory.enumeratedArray("Q", n, 1, n, solver);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                solver.post(IntConstraintFactory.arithm(q[i], "!=", q[j]));
+                solver.post(IntConstraintFactory.arithm(q[i], "!=", q[j], "+", j - i));
+                solver.post(IntConstraintFactory.arithm(q[j], "!=", q[i], "+", j - i));
+            }
+        }
+        solver.post(IntConstraintFactory.alldifferent(q, "BC"));
+        solver.set(engine.make(solver));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testFlatEngine1() {
+        for (int n = 4; n < 10; n++) {
+            Solver s1 = queens(n, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+            Solver s2 = queens(n, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT);
+            s1.findAllSolutions();
+            s2.findAllSolutions();
+            Assert.assertEquals(s2.getMeasures().getSolutionCount(), s1.getMeasures().getSolutionCount());
+            Assert.assertEquals(s2.getMeasures().getNodeCount(), s1.getMeasures().getNodeCount());
+            Assert.assertEquals(s2.getMeasures().getFailCount(), s1.getMeasures().getFailCount());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testFlatEngine2() {
+        long[] nodes = new long[2];
+        int[] best = new int[2];
+        PropagationEngineFactory[] engines = {PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT};
+        for (int e = 0; e < 2; e++) {
+            Solver solver = new Solver();
+            IntVar[] x = VariableFactory.boundedArray("X", 6, 0, 20, solver);
+            IntVar sum = VariableFactory.bounded("S", 0, 120, solver);
+            solver.post(IntConstraintFactory.alldifferent(x, "AC"));
+            solver.post(IntConstraintFactory.sum(x, sum));
+            for (int i = 0; i < 5; i++) {
+                solver.post(IntConstraintFactory.arithm(x[i], "<", x[i + 1]));
+            }
+            solver.post(IntConstraintFactory.arithm(x[5], ">=", x[0], "+", 12));
+            solver.set(engines[e].make(solver));
+            solver.findOptimalSolution(ResolutionPolicy.MINIMIZE, sum);
+            nodes[e] = solver.getMeasures().getNodeCount();
+            best[e] = solver.getMeasures().getBestSolutionValue().intValue();
+        }
+        Assert.assertEquals(best[1], best[0]);
+        Assert.assertEquals(nodes[1], nodes[0]);
+    }
+
+    @Test(groups = "1s")
+    public void testFlatEngineDynamic() throws ContradictionException {
+        PropagationEngineFactory[] engines = {PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_ADAPTIVE};
+        String[] domains = new String[engines.length];
+        for (int e = 0; e < engines.length; e++) {
+            Solver solver = new Solver();
+            IntVar[] x = VariableFactory.enumeratedArray("X", 10, 0, 20, solver);
+            solver.set(engines[e].make(solver));
+            Random rnd = new Random(0);
+            List<Constraint> posted = new ArrayList<>();
+            // the constraints are added and removed once the engine is initialized
+            for (int k = 0; k < 200; k++) {
+                if (posted.size() > 0 && rnd.nextInt(3) == 0) {
+                    solver.unpost(posted.remove(rnd.nextInt(posted.size())));
+                } else {
+                    int i = rnd.nextInt(9), j = i + 1 + rnd.nextInt(9 - i);
+                    Constraint c = IntConstraintFactory.arithm(x[i], "<=", x[j], "-", rnd.nextInt(3));
+                    solver.post(c);
+                    posted.add(c);
+                }
+            }
+            solver.post(IntConstraintFactory.arithm(x[0], ">=", 5));
+            solver.propagate();
+            domains[e] = Arrays.toString(x);
+        }
+        for (int e = 1; e < engines.length; e++) {
+            Assert.assertEquals(domains[e], domains[0], engines[e].name());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAdaptiveEngine1() {
+        for (int n = 4; n < 10; n++) {
+            Solver s1 = queens(n, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+            Solver s2 = queens(n, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_ADAPTIVE);
+            s1.findAllSolutions();
+            s2.findAllSolutions();
+            Assert.assertEquals(s2.getMeasures().getSolutionCount(), s1.getMeasures().getSolutionCount());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testAdaptiveEngine2() {
+        Solver solver = queens(8, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+        // an expensive propagator, which never filters, declared with the highest priority
+        Propagator<IntVar> slow = new Propagator<IntVar>(solver.retrieveIntVars(), PropagatorPriority.UNARY, false) {
+            @Override
+            public void propagate(int evtmask) throws ContradictionException {
+                long start = System.nanoTime();
+                while (System.nanoTime() - start < 20000) {
+                    Thread.yield();
+                }
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return isCompletelyInstantiated() ? ESat.TRUE : ESat.UNDEFINED;
+            }
+        };
+        solver.post(new Constraint("SLOW", slow));
+        AdaptivePropagatorEngine engine = new AdaptivePropagatorEngine(solver);
+        solver.set(engine);
+        solver.findAllSolutions();
+        Assert.assertEquals(solver.getMeasures().getSolutionCount(), 92);
+        Assert.assertTrue(engine.getLearnedPriority(slow) > PropagatorPriority.UNARY.priority);
+    }
+
+    private static Solver blocks(int nb, Environments env, PropagationEngineFactory engine) {
+        Solver solver = new Solver(env.make(), "blocks");
+        for (int b = 0; b < nb; b++) {
+            IntVar[] x = VariableFactory.enumeratedArray("X" + b, 5, 0, 10, solver);
+            for (int i = 0; i < 4; i++) {
+                solver.post(IntConstraintFactory.arithm(x[i], "<", x[i + 1]));
+            }
+            solver.post(IntConstraintFactory.arithm(x[4], "<=", 4 + b % 3));
+            solver.post(IntConstraintFactory.alldifferent(new IntVar[]{x[0], VariableFactory.offset(x[1], 1)}, "BC"));
+        }
+        solver.set(engine.make(solver));
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testComponentEngine1() throws ContradictionException {
+        Solver s1 = blocks(100, Environments.TRAIL, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+        Solver s2 = blocks(100, Environments.SYNCHRONIZED_TRAIL, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS);
+        Assert.assertTrue(((ComponentPropagationEngine) s2.getEngine()).getNbComponents() >= 100);
+        s1.propagate();
+        s2.propagate();
+        IntVar[] v1 = s1.retrieveIntVars(), v2 = s2.retrieveIntVars();
+        Assert.assertEquals(v2.length, v1.length);
+        for (int i = 0; i < v1.length; i++) {
+            Assert.assertEquals(v2[i].toString(), v1[i].toString());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testComponentEngine2() {
+        Solver solver = blocks(100, Environments.SYNCHRONIZED_TRAIL, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS);
+        IntVar x = (IntVar) solver.getVar(solver.getNbVars() - 1);
+        solver.post(IntConstraintFactory.arithm(x, "<", 0));
+        Assert.assertFalse(solver.findSolution());
+        Assert.assertEquals(solver.getMeasures().getNodeCount(), 0);
+    }
+
+    @Test(groups = "1s")
+    public void testComponentEngine3() {
+        for (Environments env : new Environments[]{Environments.TRAIL, Environments.SYNCHRONIZED_TRAIL}) {
+            Solver s1 = blocks(3, env, PropagationEngineFactory.PROPAGATORDRIVEN_7QD);
+            Solver s2 = blocks(3, env, PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS);
+            s1.findAllSolutions();
+            s2.findAllSolutions();
+            Assert.assertEquals(s2.getMeasures().getSolutionCount(), s1.getMeasures().getSolutionCount());
+            Assert.assertEquals(s2.getMeasures().getNodeCount(), s1.getMeasures().getNodeCount());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testComponentEngine4() throws ContradictionException {
+        // a constraint posted once the propagation has begun merges two components
+        long[] sols = new long[2];
+        PropagationEngineFactory[] engines = {PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS};
+        for (int e = 0; e < 2; e++) {
+            Solver solver = blocks(3, Environments.SYNCHRONIZED_TRAIL, engines[e]);
+            solver.propagate();
+            solver.post(IntConstraintFactory.arithm((IntVar) solver.getVar(0), "<=", (IntVar) solver.getVar(6)));
+            solver.findAllSolutions();
+            sols[e] = solver.getMeasures().getSolutionCount();
+            if (e == 1) {
+                ComponentPropagationEngine engine = (ComponentPropagationEngine) solver.getEngine();
+                Propagator p0 = solver.getCstrs()[0].getPropagators()[0];
+                Propagator p1 = solver.getCstrs()[6].getPropagators()[0];
+                Assert.assertEquals(engine.getComponent(p1), engine.getComponent(p0));
+            }
+        }
+        Assert.assertTrue(sols[0] > 0);
+        Assert.assertEquals(sols[1], sols[0]);
+    }
+
+    @Test(groups = "1s")
+    public void testComponentEngine5() throws ContradictionException {
+        // components sharing a constant, propagated concurrently and observed by a search monitor
+        Solver[] solvers = new Solver[2];
+        PropagationEngineFactory[] engines = {PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS};
+        for (int e = 0; e < 2; e++) {
+            Solver solver = new Solver(Environments.SYNCHRONIZED_TRAIL.make(), "clauses");
+            solver.set(new Settings() {
+                @Override
+                public int getPropagationCheckPeriod() {
+                    return 1;
+                }
+            });
+            BoolVar zero = VariableFactory.zero(solver);
+            for (int b = 0; b < 200; b++) {
+                BoolVar[] x = VariableFactory.boolArray("X" + b, 3, solver);
+                solver.post(new Constraint("C", new PropClause(LogOp.or(x[0], x[1], zero))));
+                solver.post(new Constraint("C", new PropClause(LogOp.or(VariableFactory.not(x[0]), zero, x[2]))));
+                solver.post(IntConstraintFactory.arithm(x[1], "=", 0));
+            }
+            SearchMonitorFactory.limitTime(solver, "10s");
+            solver.set(engines[e].make(solver));
+            solver.propagate();
+            solvers[e] = solver;
+        }
+        Assert.assertTrue(((ComponentPropagationEngine) solvers[1].getEngine()).getNbComponents() >= 200);
+        IntVar[] v1 = solvers[0].retrieveIntVars(), v2 = solvers[1].retrieveIntVars();
+        Assert.assertEquals(v2.length, v1.length);
+        for (int i = 0; i < v1.length; i++) {
+            Assert.assertEquals(v2[i].toString(), v1[i].toString());
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testMeasures1() {
+        for (PropagationEngineFactory pef : new PropagationEngineFactory[]{
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_ADAPTIVE,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS,
+                PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE}) {
+            Solver solver = queens(8, pef);
+            solver.set(new Settings() {
+                @Override
+                public int getPropagatorTimeSampling() {
+                    return 1;
+                }
+            });
+            solver.set(pef.make(solver));
+            solver.findAllSolutions();
+            long revisions = 0, prunings = 0, fails = 0;
+            for (Constraint c : solver.getCstrs()) {
+                for (Propagator p : c.getPropagators()) {
+                    Assert.assertEquals(p.nbTimed, p.nbRevisions);
+                    revisions += p.nbRevisions;
+                    prunings += p.nbPrunings;
+                    fails += p.nbFails;
+                }
+            }
+            Assert.assertTrue(revisions > 0);
+            Assert.assertEquals(prunings, solver.getMeasures().getPruningsCount());
+            Assert.assertTrue(fails > 0);
+            Assert.assertTrue(fails <= solver.getMeasures().getFailCount());
+            Assert.assertTrue(solver.getMeasures().getPropagatorTimeCount() > 0);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testMeasures2() throws IOException {
+        Solver solver = queens(8, PropagationEngineFactory.DEFAULT);
+        File json = File.createTempFile("props", ".json");
+        File csv = File.createTempFile("props", ".csv");
+        json.deleteOnExit();
+        csv.deleteOnExit();
+        Chatterbox.dumpPropagatorStatistics(solver, json.getAbsolutePath());
+        Chatterbox.dumpPropagatorStatistics(solver, csv.getAbsolutePath());
+        solver.findAllSolutions();
+        PropagatorMeasures[] classes = PropagatorMeasures.perClass(solver);
+        PropagatorMeasures[] props = PropagatorMeasures.perPropagator(solver);
+        long count = 0;
+        for (int i = 0; i < classes.length; i++) {
+            count += classes[i].count;
+            Assert.assertTrue(i == 0 || classes[i - 1].time >= classes[i].time);
+        }
+        Assert.assertEquals(count, props.length);
+        String c = new String(Files.readAllBytes(csv.toPath()));
+        Assert.assertEquals(c.split("\n").length, classes.length + 1);
+        Assert.assertTrue(c.startsWith("class;"));
+        String j = new String(Files.readAllBytes(json.toPath()));
+        Assert.assertTrue(j.contains("\"classes\""));
+        Assert.assertTrue(j.contains("\"name\": \"" + classes[0].name + "\""));
+    }
+
+    /**
+     * A propagator which increases the lower bound of its variable by one on each execution
+     */
+    private static class PropIncr extends Propagator<IntVar> {
+
+        final boolean idempotent;
+
+        PropIncr(IntVar var, boolean idempotent) {
+            super(new IntVar[]{var}, PropagatorPriority.UNARY, false);
+            this.idempotent = idempotent;
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            vars[0].updateLowerBound(vars[0].getLB() + 1, aCause);
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.UNDEFINED;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testReruns() throws ContradictionException {
+        for (PropagationEngineFactory pef : new PropagationEngineFactory[]{
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_COMPONENTS,
+                PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE}) {
+            for (int max : new int[]{0, 3, 16}) {
+                Solver solver = new Solver();
+                solver.set(new Settings() {
+                    @Override
+                    public int getMaxConsecutiveReruns() {
+                        return max;
+                    }
+                });
+                IntVar x = VariableFactory.bounded("x", 0, 100, solver);
+                IntVar y = VariableFactory.bounded("y", 0, 100, solver);
+                solver.post(new Constraint("X", new PropIncr(x, false)));
+                solver.post(new Constraint("Y", new PropIncr(y, true)));
+                solver.set(pef.make(solver));
+                solver.propagate();
+                Assert.assertEquals(x.getLB(), 1 + max, pef.name());
+                Assert.assertEquals(y.getLB(), 1, pef.name());
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testRerunsIdem() throws ContradictionException {
+        // non-idempotent propagators are not reported nor forced by the debugging strategies
+        for (Settings.Idem idem : new Settings.Idem[]{Settings.Idem.error, Settings.Idem.force}) {
+            Solver solver = new Solver();
+            solver.set(new Settings() {
+                @Override
+                public Idem getIdempotencyStrategy() {
+                    return idem;
+                }
+
+                @Override
+                public int getMaxConsecutiveReruns() {
+                    return 3;
+                }
+            });
+            IntVar x = VariableFactory.bounded("x", 0, 100, solver);
+            solver.post(new Constraint("X", new PropIncr(x, false)));
+            solver.propagate();
+            Assert.assertEquals(x.getLB(), 4, idem.name());
+        }
+    }
 }
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2014,
+ *       Charles Prud'homme (TASC, INRIA Rennes, LINA CNRS UMR 6241),
+ *       Jean-Guillaume Fages (COSLING S.A.S.).
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.chocosolver.solver.variables;
+
+import org.chocosolver.memory.IEnvironment;
+import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.constraints.Constraint;
+import org.chocosolver.solver.constraints.ICF;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
+import org.chocosolver.solver.constraints.nary.cnf.ILogical;
+import org.chocosolver.solver.constraints.nary.cnf.LogOp;
+import org.chocosolver.solver.constraints.nary.cnf.PropClause;
+import org.chocosolver.solver.exception.ContradictionException;
+import org.chocosolver.solver.propagation.PropagationEngineFactory;
+import org.chocosolver.solver.variables.events.IntEventType;
+import org.chocosolver.util.ESat;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * <br/>
+ *
+ * @since 17/10/26
+ */
+public class SubscriptionTest {
+
+    private static Propagator<IntVar> make(IntVar x, final int conditions) {
+        return new Propagator<IntVar>(new IntVar[]{x}, PropagatorPriority.UNARY, true) {
+            @Override
+            public int getPropagationConditions(int vIdx) {
+                return conditions;
+            }
+
+            @Override
+            public void propagate(int evtmask) throws ContradictionException {
+            }
+
+            @Override
+            public void propagate(int idxVarInProp, int mask) throws ContradictionException {
+            }
+
+            @Override
+            public ESat isEntailed() {
+                return ESat.UNDEFINED;
+            }
+        };
+    }
+
+    private static void checkFirst(IntVar x, int inst, int bound, int rem) {
+        Assert.assertEquals(x.getFirstPropagator(IntEventType.INSTANTIATE), inst);
+        Assert.assertEquals(x.getFirstPropagator(IntEventType.INCLOW), bound);
+        Assert.assertEquals(x.getFirstPropagator(IntEventType.DECUPP), bound);
+        Assert.assertEquals(x.getFirstPropagator(IntEventType.BOUND), bound);
+        Assert.assertEquals(x.getFirstPropagator(IntEventType.REMOVE), rem);
+    }
+
+    @Test(groups = "1s")
+    public void testLevels() {
+        Solver solver = new Solver();
+        IntVar x = VariableFactory.enumerated("x", 0, 10, solver);
+        Propagator<IntVar> pa = make(x, IntEventType.all());
+        Propagator<IntVar> pi = make(x, IntEventType.instantiation());
+        Propagator<IntVar> pb = make(x, IntEventType.boundAndInst());
+        // not known yet: notified of any event
+        checkFirst(x, 0, 0, 0);
+        pa.setActive();
+        pi.setActive();
+        pb.setActive();
+        checkFirst(x, 0, 1, 2);
+        Assert.assertEquals(x.getPropagator(0), pi);
+        Assert.assertEquals(x.getPropagator(1), pb);
+        Assert.assertEquals(x.getPropagator(2), pa);
+        for (Propagator p : new Propagator[]{pa, pi, pb}) {
+            Assert.assertEquals(x.getPropagator(p.getVIndices()[0]), p);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testBacktrack() {
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        IntVar x = VariableFactory.enumerated("x", 0, 10, solver);
+        Propagator<IntVar> pa = make(x, IntEventType.all());
+        Propagator<IntVar> pi = make(x, IntEventType.instantiation());
+        Propagator<IntVar> pb = make(x, IntEventType.boundAndInst());
+        pa.setActive();
+        pi.setActive();
+        pb.setActive();
+        env.worldPush();
+        x.unsubscribe(pa.getVIndices()[0], true);
+        checkFirst(x, 1, 2, 3);
+        Assert.assertFalse(x.isSubscribed(pa.getVIndices()[0]));
+        env.worldPush();
+        x.unsubscribe(pi.getVIndices()[0], true);
+        x.unsubscribe(pb.getVIndices()[0], true);
+        checkFirst(x, 3, 3, 3);
+        x.subscribe(pa.getVIndices()[0], true);
+        checkFirst(x, 2, 2, 2);
+        env.worldPop();
+        checkFirst(x, 1, 2, 3);
+        Assert.assertFalse(x.isSubscribed(pa.getVIndices()[0]));
+        Assert.assertTrue(x.isSubscribed(pi.getVIndices()[0]));
+        // a non-backtrackable subscription survives
+        env.worldPush();
+        x.subscribe(pa.getVIndices()[0], false);
+        env.worldPop();
+        env.worldPop();
+        checkFirst(x, 0, 1, 2);
+        for (Propagator p : new Propagator[]{pa, pi, pb}) {
+            Assert.assertTrue(x.isSubscribed(p.getVIndices()[0]));
+            Assert.assertEquals(x.getPropagator(p.getVIndices()[0]), p);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testCommit() {
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        IntVar x = VariableFactory.enumerated("x", 0, 10, solver);
+        Propagator<IntVar> pa = make(x, IntEventType.all());
+        Propagator<IntVar> pi = make(x, IntEventType.instantiation());
+        pa.setActive();
+        pi.setActive();
+        env.worldPush();
+        env.worldPush();
+        x.unsubscribe(pa.getVIndices()[0], true);
+        env.worldCommit();
+        // the unsubscription made in a world above the committed one must be undone with it
+        env.worldPush();
+        x.unsubscribe(pi.getVIndices()[0], true);
+        env.worldPop();
+        Assert.assertFalse(x.isSubscribed(pa.getVIndices()[0]));
+        Assert.assertTrue(x.isSubscribed(pi.getVIndices()[0]));
+        env.worldPop();
+        Assert.assertTrue(x.isSubscribed(pa.getVIndices()[0]));
+        Assert.assertTrue(x.isSubscribed(pi.getVIndices()[0]));
+    }
+
+    @Test(groups = "1s")
+    public void testUnlink() {
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        IntVar x = VariableFactory.enumerated("x", 0, 10, solver);
+        Propagator<IntVar> pa = make(x, IntEventType.all());
+        Propagator<IntVar> pi = make(x, IntEventType.instantiation());
+        Propagator<IntVar> pb = make(x, IntEventType.boundAndInst());
+        pa.setActive();
+        pi.setActive();
+        pb.setActive();
+        env.worldPush();
+        x.unsubscribe(pb.getVIndices()[0], true);
+        x.unlink(pb);
+        Assert.assertEquals(x.getNbProps(), 2);
+        Assert.assertEquals(pb.getVIndices()[0], -1);
+        checkFirst(x, 0, 1, 1);
+        env.worldPop();
+        checkFirst(x, 0, 1, 1);
+        Assert.assertEquals(x.getPropagator(pi.getVIndices()[0]), pi);
+        Assert.assertEquals(x.getPropagator(pa.getVIndices()[0]), pa);
+    }
+
+    @Test(groups = "1s")
+    public void testPassive() throws ContradictionException {
+        for (PropagationEngineFactory pef : new PropagationEngineFactory[]{
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD,
+                PropagationEngineFactory.PROPAGATORDRIVEN_7QD_FLAT,
+                PropagationEngineFactory.TWOBUCKETPROPAGATIONENGINE}) {
+            Solver solver = new Solver();
+            IEnvironment env = solver.getEnvironment();
+            IntVar x = VariableFactory.enumerated("x", 0, 10, solver);
+            Propagator<IntVar> pa = make(x, IntEventType.all());
+            Propagator<IntVar> pi = make(x, IntEventType.instantiation());
+            Propagator<IntVar> pb = make(x, IntEventType.boundAndInst());
+            Propagator<IntVar> pc = make(x, IntEventType.boundAndInst());
+            solver.post(new Constraint("C", pa, pi, pb, pc));
+            solver.set(pef.make(solver));
+            solver.propagate();
+            env.worldPush();
+            pa.setPassive();
+            pb.setPassive();
+            // a passive propagator is unsubscribed the next time the variable would notify it
+            Assert.assertTrue(x.isSubscribed(pa.getVIndices()[0]), pef.name());
+            x.updateLowerBound(1, Cause.Null);
+            solver.propagate();
+            Assert.assertFalse(x.isSubscribed(pa.getVIndices()[0]), pef.name());
+            Assert.assertFalse(x.isSubscribed(pb.getVIndices()[0]), pef.name());
+            Assert.assertTrue(x.isSubscribed(pi.getVIndices()[0]), pef.name());
+            Assert.assertTrue(x.isSubscribed(pc.getVIndices()[0]), pef.name());
+            checkFirst(x, 2, 3, 4);
+            env.worldPop();
+            for (Propagator p : new Propagator[]{pa, pi, pb, pc}) {
+                Assert.assertTrue(p.isActive(), pef.name());
+                Assert.assertTrue(x.isSubscribed(p.getVIndices()[0]), pef.name());
+                Assert.assertEquals(x.getPropagator(p.getVIndices()[0]), p);
+            }
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testConstant() {
+        // a constant is shared by independent propagators, its list of propagators is never modified during search
+        Solver solver = new Solver();
+        IEnvironment env = solver.getEnvironment();
+        IntVar c = VariableFactory.fixed(3, solver);
+        Propagator<IntVar> pa = make(c, IntEventType.all());
+        Propagator<IntVar> pi = make(c, IntEventType.instantiation());
+        pa.setActive();
+        pi.setActive();
+        env.worldPush();
+        c.unsubscribe(pa.getVIndices()[0], true);
+        c.unsubscribe(pi.getVIndices()[0], false);
+        Assert.assertEquals(c.getPropagator(0), pa);
+        Assert.assertEquals(c.getPropagator(1), pi);
+        Assert.assertTrue(c.isSubscribed(pa.getVIndices()[0]));
+        Assert.assertTrue(c.isSubscribed(pi.getVIndices()[0]));
+        env.worldPop();
+    }
+
+    @Test(groups = "1s")
+    public void testClause() {
+        Random rnd = new Random();
+        for (int seed = 0; seed < 50; seed++) {
+            rnd.setSeed(seed);
+            int n = 8, m = 10;
+            int[][] lits = new int[m][3];
+            for (int c = 0; c < m; c++) {
+                for (int l = 0; l < 3; l++) {
+                    // the literal of the i^th variable is i+1, its negation -(i+1)
+                    lits[c][l] = (rnd.nextInt(n) + 1) * (rnd.nextBoolean() ? 1 : -1);
+                }
+            }
+            // brute force
+            int count = 0;
+            for (int t = 0; t < (1 << n); t++) {
+                boolean sat = true;
+                for (int c = 0; c < m && sat; c++) {
+                    boolean csat = false;
+                    for (int l = 0; l < 3; l++) {
+                        boolean val = ((t >> (Math.abs(lits[c][l]) - 1)) & 1) == 1;
+                        csat |= lits[c][l] > 0 ? val : !val;
+                    }
+                    sat = csat;
+                }
+                count += sat ? 1 : 0;
+            }
+            Solver solver = new Solver();
+            BoolVar[] bs = VariableFactory.boolArray("b", n, solver);
+            for (int c = 0; c < m; c++) {
+                ILogical[] ls = new ILogical[3];
+                for (int l = 0; l < 3; l++) {
+                    BoolVar b = bs[Math.abs(lits[c][l]) - 1];
+                    ls[l] = lits[c][l] > 0 ? b : VariableFactory.not(b);
+                }
+                solver.post(new Constraint("clause", new PropClause(LogOp.or(ls))));
+            }
+            Assert.assertEquals(solver.findAllSolutions(), count, "seed:" + seed);
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testBoolSum() {
+        Solver solver = new Solver();
+        BoolVar[] bs = VariableFactory.boolArray("b", 12, solver);
+        IntVar s = VariableFactory.bounded("s", 3, 5, solver);
+        solver.post(ICF.sum(bs, s));
+        solver.post(ICF.arithm(s, "!=", 4));
+        Assert.assertEquals(solver.findAllSolutions(), 220 + 792);
+    }
+}
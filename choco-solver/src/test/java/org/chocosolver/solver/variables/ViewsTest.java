@@ -29,10 +29,13 @@
 package org.chocosolver.solver.variables;
 
 import org.chocosolver.solver.Cause;
+import org.chocosolver.solver.Settings;
 import org.chocosolver.solver.Solver;
 import org.chocosolver.solver.constraints.Constraint;
 import org.chocosolver.solver.constraints.ICF;
 import org.chocosolver.solver.constraints.IntConstraintFactory;
+import org.chocosolver.solver.constraints.Propagator;
+import org.chocosolver.solver.constraints.PropagatorPriority;
 import org.chocosolver.solver.constraints.nary.sum.Scalar;
 import org.chocosolver.solver.constraints.set.SCF;
 import org.chocosolver.solver.constraints.ternary.Max;
@@ -40,6 +43,7 @@ import org.chocosolver.solver.exception.ContradictionException;
 import org.chocosolver.solver.search.strategy.ISF;
 import org.chocosolver.solver.search.strategy.IntStrategyFactory;
 import org.chocosolver.solver.search.strategy.SetStrategyFactory;
+import org.chocosolver.util.ESat;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -567,4 +571,91 @@ public class ViewsTest {
         Assert.assertTrue(x3.isInstantiated());
         Assert.assertEquals(x3.getValue(), 1);
     }
+
+    private static Solver withViews() {
+        Solver solver = new Solver();
+        solver.set(new Settings() {
+            @Override
+            public boolean enableViews() {
+                return true;
+            }
+        });
+        return solver;
+    }
+
+    @Test(groups = "1s")
+    public void testCoalescedEvents() throws ContradictionException {
+        Solver s = withViews();
+        IntVar x = VF.bounded("x", 0, 10, s);
+        IntVar v = VF.offset(x, 2);
+        IntVar w = VF.minus(v);
+        IntVar z = VF.scale(x, 3);
+        Constraint c = ICF.arithm(w, "<=", -5);
+        s.post(c);
+        s.post(ICF.arithm(z, "<=", 24));
+        s.propagate();
+        Assert.assertEquals(x.getLB(), 3);
+        Assert.assertEquals(x.getUB(), 8);
+        Assert.assertEquals(w.getLB(), -10);
+        Assert.assertEquals(w.getUB(), -5);
+        Assert.assertEquals(z.getLB(), 9);
+        // the modification made through the views is counted once, on the variable
+        Assert.assertEquals(c.getPropagator(0).nbPrunings, 1);
+    }
+
+    /**
+     * Decreases the upper bound of its first variable, x+1, to the upper bound of x, given by its second variable:
+     * reaches its fix-point, a failure, only if it is notified of its own modifications through its other variable.
+     */
+    private static class PropShift extends Propagator<IntVar> {
+
+        final int sign;
+
+        PropShift(IntVar xp1, IntVar x, int sign) {
+            super(new IntVar[]{xp1, x}, PropagatorPriority.BINARY, false);
+            this.sign = sign;
+        }
+
+        @Override
+        public void propagate(int evtmask) throws ContradictionException {
+            vars[0].updateUpperBound(sign > 0 ? vars[1].getUB() : -vars[1].getLB(), aCause);
+        }
+
+        @Override
+        public ESat isEntailed() {
+            return ESat.UNDEFINED;
+        }
+    }
+
+    @Test(groups = "1s")
+    public void testViewCauses() {
+        // a propagator modifying a variable through a view is notified through the variable
+        Solver s = withViews();
+        IntVar x = VF.bounded("x", 0, 10, s);
+        s.post(new Constraint("S", new PropShift(VF.offset(x, 1), x, 1)));
+        try {
+            s.propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+        // or through another view of the variable
+        s = withViews();
+        x = VF.bounded("x", 0, 10, s);
+        s.post(new Constraint("S", new PropShift(VF.offset(x, 1), VF.minus(x), -1)));
+        try {
+            s.propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+        // and a propagator modifying a variable is notified through its views
+        s = withViews();
+        x = VF.bounded("x", 0, 10, s);
+        IntVar y = VF.offset(x, -1);
+        s.post(new Constraint("S", new PropShift(x, y, 1)));
+        try {
+            s.propagate();
+            Assert.fail();
+        } catch (ContradictionException ignored) {
+        }
+    }
 }